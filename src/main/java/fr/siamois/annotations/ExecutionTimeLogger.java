@@ -2,8 +2,18 @@ package fr.siamois.annotations;
 
 import java.lang.annotation.*;
 
+/**
+ * Times the method with a Micrometer {@code Timer} named {@code siamois.method.execution}, tagged by method,
+ * institution and outcome, see {@code fr.siamois.utils.ExecutionTimeAspect}. The method must be called through its
+ * Spring bean.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface ExecutionTimeLogger {
-}
\ No newline at end of file
+
+    /**
+     * Value of the {@code method} tag; the simple name of the class and the name of the method when empty.
+     */
+    String value() default "";
+}
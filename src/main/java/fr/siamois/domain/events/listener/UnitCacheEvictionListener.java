@@ -0,0 +1,55 @@
+package fr.siamois.domain.events.listener;
+
+import fr.siamois.domain.models.events.UnitChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clears the caches computed from the units when units of their kind change. The caches are cleared once the
+ * transaction is committed, or right away outside of a transaction, so that a concurrent read cannot cache the
+ * state before the change again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnitCacheEvictionListener {
+
+    public static final String MY_ACTION_UNITS = "MyActionUnits";
+    public static final String ACTION_UNIT_HAS_CHILDREN_IN_INSTITUTION = "ActionUnitHasChildrenInInstitution";
+    public static final String INSTITUTION_HAS_ROOT_CHILDREN_AU = "InstitutionHasRootChildrenAU";
+    public static final String SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU = "SpatialUnitHasRootChildrenAU";
+    public static final String INSTITUTION_HAS_ROOT_CHILDREN_SU = "InstitutionHasRootChildrenSU";
+    public static final String PARENT_HAS_ROOT_CHILDREN_SU = "ParentHasRootChildrenSU";
+    public static final String INSTITUTION_HAS_ROOT_CHILDREN_RU = "InstitutionHasRootChildrenRU";
+    public static final String ACTION_HAS_ROOT_CHILDREN_RU = "ActionHasRootChildrenRU";
+
+    private static final Map<UnitChangeEvent.Kind, List<String>> CACHES_BY_KIND = new EnumMap<>(Map.of(
+            UnitChangeEvent.Kind.ACTION_UNIT, List.of(MY_ACTION_UNITS, ACTION_UNIT_HAS_CHILDREN_IN_INSTITUTION,
+                    INSTITUTION_HAS_ROOT_CHILDREN_AU, SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU),
+            // the spatial context links of the action units are removed with their spatial unit
+            UnitChangeEvent.Kind.SPATIAL_UNIT, List.of(INSTITUTION_HAS_ROOT_CHILDREN_SU, PARENT_HAS_ROOT_CHILDREN_SU,
+                    SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU),
+            UnitChangeEvent.Kind.RECORDING_UNIT, List.of(INSTITUTION_HAS_ROOT_CHILDREN_RU, ACTION_HAS_ROOT_CHILDREN_RU)
+    ));
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChange(UnitChangeEvent event) {
+        for (String name : CACHES_BY_KIND.get(event.getKind())) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        log.debug("Caches of {} cleared", event.getKind());
+    }
+}
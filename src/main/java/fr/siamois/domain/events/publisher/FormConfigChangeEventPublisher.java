@@ -0,0 +1,25 @@
+package fr.siamois.domain.events.publisher;
+
+import fr.siamois.domain.models.events.FormConfigChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class FormConfigChangeEventPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Publishes a FormConfigChangeEvent.
+     *
+     * @param projectId The id of the project whose configuration changed, null for every project.
+     */
+    public void publishEvent(@Nullable Long projectId) {
+        FormConfigChangeEvent event = new FormConfigChangeEvent(this, projectId);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+}
@@ -0,0 +1,25 @@
+package fr.siamois.domain.events.publisher;
+
+import fr.siamois.domain.models.events.PersonAccessChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PersonAccessChangeEventPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Publishes a PersonAccessChangeEvent.
+     *
+     * @param personId The id of the person whose profiles changed.
+     */
+    public void publishEvent(@NonNull Long personId) {
+        PersonAccessChangeEvent event = new PersonAccessChangeEvent(this, personId);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+}
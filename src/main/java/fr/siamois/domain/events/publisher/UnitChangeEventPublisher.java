@@ -0,0 +1,25 @@
+package fr.siamois.domain.events.publisher;
+
+import fr.siamois.domain.models.events.UnitChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class UnitChangeEventPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Publishes a UnitChangeEvent.
+     *
+     * @param kind The kind of the units that changed.
+     */
+    public void publishEvent(@NonNull UnitChangeEvent.Kind kind) {
+        UnitChangeEvent event = new UnitChangeEvent(this, kind);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+}
@@ -83,6 +83,13 @@ public class Document extends TraceableEntity implements ArkEntity {
     @Column(name = "md5_sum")
     protected String md5Sum;
 
+    /**
+     * SHA-256 of the original content. When set, the file is stored once in the content-addressed blob store and
+     * {@link #storedFileName} is the blob key; otherwise it is a legacy file stored per institution.
+     */
+    @Column(name = "sha256_sum", length = 64)
+    protected String sha256Sum;
+
     protected String storedFileName;
 
     public static final int MAX_FILE_NAME_LENGTH = 255;
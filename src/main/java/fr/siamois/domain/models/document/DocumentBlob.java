@@ -0,0 +1,28 @@
+package fr.siamois.domain.models.document;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A file of the content-addressed document store, shared by every {@link Document} with the same content.
+ * The key is the stored file name ({@code <sha256>.<extension>}) and {@code refCount} the number of documents
+ * pointing to it. The rows are maintained by {@link fr.siamois.domain.services.document.DocumentService}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "document_blob")
+public class DocumentBlob {
+
+    @Id
+    @Column(name = "blob_key", length = 128)
+    private String blobKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+}
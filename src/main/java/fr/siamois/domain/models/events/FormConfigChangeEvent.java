@@ -0,0 +1,20 @@
+package fr.siamois.domain.models.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the field configuration of the tables of a project changes: types configured, fields added,
+ * activated, reordered or removed. A null project means the change may concern every project, e.g. a field shared
+ * by several of them was renamed.
+ */
+public class FormConfigChangeEvent extends ApplicationEvent {
+
+    @Getter
+    private final Long projectId;
+
+    public FormConfigChangeEvent(Object source, Long projectId) {
+        super(source);
+        this.projectId = projectId;
+    }
+}
@@ -0,0 +1,19 @@
+package fr.siamois.domain.models.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the profiles of a person change, and with them the institutions and projects the person can
+ * access.
+ */
+public class PersonAccessChangeEvent extends ApplicationEvent {
+
+    @Getter
+    private final Long personId;
+
+    public PersonAccessChangeEvent(Object source, Long personId) {
+        super(source);
+        this.personId = personId;
+    }
+}
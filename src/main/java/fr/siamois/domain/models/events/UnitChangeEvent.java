@@ -0,0 +1,20 @@
+package fr.siamois.domain.models.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when units of a kind are created, updated, deleted or moved in their hierarchy.
+ */
+public class UnitChangeEvent extends ApplicationEvent {
+
+    public enum Kind {ACTION_UNIT, SPATIAL_UNIT, RECORDING_UNIT}
+
+    @Getter
+    private final Kind kind;
+
+    public UnitChangeEvent(Object source, Kind kind) {
+        super(source);
+        this.kind = kind;
+    }
+}
@@ -0,0 +1,15 @@
+package fr.siamois.domain.models.exceptions.api;
+
+/**
+ * A pagination cursor that can't be decoded, or that was made for another sort.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package fr.siamois.domain.models.recordingunit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of the stratigraphic closure of an action unit, incremented by each transaction that writes its pairs.
+ * Updating the row locks it until the transaction ends, which orders the writers of a same action unit, and tells
+ * {@link fr.siamois.domain.services.recordingunit.StratigraphicClosureService} whether the closure it holds in
+ * memory is still the last committed one.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stratigraphic_closure_version")
+public class StratigraphicClosureVersion {
+
+    @Id
+    @Column(name = "fk_action_unit_id")
+    private Long actionUnitId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+}
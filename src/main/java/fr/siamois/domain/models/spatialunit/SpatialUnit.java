@@ -98,7 +98,7 @@ public class SpatialUnit extends TraceableEntity implements ArkEntity {
     @JoinColumn(name = "fk_concept_category_id")
     protected Concept category;
 
-    @Column(name="geom",columnDefinition = "geometry")
+    @Column(name="geom",columnDefinition = "geometry(MultiPolygon,4326)")
     @JsonIgnore
     protected MultiPolygon geom;
 
@@ -0,0 +1,51 @@
+package fr.siamois.domain.models.vocabulary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Last response of the thesaurus API to a GET on an URL, with its validators : the next request on the URL is
+ * conditional, and a {@code 304 Not Modified} answer is served from here.
+ */
+@Data
+@Entity
+@Table(name = "thesaurus_http_response")
+@NoArgsConstructor
+public class ThesaurusHttpResponse {
+
+    public static final int MAX_URL_LENGTH = 2048;
+
+    @NonNull
+    @Id
+    @Column(name = "url", length = MAX_URL_LENGTH)
+    private String url;
+
+    @Nullable
+    @Column(name = "etag")
+    private String etag;
+
+    /** Raw {@code Last-Modified} header, sent back as is in {@code If-Modified-Since} */
+    @Nullable
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    /** SHA3-256 of the body, compared with the hashes stored on the field configs and the collections */
+    @NonNull
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @NonNull
+    @Column(name = "body", columnDefinition = "text")
+    private String body;
+
+    @Column(name = "fetched_at")
+    private OffsetDateTime fetchedAt;
+}
@@ -1,10 +1,13 @@
 package fr.siamois.domain.services.actionunit;
 
+import fr.siamois.annotations.ExecutionTimeLogger;
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.ValidationStatus;
 import fr.siamois.domain.models.actionunit.ActionCode;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.ark.Ark;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitAlreadyExistsException;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitNotFoundException;
 import fr.siamois.domain.models.exceptions.actionunit.FailedActionUnitSaveException;
@@ -37,9 +40,7 @@ import fr.siamois.mapper.ProfileMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -78,6 +79,7 @@ public class ActionUnitService implements ArkEntityService {
     private final RecordingUnitIdLabelRepository recordingUnitIdLabelRepository;
     private final ProfileService profileService;
     private final PersonProfileAssignmentService personProfileAssignmentService;
+    private final UnitChangeEventPublisher unitChangeEventPublisher;
     private final ProfileMapper profileMapper;
 
 
@@ -116,7 +118,6 @@ public class ActionUnitService implements ArkEntityService {
      * @param typeConceptDTO The concept type of the ActionUnit
      * @return The saved ActionUnit
      */
-    @CacheEvict(value = "MyActionUnits", allEntries = true)
     public ActionUnit saveNotTransactional(UserInfo info, ActionUnitDTO actionUnitDTO, ConceptDTO typeConceptDTO)
             throws ActionUnitAlreadyExistsException {
         ensureUniqueNameAndIdentifier(info, actionUnitDTO);
@@ -129,7 +130,9 @@ public class ActionUnitService implements ArkEntityService {
         applySpatialContext(actionUnitDTO, actionUnit);
 
         try {
-            return actionUnitRepository.save(actionUnit);
+            ActionUnit saved = actionUnitRepository.save(actionUnit);
+            unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.ACTION_UNIT);
+            return saved;
         } catch (RuntimeException e) {
             throw new FailedActionUnitSaveException(e.getMessage());
         }
@@ -197,7 +200,14 @@ public class ActionUnitService implements ArkEntityService {
         toSave.setCreatedBy(actionUnit.getCreatedBy());
         toSave.setCode(mainLocation.getCode());
         toSave.setCreatedByInstitution(actionUnit.getCreatedByInstitution());
-        return spatialUnitRepository.save(toSave);
+        return saveNewSpatialUnit(toSave);
+    }
+
+    private SpatialUnit saveNewSpatialUnit(SpatialUnit toSave) {
+        SpatialUnit saved = spatialUnitRepository.save(toSave);
+        // a new root spatial unit of the institution
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
+        return saved;
     }
 
     private void applySpatialContext(ActionUnitDTO actionUnitDTO, ActionUnit actionUnit) {
@@ -219,7 +229,7 @@ public class ActionUnitService implements ArkEntityService {
             toSave.setCategory(conceptMapper.invertConvert(summary.getCategory()));
             toSave.setCreatedBy(actionUnit.getCreatedBy());
             toSave.setCreatedByInstitution(actionUnit.getCreatedByInstitution());
-            return Optional.of(spatialUnitRepository.save(toSave));
+            return Optional.of(saveNewSpatialUnit(toSave));
         }
         return spatialUnitRepository.findById(summary.getId());
     }
@@ -233,7 +243,7 @@ public class ActionUnitService implements ArkEntityService {
      * @return The saved ActionUnit
      */
     @Transactional(rollbackFor = ActionUnitAlreadyExistsException.class)
-    @CacheEvict(value = "MyActionUnits", allEntries = true)
+    @ExecutionTimeLogger
     public ActionUnitDTO save(UserInfo info, ActionUnitDTO actionUnit, ConceptDTO typeConcept)
             throws ActionUnitAlreadyExistsException {
         ActionUnitDTO savedDTO = actionUnitMapper.convert(saveNotTransactional(info, actionUnit, typeConcept));
@@ -299,19 +309,12 @@ public class ActionUnitService implements ArkEntityService {
      * @return The saved ActionUnit
      */
     @Override
-    @Caching(evict = {
-            @CacheEvict({
-                    "InstitutionHasRootChildrenAU",
-                    "InstitutionHasRootChildrenSU",
-                    "ActionUnitHasChildrenInInstitution"
-            }),
-            @CacheEvict(value = "MyActionUnits", allEntries = true)
-    })
     public AbstractEntityDTO save(AbstractEntityDTO toSave) {
         try {
-            return actionUnitMapper.convert(
-                    actionUnitRepository.save(Objects.requireNonNull(
-                            actionUnitMapper.invertConvert((ActionUnitDTO) toSave))));
+            ActionUnit saved = actionUnitRepository.save(Objects.requireNonNull(
+                    actionUnitMapper.invertConvert((ActionUnitDTO) toSave)));
+            unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.ACTION_UNIT);
+            return actionUnitMapper.convert(saved);
         } catch (DataIntegrityViolationException e) {
             throw new FailedActionUnitSaveException(e.getMessage());
         }
@@ -548,7 +551,7 @@ public class ActionUnitService implements ArkEntityService {
         return actionUnitRepository.existsRootChildrenByInstitution(institutionId);
     }
 
-    @Cacheable("InstitutionHasRootChildrenSU")
+    @Cacheable("SpatialUnitHasRootChildrenAU")
     public boolean existsRootChildrenByRelatedSpatialUnit(Long spatialUnitId) {
         return actionUnitRepository.existsRootChildrenByRelatedSpatialUnit(spatialUnitId);
     }
@@ -573,6 +576,7 @@ public class ActionUnitService implements ArkEntityService {
         return actionUnitRepository.isRoot(actionUnitId, institutionId);
     }
 
+    @ExecutionTimeLogger
     public Page<ActionUnitDTO> searchActionUnits(InstitutionDTO institutionDTO, FilterDTO filters, Pageable pageable) {
         Specification<ActionUnit> specs = prepareSpecs(institutionDTO, filters);
         Page<ActionUnit> res = actionUnitRepository.findAll(specs, pageable);
@@ -671,6 +675,7 @@ public class ActionUnitService implements ArkEntityService {
         return new HashSet<>(resolveAncestorClosure(institutionDTO, filters));
     }
 
+    @ExecutionTimeLogger
     public List<ActionUnitDTO> findMatchingInInstitutionByName(InstitutionDTO institution, String query, int limit) {
         Specification<ActionUnit> specs = ActionUnitSpec.belongsToInstitution(institution.getId());
         specs = specs.and(ActionUnitSpec.nameContaining(query));
@@ -691,6 +696,7 @@ public class ActionUnitService implements ArkEntityService {
      */
     // TODO [ARCH] Définir avec Julien si on décide que les service n'expose que des DTOs domaine et si c'est le rôle des package ui de mapper vers le DTO API
     @Transactional(readOnly = true)
+    @ExecutionTimeLogger
     public Page<AccessibleProjectForApi> findAccessibleProjects(
             Long personId,
             Set<Long> accessibleInstitutionIds,
@@ -767,14 +773,6 @@ public class ActionUnitService implements ArkEntityService {
      *
      * @throws IllegalStateException si le projet n'est pas supprimable
      */
-    @Caching(evict = {
-            @CacheEvict({
-                    "InstitutionHasRootChildrenAU",
-                    "InstitutionHasRootChildrenSU",
-                    "ActionUnitHasChildrenInInstitution"
-            }),
-            @CacheEvict(value = "MyActionUnits", allEntries = true)
-    })
     public void deleteProjectWhenEmpty(long actionUnitId) {
         if (recordingUnitRepository.countByActionUnit_Id(actionUnitId) > 0) {
             throw new IllegalStateException("Impossible de supprimer : le projet contient des unités d'enregistrement");
@@ -792,6 +790,7 @@ public class ActionUnitService implements ArkEntityService {
         actionUnitRepository.deleteSpatialContextLinksForActionUnit(actionUnitId);
         documentRepository.deleteAllActionUnitDocumentLinksByActionUnitId(actionUnitId);
         actionUnitRepository.deleteById(actionUnitId);
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.ACTION_UNIT);
     }
 
     private ActionUnitDTO loadProjectDtoForLookupKey(String idOrKey, Set<Long> accessibleInstitutionIds) {
@@ -1,17 +1,25 @@
 package fr.siamois.domain.services.dataimport;
 
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.misc.ImportProgress;
 import fr.siamois.dto.entity.ActionUnitDTO;
-import fr.siamois.infrastructure.database.initializer.seeder.ImportSpecs;
 import fr.siamois.infrastructure.database.initializer.seeder.ProjectDataSeeder;
+import fr.siamois.infrastructure.dataimport.ImportPlan;
 import fr.siamois.infrastructure.dataimport.ImportResult;
+import fr.siamois.infrastructure.dataimport.ImportSchema;
 import fr.siamois.infrastructure.dataimport.OOXMLImportService;
+import fr.siamois.infrastructure.dataimport.SheetMetadata;
+import fr.siamois.infrastructure.dataimport.StreamingWorkbook;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 
 /**
@@ -19,19 +27,31 @@ import java.util.function.Consumer;
  * for live status. Wraps the existing, still-synchronous {@link OOXMLImportService}/{@link ProjectDataSeeder}
  * rather than making them {@code @Async} directly, since both are also called synchronously elsewhere
  * (e.g. startup dataset seeding).
+ * <p>
+ * Both phases stream the uploaded file ({@link StreamingWorkbook}) instead of loading it, so that their memory does
+ * not grow with the size of the file: the parse phase only keeps the errors and the spec counts, and the persist
+ * phase reads the file again and commits it chunk by chunk.
+ * <p>
+ * The chunks of the tables that do not depend on each other ({@link ImportSchema#PERSIST_DEPENDENCIES}) are
+ * committed concurrently on {@code importWorkerExecutor}, at most {@link #MAX_CHUNKS_IN_FLIGHT} at a time.
  */
 @Service
 @RequiredArgsConstructor
 public class ImportAsyncRunner {
 
+    /** Chunks read from the file and not committed yet, bounding the memory of the persist phase */
+    public static final int MAX_CHUNKS_IN_FLIGHT = 4;
+
     private final OOXMLImportService importService;
     private final ProjectDataSeeder seeder;
+    private final Executor importWorkerExecutor;
+    private final UnitChangeEventPublisher unitChangeEventPublisher;
 
     @Async("importTaskExecutor")
-    public void parseAsync(byte[] fileBytes, OOXMLImportService.ImportScope scope, ActionUnitDTO project,
-                            ImportProgress progress, Consumer<ImportResult> onSuccess, Consumer<Exception> onError) {
-        try (InputStream is = new ByteArrayInputStream(fileBytes)) {
-            ImportResult result = importService.importFromExcel(is, scope, project, progress);
+    public void parseAsync(Path file, ActionUnitDTO project, ImportProgress progress,
+                           Consumer<ImportResult> onSuccess, Consumer<Exception> onError) {
+        try {
+            ImportResult result = importService.validateStreaming(file, project, progress);
             // Bean field writes must happen before the volatile progress.complete() write below,
             // so the polling thread is guaranteed (via the JMM happens-before edge on that volatile
             // write) to see them once it observes phase == DONE — not just eventually.
@@ -43,16 +63,46 @@ public class ImportAsyncRunner {
         }
     }
 
+    /**
+     * Persists the project tables of the file chunk by chunk, each chunk in its own transaction; the progress
+     * counts the rows of the committed chunks.
+     */
     @Async("importTaskExecutor")
-    public void persistAsync(ImportSpecs specs, ActionUnitDTO project, ImportProgress progress,
-                              Runnable onSuccess, Consumer<Exception> onError) {
+    public void persistAsync(Path file, ActionUnitDTO project, ImportProgress progress,
+                             Runnable onSuccess, Consumer<Exception> onError) {
         try {
-            seeder.seedAll(specs, project, progress);
+            persistChunks(file, project, progress);
             onSuccess.run();
             progress.complete();
         } catch (Exception e) {
             onError.accept(e);
             progress.fail(e.getMessage());
+        } finally {
+            // the chunks committed before a failure are kept
+            for (UnitChangeEvent.Kind kind : UnitChangeEvent.Kind.values()) {
+                unitChangeEventPublisher.publishEvent(kind);
+            }
+        }
+    }
+
+    private void persistChunks(Path file, ActionUnitDTO project, ImportProgress progress) throws IOException {
+        ImportPlan plan = new ImportPlan(ImportSchema.PERSIST_DEPENDENCIES, importWorkerExecutor);
+        Semaphore inFlight = new Semaphore(MAX_CHUNKS_IN_FLIGHT);
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(file)) {
+            SheetMetadata meta = importService.readSheetMetadata(workbook.skeleton());
+            progress.start(ImportProgress.Phase.PERSISTING, importService.countProjectRows(workbook, meta));
+            importService.streamProjectSpecs(workbook, meta, project, new ArrayList<>(), new ImportProgress(),
+                    (tableId, chunk, rows) -> {
+                        // stop reading once a chunk has failed
+                        plan.throwIfFailed();
+                        inFlight.acquireUninterruptibly();
+                        plan.execute(tableId, () -> {
+                            seeder.seedChunk(chunk, project);
+                            progress.advance(rows);
+                        }).whenComplete((done, failure) -> inFlight.release());
+                    });
+        } finally {
+            plan.await();
         }
     }
 }
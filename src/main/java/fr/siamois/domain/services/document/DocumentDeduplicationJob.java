@@ -0,0 +1,66 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.infrastructure.database.repositories.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Moves the files stored per institution, before the content-addressed store, into it. Identical files are then
+ * stored once. Documents are processed by pages, each one in its own transaction, so the job can be interrupted
+ * and resumed at the next run.
+ * <p>
+ * The job is scheduled on every instance: a run holds a database lock until it ends, and the runs of the other
+ * instances meanwhile do nothing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentDeduplicationJob {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Scheduled(cron = "${siamois.documents.deduplication-cron:0 30 2 * * *}")
+    public void deduplicateStoredDocuments() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!documentRepository.tryLockDeduplication()) {
+                log.debug("Document deduplication already running on another instance");
+                return;
+            }
+            moveStoredDocuments();
+        });
+    }
+
+    private void moveStoredDocuments() {
+        long lastId = 0;
+        int moved = 0;
+        List<Long> page;
+        do {
+            page = documentRepository.findIdsWithoutSha256SumAfter(lastId, PageRequest.of(0, PAGE_SIZE));
+            for (Long documentId : page) {
+                lastId = documentId;
+                try {
+                    if (documentService.moveToBlobStore(documentId)) {
+                        moved++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error("Could not move the file of document {} to the blob store", documentId, e);
+                }
+            }
+        } while (page.size() == PAGE_SIZE);
+        if (moved > 0) {
+            log.info("{} document files moved to the blob store", moved);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.domain.models.document.Document;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Generates the derivatives of an uploaded document (thumbnails) on a background thread, so the upload doesn't
+ * wait for them. Wraps {@link DocumentThumbnailService}, which is also called synchronously when a thumbnail is
+ * requested before it was generated.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentDerivativeRunner {
+
+    private final DocumentThumbnailService thumbnailService;
+
+    @Async("derivativeTaskExecutor")
+    public void generateAsync(Document document) {
+        if (!thumbnailService.supportsThumbnail(document)) {
+            return;
+        }
+        try {
+            thumbnailService.generateThumbnails(document);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate the thumbnails of document {}", document.getId(), e);
+        }
+    }
+}
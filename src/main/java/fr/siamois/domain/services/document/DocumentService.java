@@ -8,8 +8,12 @@ import fr.siamois.domain.models.exceptions.InvalidFileTypeException;
 import fr.siamois.domain.models.institution.Institution;
 import fr.siamois.domain.services.ArkEntityService;
 import fr.siamois.domain.services.document.compressor.FileCompressor;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.*;
+import fr.siamois.infrastructure.database.repositories.DocumentBlobRepository;
 import fr.siamois.infrastructure.database.repositories.DocumentRepository;
+import fr.siamois.infrastructure.database.repositories.specs.DocumentSpec;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetSpec;
 import fr.siamois.infrastructure.files.DocumentStorage;
 import fr.siamois.mapper.InstitutionMapper;
 import fr.siamois.mapper.PersonMapper;
@@ -18,12 +22,26 @@ import fr.siamois.utils.DocumentUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.tomcat.util.http.fileupload.InvalidFileNameException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.MimeType;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -49,6 +67,9 @@ public class DocumentService implements ArkEntityService {
     private static final int MAX_GENERATIONS = 100;
     private final DocumentStorage documentStorage;
     private final Collection<FileCompressor> fileCompressors;
+    private final DocumentBlobRepository documentBlobRepository;
+    private final DocumentDerivativeRunner documentDerivativeRunner;
+    private final PlatformTransactionManager transactionManager;
 
 
 
@@ -101,24 +122,29 @@ public class DocumentService implements ArkEntityService {
      * @throws InvalidFileSizeException if the file size exceeds the allowed limit
      * @throws IOException              if an I/O error occurs during file processing
      */
+    @Transactional
     public Document saveFile(UserInfo userInfo, Document document, InputStream fileInputStream, String contextPath) throws InvalidFileTypeException, InvalidFileSizeException, IOException {
         log.trace("Started to upload document {} to {}", document.getFileName(), userInfo.getInstitution().getId());
 
-        try (BufferedInputStream bufferedInputStream = new BufferedInputStream(fileInputStream)) {
+        // The checksum is computed while the file is written, the content is never held in memory
+        MessageDigest md5 = DigestUtils.getMd5Digest();
+        try (DigestInputStream digestInputStream = new DigestInputStream(new BufferedInputStream(fileInputStream), md5)) {
             checkFileData(document);
 
-            document.setMd5Sum(DocumentUtils.md5(bufferedInputStream));
             document.setFileCode(generateFileInternalCode());
             document.setCreatedBy(personMapper.invertConvert(userInfo.getUser()));
             document.setCreatedByInstitution(institutionMapper.invertConvert(userInfo.getInstitution()));
             document.setUrl(String.format("%s/content/%s", contextPath, document.contentFileName()));
 
-            documentStorage.save(userInfo, document, bufferedInputStream);
+            documentStorage.save(document, digestInputStream, this::reserveBlob);
         }
+        document.setMd5Sum(Hex.encodeHexString(md5.digest()));
 
         log.trace("Finished upload document {} to {}", document.getFileName(), userInfo.getInstitution().getId());
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        afterCommit(() -> startDerivatives(saved));
+        return saved;
     }
 
     void checkFileData(Document document) throws InvalidFileTypeException, InvalidFileSizeException {
@@ -177,6 +203,15 @@ public class DocumentService implements ArkEntityService {
         return documentRepository.findById(id);
     }
 
+    /**
+     * Documents persistés par identifiants techniques. Les identifiants inconnus sont ignorés.
+     */
+    public List<Document> findAllByIds(Collection<Long> ids) {
+        List<Document> documents = new ArrayList<>();
+        documentRepository.findAllById(ids).forEach(documents::add);
+        return documents;
+    }
+
     /**
      * Finds documents associated with a specific spatial unit.
      *
@@ -197,6 +232,21 @@ public class DocumentService implements ArkEntityService {
         return documentRepository.findDocumentsByActionUnit(actionUnit.getId());
     }
 
+    /**
+     * Finds a page of the documents associated with an action unit, ordered by id, after a cursor (keyset
+     * pagination).
+     *
+     * @param actionUnit the action unit for which documents are to be found
+     * @param cursor     the cursor of the previous page, null or blank for the first page
+     * @param limit      the size of the page
+     * @return the page of documents and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public KeysetPage<Document> findForActionUnitAfter(ActionUnitDTO actionUnit, String cursor, int limit) {
+        return KeysetSpec.findPage(documentRepository, DocumentSpec.documentOfActionUnit(actionUnit.getId()),
+                Sort.by(Sort.Direction.ASC, KeysetSpec.ID), cursor, limit, documents -> documents);
+    }
+
     /**
      * Finds documents associated with a specific recording unit.
      *
@@ -264,13 +314,7 @@ public class DocumentService implements ArkEntityService {
      * @return an Optional containing the InputStream if found, or empty if not found
      */
     public Optional<InputStream> findInputStreamOfDocument(Document document) {
-        Optional<byte[]> result = documentStorage.findStreamOf(document);
-        if (result.isEmpty())
-            return Optional.empty();
-
-        ByteArrayInputStream bais = new ByteArrayInputStream(result.get());
-
-        return Optional.of(bais);
+        return documentStorage.findStreamOf(document);
     }
 
     /**
@@ -288,10 +332,111 @@ public class DocumentService implements ArkEntityService {
         documentRepository.deleteSpecimenDocumentLinks(id);
         documentRepository.deleteSpecimenStudyDocumentLinks(id);
         documentRepository.deleteRuStudyDocumentLinks(id);
-        documentStorage.deleteStoredFile(document);
+        if (document.getSha256Sum() == null) {
+            documentStorage.deleteStoredFile(document);
+        } else {
+            releaseBlob(document.getStoredFileName());
+        }
         documentRepository.delete(document);
     }
 
+    /**
+     * Counts one more reference to a blob, before the store looks for its file. The blob stays locked until the
+     * transaction ends, so it can not be deleted before this reference is committed. If the transaction rolls back,
+     * the file it may have published is deleted unless another document references it.
+     */
+    private void reserveBlob(String blobKey) {
+        documentBlobRepository.lock(blobKey);
+        documentBlobRepository.acquire(blobKey);
+        afterRollback(() -> deleteBlobIfUnreferenced(blobKey));
+    }
+
+    private void releaseBlob(String blobKey) {
+        documentBlobRepository.lock(blobKey);
+        documentBlobRepository.release(blobKey);
+        if (documentBlobRepository.deleteIfUnreferenced(blobKey) == 0) {
+            return;
+        }
+        afterCommit(() -> deleteBlobIfUnreferenced(blobKey));
+    }
+
+    /**
+     * Deletes the file of a blob in a transaction of its own, while holding its lock, unless an identical upload
+     * committed a reference to it meanwhile. An upload still running waits for the lock before looking for the file,
+     * and publishes it again if it was deleted.
+     */
+    private void deleteBlobIfUnreferenced(String blobKey) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            documentBlobRepository.lock(blobKey);
+            if (!documentBlobRepository.existsById(blobKey)) {
+                documentStorage.deleteBlob(blobKey);
+            }
+        });
+    }
+
+    /**
+     * Moves the file of a document saved before the content-addressed store into it, in a transaction of its own.
+     * Identical files end up stored once; the legacy file is deleted when the transaction commits. The document is
+     * read again and locked, so that a document deleted or already moved meanwhile is left as it is.
+     *
+     * @param documentId the id of a document without {@code sha256Sum}
+     * @return true if the document now points to a blob, false if it is gone, already moved or has no stored file
+     * @throws IOException if an I/O error occurs while copying the file
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean moveToBlobStore(Long documentId) throws IOException {
+        Optional<Document> locked = documentRepository.findByIdForUpdate(documentId);
+        if (locked.isEmpty() || locked.get().getSha256Sum() != null || locked.get().getStoredFileName() == null) {
+            return false;
+        }
+        Document document = locked.get();
+        Optional<Path> legacyFile = documentStorage.copyToBlobStore(document, this::reserveBlob);
+        if (legacyFile.isEmpty()) {
+            return false;
+        }
+        documentRepository.save(document);
+        afterCommit(() -> documentStorage.deleteLegacyFile(legacyFile.get()));
+        return true;
+    }
+
+    private void startDerivatives(Document document) {
+        try {
+            documentDerivativeRunner.generateAsync(document);
+        } catch (TaskRejectedException e) {
+            // The thumbnails will be generated when first requested
+            log.warn("Derivative generation queue full, skipped document {}", document.getId());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
     /**
      * Returns the maximum file size allowed for uploads. This limit is set in the application properties.
      *
@@ -323,8 +468,7 @@ public class DocumentService implements ArkEntityService {
      * @throws IOException if an I/O error occurs while reading the InputStream
      */
     public String getMD5Sum(InputStream inputStream) throws IOException {
-        BufferedInputStream bis = new BufferedInputStream(inputStream);
-        return DocumentUtils.md5(bis);
+        return DigestUtils.md5Hex(inputStream);
     }
 
     /**
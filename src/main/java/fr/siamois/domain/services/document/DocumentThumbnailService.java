@@ -0,0 +1,149 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.domain.models.document.Document;
+import fr.siamois.infrastructure.files.DocumentStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Generates the thumbnails of image documents, so that document lists don't load the full-resolution originals.
+ * Each thumbnail fits in a square of one of the {@link #SIZES} and is stored as JPEG by {@link DocumentStorage}.
+ * Only the raster formats readable by {@link ImageIO} are supported; other documents (PDF, SVG, ...) have none.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentThumbnailService {
+
+    /**
+     * Sizes of the generated thumbnails, in pixels, in increasing order.
+     */
+    public static final List<Integer> SIZES = List.of(128, 512);
+
+    private final DocumentStorage documentStorage;
+
+    /**
+     * @param document the document
+     * @return true if thumbnails can be generated for the document
+     */
+    public boolean supportsThumbnail(Document document) {
+        String mimeType = document.getMimeType();
+        return mimeType != null && mimeType.startsWith("image/")
+                && ImageIO.getImageReadersByMIMEType(mimeType).hasNext();
+    }
+
+    /**
+     * Returns the smallest generated size at least as large as the requested one, or the largest size.
+     *
+     * @param requestedSize the requested size, in pixels
+     * @return one of the {@link #SIZES}
+     */
+    public static int thumbnailSize(int requestedSize) {
+        for (int size : SIZES) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return SIZES.get(SIZES.size() - 1);
+    }
+
+    /**
+     * Finds the thumbnail of a document, generating the thumbnails if they don't exist yet.
+     *
+     * @param document      the document
+     * @param requestedSize the requested size, in pixels
+     * @return the thumbnail, or empty if the document doesn't support thumbnails or its file is missing
+     * @throws IOException if the thumbnails can't be generated
+     */
+    public Optional<File> findThumbnail(Document document, int requestedSize) throws IOException {
+        int size = thumbnailSize(requestedSize);
+        Optional<File> thumbnail = documentStorage.findThumbnail(document, size);
+        if (thumbnail.isPresent() || !supportsThumbnail(document)) {
+            return thumbnail;
+        }
+        generateThumbnails(document);
+        return documentStorage.findThumbnail(document, size);
+    }
+
+    /**
+     * Generates the thumbnails of every size. The image is decoded once, subsampled while reading so that a large
+     * photo is never fully decoded.
+     *
+     * @param document an image document
+     * @throws IOException if the file can't be read or the thumbnails can't be written
+     */
+    public void generateThumbnails(Document document) throws IOException {
+        Optional<InputStream> content = documentStorage.findStreamOf(document);
+        if (content.isEmpty()) {
+            return;
+        }
+        BufferedImage image;
+        try (InputStream inputStream = content.get()) {
+            image = readSubsampled(inputStream, SIZES.get(SIZES.size() - 1));
+        }
+        if (image == null) {
+            log.warn("No image reader for document {}", document.getId());
+            return;
+        }
+        for (int size : SIZES) {
+            documentStorage.saveThumbnail(document, size, scale(image, size));
+        }
+    }
+
+    private static BufferedImage readSubsampled(InputStream inputStream, int maxSize) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                int largestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Keep at least twice the largest thumbnail size, for the quality of the final scaling
+                int subsampling = Math.max(1, largestSide / (2 * maxSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            // JPEG has no transparency: transparent pixels become white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
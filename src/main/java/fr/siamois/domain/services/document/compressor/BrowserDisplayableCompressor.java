@@ -7,6 +7,9 @@ import org.springframework.util.MimeType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 @Service
 @Order(1)
@@ -18,9 +21,14 @@ public class BrowserDisplayableCompressor implements FileCompressor {
                 || mimeType.toString().equalsIgnoreCase("application/pdf");
     }
 
+    /**
+     * Browser displayable files are stored as is
+     * @param inputStream The file input stream
+     * @param target The stored file
+     */
     @Override
-    public byte[] compress(InputStream inputStream) throws IOException {
-        return inputStream.readAllBytes();
+    public void compress(InputStream inputStream, Path target) throws IOException {
+        Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
     }
 
     @Override
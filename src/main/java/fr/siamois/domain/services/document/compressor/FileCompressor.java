@@ -5,6 +5,7 @@ import org.springframework.util.MimeType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Interface for file compression services.
@@ -22,13 +23,13 @@ public interface FileCompressor {
     boolean isMatchingCompressor(MimeType mimeType);
 
     /**
-     * Compresses the content of the given InputStream.
+     * Compresses the content of the given InputStream into the target file, without holding the content in memory.
      *
      * @param inputStream the InputStream containing the file content to compress
-     * @return a byte array containing the compressed content
+     * @param target      the file to write, replaced if it exists
      * @throws IOException if an I/O error occurs during compression
      */
-    byte[] compress(InputStream inputStream) throws IOException;
+    void compress(InputStream inputStream, Path target) throws IOException;
 
     /**
      * Returns the encoding types supported by this compressor.
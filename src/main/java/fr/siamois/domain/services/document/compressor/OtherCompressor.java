@@ -5,15 +5,21 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MimeType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.zip.GZIPOutputStream;
 
 @Service
 @Order
 public class OtherCompressor implements FileCompressor {
 
+    public static final String STORED_EXTENSION = ".gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Override
     public boolean isMatchingCompressor(MimeType mimeType) {
         return true;
@@ -22,19 +28,14 @@ public class OtherCompressor implements FileCompressor {
     /**
      * Use GZIP compression for any other file
      * @param inputStream The file input stream
-     * @return The compressed byte array
+     * @param target The compressed file
      */
     @Override
-    public byte[] compress(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = inputStream.read(buffer)) != -1) {
-                gzipOutputStream.write(buffer, 0, len);
-            }
+    public void compress(InputStream inputStream, Path target) throws IOException {
+        try (OutputStream fileOutputStream = Files.newOutputStream(target);
+             GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream, BUFFER_SIZE)) {
+            inputStream.transferTo(gzipOutputStream);
         }
-        return byteArrayOutputStream.toByteArray();
     }
 
     @Override
@@ -45,7 +46,7 @@ public class OtherCompressor implements FileCompressor {
 
     @Override
     public void updateStoredFilename(Document document) {
-        document.setStoredFileName(document.getFileCode() + ".gzip");
+        document.setStoredFileName(document.getFileCode() + STORED_EXTENSION);
     }
 
 }
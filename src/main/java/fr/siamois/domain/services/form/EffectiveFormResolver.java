@@ -1,5 +1,8 @@
 package fr.siamois.domain.services.form;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.siamois.domain.models.events.FormConfigChangeEvent;
 import fr.siamois.domain.models.form.customform.CustomFormComposer;
 import fr.siamois.domain.models.settings.tableconfig.ConfigurableTable;
 import fr.siamois.domain.models.settings.tableconfig.TypeFieldFormConfig;
@@ -8,10 +11,15 @@ import fr.siamois.ui.form.dto.CustomColUiDto;
 import fr.siamois.ui.form.dto.FormUiDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +29,11 @@ import java.util.stream.Collectors;
  * This is the single implementation of the logic single-item panels (e.g.
  * {@code RecordingUnitPanel}) and the OpenAPI services both rely on, so a project's configured
  * form looks the same everywhere it's resolved.
+ * <p>
+ * Resolved forms are kept per base form, project, table and type, stamped with the version of the project's
+ * configuration: a {@link FormConfigChangeEvent} bumps the version once its transaction is committed, and the forms
+ * of the previous version are resolved again on their next use. Every row of a table with the same type therefore
+ * shares one form, whose layout can't be modified.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +41,34 @@ public class EffectiveFormResolver {
 
     private final TableFieldConfigService tableFieldConfigService;
 
+    /** The base forms are shared constants, compared by identity */
+    private record BaseForm(FormUiDto form) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BaseForm other && other.form == form;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(form);
+        }
+    }
+
+    private record Key(BaseForm base, long projectId, ConfigurableTable table, Long typeConceptId) {
+    }
+
+    private record Stamped(long version, FormUiDto form) {
+    }
+
+    private final AtomicLong allProjectsVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> projectVersions = new ConcurrentHashMap<>();
+
+    // expires for the changes made by the other instances of the application
+    private final Cache<Key, Stamped> forms = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
     /**
      * @param baseForm      the system form to start from, left untouched
      * @param projectId     the project (action unit) the configuration is scoped to
@@ -37,6 +78,25 @@ public class EffectiveFormResolver {
      * additional fields for that type
      */
     public FormUiDto resolveEffectiveForm(FormUiDto baseForm, Long projectId, ConfigurableTable table, Long typeConceptId) {
+        if (projectId == null) {
+            return compose(baseForm, null, table, typeConceptId);
+        }
+        // read before the configuration: a change committed meanwhile leaves this form on an outdated version
+        long version = versionOf(projectId);
+        Key key = new Key(new BaseForm(baseForm), projectId, table, typeConceptId);
+        Stamped cached = forms.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return cached.form();
+        }
+        FormUiDto form = compose(baseForm, projectId, table, typeConceptId);
+        if (form != baseForm) {
+            form.setLayout(List.copyOf(form.getLayout()));
+        }
+        forms.put(key, new Stamped(version, form));
+        return form;
+    }
+
+    private FormUiDto compose(FormUiDto baseForm, Long projectId, ConfigurableTable table, Long typeConceptId) {
         Set<String> inactive = tableFieldConfigService.getFieldsConfig(projectId, table, typeConceptId).getFields().stream()
                 .filter(field -> !field.isActive())
                 .map(TypeFieldFormConfig::getValueBinding)
@@ -49,4 +109,18 @@ public class EffectiveFormResolver {
                 .toList();
         return CustomFormComposer.withAdditionalFields(base, "Champs additionnels", additional);
     }
+
+    /** Both counters only grow, so their sum changes with either of them */
+    private long versionOf(long projectId) {
+        return allProjectsVersion.get() + projectVersions.computeIfAbsent(projectId, id -> new AtomicLong()).get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFormConfigChange(FormConfigChangeEvent event) {
+        if (event.getProjectId() == null) {
+            allProjectsVersion.incrementAndGet();
+        } else {
+            projectVersions.computeIfAbsent(event.getProjectId(), id -> new AtomicLong()).incrementAndGet();
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package fr.siamois.domain.services.form;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bindable system fields of an entity class, with their getter and setter compiled once into method handles.
+ * <p>
+ * The classes list their fields with a {@code getBindableFieldNames} method, static or not, whose result is the same
+ * for every instance : it is read on the first entity of the class, then kept with the accessors. The binding of a
+ * form no longer introspects the class for every field of every row.
+ */
+public final class FieldBindings {
+
+    private static final FieldBindings NONE = new FieldBindings(List.of(), Map.of(), Map.of());
+    private static final Map<Class<?>, FieldBindings> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final List<String> names;
+    private final Set<String> bindable;
+    private final Map<String, MethodHandle> getters;
+    private final Map<String, MethodHandle> setters;
+
+    private FieldBindings(List<String> names, Map<String, MethodHandle> getters, Map<String, MethodHandle> setters) {
+        this.names = names;
+        this.bindable = Set.copyOf(names);
+        this.getters = getters;
+        this.setters = setters;
+    }
+
+    /**
+     * The bindings of the class of the entity; none if the entity is null or its class lists no field.
+     */
+    @NonNull
+    public static FieldBindings of(@Nullable Object entity) {
+        if (entity == null) {
+            return NONE;
+        }
+        return REGISTRY.computeIfAbsent(entity.getClass(), type -> compile(type, entity));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldBindings compile(Class<?> type, Object entity) {
+        List<String> names;
+        try {
+            Method method = type.getMethod("getBindableFieldNames");
+            names = List.copyOf((List<String>) method.invoke(entity));
+        } catch (Exception e) {
+            return NONE;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Map<String, MethodHandle> getters = new HashMap<>();
+        Map<String, MethodHandle> setters = new HashMap<>();
+        for (String name : names) {
+            try {
+                // same accessors as the JavaBeans introspection: is/get and set of the property
+                PropertyDescriptor pd = new PropertyDescriptor(name, type);
+                getters.put(name, lookup.unreflect(pd.getReadMethod()).asType(GETTER));
+                setters.put(name, lookup.unreflect(pd.getWriteMethod()).asType(SETTER));
+            } catch (IntrospectionException | IllegalAccessException e) {
+                // not bound, as the read or write of the field would fail
+            }
+        }
+        return new FieldBindings(names, Map.copyOf(getters), Map.copyOf(setters));
+    }
+
+    /**
+     * The names of the bindable fields, in the order of the class.
+     */
+    @NonNull
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean isBindable(@Nullable String name) {
+        return name != null && bindable.contains(name);
+    }
+
+    /**
+     * @return the value of the field, null if the field can't be read or its getter throws an exception; the errors
+     * of the JVM are not caught
+     */
+    @Nullable
+    public Object get(@NonNull Object entity, @Nullable String name) {
+        MethodHandle getter = name == null ? null : getters.get(name);
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sets the value of the field; ignored if the field can't be written, the value is not of its type or the setter
+     * throws an exception. The errors of the JVM are not caught.
+     */
+    public void set(@NonNull Object entity, @Nullable String name, @Nullable Object value) {
+        MethodHandle setter = name == null ? null : setters.get(name);
+        if (setter == null) {
+            return;
+        }
+        try {
+            setter.invokeExact(entity, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // ignored, the value won't be set
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package fr.siamois.domain.services.form;
 
 
+import fr.siamois.annotations.ExecutionTimeLogger;
 import fr.siamois.domain.models.form.customfield.CustomField;
 import fr.siamois.domain.models.form.customfield.recordingunit.CustomFieldMeasurement;
 import fr.siamois.domain.models.form.customform.EnabledWhenJson;
@@ -24,8 +25,6 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -53,6 +52,7 @@ public class FormService {
 
     // --------- Answer creators
 
+    @ExecutionTimeLogger
     public CustomFormResponseViewModel initOrReuseResponse(
             CustomFormResponseViewModel existing,
             Object jpaEntity,
@@ -67,7 +67,7 @@ public class FormService {
         Map<CustomField, CustomFieldAnswerViewModel> answers =
                 getOrCreateAnswers(response, onlyInitMissing);
 
-        List<String> bindableFields = getBindableFieldNames(jpaEntity);
+        FieldBindings bindings = FieldBindings.of(jpaEntity);
 
         Map<CustomField, CustomFieldAnswerViewModel> additionalAnswers =
                 loadAdditionalAnswers(jpaEntity);
@@ -78,7 +78,7 @@ public class FormService {
                     answers,
                     additionalAnswers,
                     jpaEntity,
-                    bindableFields,
+                    bindings,
                     onlyInitMissing
             );
         }
@@ -113,7 +113,7 @@ public class FormService {
             Map<CustomField, CustomFieldAnswerViewModel> answers,
             Map<CustomField, CustomFieldAnswerViewModel> additionalAnswers,
             Object jpaEntity,
-            List<String> bindableFields,
+            FieldBindings bindings,
             boolean onlyInitMissing) {
 
         if (field == null || onlyInitMissing && answers.containsKey(field)) {
@@ -135,7 +135,7 @@ public class FormService {
             return;
         }
 
-        initializeAnswer(answer, field, jpaEntity, bindableFields);
+        initializeAnswer(answer, field, jpaEntity, bindings);
         answers.put(field, answer);
     }
 
@@ -151,12 +151,12 @@ public class FormService {
                               CustomField field) {
 
 
-        List<String> bindableFields = getBindableFieldNames(jpaEntity);
+        FieldBindings bindings = FieldBindings.of(jpaEntity);
 
         CustomFieldAnswerViewModel answer = answers.getAnswers().get(field);
 
         if (answer != null) {
-            initializeAnswer(answer, field, jpaEntity, bindableFields);
+            initializeAnswer(answer, field, jpaEntity, bindings);
         }
 
     }
@@ -216,10 +216,11 @@ public class FormService {
      * Apply all bindable system fields from the response back into the JPA entity.
      * This is basically your previous updateJpaEntityFromFormResponse method.
      */
+    @ExecutionTimeLogger
     public void updateJpaEntityFromResponse(CustomFormResponseViewModel response, Object jpaEntity) {
         if (response == null || jpaEntity == null) return;
 
-        List<String> bindableFields = getBindableFieldNames(jpaEntity);
+        FieldBindings bindings = FieldBindings.of(jpaEntity);
 
         for (Map.Entry<CustomField, CustomFieldAnswerViewModel> entry : response.getAnswers().entrySet()) {
             CustomField field = entry.getKey();
@@ -229,10 +230,10 @@ public class FormService {
                     jpaEntity instanceof RecordingUnitDTO ru) {
                 // Special case
                 setStratigraphyFieldValue(stratiAnswer, ru);
-            } else if (isBindableSystemField(field, answer, bindableFields)) {
+            } else if (isBindableSystemField(field, answer, bindings)) {
                 Object value = extractValueFromAnswer(answer);
                 if (value != null) {
-                    setFieldValue(jpaEntity, field.getValueBinding(), value);
+                    bindings.set(jpaEntity, field.getValueBinding(), value);
                 }
             }
         }
@@ -240,12 +241,11 @@ public class FormService {
 
     private static boolean isBindableSystemField(CustomField field,
                                                  CustomFieldAnswerViewModel answer,
-                                                 List<String> bindableFields) {
+                                                 FieldBindings bindings) {
         return field != null
                 && answer != null
                 && Boolean.TRUE.equals(field.getIsSystemField())
-                && field.getValueBinding() != null
-                && bindableFields.contains(field.getValueBinding());
+                && bindings.isBindable(field.getValueBinding());
     }
 
     /**
@@ -403,7 +403,7 @@ public class FormService {
     private void initializeAnswer(CustomFieldAnswerViewModel answer,
                                   CustomField field,
                                   Object jpaEntity,
-                                  List<String> bindableFields) {
+                                  FieldBindings bindings) {
 
         answer.setHasBeenModified(false);
 
@@ -415,10 +415,9 @@ public class FormService {
         }
 
         if (Boolean.TRUE.equals(field.getIsSystemField())
-                && field.getValueBinding() != null
-                && bindableFields.contains(field.getValueBinding())) {
+                && bindings.isBindable(field.getValueBinding())) {
 
-            Object value = getFieldValue(jpaEntity, field.getValueBinding());
+            Object value = bindings.get(jpaEntity, field.getValueBinding());
             populateSystemFieldValue(answer, value);
         }
 
@@ -640,6 +639,7 @@ public class FormService {
         }
     }
 
+    @ExecutionTimeLogger
     public void handleStratigraphyRelationships(CustomFieldAnswerStratigraphyViewModel answer, RecordingUnitDTO unit) {
         // Set the source unit for the answer
         answer.setSourceToAdd(new RecordingUnitSummaryDTO(unit));
@@ -673,38 +673,6 @@ public class FormService {
     }
 
 
-    @SuppressWarnings("unchecked")
-    private static List<String> getBindableFieldNames(Object entity) {
-        if (entity == null) return Collections.emptyList();
-        try {
-            Method method = entity.getClass().getMethod("getBindableFieldNames");
-            return (List<String>) method.invoke(entity);
-        } catch (Exception e) {
-            return Collections.emptyList();
-        }
-    }
-
-    private static Object getFieldValue(Object obj, String fieldName) {
-        if (obj == null || fieldName == null) return null;
-        try {
-            PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
-            return pd.getReadMethod().invoke(obj);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private static void setFieldValue(Object obj, String fieldName, Object value) {
-        if (obj == null || fieldName == null) return;
-        try {
-            PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
-            Method setter = pd.getWriteMethod();
-            setter.invoke(obj, value);
-        } catch (Exception e) {
-            // ignored, the value won't be set
-        }
-    }
-
     public void setStratigraphyFieldValue(
             CustomFieldAnswerStratigraphyViewModel stratiAnswer,
             RecordingUnitDTO entity) {
@@ -11,16 +11,24 @@ import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 /** One allocator/rendering transaction shared by every configurable entity table. */
 @Service
 public class EntityIdentifierGenerator {
+    private static final int COLLISION_CHECK_BATCH_SIZE = 1000;
+
     private final TableFieldConfigService tableFieldConfigService;
     private final IdentifierResolverRegistry resolverRegistry;
     private final IdentifierPartitionService partitionService;
@@ -112,6 +120,135 @@ public class EntityIdentifierGenerator {
         return Optional.of(generated);
     }
 
+    /**
+     * Batch variant of {@link #generateIdentifierIfRequired(Object, IdentifierGenerationSpec)} for bulk creation.
+     * The entities sharing a counter (action unit, form config, canonical key) get a block of consecutive numbers
+     * reserved in one statement, and their rendered identifiers are checked for collisions together; only the
+     * colliding entities are given new numbers.
+     *
+     * @return the generated identifier of each entity, in the order of {@code entities}, empty when the
+     * specification did not require one
+     */
+    @Transactional
+    public <E> List<Optional<GeneratedIdentifier>> generateIdentifiersIfRequired(
+            List<E> entities, IdentifierGenerationSpec<E> spec) {
+        Objects.requireNonNull(spec, "Identifier generation specification is required");
+        List<Optional<GeneratedIdentifier>> results = new ArrayList<>(Collections.nCopies(entities.size(), Optional.empty()));
+        Map<CounterKey, CounterBlock<E>> blocks = new LinkedHashMap<>();
+        Map<ConfigKey, FormConfig> configs = new HashMap<>();
+
+        for (int i = 0; i < entities.size(); i++) {
+            E entity = entities.get(i);
+            if (entity == null) {
+                throw new IllegalArgumentException("A " + spec.entityName() + " is required to generate an identifier");
+            }
+            if (!spec.generationRequired().test(entity)) {
+                continue;
+            }
+            ActionUnit actionUnit = spec.actionUnit().apply(entity);
+            if (actionUnit == null) {
+                throw new IllegalArgumentException(
+                        "An action unit is required to generate a " + spec.entityName() + " identifier");
+            }
+            Objects.requireNonNull(actionUnit.getId(), "The action unit must be persisted before identifier generation");
+
+            Long typeId = spec.typeId().apply(entity);
+            FormConfig config = configs.computeIfAbsent(new ConfigKey(actionUnit.getId(), typeId), key -> {
+                FormConfig resolved = tableFieldConfigService.resolveIdentifierConfig(key.actionUnitId(), spec.table(), typeId);
+                validateRange(resolved);
+                return resolved;
+            });
+            Map<String, Object> values = resolveValues(entity, spec.displayValues());
+            Map<String, Object> partitions = resolveValues(entity, spec.partitionValues());
+            String canonicalKey = partitionService.canonicalKey(spec.table(), config.getIdentifierFormat(),
+                    new MapIdentifierRenderContext(values, partitions));
+            blocks.computeIfAbsent(new CounterKey(actionUnit.getId(), config.getId(), canonicalKey),
+                            key -> new CounterBlock<>(actionUnit, config, new ArrayList<>()))
+                    .pending().add(new PendingIdentifier<>(i, entity, values, partitions));
+        }
+
+        FlushModeType previousFlushMode = entityManager == null ? null : entityManager.getFlushMode();
+        if (entityManager != null) entityManager.setFlushMode(FlushModeType.COMMIT);
+        try {
+            // Identifiers given in this batch, not yet visible to the collision check
+            Map<Long, Set<String>> assignedByActionUnit = new HashMap<>();
+            blocks.forEach((key, block) -> allocateBlock(spec, key, block,
+                    assignedByActionUnit.computeIfAbsent(key.actionUnitId(), id -> new HashSet<>()), results));
+        } finally {
+            if (entityManager != null && previousFlushMode != null) {
+                entityManager.setFlushMode(previousFlushMode);
+            }
+        }
+        return results;
+    }
+
+    private <E> void allocateBlock(IdentifierGenerationSpec<E> spec, CounterKey key, CounterBlock<E> block,
+                                   Set<String> assigned, List<Optional<GeneratedIdentifier>> results) {
+        FormConfig config = block.config();
+        String ownToken = resolverRegistry.ownNumericalToken(spec.table());
+        List<PendingIdentifier<E>> remaining = block.pending();
+        while (!remaining.isEmpty()) {
+            int first = counterRepository.nextValues(
+                    key.actionUnitId(), key.formConfigId(), key.canonicalKey(), config.getMinCode(), remaining.size());
+            if ((long) first + remaining.size() - 1 > config.getMaxCode()) {
+                throw new IllegalStateException("Identifier range exhausted for form config " + config.getId());
+            }
+            List<String> candidates = new ArrayList<>(remaining.size());
+            for (int i = 0; i < remaining.size(); i++) {
+                PendingIdentifier<E> pending = remaining.get(i);
+                pending.values().put(ownToken, first + i);
+                candidates.add(resolverRegistry.render(spec.table(), config.getIdentifierFormat(),
+                        new MapIdentifierRenderContext(pending.values(), pending.partitions())));
+            }
+            Set<String> used = alreadyUsed(spec, block.actionUnit(), remaining, candidates);
+
+            List<PendingIdentifier<E>> colliding = new ArrayList<>();
+            for (int i = 0; i < remaining.size(); i++) {
+                PendingIdentifier<E> pending = remaining.get(i);
+                String candidate = candidates.get(i);
+                if (used.contains(candidate) || !assigned.add(candidate)) {
+                    colliding.add(pending);
+                    continue;
+                }
+                GeneratedIdentifier generated = new GeneratedIdentifier(first + i, candidate);
+                spec.numberSetter().accept(pending.entity(), generated.number());
+                spec.identifierSetter().accept(pending.entity(), generated.value());
+                results.set(pending.index(), Optional.of(generated));
+            }
+            remaining = colliding;
+        }
+    }
+
+    private static <E> Set<String> alreadyUsed(IdentifierGenerationSpec<E> spec, ActionUnit actionUnit,
+                                               List<PendingIdentifier<E>> pending, List<String> candidates) {
+        Set<String> used = new HashSet<>();
+        if (spec.identifiersAlreadyUsed() != null) {
+            for (int from = 0; from < candidates.size(); from += COLLISION_CHECK_BATCH_SIZE) {
+                List<String> chunk = candidates.subList(from, Math.min(from + COLLISION_CHECK_BATCH_SIZE, candidates.size()));
+                used.addAll(spec.identifiersAlreadyUsed().apply(actionUnit, chunk));
+            }
+            return used;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            if (spec.identifierAlreadyUsed().test(pending.get(i).entity(), candidates.get(i))) {
+                used.add(candidates.get(i));
+            }
+        }
+        return used;
+    }
+
+    private record ConfigKey(Long actionUnitId, Long typeId) {
+    }
+
+    private record CounterKey(Long actionUnitId, Long formConfigId, String canonicalKey) {
+    }
+
+    private record CounterBlock<E>(ActionUnit actionUnit, FormConfig config, List<PendingIdentifier<E>> pending) {
+    }
+
+    private record PendingIdentifier<E>(int index, E entity, Map<String, Object> values, Map<String, Object> partitions) {
+    }
+
     private static <E> Map<String, Object> resolveValues(
             E entity, Map<String, Function<E, ?>> accessors) {
         Map<String, Object> values = new HashMap<>();
@@ -5,11 +5,14 @@ import fr.siamois.domain.models.settings.tableconfig.ConfigurableTable;
 import lombok.Builder;
 import lombok.Singular;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
@@ -34,6 +37,10 @@ import java.util.function.Predicate;
  *   <li>{@code displayValues}: maps format token codes to the values rendered in the identifier.</li>
  *   <li>{@code partitionValues}: maps canonical counter-dimension codes to stable grouping values, normally database IDs.</li>
  *   <li>{@code identifierAlreadyUsed}: detects a rendered identifier already owned by another entity.</li>
+ *   <li>{@code identifiersAlreadyUsed}: optional set-based variant used by
+ *       {@link EntityIdentifierGenerator#generateIdentifiersIfRequired(java.util.List, IdentifierGenerationSpec)}:
+ *       returns, among candidates, those already owned by an entity of the action unit. Without it, the batch checks
+ *       each candidate with {@code identifierAlreadyUsed}.</li>
  *   <li>{@code numberSetter}: stores the raw allocated number; {@code identifierSetter} stores the rendered identifier.</li>
  * </ul>
  *
@@ -86,6 +93,7 @@ import java.util.function.Predicate;
  * @param displayValues format token accessors, excluding the table's own numerical token
  * @param partitionValues canonical counter-dimension accessors
  * @param identifierAlreadyUsed collision check scoped to the entity's project
+ * @param identifiersAlreadyUsed optional set-based collision check scoped to a project
  * @param numberSetter setter for the raw allocated number
  * @param identifierSetter setter for the rendered identifier
  * @param <E> entity type configured by this specification
@@ -100,6 +108,7 @@ public record IdentifierGenerationSpec<E>(
         @Singular("displayValue") Map<String, Function<E, ?>> displayValues,
         @Singular("partitionValue") Map<String, Function<E, ?>> partitionValues,
         BiPredicate<E, String> identifierAlreadyUsed,
+        BiFunction<ActionUnit, Collection<String>, Set<String>> identifiersAlreadyUsed,
         ObjIntConsumer<E> numberSetter,
         BiConsumer<E, String> identifierSetter) {
 
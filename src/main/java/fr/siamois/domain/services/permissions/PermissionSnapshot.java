@@ -0,0 +1,129 @@
+package fr.siamois.domain.services.permissions;
+
+import fr.siamois.domain.models.permissions.PermissionScopeType;
+import fr.siamois.domain.models.permissions.ProfileConstants;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory snapshot of the permissions of a person, compiled from all of their profile assignments.
+ * <p>
+ * The permissions are kept as bitsets, one bit per permission code (see {@link Codes}) : one for the INSTANCE-scoped
+ * profiles, one per institution for the ORGANISATION-scoped ones and one per action unit for the PROJECT-scoped ones.
+ * The checks then answer the same as the {@code PersonProfileAssignmentRepository} queries, without the database.
+ */
+public class PermissionSnapshot {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final Codes codes;
+    private final boolean superAdmin;
+    private final BitSet instance;
+    private final Map<Long, BitSet> byInstitution;
+    /** An action unit with a profile but no permission has an empty bitset */
+    private final Map<Long, BitSet> byActionUnit;
+
+    private PermissionSnapshot(Codes codes, boolean superAdmin, BitSet instance,
+                               Map<Long, BitSet> byInstitution, Map<Long, BitSet> byActionUnit) {
+        this.codes = codes;
+        this.superAdmin = superAdmin;
+        this.instance = instance;
+        this.byInstitution = byInstitution;
+        this.byActionUnit = byActionUnit;
+    }
+
+    /**
+     * @param grants the rows of {@code PersonProfileAssignmentRepository#findAllPermissionGrantsOfPerson} : profile
+     *               code, scope, institution id, action unit id and permission code
+     * @param codes  the bits of the permission codes, shared by every snapshot
+     */
+    @NonNull
+    public static PermissionSnapshot of(@NonNull List<Object[]> grants, @NonNull Codes codes) {
+        boolean superAdmin = false;
+        BitSet instance = new BitSet();
+        Map<Long, BitSet> byInstitution = new HashMap<>();
+        Map<Long, BitSet> byActionUnit = new HashMap<>();
+        for (Object[] grant : grants) {
+            String profileCode = (String) grant[0];
+            PermissionScopeType scope = (PermissionScopeType) grant[1];
+            Long institutionId = (Long) grant[2];
+            Long actionUnitId = (Long) grant[3];
+            String permissionCode = (String) grant[4];
+
+            superAdmin |= ProfileConstants.SUPERADMIN.equals(profileCode);
+            BitSet bits = switch (scope) {
+                case INSTANCE -> instance;
+                case ORGANISATION -> institutionId == null ? null : byInstitution.computeIfAbsent(institutionId, id -> new BitSet());
+                case PROJECT -> actionUnitId == null ? null : byActionUnit.computeIfAbsent(actionUnitId, id -> new BitSet());
+            };
+            if (bits != null && permissionCode != null) {
+                bits.set(codes.register(permissionCode));
+            }
+        }
+        return new PermissionSnapshot(codes, superAdmin, instance, byInstitution, byActionUnit);
+    }
+
+    public boolean isSuperAdmin() {
+        return superAdmin;
+    }
+
+    /**
+     * @return true if an INSTANCE-scoped profile grants the permission
+     */
+    public boolean hasInstancePermission(@NonNull String permissionCode) {
+        return has(instance, permissionCode);
+    }
+
+    /**
+     * @return true if an ORGANISATION-scoped profile on the institution grants the permission
+     */
+    public boolean hasPermissionInInstitution(@Nullable Long institutionId, @NonNull String permissionCode) {
+        return institutionId != null && has(byInstitution.getOrDefault(institutionId, NONE), permissionCode);
+    }
+
+    /**
+     * @return true if a PROJECT-scoped profile on the action unit grants the permission
+     */
+    public boolean hasPermissionInActionUnit(@Nullable Long actionUnitId, @NonNull String permissionCode) {
+        return actionUnitId != null && has(byActionUnit.getOrDefault(actionUnitId, NONE), permissionCode);
+    }
+
+    /**
+     * @return true if a PROJECT-scoped profile is assigned on the action unit, whatever its permissions
+     */
+    public boolean hasAnyProfileOnActionUnit(@Nullable Long actionUnitId) {
+        return actionUnitId != null && byActionUnit.containsKey(actionUnitId);
+    }
+
+    private boolean has(BitSet bits, String permissionCode) {
+        int bit = codes.indexOf(permissionCode);
+        return bit >= 0 && bits.get(bit);
+    }
+
+    /**
+     * The bit of each permission code, given on the first snapshot that grants it.
+     */
+    public static class Codes {
+
+        private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        int register(String permissionCode) {
+            return bits.computeIfAbsent(permissionCode, code -> next.getAndIncrement());
+        }
+
+        /**
+         * @return the bit of the code, -1 if no snapshot granted it yet
+         */
+        int indexOf(String permissionCode) {
+            return bits.getOrDefault(permissionCode, -1);
+        }
+    }
+}
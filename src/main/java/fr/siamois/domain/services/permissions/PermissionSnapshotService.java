@@ -0,0 +1,60 @@
+package fr.siamois.domain.services.permissions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.siamois.domain.models.events.PersonAccessChangeEvent;
+import fr.siamois.infrastructure.database.repositories.permissions.PersonProfileAssignmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Keeps the {@link PermissionSnapshot} of each person : all of their profile assignments are loaded in one query,
+ * then every permission check is answered in memory. A table page checking its rows one by one no longer queries
+ * the database for each of them.
+ * <p>
+ * A snapshot is dropped as soon as the profiles of the person change ({@link PersonAccessChangeEvent}), once the
+ * transaction is committed; the snapshots also expire after {@code siamois.permissions.snapshot-ttl}, for the changes
+ * made by the other instances of the application. A zero duration disables the cache.
+ */
+@Service
+public class PermissionSnapshotService {
+
+    private final PersonProfileAssignmentRepository assignmentRepository;
+    private final boolean enabled;
+    private final PermissionSnapshot.Codes codes = new PermissionSnapshot.Codes();
+    private final Cache<Long, PermissionSnapshot> snapshots;
+
+    public PermissionSnapshotService(PersonProfileAssignmentRepository assignmentRepository,
+                                     @Value("${siamois.permissions.snapshot-ttl:PT5M}") Duration ttl) {
+        this.assignmentRepository = assignmentRepository;
+        this.enabled = !ttl.isZero();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * The permissions of the person, loaded if they are not kept.
+     */
+    @NonNull
+    public PermissionSnapshot snapshotOf(@NonNull Long personId) {
+        if (!enabled) {
+            return load(personId);
+        }
+        return snapshots.get(personId, this::load);
+    }
+
+    private PermissionSnapshot load(Long personId) {
+        return PermissionSnapshot.of(assignmentRepository.findAllPermissionGrantsOfPerson(personId), codes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonAccessChange(PersonAccessChangeEvent event) {
+        snapshots.invalidate(event.getPersonId());
+    }
+}
@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.permissions;
 
+import fr.siamois.domain.events.publisher.PersonAccessChangeEventPublisher;
 import fr.siamois.domain.models.auth.Person;
 import fr.siamois.domain.models.permissions.PersonProfileAssignment;
 import fr.siamois.domain.models.permissions.Profile;
@@ -23,6 +24,7 @@ public class PersonProfileAssignmentService {
     private final PersonMapper personMapper;
     private final ProfileService profileService;
     private final ProfileMapper profileMapper;
+    private final PersonAccessChangeEventPublisher personAccessChangeEventPublisher;
 
     private void assignProfile(@NonNull Profile profile, @NonNull Person person) {
         Optional<PersonProfileAssignment> opt = personProfileAssignmentRepository.findByProfileIdAndPersonId(profile.getId(), person.getId());
@@ -31,6 +33,7 @@ public class PersonProfileAssignmentService {
         assignment.setProfile(profile);
         assignment.setPerson(person);
         personProfileAssignmentRepository.save(assignment);
+        personAccessChangeEventPublisher.publishEvent(person.getId());
     }
 
     public boolean addToManagers(InstitutionDTO institution, PersonDTO person) {
@@ -130,7 +133,10 @@ public class PersonProfileAssignmentService {
 
     public void remove(PersonDTO person, ProfileDTO profile) {
         Optional<PersonProfileAssignment> ppaOpt = personProfileAssignmentRepository.findByProfileIdAndPersonId(profile.getId(), person.getId());
-        ppaOpt.ifPresent(personProfileAssignmentRepository::delete);
+        ppaOpt.ifPresent(assignment -> {
+            personProfileAssignmentRepository.delete(assignment);
+            personAccessChangeEventPublisher.publishEvent(person.getId());
+        });
     }
 
     public boolean isNotOrganisationManager(InstitutionDTO institutionDTO, PersonDTO person) {
@@ -151,6 +157,7 @@ public class PersonProfileAssignmentService {
     @Transactional
     public void removeFromInstitution(InstitutionDTO institution, PersonDTO person) {
         personProfileAssignmentRepository.deleteByInstitutionIdAndPersonId(institution.getId(), person.getId());
+        personAccessChangeEventPublisher.publishEvent(person.getId());
     }
 
     public boolean isNotProjectManager(ActionUnitDTO project, PersonDTO authenticatedUser) {
@@ -170,5 +177,6 @@ public class PersonProfileAssignmentService {
     @Transactional
     public void removeFromProject(ActionUnitDTO project, PersonDTO person) {
         personProfileAssignmentRepository.deleteByActionUnitIdAndPersonId(project.getId(), person.getId());
+        personAccessChangeEventPublisher.publishEvent(person.getId());
     }
 }
@@ -5,7 +5,6 @@ import fr.siamois.domain.models.permissions.PermissionConstants;
 import fr.siamois.dto.entity.InstitutionDTO;
 import fr.siamois.dto.entity.PersonDTO;
 import fr.siamois.dto.entity.RecordingUnitDTO;
-import fr.siamois.infrastructure.database.repositories.permissions.PersonProfileAssignmentRepository;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,15 +16,17 @@ import org.springframework.stereotype.Service;
  * an ORGANISATION-scoped profile grants it within its institution, and a
  * PROJECT-scoped profile grants it on its action unit only.
  * <p>
+ * The checks are answered from the {@link PermissionSnapshot} of the person, see {@link PermissionSnapshotService}.
+ * <p>
  * Replaces the removed {@code PermissionService}.
  */
 @Service
 public class ProfilePermissionService {
 
-    private final PersonProfileAssignmentRepository assignmentRepository;
+    private final PermissionSnapshotService permissionSnapshotService;
 
-    public ProfilePermissionService(PersonProfileAssignmentRepository assignmentRepository) {
-        this.assignmentRepository = assignmentRepository;
+    public ProfilePermissionService(PermissionSnapshotService permissionSnapshotService) {
+        this.permissionSnapshotService = permissionSnapshotService;
     }
 
     /**
@@ -38,7 +39,7 @@ public class ProfilePermissionService {
         if (person == null || person.getId() == null) {
             return false;
         }
-        return assignmentRepository.personIsSuperAdmin(person.getId());
+        return permissionSnapshotService.snapshotOf(person.getId()).isSuperAdmin();
     }
 
     /**
@@ -52,7 +53,7 @@ public class ProfilePermissionService {
         if (person == null || person.getId() == null) {
             return false;
         }
-        return assignmentRepository.personHasInstancePermission(person.getId(), permissionCode);
+        return permissionSnapshotService.snapshotOf(person.getId()).hasInstancePermission(permissionCode);
     }
 
     /**
@@ -69,11 +70,12 @@ public class ProfilePermissionService {
         if (person == null || person.getId() == null) {
             return false;
         }
-        if (hasInstancePermission(person, permissionCode)) {
-            return true;
-        }
-        return institution != null && institution.getId() != null
-                && assignmentRepository.personHasPermissionInInstitution(person.getId(), institution.getId(), permissionCode);
+        return grantedInOrganization(permissionSnapshotService.snapshotOf(person.getId()), institution, permissionCode);
+    }
+
+    private static boolean grantedInOrganization(PermissionSnapshot snapshot, InstitutionDTO institution, String permissionCode) {
+        return snapshot.hasInstancePermission(permissionCode)
+                || institution != null && snapshot.hasPermissionInInstitution(institution.getId(), permissionCode);
     }
 
     /**
@@ -98,12 +100,13 @@ public class ProfilePermissionService {
      * @return true if the permission is granted on the action unit
      */
     public boolean hasProjectPermission(UserInfo user, Long actionUnitId, String permissionCode) {
-        if (hasOrganizationPermission(user, permissionCode)) {
-            return true;
-        }
         PersonDTO person = user.getUser();
-        return actionUnitId != null && person != null && person.getId() != null
-                && assignmentRepository.personHasPermissionInActionUnit(person.getId(), actionUnitId, permissionCode);
+        if (person == null || person.getId() == null) {
+            return false;
+        }
+        PermissionSnapshot snapshot = permissionSnapshotService.snapshotOf(person.getId());
+        return grantedInOrganization(snapshot, user.getInstitution(), permissionCode)
+                || snapshot.hasPermissionInActionUnit(actionUnitId, permissionCode);
     }
 
     /**
@@ -144,11 +147,12 @@ public class ProfilePermissionService {
      * @return true if the project can be displayed
      */
     public boolean canViewProject(PersonDTO person, InstitutionDTO institution, Long actionUnitId) {
-        if (canViewInstitutionData(person, institution)) {
-            return true;
+        if (person == null || person.getId() == null) {
+            return false;
         }
-        return actionUnitId != null && person != null && person.getId() != null
-                && assignmentRepository.personHasAnyProfileOnActionUnit(person.getId(), actionUnitId);
+        PermissionSnapshot snapshot = permissionSnapshotService.snapshotOf(person.getId());
+        return grantedInOrganization(snapshot, institution, PermissionConstants.ORGANIZATION_ACCESS)
+                || snapshot.hasAnyProfileOnActionUnit(actionUnitId);
     }
 
     /**
@@ -1,10 +1,14 @@
 package fr.siamois.domain.services.recordingunit;
 
+import fr.siamois.annotations.ExecutionTimeLogger;
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
 import fr.siamois.domain.models.ArkEntity;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitNotFoundException;
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
 import fr.siamois.domain.models.exceptions.recordingunit.FailedRecordingUnitSaveException;
 import fr.siamois.domain.models.exceptions.recordingunit.RecordingUnitNotFoundException;
 import fr.siamois.domain.models.form.customfield.CustomField;
@@ -25,6 +29,7 @@ import fr.siamois.domain.services.identifier.IdentifierGenerationSpec;
 import fr.siamois.domain.services.measurement.UnitDefinitionService;
 import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.domain.models.settings.tableconfig.ConfigurableTable;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.FilterDTO;
 import fr.siamois.dto.StratigraphicRelationshipDTO;
 import fr.siamois.dto.entity.*;
@@ -35,6 +40,7 @@ import fr.siamois.infrastructure.database.repositories.PhaseRepository;
 import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
 import fr.siamois.infrastructure.database.repositories.recordingunit.RecordingUnitRepository;
 import fr.siamois.infrastructure.database.repositories.recordingunit.StratigraphicRelationshipRepository;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetSpec;
 import fr.siamois.infrastructure.database.repositories.specs.RecordingUnitSpec;
 import fr.siamois.mapper.*;
 import fr.siamois.ui.viewmodel.fieldanswer.CustomFieldAnswerViewModel;
@@ -44,7 +50,6 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.*;
@@ -78,6 +83,7 @@ public class RecordingUnitService implements ArkEntityService {
     private final ProfilePermissionService profilePermissionService;
     private final RecordingUnitMapper recordingUnitMapper;
     private final StratigraphicRelationshipRepository stratigraphicRelationshipRepository;
+    private final StratigraphicClosureService stratigraphicClosureService;
     private final StatigraphicRelationshipMapper stratigraphicRelationshipMapper;
     private final RecordingUnitSummaryMapper recordingUnitSummaryMapper;
     private final ConversionService conversionService;
@@ -89,6 +95,7 @@ public class RecordingUnitService implements ArkEntityService {
     private final UnitDefinitionService unitDefinitionService;
     private final CustomFieldAnswerService customFieldAnswerService;
     private final EntityIdentifierGenerator entityIdentifierGenerator;
+    private final UnitChangeEventPublisher unitChangeEventPublisher;
 
 
     /**
@@ -126,10 +133,6 @@ public class RecordingUnitService implements ArkEntityService {
      * @param recordingUnitDTO The recording unit to save.
      * @return The saved RecordingUnit instance.
      */
-    @CacheEvict({
-            "InstitutionHasRootChildrenRU",
-            "ActionHasRootChildrenRU"
-    })
     public RecordingUnitDTO save(RecordingUnitDTO recordingUnitDTO) {
         try {
             RecordingUnit recordingUnit =
@@ -149,11 +152,8 @@ public class RecordingUnitService implements ArkEntityService {
      * @param additionalFieldAnswers Answers to additional (non-system) fields, keyed by CustomField.
      * @return The saved RecordingUnit instance.
      */
-    @CacheEvict({
-            "InstitutionHasRootChildrenRU",
-            "ActionHasRootChildrenRU"
-    })
     @Transactional
+    @ExecutionTimeLogger
     public RecordingUnitDTO save(RecordingUnitDTO recordingUnitDTO, Map<CustomField, CustomFieldAnswerViewModel> additionalFieldAnswers) {
         RecordingUnitDTO saved = save(recordingUnitDTO);
         try {
@@ -182,6 +182,7 @@ public class RecordingUnitService implements ArkEntityService {
     }
 
     @Transactional
+    @ExecutionTimeLogger
     public void updateStratigraphicRel(RecordingUnitDTO recordingUnitDTO) {
         RecordingUnit recordingUnit = recordingUnitMapper.invertConvert(recordingUnitDTO);
         assert recordingUnit != null;
@@ -213,6 +214,7 @@ public class RecordingUnitService implements ArkEntityService {
 
             setupParents(recordingUnit, managedRecordingUnit);
             setupChilds(recordingUnit, managedRecordingUnit);
+            unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
             return savedRecordingUnit;
 
         } catch (RuntimeException e) {
@@ -392,10 +394,15 @@ public class RecordingUnitService implements ArkEntityService {
 
             if (managedRel != null) {
                 // Update existing
+                boolean wasSynchronous = StratigraphicClosureService.isSynchronous(managedRel);
                 managedRel.setConcept(rel.getConcept());
                 managedRel.setUncertain(rel.getUncertain());
                 managedRel.setIsAsynchronous(rel.getIsAsynchronous());
                 managedRel.setConceptDirection(rel.getConceptDirection());
+                if (wasSynchronous != StratigraphicClosureService.isSynchronous(managedRel)) {
+                    stratigraphicClosureService.relationshipRemoved(managedRel, wasSynchronous);
+                    stratigraphicClosureService.relationshipAdded(managedRel);
+                }
             } else {
                 // Add new
                 if (isUnit1) {
@@ -403,6 +410,7 @@ public class RecordingUnitService implements ArkEntityService {
                 } else {
                     managed.addRelationshipAsUnit2(rel);
                 }
+                stratigraphicClosureService.relationshipAdded(rel);
             }
         }
 
@@ -413,6 +421,7 @@ public class RecordingUnitService implements ArkEntityService {
             } else {
                 managed.removeRelationshipAsUnit2(rel);
             }
+            stratigraphicClosureService.relationshipRemoved(rel, StratigraphicClosureService.isSynchronous(rel));
         });
     }
 
@@ -531,10 +540,7 @@ public class RecordingUnitService implements ArkEntityService {
      * @throws IllegalStateException si la suppression est interdite (contenu bloquant)
      */
     @Transactional
-    @CacheEvict({
-            "InstitutionHasRootChildrenRU",
-            "ActionHasRootChildrenRU"
-    })
+    @ExecutionTimeLogger
     public void deleteRecordingUnitById(long recordingUnitId) {
         RecordingUnit ru = recordingUnitRepository.findById(recordingUnitId)
                 .orElseThrow(() -> new RecordingUnitNotFoundException(
@@ -553,6 +559,7 @@ public class RecordingUnitService implements ArkEntityService {
         if (arkId != null) {
             arkRepository.deleteById(arkId);
         }
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
     }
 
     private void validateDeletable(RecordingUnit ru, long recordingUnitId) {
@@ -583,6 +590,7 @@ public class RecordingUnitService implements ArkEntityService {
         List<StratigraphicRelationship> rels = stratigraphicRelationshipRepository.findAllInvolvingRecordingUnitId(recordingUnitId);
         if (!rels.isEmpty()) {
             stratigraphicRelationshipRepository.deleteAll(rels);
+            rels.forEach(rel -> stratigraphicClosureService.relationshipRemoved(rel, StratigraphicClosureService.isSynchronous(rel)));
         }
         if (ru.getRelationshipsAsUnit1() != null) {
             ru.getRelationshipsAsUnit1().clear();
@@ -637,10 +645,6 @@ public class RecordingUnitService implements ArkEntityService {
      * Lie une UE existante comme enfant direct d'une autre (table {@code recording_unit_hierarchy}).
      */
     @Transactional
-    @CacheEvict({
-            "InstitutionHasRootChildrenRU",
-            "ActionHasRootChildrenRU"
-    })
     public void addHierarchyChild(long parentId, long childId) {
         if (parentId == childId) {
             throw new IllegalArgumentException("Une unité d'enregistrement ne peut pas être son propre enfant");
@@ -666,16 +670,13 @@ public class RecordingUnitService implements ArkEntityService {
         parent.getChildren().add(child);
         child.getParents().add(parent);
         recordingUnitRepository.save(parent);
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
     }
 
     /**
      * Supprime le lien hiérarchique direct parent → enfant.
      */
     @Transactional
-    @CacheEvict({
-            "InstitutionHasRootChildrenRU",
-            "ActionHasRootChildrenRU"
-    })
     public void removeHierarchyChild(long parentId, long childId) {
         RecordingUnit parent = recordingUnitRepository.findById(parentId)
                 .orElseThrow(() -> new RecordingUnitNotFoundException(
@@ -691,6 +692,7 @@ public class RecordingUnitService implements ArkEntityService {
         parent.getChildren().remove(child);
         child.getParents().remove(parent);
         recordingUnitRepository.save(parent);
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
     }
 
     private void assertSameActionUnit(RecordingUnit first, RecordingUnit second) {
@@ -702,8 +704,7 @@ public class RecordingUnitService implements ArkEntityService {
     }
 
     private boolean wouldCreateHierarchyCycle(long parentId, long childId) {
-        List<Long> ancestorsOfParent = recordingUnitRepository.findAncestorClosure(new Long[]{parentId});
-        return ancestorsOfParent.contains(childId);
+        return recordingUnitRepository.isAncestorOf(childId, parentId);
     }
 
     private List<RecordingUnitSummaryDTO> toAdjacentUnitSummaries(Set<RecordingUnit> adjacent) {
@@ -764,6 +765,7 @@ public class RecordingUnitService implements ArkEntityService {
     @Override
     public RecordingUnitDTO save(AbstractEntityDTO toSave) {
         RecordingUnit toReturn = recordingUnitRepository.save(Objects.requireNonNull(recordingUnitMapper.invertConvert((RecordingUnitDTO) toSave)));
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
         return recordingUnitMapper.convert(toReturn);
     }
 
@@ -856,6 +858,29 @@ public class RecordingUnitService implements ArkEntityService {
         return recordingUnitRepository.existsChildrenByParentAndInstitution(parentId, institutionId);
     }
 
+    /**
+     * Ids of all the descendants of a unit (children, grandchildren...).
+     *
+     * @param recordingUnitId the unit ID
+     * @return The descendant IDs, without the unit itself
+     */
+    public List<Long> findDescendantIds(Long recordingUnitId) {
+        return recordingUnitRepository.findDescendantIds(recordingUnitId);
+    }
+
+    /**
+     * Size of the subtree under each unit.
+     *
+     * @param ids the unit IDs
+     * @return The number of distinct descendants by unit ID, units without children are absent
+     */
+    public Map<Long, Integer> countDescendantsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return toCountMap(recordingUnitRepository.countDescendantsByIds(ids));
+    }
+
     /**
      * Does the institution have recording units?
      *
@@ -902,6 +927,30 @@ public class RecordingUnitService implements ArkEntityService {
         return pageAndEnrich(specs, pageable, false);
     }
 
+    /**
+     * Page des unités d'enregistrement d'une unité d'action après un curseur (pagination par clé).
+     *
+     * @param cursor curseur de la page précédente, null ou vide pour la première page
+     * @throws IllegalArgumentException si le curseur est invalide ou a été produit pour un autre tri
+     */
+    @Transactional(readOnly = true)
+    @ExecutionTimeLogger
+    public KeysetPage<RecordingUnitDTO> findByActionUnitIdAfter(Long actionUnitId, Sort sort, String cursor, int limit) {
+        return keysetPageAndEnrich(RecordingUnitSpec.recordingUnitInActionUnit(actionUnitId), sort, cursor, limit);
+    }
+
+    /**
+     * Unités d'enregistrement par identifiants techniques, avec les compteurs des listes de l'API.
+     * Les identifiants inconnus sont ignorés.
+     */
+    @Transactional(readOnly = true)
+    public List<RecordingUnitDTO> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return pageAndEnrich(RecordingUnitSpec.idIn(ids), Pageable.unpaged(), false).getContent();
+    }
+
 
     /**
      * Generates the identifier for a recording unit that has no parent.
@@ -956,17 +1005,29 @@ public class RecordingUnitService implements ArkEntityService {
     public String generateFullIdentifier(@NonNull ActionUnit actionUnit, @NonNull RecordingUnit recordingUnit) {
         log.trace("Generating full identifier for recording unit");
         return entityIdentifierGenerator.generateIdentifierIfRequired(
-                        recordingUnit, recordingUnitIdentifierSpec(actionUnit))
+                        recordingUnit, recordingUnitIdentifierSpec(unit -> actionUnit))
                 .orElseThrow(() -> new IllegalStateException("Recording-unit identifier generation was skipped"))
                 .value();
     }
 
-    private IdentifierGenerationSpec<RecordingUnit> recordingUnitIdentifierSpec(ActionUnit actionUnit) {
+    /**
+     * Generates the identifiers of new recording units in bulk: one counter reservation per block of units sharing a
+     * counter, and one collision query per block.
+     * @param recordingUnits the new recording units, attached to their action unit
+     */
+    public void generateFullIdentifiers(@NonNull List<RecordingUnit> recordingUnits) {
+        log.trace("Generating full identifiers for {} recording units", recordingUnits.size());
+        entityIdentifierGenerator.generateIdentifiersIfRequired(
+                recordingUnits, recordingUnitIdentifierSpec(RecordingUnit::getActionUnit));
+    }
+
+    private IdentifierGenerationSpec<RecordingUnit> recordingUnitIdentifierSpec(
+            Function<RecordingUnit, ActionUnit> actionUnitOf) {
         return IdentifierGenerationSpec.<RecordingUnit>builder()
                 .table(ConfigurableTable.UE)
                 .entityName("recording unit")
                 .generationRequired(recordingUnit -> true)
-                .actionUnit(recordingUnit -> actionUnit)
+                .actionUnit(actionUnitOf)
                 .typeId(recordingUnit -> recordingUnit.getType() == null
                         ? null : recordingUnit.getType().getId())
                 .displayValue("NUM_PARENT", recordingUnit -> {
@@ -979,15 +1040,17 @@ public class RecordingUnitService implements ArkEntityService {
                 })
                 .displayValue("NUM_USPATIAL", recordingUnit -> recordingUnit.getSpatialUnit() == null
                         ? null : recordingUnit.getSpatialUnit().getPlaceNumber())
-                .displayValue("ID_UA", recordingUnit -> actionUnit.getFullIdentifier())
+                .displayValue("ID_UA", recordingUnit -> actionUnitOf.apply(recordingUnit).getFullIdentifier())
                 .partitionValue("PARENT_RU", recordingUnit -> {
                     RecordingUnit parent = deterministicParent(recordingUnit);
                     return parent == null ? null : parent.getId();
                 })
                 .partitionValue("SPATIAL_PLACE", recordingUnit -> recordingUnit.getSpatialUnit() == null
                         ? null : recordingUnit.getSpatialUnit().getPlaceNumber())
-                .identifierAlreadyUsed((recordingUnit, candidate) ->
-                        identifierBelongsToAnotherUnit(actionUnit.getId(), recordingUnit.getId(), candidate))
+                .identifierAlreadyUsed((recordingUnit, candidate) -> identifierBelongsToAnotherUnit(
+                        actionUnitOf.apply(recordingUnit).getId(), recordingUnit.getId(), candidate))
+                .identifiersAlreadyUsed((actionUnit, candidates) -> new HashSet<>(
+                        recordingUnitRepository.findUsedFullIdentifiers(actionUnit.getId(), candidates)))
                 .numberSetter(RecordingUnit::setIdentifier)
                 .identifierSetter(RecordingUnit::setFullIdentifier)
                 .build();
@@ -1021,6 +1084,7 @@ public class RecordingUnitService implements ArkEntityService {
                 .toList();
     }
 
+    @ExecutionTimeLogger
     public List<RecordingUnitSummaryDTO> autocompleteInActionUnit(@NotNull Long actionUnitId, String query, int limit) {
         return recordingUnitRepository
                 .findByActionUnitIdAndFullIdentifierContainingIgnoreCaseOrderByFullIdentifierAsc(
@@ -1127,12 +1191,27 @@ public class RecordingUnitService implements ArkEntityService {
         return searchRecordingUnit(institution, filters, pageable, true);
     }
 
+    @ExecutionTimeLogger
     public Page<RecordingUnitDTO> searchRecordingUnit(InstitutionDTO institution, FilterDTO filters, Pageable pageable,
                                                        boolean includeFullRelations) {
         Specification<RecordingUnit> specs = prepareSpecs(institution, filters);
         return pageAndEnrich(specs, pageable, includeFullRelations);
     }
 
+    /**
+     * Page of the recording units of an institution after a cursor (keyset pagination), with the counts of the
+     * REST API lists.
+     *
+     * @param cursor the cursor of the previous page, null or blank for the first page
+     * @throws InvalidCursorException if the cursor is invalid or was made for another sort
+     */
+    @Transactional(readOnly = true)
+    @ExecutionTimeLogger
+    public KeysetPage<RecordingUnitDTO> searchRecordingUnitAfter(InstitutionDTO institution, FilterDTO filters,
+                                                                 Sort sort, String cursor, int limit) {
+        return keysetPageAndEnrich(prepareSpecs(institution, filters), sort, cursor, limit);
+    }
+
     /**
      * Pages recording units for a given {@link Specification} and enriches each row with either the
      * full {@code parents}/{@code children}/{@code phases} collections (JSF list, which renders them as
@@ -1144,22 +1223,37 @@ public class RecordingUnitService implements ArkEntityService {
                                                  boolean includeFullRelations) {
         Page<RecordingUnitDTO> page = recordingUnitRepository.findAll(specs, pageable)
                 .map(recordingUnitMapper::toLightDto);
+        enrich(page.getContent(), includeFullRelations);
+        return page;
+    }
 
-        List<Long> ids = page.getContent().stream()
+    /**
+     * Same as {@link #pageAndEnrich} with a keyset pagination (REST API): the page starts after the cursor, and
+     * rows are enriched with counts.
+     */
+    private KeysetPage<RecordingUnitDTO> keysetPageAndEnrich(Specification<RecordingUnit> specs, Sort sort,
+                                                             String cursor, int limit) {
+        return KeysetSpec.findPage(recordingUnitRepository, specs, sort, cursor, limit, units -> {
+            List<RecordingUnitDTO> rows = units.stream().map(recordingUnitMapper::toLightDto).toList();
+            enrich(rows, false);
+            return rows;
+        });
+    }
+
+    private void enrich(List<RecordingUnitDTO> rows, boolean includeFullRelations) {
+        List<Long> ids = rows.stream()
                 .map(RecordingUnitDTO::getId)
                 .filter(Objects::nonNull)
                 .toList();
         if (ids.isEmpty()) {
-            return page;
+            return;
         }
 
         if (includeFullRelations) {
-            hydrateFullRelations(page.getContent(), ids);
+            hydrateFullRelations(rows, ids);
         } else {
-            hydrateCounts(page.getContent(), ids);
+            hydrateCounts(rows, ids);
         }
-
-        return page;
     }
 
     private void hydrateFullRelations(List<RecordingUnitDTO> rows, List<Long> ids) {
@@ -0,0 +1,349 @@
+package fr.siamois.domain.services.recordingunit;
+
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.infrastructure.database.repositories.recordingunit.StratigraphicClosureRepository;
+import fr.siamois.utils.stratigraphy.IncrementalStratigraphicClosure;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the stratigraphic closure of each action unit: which recording units are anterior to, or synchronous
+ * with, which other ones, directly or by deduction.
+ * <p>
+ * The closure of an action unit is built once from its relationships, and is then updated on each added or removed
+ * relationship instead of being recomputed for the whole site. The closures held in memory are those of the
+ * committed relationships and are never modified: a transaction records its changes on its own copy, which answers
+ * its queries, and replays them when it commits.
+ * <p>
+ * Before commit, the version of the closure of the action unit is incremented, which locks it until the end of the
+ * transaction. The changes are then replayed on a copy of the closure held in memory if it is still the one of the
+ * previous version, otherwise the closure is rebuilt from the relationships. The new closure replaces the one in
+ * memory once the transaction has committed. A closure is read only if its version is still the last committed one,
+ * so that the changes committed by other instances are seen.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StratigraphicClosureService {
+
+    private final StratigraphicClosureRepository closureRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, CommittedClosure> closures = new ConcurrentHashMap<>();
+
+    /**
+     * The closure of the relationships committed up to a version. It is not modified once created.
+     */
+    private record CommittedClosure(IncrementalStratigraphicClosure closure, long version) {
+
+        private CommittedClosure latest(CommittedClosure other) {
+            return other.version > version ? other : this;
+        }
+    }
+
+    private record Change(long unit1Id, long unit2Id, boolean synchronous, boolean added) {
+
+        private void applyTo(IncrementalStratigraphicClosure closure) {
+            if (added) {
+                closure.addRelationship(unit1Id, unit2Id, synchronous);
+            } else {
+                closure.removeRelationship(unit1Id, unit2Id, synchronous);
+            }
+        }
+    }
+
+    /**
+     * The changes made to the closure of an action unit by the current transaction, and its copy of the closure
+     * with these changes. An invalidated closure has no copy: it is rebuilt from the relationships.
+     */
+    private static final class PendingClosure {
+        private final List<Change> changes = new ArrayList<>();
+        private IncrementalStratigraphicClosure working;
+        private boolean invalidated;
+        private CommittedClosure committed;
+    }
+
+    /**
+     * @param relationship a relationship
+     * @return true if the relationship states that its units are synchronous
+     */
+    public static boolean isSynchronous(StratigraphicRelationship relationship) {
+        return Boolean.FALSE.equals(relationship.getIsAsynchronous())
+                || (relationship.getConcept() != null
+                && StratigraphicRelationshipService.SYNCHRONOUS.getExternalId().equals(relationship.getConcept().getExternalId()));
+    }
+
+    private Long actionUnitIdOf(RecordingUnit unit) {
+        if (unit.getActionUnit() != null) {
+            return unit.getActionUnit().getId();
+        }
+        return unit.getId() == null ? null : closureRepository.findActionUnitIdOfRecordingUnit(unit.getId());
+    }
+
+    /**
+     * @return the closure answering the queries of the current thread: the copy of the current transaction if it
+     * changed the relationships of the action unit, otherwise the committed one
+     */
+    private IncrementalStratigraphicClosure closureOf(Long actionUnitId) {
+        PendingClosure pending = pendingClosures().get(actionUnitId);
+        if (pending != null && pending.invalidated) {
+            return build(actionUnitId);
+        }
+        if (pending != null && pending.working != null) {
+            return pending.working;
+        }
+        return committedClosureOf(actionUnitId).closure();
+    }
+
+    private CommittedClosure committedClosureOf(Long actionUnitId) {
+        CommittedClosure committed = closures.get(actionUnitId);
+        // Another instance may have committed a change of the relationships since it was built
+        if (committed != null && committed.version() >= closureRepository.findVersion(actionUnitId)) {
+            return committed;
+        }
+        // Loaded outside the map, a concurrent load of the same action unit waits on the version lock
+        CommittedClosure loaded = load(actionUnitId);
+        return closures.merge(actionUnitId, loaded, CommittedClosure::latest);
+    }
+
+    /**
+     * Builds the committed closure of an action unit in a transaction of its own, which does not see the
+     * relationships changed by the current one. The version is locked meanwhile, so that no transaction commits a
+     * change of the relationships between the version and the relationships read.
+     */
+    private CommittedClosure load(Long actionUnitId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> {
+            closureRepository.createVersionIfAbsent(actionUnitId);
+            long version = closureRepository.lockVersion(actionUnitId);
+            List<long[]> relationships = new ArrayList<>();
+            List<Boolean> synchronous = new ArrayList<>();
+            readRelationships(actionUnitId, relationships, synchronous);
+            IncrementalStratigraphicClosure closure = IncrementalStratigraphicClosure.build(relationships, synchronous);
+            log.info("Stratigraphic closure of action unit {} built: {} units, {} relationships",
+                    actionUnitId, closure.size(), relationships.size());
+            return new CommittedClosure(closure, version);
+        });
+    }
+
+    private void readRelationships(Long actionUnitId, List<long[]> relationships, List<Boolean> synchronous) {
+        for (Object[] row : closureRepository.findRelationshipEdgesByActionUnitId(actionUnitId)) {
+            relationships.add(new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()});
+            synchronous.add(Boolean.TRUE.equals(row[2]));
+        }
+    }
+
+    /**
+     * @return the closure of the relationships as seen by the current transaction, without keeping it
+     */
+    private IncrementalStratigraphicClosure build(Long actionUnitId) {
+        List<long[]> relationships = new ArrayList<>();
+        List<Boolean> synchronous = new ArrayList<>();
+        readRelationships(actionUnitId, relationships, synchronous);
+        return IncrementalStratigraphicClosure.build(relationships, synchronous);
+    }
+
+    /**
+     * Updates the closure after a relationship has been added.
+     *
+     * @param relationship the new relationship
+     */
+    public void relationshipAdded(StratigraphicRelationship relationship) {
+        apply(relationship, isSynchronous(relationship), true);
+    }
+
+    /**
+     * Updates the closure after a relationship has been removed.
+     *
+     * @param relationship the removed relationship
+     * @param synchronous  true if the relationship was synchronous when it was recorded
+     */
+    public void relationshipRemoved(StratigraphicRelationship relationship, boolean synchronous) {
+        apply(relationship, synchronous, false);
+    }
+
+    private void apply(StratigraphicRelationship relationship, boolean synchronous, boolean added) {
+        RecordingUnit unit1 = relationship.getUnit1();
+        RecordingUnit unit2 = relationship.getUnit2();
+        if (unit1 == null || unit2 == null) {
+            return;
+        }
+        Long actionUnitId = actionUnitIdOf(unit1);
+        if (actionUnitId == null) {
+            return;
+        }
+        if (unit1.getId() == null || unit2.getId() == null) {
+            // Units not persisted yet: the closure will be rebuilt on next use
+            invalidate(actionUnitId);
+            return;
+        }
+        Change change = new Change(unit1.getId(), unit2.getId(), synchronous, added);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(actionUnitId, commit(actionUnitId, List.of(change)));
+            return;
+        }
+        PendingClosure pending = pendingClosure(actionUnitId);
+        if (!pending.invalidated) {
+            if (pending.working == null) {
+                pending.working = committedClosureOf(actionUnitId).closure().copy();
+            }
+            change.applyTo(pending.working);
+            pending.changes.add(change);
+        }
+    }
+
+    /**
+     * Forgets the closure of an action unit, e.g. after a bulk import of its relationships. Its version is
+     * incremented when the transaction commits, and it is rebuilt from the relationships on next use, by every
+     * instance.
+     *
+     * @param actionUnitId the id of the action unit
+     */
+    public void invalidate(Long actionUnitId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            closureRepository.incrementVersion(actionUnitId);
+            closures.remove(actionUnitId);
+            return;
+        }
+        PendingClosure pending = pendingClosure(actionUnitId);
+        pending.invalidated = true;
+        pending.working = null;
+        pending.changes.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, PendingClosure> pendingClosures() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Map.of();
+        }
+        Map<Long, PendingClosure> pending = (Map<Long, PendingClosure>) TransactionSynchronizationManager.getResource(this);
+        return pending == null ? Map.of() : pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    private PendingClosure pendingClosure(Long actionUnitId) {
+        Map<Long, PendingClosure> pending = (Map<Long, PendingClosure>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, PendingClosure> registered = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, registered);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // In the order of the ids, so that two transactions lock the versions in the same order
+                    registered.forEach((id, closure) -> {
+                        if (closure.invalidated) {
+                            closureRepository.incrementVersion(id);
+                        } else {
+                            closure.committed = commit(id, closure.changes);
+                        }
+                    });
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StratigraphicClosureService.this);
+                    if (status != STATUS_COMMITTED) {
+                        return;
+                    }
+                    registered.forEach((id, closure) -> {
+                        if (closure.invalidated) {
+                            closures.remove(id);
+                        } else {
+                            publish(id, closure.committed);
+                        }
+                    });
+                }
+            });
+            pending = registered;
+        }
+        return pending.computeIfAbsent(actionUnitId, id -> new PendingClosure());
+    }
+
+    /**
+     * Replays the changes of the current transaction on the committed closure of the action unit. The version lock
+     * is held until the transaction ends, so no other transaction commits a change of this action unit in between.
+     *
+     * @return the closure once the transaction has committed
+     */
+    private CommittedClosure commit(Long actionUnitId, List<Change> changes) {
+        // The relationships of the transaction are flushed before the version is locked
+        closureRepository.flush();
+        long version = closureRepository.incrementVersion(actionUnitId);
+        CommittedClosure previous = closures.get(actionUnitId);
+        if (previous == null || previous.version() != version - 1) {
+            // Changed by another instance, or not loaded: rebuilt from the relationships of the transaction
+            return new CommittedClosure(build(actionUnitId), version);
+        }
+        IncrementalStratigraphicClosure closure = previous.closure().copy();
+        changes.forEach(change -> change.applyTo(closure));
+        return new CommittedClosure(closure, version);
+    }
+
+    private void publish(Long actionUnitId, CommittedClosure committed) {
+        closures.merge(actionUnitId, committed, CommittedClosure::latest);
+    }
+
+    /**
+     * @param anterior  a recording unit
+     * @param posterior another recording unit of the same action unit
+     * @return true if the first unit is anterior to the second one, directly or by deduction
+     */
+    public boolean isAnterior(RecordingUnit anterior, RecordingUnit posterior) {
+        Long actionUnitId = actionUnitIdOf(anterior);
+        if (actionUnitId == null || anterior.getId() == null || posterior.getId() == null) {
+            return false;
+        }
+        return closureOf(actionUnitId).isAnterior(anterior.getId(), posterior.getId());
+    }
+
+    /**
+     * @param unit a recording unit
+     * @return the ids of the units anterior to the given unit, directly or by deduction
+     */
+    public Set<Long> findAnteriorUnitIds(RecordingUnit unit) {
+        Long actionUnitId = actionUnitIdOf(unit);
+        if (actionUnitId == null || unit.getId() == null) {
+            return Set.of();
+        }
+        return closureOf(actionUnitId).anteriorsOf(unit.getId());
+    }
+
+    /**
+     * @param unit a recording unit
+     * @return the ids of the units posterior to the given unit, directly or by deduction
+     */
+    public Set<Long> findPosteriorUnitIds(RecordingUnit unit) {
+        Long actionUnitId = actionUnitIdOf(unit);
+        if (actionUnitId == null || unit.getId() == null) {
+            return Set.of();
+        }
+        return closureOf(actionUnitId).posteriorsOf(unit.getId());
+    }
+
+    /**
+     * @param unit a recording unit
+     * @return the ids of the units of the synchronous group of the given unit, including itself
+     */
+    public Set<Long> findSynchronousUnitIds(RecordingUnit unit) {
+        Long actionUnitId = actionUnitIdOf(unit);
+        if (actionUnitId == null || unit.getId() == null) {
+            return unit.getId() == null ? Set.of() : Set.of(unit.getId());
+        }
+        return closureOf(actionUnitId).synchronousGroupOf(unit.getId());
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing stratigraphic relationships between recording units.
@@ -23,6 +24,7 @@ import java.util.Optional;
 public class StratigraphicRelationshipService {
 
     private final StratigraphicRelationshipRepository relationshipRepository;
+    private final StratigraphicClosureService closureService;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -43,8 +45,10 @@ public class StratigraphicRelationshipService {
         ASYNCHRONOUS_DEDUCTED.setExternalId("SIAMOIS_ASYNCHRONOUS_DEDUCTED");
     }
 
-    public StratigraphicRelationshipService(StratigraphicRelationshipRepository relationshipRepository) {
+    public StratigraphicRelationshipService(StratigraphicRelationshipRepository relationshipRepository,
+                                            StratigraphicClosureService closureService) {
         this.relationshipRepository = relationshipRepository;
+        this.closureService = closureService;
     }
 
     /**
@@ -97,6 +101,41 @@ public class StratigraphicRelationshipService {
                 .toList();
     }
 
+    /**
+     * Returns the ids of the recording units anterior to the given unit, directly or deduced by transitivity
+     * through synchronous and asynchronous relationships. Answered from the maintained closure, without walking
+     * the relationships.
+     *
+     * @param usq the recording unit
+     * @return the ids of all the units anterior to the given unit
+     */
+    public Set<Long> getAllAnteriorUnitIds(RecordingUnit usq) {
+        return closureService.findAnteriorUnitIds(usq);
+    }
+
+    /**
+     * Returns the ids of the recording units posterior to the given unit, directly or deduced by transitivity
+     * through synchronous and asynchronous relationships. Answered from the maintained closure, without walking
+     * the relationships.
+     *
+     * @param usq the recording unit
+     * @return the ids of all the units posterior to the given unit
+     */
+    public Set<Long> getAllPosteriorUnitIds(RecordingUnit usq) {
+        return closureService.findPosteriorUnitIds(usq);
+    }
+
+    /**
+     * Checks whether a unit is anterior to another one, directly or by deduction.
+     *
+     * @param anterior  the supposedly anterior unit
+     * @param posterior the supposedly posterior unit
+     * @return true if the first unit is anterior to the second one
+     */
+    public boolean isAnterior(RecordingUnit anterior, RecordingUnit posterior) {
+        return closureService.isAnterior(anterior, posterior);
+    }
+
     /**
      * Saves a stratigraphic relationship between two recording units.
      *
@@ -125,6 +164,7 @@ public class StratigraphicRelationshipService {
         if (opt.isPresent()) {
             StratigraphicRelationship existingRel = opt.get();
             relationshipRepository.delete(existingRel); // Delete the reversed relationship
+            closureService.relationshipRemoved(existingRel, StratigraphicClosureService.isSynchronous(existingRel));
             entityManager.flush(); // Ensure the deletion is flushed before proceeding because
             // there is a trigger in DB for reversed relationships
 
@@ -146,7 +186,9 @@ public class StratigraphicRelationshipService {
         newRel.setUnit1(unit1);
         newRel.setUnit2(unit2);
 
-        return relationshipRepository.save(newRel);
+        StratigraphicRelationship saved = relationshipRepository.save(newRel);
+        closureService.relationshipAdded(newRel);
+        return saved;
     }
 
 }
@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.settings.tableconfig;
 
+import fr.siamois.domain.events.publisher.FormConfigChangeEventPublisher;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.auth.Person;
@@ -65,6 +66,9 @@ import java.util.function.Consumer;
  * Configurations are created lazily: a type has no row until something is actually configured on
  * it. Reading a type that has no configuration therefore falls back on the default one rather than
  * writing to the database, and only the write operations materialize a row.
+ * <p>
+ * Every write publishes a {@link fr.siamois.domain.models.events.FormConfigChangeEvent}, so the forms resolved from
+ * the previous configuration are no longer used.
  */
 @Slf4j
 @Service
@@ -84,6 +88,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
     private final CustomFieldRepository customFieldRepository;
     private final CustomFieldAnswerRepository customFieldAnswerRepository;
     private final PersonRepository personRepository;
+    private final FormConfigChangeEventPublisher formConfigChangeEventPublisher;
 
     @Override
     public List<ConfigurableTable> listTables() {
@@ -121,6 +126,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
             throw new IllegalArgumentException("The default configuration always exists and cannot be added");
         }
         requireFormConfig(projectId, table, typeName);
+        formConfigChangeEventPublisher.publishEvent(projectId);
         return new TypeSummary(typeName, false);
     }
 
@@ -174,6 +180,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
     @Transactional
     public void saveFormConfig(Long projectId, ConfigurableTable table, TypeFormConfig config) {
         FormConfig stored = requireFormConfig(projectId, table, config.getTypeName());
+        formConfigChangeEventPublisher.publishEvent(projectId);
         // Existing callers use this method only to materialize a row and omit identifier values.
         if (config.getIdentifierFormat() == null) return;
         if (config.getIdentifierFormat().isBlank()) {
@@ -281,6 +288,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
                 fieldFormConfigRepository.save(toUpdate);
             }
         }
+        formConfigChangeEventPublisher.publishEvent(projectId);
     }
 
 
@@ -311,6 +319,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
         }
 
         links.forEach(fieldFormConfigRepository::delete);
+        formConfigChangeEventPublisher.publishEvent(projectId);
         return true;
     }
 
@@ -381,7 +390,9 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
     public TypeFieldFormConfig createField(Long projectId, ConfigurableTable table, String typeName,
                                            String name, FieldType type, String description) {
         SetupReplacementLabelResult result = configureReplacementLabel(projectId, table, typeName, name, type, description);
-        return toDto(linkField(result.savedReplacement, result.owner, true, false));
+        FieldFormConfig link = linkField(result.savedReplacement, result.owner, true, false);
+        formConfigChangeEventPublisher.publishEvent(projectId);
+        return toDto(link);
     }
 
     /**
@@ -403,7 +414,9 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
                 .filter(candidate -> catalogFieldName.equals(candidate.getLabel()))
                 .findFirst()
                 .orElseThrow(() -> new NoSuchElementException("Unknown catalog field: " + catalogFieldName));
-        return toDto(linkField(field, formConfig, true, false));
+        FieldFormConfig link = linkField(field, formConfig, true, false);
+        formConfigChangeEventPublisher.publishEvent(projectId);
+        return toDto(link);
     }
 
     /**
@@ -437,6 +450,8 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
             current.setLabel(newName);
             current.setHint(description);
             customFieldRepository.save(current);
+            // the field may be on the types of other projects
+            formConfigChangeEventPublisher.publishEvent(null);
             return toDto(new EffectiveField(current, effective.stored(), effective.requiredByForm()));
         }
 
@@ -449,6 +464,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
         if (fieldFormConfigRepository.countByFieldId(current.getId()) == 0) {
             customFieldRepository.delete(current);
         }
+        formConfigChangeEventPublisher.publishEvent(projectId);
         return toDto(link);
     }
 
@@ -671,6 +687,7 @@ public class TableFieldConfigServiceImpl implements TableFieldConfigService {
         change.accept(config);
         assert config != null;
         fieldFormConfigRepository.save(config);
+        formConfigChangeEventPublisher.publishEvent(projectId);
     }
 
     private static void warnNoFieldOnType(Long projectId, ConfigurableTable table, String typeName, String fieldName) {
@@ -0,0 +1,115 @@
+package fr.siamois.domain.services.spatialunit;
+
+import fr.siamois.dto.entity.SpatialUnitSummaryDTO;
+import org.primefaces.model.CheckboxTreeNode;
+import org.primefaces.model.TreeNode;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * In-memory snapshot of the spatial units of an institution and of their parent/child links, from which the
+ * {@link CheckboxTreeNode} trees are assembled without further queries.
+ * <p>
+ * A unit with several parents appears under each of them. A unit reached again on its own branch is a cycle: it is
+ * shown as a non-selectable "cycle" node and its children are not expanded.
+ */
+public class SpatialUnitHierarchy implements Serializable {
+
+    public static final String NODE_TYPE = "SpatialUnit";
+    public static final String CYCLE_TYPE = "cycle";
+
+    private final Map<Long, SpatialUnitSummaryDTO> unitsById;
+    private final Map<Long, List<Long>> childIdsByParent;
+    private final List<Long> rootIds;
+    // Children of a unit resolved once, whatever the number of branches the unit appears in
+    private final Map<Long, List<SpatialUnitSummaryDTO>> childrenCache = new HashMap<>();
+
+    /**
+     * @param units            the spatial units, in display order
+     * @param childIdsByParent the child IDs of each unit, in display order
+     */
+    public SpatialUnitHierarchy(List<SpatialUnitSummaryDTO> units, Map<Long, List<Long>> childIdsByParent) {
+        this.unitsById = new LinkedHashMap<>();
+        for (SpatialUnitSummaryDTO unit : units) {
+            unitsById.put(unit.getId(), unit);
+        }
+        this.childIdsByParent = childIdsByParent;
+
+        Set<Long> children = new HashSet<>();
+        childIdsByParent.values().forEach(children::addAll);
+        this.rootIds = unitsById.keySet().stream()
+                .filter(id -> !children.contains(id))
+                .toList();
+    }
+
+    public List<SpatialUnitSummaryDTO> getRoots() {
+        return rootIds.stream().map(unitsById::get).toList();
+    }
+
+    /**
+     * @return The children of the unit belonging to the snapshot, empty if none
+     */
+    public List<SpatialUnitSummaryDTO> getChildren(Long id) {
+        return childrenCache.computeIfAbsent(id, key -> childIdsByParent.getOrDefault(key, List.of()).stream()
+                .map(unitsById::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public boolean hasChildren(Long id) {
+        return !getChildren(id).isEmpty();
+    }
+
+    private static TreeNode<SpatialUnitSummaryDTO> newRoot() {
+        return new CheckboxTreeNode<>(new SpatialUnitSummaryDTO(), null);
+    }
+
+    /**
+     * Builds the whole tree, iteratively so that deep hierarchies do not exhaust the stack.
+     * @return The invisible root node, whose children are the root units
+     */
+    public TreeNode<SpatialUnitSummaryDTO> buildTree() {
+        TreeNode<SpatialUnitSummaryDTO> root = newRoot();
+        for (SpatialUnitSummaryDTO r : getRoots()) {
+            TreeNode<SpatialUnitSummaryDTO> rNode = new CheckboxTreeNode<>(NODE_TYPE, r, root);
+            rNode.setExpanded(false);
+            buildSubtree(rNode);
+        }
+        return root;
+    }
+
+    /** Depth-first walk; pathIds holds the units of the current branch */
+    private void buildSubtree(TreeNode<SpatialUnitSummaryDTO> top) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        Set<Long> pathIds = new HashSet<>();
+        pathIds.add(top.getData().getId());
+        stack.push(new Frame(top, getChildren(top.getData().getId()).iterator()));
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (!frame.children.hasNext()) {
+                stack.pop();
+                pathIds.remove(frame.node.getData().getId());
+                continue;
+            }
+            SpatialUnitSummaryDTO child = frame.children.next();
+            if (pathIds.contains(child.getId())) {
+                newCycleNode(child, frame.node);
+                continue;
+            }
+            TreeNode<SpatialUnitSummaryDTO> childNode = new CheckboxTreeNode<>(NODE_TYPE, child, frame.node);
+            pathIds.add(child.getId());
+            stack.push(new Frame(childNode, getChildren(child.getId()).iterator()));
+        }
+    }
+
+    private record Frame(TreeNode<SpatialUnitSummaryDTO> node, Iterator<SpatialUnitSummaryDTO> children) {
+    }
+
+    private static void newCycleNode(SpatialUnitSummaryDTO unit, TreeNode<SpatialUnitSummaryDTO> parent) {
+        // Cycle détecté : on l’affiche en grisé et non sélectionnable
+        TreeNode<SpatialUnitSummaryDTO> cycle = new CheckboxTreeNode<>(CYCLE_TYPE, unit, parent);
+        cycle.setSelectable(false);
+    }
+}
@@ -1,10 +1,13 @@
 package fr.siamois.domain.services.spatialunit;
 
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.ValidationStatus;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.ark.Ark;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitNotFoundException;
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
 import fr.siamois.domain.models.exceptions.recordingunit.FailedRecordingUnitSaveException;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitAlreadyExistsException;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitNotFoundException;
@@ -22,6 +25,8 @@ import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.domain.services.person.PersonService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
 import fr.siamois.dto.FilterDTO;
+import fr.siamois.dto.api.KeysetPage;
+import fr.siamois.dto.PlaceGeometryDTO;
 import fr.siamois.dto.PlaceSuggestionDTO;
 import fr.siamois.dto.entity.*;
 import fr.siamois.dto.entity.vocabulary.ConceptDTO;
@@ -29,12 +34,12 @@ import fr.siamois.infrastructure.database.repositories.DocumentRepository;
 import fr.siamois.infrastructure.database.repositories.SpatialUnitRepository;
 import fr.siamois.infrastructure.database.repositories.actionunit.ActionUnitRepository;
 import fr.siamois.infrastructure.database.repositories.recordingunit.RecordingUnitRepository;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetSpec;
 import fr.siamois.infrastructure.database.repositories.specs.SpatialUnitSpec;
 import fr.siamois.mapper.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -47,6 +52,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Service to manage SpatialUnit
@@ -72,6 +78,7 @@ public class SpatialUnitService implements ArkEntityService {
     private final RecordingUnitRepository recordingUnitRepository;
     private final DocumentRepository documentRepository;
     private final ConceptMapper conceptMapper;
+    private final UnitChangeEventPublisher unitChangeEventPublisher;
 
     /**
      * Find a spatial unit by its ID
@@ -123,6 +130,38 @@ public class SpatialUnitService implements ArkEntityService {
                 .toList();
     }
 
+    /**
+     * Find a page of the spatial units of an institution after a cursor (keyset pagination)
+     *
+     * @param institutionId The institution id to filter by
+     * @param sort          The sort of the list, completed with the id
+     * @param cursor        The cursor of the previous page, null or blank for the first page
+     * @param limit         The size of the page
+     * @return The page of spatial units and the cursor of the next page
+     * @throws InvalidCursorException If the cursor is invalid or was made for another sort
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SpatialUnitDTO> findByInstitutionIdAfter(Long institutionId, Sort sort, String cursor, int limit) {
+        return KeysetSpec.findPage(spatialUnitRepository, SpatialUnitSpec.belongsToInstitution(institutionId), sort,
+                cursor, limit, spatialUnits -> spatialUnits.stream().map(spatialUnitMapper::convert).toList());
+    }
+
+    /**
+     * Find the spatial units with the given ids, unknown ids are ignored
+     *
+     * @param ids The ids of the spatial units
+     * @return The spatial units found
+     */
+    @Transactional(readOnly = true)
+    public List<SpatialUnitDTO> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return spatialUnitRepository.findAll(SpatialUnitSpec.idIn(ids)).stream()
+                .map(spatialUnitMapper::convert)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public Page<SpatialUnitDTO> findByInstitutionId(Long institutionId, int limit, int offset, Sort sort) {
         int pageNumber = limit > 0 ? offset / limit : 0;
@@ -154,10 +193,6 @@ public class SpatialUnitService implements ArkEntityService {
      * @throws SpatialUnitAlreadyExistsException If a SpatialUnit with the same name already exists in the institution
      */
     @Transactional
-    @CacheEvict({
-            "InstitutionHasRootChildrenSU",
-            "ParentHasRootChildrenSU"
-    })
     public SpatialUnitDTO save(UserInfo info, SpatialUnitDTO su) throws SpatialUnitAlreadyExistsException {
         String name = su.getName();
 
@@ -210,6 +245,7 @@ public class SpatialUnitService implements ArkEntityService {
 
 
         spatialUnit = spatialUnitRepository.save(spatialUnit);
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
 
         return spatialUnitMapper.convert(spatialUnit);
     }
@@ -270,7 +306,9 @@ public class SpatialUnitService implements ArkEntityService {
             Concept type = conceptService.saveOrGetConcept(conceptDTO);
             managedSpatialUnit.setCategory(type);
 
-            return spatialUnitMapper.convert(spatialUnitRepository.save(managedSpatialUnit));
+            SpatialUnit saved = spatialUnitRepository.save(managedSpatialUnit);
+            unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
+            return spatialUnitMapper.convert(saved);
 
         } catch (RuntimeException e) {
             throw new FailedRecordingUnitSaveException(e.getMessage());
@@ -315,25 +353,13 @@ public class SpatialUnitService implements ArkEntityService {
      * @return A list of root SpatialUnit that have no parents
      */
     public List<SpatialUnitDTO> findRootsOf(Long id) {
-        List<SpatialUnit> result = new ArrayList<>();
-        for (SpatialUnit spatialUnit : spatialUnitRepository.findAllOfInstitution(id)) {
-            if (spatialUnitRepository.countParentsByChildId(spatialUnit.getId()) == 0) {
-                result.add(spatialUnit);
-            }
-        }
-        return result.stream()
+        return spatialUnitRepository.findRootsOfInstitution(id).stream()
                 .map(spatialUnitMapper::convert)
                 .toList();
     }
 
     public List<SpatialUnitSummaryDTO> findSummaryRootsOf(Long id) {
-        List<SpatialUnit> result = new ArrayList<>();
-        for (SpatialUnit spatialUnit : spatialUnitRepository.findAllOfInstitution(id)) {
-            if (spatialUnitRepository.countParentsByChildId(spatialUnit.getId()) == 0) {
-                result.add(spatialUnit);
-            }
-        }
-        return result.stream()
+        return spatialUnitRepository.findRootsOfInstitution(id).stream()
                 .map(spatialUnitSummaryMapper::convert)
                 .toList();
     }
@@ -427,6 +453,79 @@ public class SpatialUnitService implements ArkEntityService {
         return spatialUnitRepository.existsChildrenByParentAndInstitution(parentId, institutionId);
     }
 
+    /**
+     * Ids of all the descendants of a spatial unit (children, grandchildren...).
+     * @param spatialUnitId The spatial unit ID
+     * @return The descendant IDs, without the unit itself
+     */
+    public List<Long> findDescendantIds(Long spatialUnitId) {
+        return spatialUnitRepository.findDescendantIds(spatialUnitId);
+    }
+
+    /**
+     * Direct children of every spatial unit of an institution, in one query.
+     * @param institutionId the institution ID
+     * @return The child IDs by parent ID, most recent child first; units without children are absent
+     */
+    public Map<Long, List<Long>> findChildIdsByParentOfInstitution(Long institutionId) {
+        Map<Long, List<Long>> childIdsByParent = new HashMap<>();
+        for (Object[] edge : spatialUnitRepository.findHierarchyEdgesOfInstitution(institutionId)) {
+            childIdsByParent.computeIfAbsent(((Number) edge[0]).longValue(), k -> new ArrayList<>())
+                    .add(((Number) edge[1]).longValue());
+        }
+        return childIdsByParent;
+    }
+
+    /**
+     * Geometries of the places of an institution intersecting a box, generalised for display.
+     * @param institutionId the institution ID
+     * @param minLon the west longitude of the box (WGS 84)
+     * @param minLat the south latitude of the box
+     * @param maxLon the east longitude of the box
+     * @param maxLat the north latitude of the box
+     * @param tolerance the simplification tolerance, in degrees; smaller places are reduced to a point
+     * @param digits the number of decimals of the coordinates
+     * @param limit the maximum number of places, the largest are kept
+     * @return The geometries, largest place first
+     */
+    public List<PlaceGeometryDTO> findGeometriesInBox(Long institutionId,
+                                                      double minLon, double minLat, double maxLon, double maxLat,
+                                                      double tolerance, int digits, int limit) {
+        return spatialUnitRepository.findGeometriesInBox(institutionId, minLon, minLat, maxLon, maxLat,
+                        tolerance, digits, limit).stream()
+                .map(row -> new PlaceGeometryDTO(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        (String) row[3]))
+                .toList();
+    }
+
+    /**
+     * Mapbox vector tile of the places of an institution.
+     * @param institutionId the institution ID
+     * @param z the zoom level
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return The encoded tile, empty if no place is visible in it
+     */
+    public byte[] findVectorTile(Long institutionId, int z, int x, int y) {
+        byte[] tile = spatialUnitRepository.findVectorTile(institutionId, z, x, y);
+        return tile == null ? new byte[0] : tile;
+    }
+
+    /**
+     * Size of the subtree under each spatial unit.
+     * @param ids The spatial unit IDs
+     * @return The number of distinct descendants by unit ID, units without children are absent
+     */
+    public Map<Long, Integer> countDescendantsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return spatialUnitRepository.countDescendantsByIds(ids).stream()
+                .collect(Collectors.toMap(
+                        row -> ((Number) row[0]).longValue(),
+                        row -> ((Number) row[1]).intValue()));
+    }
+
     /**
      * Does the institution have spatial units?
      * @param institutionId the institution ID
@@ -644,7 +743,6 @@ public class SpatialUnitService implements ArkEntityService {
      * Met à jour un lieu existant (champs null = inchangés).
      */
     @Transactional
-    @CacheEvict({"InstitutionHasRootChildrenSU", "ParentHasRootChildrenSU"})
     public SpatialUnitDTO updatePlace(UserInfo info,
                                       long placeId,
                                       String newName,
@@ -653,7 +751,6 @@ public class SpatialUnitService implements ArkEntityService {
         return updatePlace(info, placeId, newName, newCategory, newAddress, null, false);
     }
 
-    @CacheEvict({"InstitutionHasRootChildrenSU", "ParentHasRootChildrenSU"})
     public SpatialUnitDTO updatePlace(UserInfo info,
                                       long placeId,
                                       String newName,
@@ -691,7 +788,6 @@ public class SpatialUnitService implements ArkEntityService {
      * Supprime un lieu s'il n'est référencé par aucune autre entité métier.
      */
     @Transactional
-    @CacheEvict({"InstitutionHasRootChildrenSU", "ParentHasRootChildrenSU"})
     public void deleteIfUnused (long spatialUnitId) {
         spatialUnitRepository.findById(spatialUnitId)
                 .orElseThrow(() -> new SpatialUnitNotFoundException("SpatialUnit not found with ID: " + spatialUnitId));
@@ -721,5 +817,6 @@ public class SpatialUnitService implements ArkEntityService {
         actionUnitRepository.deleteSpatialContextLinksForSpatialUnit(spatialUnitId);
         documentRepository.deleteAllSpatialUnitDocumentLinksBySpatialUnitId(spatialUnitId);
         spatialUnitRepository.deleteById(spatialUnitId);
+        unitChangeEventPublisher.publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
     }
 }
@@ -2,14 +2,9 @@ package fr.siamois.domain.services.spatialunit;
 
 import fr.siamois.dto.entity.SpatialUnitSummaryDTO;
 import fr.siamois.ui.bean.SessionSettingsBean;
-import org.primefaces.model.CheckboxTreeNode;
 import org.primefaces.model.TreeNode;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 @Service
 public class SpatialUnitTreeService {
 
@@ -21,47 +16,22 @@ public class SpatialUnitTreeService {
         this.sessionSettingsBean = sessionSettingsBean;
     }
 
-    /** Récursion avec détection de cycle par "chemin" */
-    private void buildChildren(TreeNode<SpatialUnitSummaryDTO> parentNode, SpatialUnitSummaryDTO parent, Set<Long> pathIds) {
-        List<SpatialUnitSummaryDTO> enfants = spatialUnitService.findDirectChildrensSummaryOf(parent.getId());
-        if (enfants == null || enfants.isEmpty()) {
-            return;
-        }
-        for (SpatialUnitSummaryDTO child : enfants) {
-            if (pathIds.contains(child.getId())) {
-                // Cycle détecté : on l’affiche en grisé et non sélectionnable
-                TreeNode<SpatialUnitSummaryDTO> cycle = new CheckboxTreeNode<>("cycle", child, parentNode);
-                cycle.setSelectable(false);
-                continue;
-            }
-            TreeNode<SpatialUnitSummaryDTO> childNode = new CheckboxTreeNode<>("SpatialUnit", child, parentNode);
-            // nouveau "chemin" pour la branche (important avec multi-parents)
-            Set<Long> nextPath = new HashSet<>(pathIds);
-            nextPath.add(child.getId());
-            buildChildren(childNode, child, nextPath);
-        }
+    /**
+     * Loads the spatial units of an institution and their links, in two queries whatever the size of the hierarchy.
+     * @param institutionId the institution ID
+     * @return The snapshot from which the trees are built
+     */
+    public SpatialUnitHierarchy loadHierarchy(Long institutionId) {
+        return new SpatialUnitHierarchy(
+                spatialUnitService.findAllSummaryOfInstitution(institutionId),
+                spatialUnitService.findChildIdsByParentOfInstitution(institutionId));
     }
 
-
     /**
      * Returns the tree node of all the spatial units in the active institution
      * @return The tree node
      */
     public TreeNode<SpatialUnitSummaryDTO> buildTree() {
-
-        TreeNode<SpatialUnitSummaryDTO> root = new CheckboxTreeNode<>(new SpatialUnitSummaryDTO(), null);
-        List<SpatialUnitSummaryDTO> racines = spatialUnitService.findSummaryRootsOf(sessionSettingsBean.getSelectedInstitution().getId());
-
-        for (SpatialUnitSummaryDTO r : racines) {
-            TreeNode<SpatialUnitSummaryDTO> rNode = new CheckboxTreeNode<>("SpatialUnit", r, root);
-            rNode.setExpanded(false);
-            // we memorize path to avoid cycles
-            Set<Long> path = new HashSet<>();
-            path.add(r.getId());
-            buildChildren(rNode, r, path);
-        }
-
-        return root;
-
+        return loadHierarchy(sessionSettingsBean.getSelectedInstitution().getId()).buildTree();
     }
 }
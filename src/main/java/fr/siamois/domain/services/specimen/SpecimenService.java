@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.specimen;
 
+import fr.siamois.annotations.ExecutionTimeLogger;
 import fr.siamois.domain.models.ValidationStatus;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.auth.Person;
@@ -15,6 +16,7 @@ import fr.siamois.domain.services.identifier.EntityIdentifierGenerator;
 import fr.siamois.domain.services.identifier.IdentifierGenerationSpec;
 import fr.siamois.domain.services.measurement.UnitDefinitionService;
 import fr.siamois.dto.FilterDTO;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.*;
 import fr.siamois.dto.entity.vocabulary.ConceptDTO;
 import fr.siamois.infrastructure.database.repositories.ArkRepository;
@@ -22,6 +24,7 @@ import fr.siamois.infrastructure.database.repositories.DocumentRepository;
 import fr.siamois.infrastructure.database.repositories.institution.InstitutionRepository;
 import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
 import fr.siamois.infrastructure.database.repositories.recordingunit.RecordingUnitRepository;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetSpec;
 import fr.siamois.infrastructure.database.repositories.specimen.SpecimenFindSortSql;
 import fr.siamois.infrastructure.database.repositories.specimen.SpecimenRepository;
 import fr.siamois.infrastructure.database.repositories.specs.SpecimenSpec;
@@ -34,6 +37,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
@@ -207,6 +211,7 @@ public class SpecimenService implements ArkEntityService {
      * @param toSave the specimen to save
      * @return the saved specimen
      */
+    @ExecutionTimeLogger
     public SpecimenDTO save(SpecimenDTO toSave) {
         // Convertir SpecimenDTO en Specimen
         Specimen specimen = specimenMapper.invertConvert(toSave);
@@ -670,6 +675,7 @@ public class SpecimenService implements ArkEntityService {
      * @throws IllegalStateException si la suppression est interdite (contenu bloquant)
      */
     @Transactional
+    @ExecutionTimeLogger
     public void deleteSpecimenById(long specimenId) {
         Specimen specimen = specimenRepository.findById(specimenId)
                 .orElseThrow(() -> new IllegalArgumentException("Mobilier introuvable: " + specimenId));
@@ -701,6 +707,36 @@ public class SpecimenService implements ArkEntityService {
         }
     }
 
+    /**
+     * Page des mobiliers d'une UE après un curseur (pagination par clé).
+     *
+     * @param cursor curseur de la page précédente, null ou vide pour la première page
+     * @throws IllegalArgumentException si le curseur est invalide ou a été produit pour un autre tri
+     */
+    @Transactional(readOnly = true)
+    @ExecutionTimeLogger
+    public KeysetPage<SpecimenDTO> findByRecordingUnitIdAfter(Long institutionId, Long recordingUnitId, Sort sort,
+                                                              String cursor, int limit) {
+        Specification<Specimen> specs = SpecimenSpec.specimenInInstitution(institutionId)
+                .and(SpecimenSpec.specimenInRecordingUnit(recordingUnitId));
+        return KeysetSpec.findPage(specimenRepository, specs, sort, cursor, limit,
+                specimens -> specimens.stream().map(specimenMapper::convert).toList());
+    }
+
+    /**
+     * Mobiliers par identifiants techniques. Les identifiants inconnus sont ignorés.
+     */
+    @Transactional(readOnly = true)
+    public List<SpecimenDTO> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return specimenRepository.findAll(SpecimenSpec.idIn(ids)).stream()
+                .map(specimenMapper::convert)
+                .toList();
+    }
+
+    @ExecutionTimeLogger
     public Page<SpecimenDTO> searchSpecimen(InstitutionDTO institutionDTO, FilterDTO filters, Pageable pageable) {
         Specification<Specimen> specs = prepareSpecs(institutionDTO, filters);
 
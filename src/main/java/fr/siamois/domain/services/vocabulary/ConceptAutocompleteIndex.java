@@ -0,0 +1,161 @@
+package fr.siamois.domain.services.vocabulary;
+
+import fr.siamois.infrastructure.database.repositories.vocabulary.dto.ConceptAutocompleteDTO;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory snapshot of the autocomplete candidates of a field, a branch or a collection, in one language.
+ * <p>
+ * Answers the same as the {@code concept_autocomplete*} database functions : the preferred labels containing the
+ * input, ignoring case and accents, in the order of the labels, each followed by the alternative labels of its
+ * concept. The input is searched as is : like the database functions, which escape them, {@code %} and {@code _} are
+ * not wildcards. Inputs of at least {@value #GRAM} characters are looked up through a trigram index, shorter ones by
+ * scanning the labels.
+ */
+public class ConceptAutocompleteIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    /**
+     * The letters {@code unaccent} rewrites but Unicode does not decompose, in lower case : ligatures and letters with
+     * a stroke
+     */
+    private static final Map<Character, String> LETTERS = Map.ofEntries(
+            Map.entry('æ', "ae"), Map.entry('œ', "oe"), Map.entry('ß', "ss"), Map.entry('ĳ', "ij"),
+            Map.entry('ø', "o"), Map.entry('ł', "l"), Map.entry('đ', "d"), Map.entry('ð', "d"),
+            Map.entry('þ', "th"), Map.entry('ħ', "h"), Map.entry('ı', "i"), Map.entry('ŀ', "l"),
+            Map.entry('ŧ', "t"), Map.entry('ŋ', "n"), Map.entry('ﬀ', "ff"), Map.entry('ﬁ', "fi"),
+            Map.entry('ﬂ', "fl"), Map.entry('ﬃ', "ffi"), Map.entry('ﬄ', "ffl"), Map.entry('ﬅ', "st"),
+            Map.entry('ﬆ', "st"));
+
+    /** Normalized preferred label of each entry, in label order */
+    private final String[] labels;
+    /** Rows of each entry : the alternative labels, then the preferred label, as returned by the database */
+    private final List<List<ConceptAutocompleteDTO>> rows;
+    /** Entries whose label contains the trigram, in increasing order */
+    private final Map<String, int[]> postings;
+
+    private ConceptAutocompleteIndex(String[] labels, List<List<ConceptAutocompleteDTO>> rows, Map<String, int[]> postings) {
+        this.labels = labels;
+        this.rows = rows;
+        this.postings = postings;
+    }
+
+    /**
+     * @param candidates every row of the autocomplete without input, in its order : the alternative labels of a
+     *                   concept come right before its preferred label
+     */
+    @NonNull
+    public static ConceptAutocompleteIndex of(@NonNull List<ConceptAutocompleteDTO> candidates) {
+        List<String> labels = new ArrayList<>();
+        List<List<ConceptAutocompleteDTO>> rows = new ArrayList<>();
+        List<ConceptAutocompleteDTO> pending = new ArrayList<>();
+        for (ConceptAutocompleteDTO candidate : candidates) {
+            pending.add(candidate);
+            if (!candidate.getConceptLabelToDisplay().isAltLabel()) {
+                labels.add(normalize(candidate.getConceptLabelToDisplay().getLabel()));
+                rows.add(List.copyOf(pending));
+                pending.clear();
+            }
+        }
+
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int entry = 0; entry < labels.size(); entry++) {
+            for (String gram : gramsOf(labels.get(entry))) {
+                grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(entry);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, entries) -> postings.put(gram, entries.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new ConceptAutocompleteIndex(labels.toArray(String[]::new), rows, postings);
+    }
+
+    /**
+     * @param input the text the labels must contain; null or blank matches every label
+     * @param limit the maximum number of preferred labels, their alternative labels are returned on top of it
+     */
+    @NonNull
+    public List<ConceptAutocompleteDTO> search(@Nullable String input, int limit) {
+        List<ConceptAutocompleteDTO> result = new ArrayList<>();
+        if (input == null || input.isBlank()) {
+            for (int entry = 0; entry < labels.length && entry < limit; entry++) {
+                result.addAll(rows.get(entry));
+            }
+            return result;
+        }
+
+        String searched = normalize(input);
+        int[] candidates = candidatesOf(searched);
+        int count = candidates == null ? labels.length : candidates.length;
+        int found = 0;
+        for (int i = 0; i < count && found < limit; i++) {
+            int entry = candidates == null ? i : candidates[i];
+            if (labels[entry].contains(searched)) {
+                result.addAll(rows.get(entry));
+                found++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The entries of the rarest trigram of the input, null to scan every entry when the input is too short
+     */
+    @Nullable
+    private int[] candidatesOf(String searched) {
+        if (searched.length() < GRAM) {
+            return null;
+        }
+        int[] rarest = null;
+        for (String gram : gramsOf(searched)) {
+            int[] entries = postings.get(gram);
+            if (entries == null) {
+                return new int[0];
+            }
+            if (rarest == null || entries.length < rarest.length) {
+                rarest = entries;
+            }
+        }
+        return rarest;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    private static Set<String> gramsOf(String label) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= label.length(); i++) {
+            grams.add(label.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /** Lower case without accents nor ligatures, as {@code unaccent(label) ILIKE} compares them */
+    static String normalize(@Nullable String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        String unmarked = MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder normalized = null;
+        for (int i = 0; i < unmarked.length(); i++) {
+            String letters = LETTERS.get(unmarked.charAt(i));
+            if (letters != null && normalized == null) {
+                normalized = new StringBuilder(unmarked.length() + 4).append(unmarked, 0, i);
+            }
+            if (letters != null) {
+                normalized.append(letters);
+            } else if (normalized != null) {
+                normalized.append(unmarked.charAt(i));
+            }
+        }
+        return normalized != null ? normalized.toString() : unmarked;
+    }
+}
@@ -0,0 +1,143 @@
+package fr.siamois.domain.services.vocabulary;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.models.vocabulary.ConceptCollection;
+import fr.siamois.infrastructure.database.repositories.vocabulary.AutocompleteRepository;
+import fr.siamois.infrastructure.database.repositories.vocabulary.dto.ConceptAutocompleteDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Answers the autocomplete of the concept fields from an in-memory {@link ConceptAutocompleteIndex} per field,
+ * branch or collection and per language, instead of a call to the database functions on every keystroke.
+ * <p>
+ * An index is loaded on its first search. Every index is dropped when the concept labels change, see
+ * {@link #invalidateAll()}; the indexes also expire after a while, for the changes made by the other instances of
+ * the application. The index can be disabled with {@code siamois.autocomplete.index.enabled}, the searches then go
+ * to the {@link AutocompleteRepository}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConceptAutocompleteIndexService {
+
+    private final AutocompleteRepository autocompleteRepository;
+
+    @Value("${siamois.autocomplete.index.enabled:true}")
+    private boolean enabled = true;
+
+    private enum Scope {FIELD, BRANCH, COLLECTION}
+
+    private record Key(Scope scope, long id, String lang) {
+    }
+
+    private static final ConceptAutocompleteIndex EMPTY = ConceptAutocompleteIndex.of(List.of());
+
+    private final Cache<Key, ConceptAutocompleteIndex> indexes = Caffeine.newBuilder()
+            .maximumSize(200)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * See {@link AutocompleteRepository#findMatchingConceptsFor(Concept, String, String, int)}
+     */
+    @NonNull
+    public List<ConceptAutocompleteDTO> findMatchingConceptsFor(@NonNull Concept field, @NonNull String lang,
+                                                                @Nullable String input, int limit) {
+        if (!enabled) {
+            return autocompleteRepository.findMatchingConceptsFor(field, lang, input, limit);
+        }
+        return indexOf(new Key(Scope.FIELD, field.getId(), lang),
+                () -> autocompleteRepository.findAllCandidatesFor(field, lang))
+                .search(input, limit);
+    }
+
+    /**
+     * See {@link AutocompleteRepository#findMatchingConceptsInBranchOf(Concept, String, String, int)}
+     */
+    @NonNull
+    public List<ConceptAutocompleteDTO> findMatchingConceptsInBranchOf(@NonNull Concept topTerm, @NonNull String lang,
+                                                                       @Nullable String input, int limit) {
+        if (!enabled) {
+            return autocompleteRepository.findMatchingConceptsInBranchOf(topTerm, lang, input, limit);
+        }
+        return indexOf(new Key(Scope.BRANCH, topTerm.getId(), lang),
+                () -> autocompleteRepository.findAllCandidatesInBranchOf(topTerm, lang))
+                .search(input, limit);
+    }
+
+    /**
+     * See {@link AutocompleteRepository#findMatchingConceptsInCollection(ConceptCollection, String, String, int)}
+     */
+    @NonNull
+    public List<ConceptAutocompleteDTO> findMatchingConceptsInCollection(@NonNull ConceptCollection collection, @NonNull String lang,
+                                                                         @Nullable String input, int limit) {
+        if (!enabled) {
+            return autocompleteRepository.findMatchingConceptsInCollection(collection, lang, input, limit);
+        }
+        return indexOf(new Key(Scope.COLLECTION, collection.getId(), lang),
+                () -> autocompleteRepository.findAllCandidatesInCollection(collection, lang))
+                .search(input, limit);
+    }
+
+    private interface Candidates {
+        List<ConceptAutocompleteDTO> load() throws SQLException;
+    }
+
+    /**
+     * The index of the key, loaded if needed. An empty index is kept like the others, so a field without candidates
+     * is not queried on every keystroke; a failed load is not kept and answers nothing, as the repository does.
+     */
+    private ConceptAutocompleteIndex indexOf(Key key, Candidates candidates) {
+        ConceptAutocompleteIndex index = indexes.get(key, k -> {
+            List<ConceptAutocompleteDTO> rows;
+            try {
+                rows = candidates.load();
+            } catch (SQLException e) {
+                log.error("Error while loading the autocomplete index of {} {} in {}: {}", k.scope(), k.id(), k.lang(), e.getMessage(), e);
+                return null;
+            }
+            ConceptAutocompleteIndex loaded = rows.isEmpty() ? EMPTY : ConceptAutocompleteIndex.of(rows);
+            log.debug("Autocomplete index of {} {} in {} loaded with {} labels", k.scope(), k.id(), k.lang(), loaded.size());
+            return loaded;
+        });
+        return index != null ? index : EMPTY;
+    }
+
+    /**
+     * Drops every index, once the current transaction is committed if there is one : an index loaded before the
+     * commit would still hold the previous labels.
+     */
+    public void invalidateAll() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexes.invalidateAll();
+            return;
+        }
+        // a single synchronization per transaction, however many labels it writes
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ConceptAutocompleteIndexService.this);
+                if (status == STATUS_COMMITTED) {
+                    indexes.invalidateAll();
+                }
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.vocabulary;
 
+import fr.siamois.annotations.ExecutionTimeLogger;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import fr.siamois.domain.events.publisher.ConceptChangeEventPublisher;
 import fr.siamois.domain.models.UserInfo;
@@ -56,6 +57,7 @@ public class ConceptService {
     private final ConceptHierarchyRepository conceptHierarchyRepository;
     private final ConversionService conversionService;
     private final ConceptFieldConfigRepository conceptFieldConfigRepository;
+    private final ConceptAutocompleteIndexService conceptAutocompleteIndexService;
 
     private static final String DEFAULT_LABEL_RESOLUTION_LANG = "fr";
     private final ApplicationContext applicationContext;
@@ -72,6 +74,7 @@ public class ConceptService {
      * @throws IllegalStateException if no thesaurus is configured for the field, or if the label matches zero or more than one concept
      */
     @NonNull
+    @ExecutionTimeLogger
     public Concept resolveConceptByLabel(@NonNull Long institutionId, @NonNull String fieldCode, @NonNull String label) {
         ConceptFieldConfig config = conceptFieldConfigRepository.findOneByFieldCodeForInstitution(institutionId, fieldCode)
                 .orElseThrow(() -> new IllegalStateException("Aucun thésaurus configuré pour ce champ"));
@@ -242,6 +245,7 @@ public class ConceptService {
          * @param progressWrapper the progress wrapper to track progress
          * @throws ErrorProcessingExpansionException if an error occurs during processing
          */
+    @ExecutionTimeLogger
     public void saveAllSubConceptOfIfUpdated(@NonNull ConceptFieldConfig config, @NonNull ProgressWrapper progressWrapper) throws ErrorProcessingExpansionException {
         log.trace("API call to fetch down expansion for concept FieldCode : {}", config.getFieldCode());
         try {
@@ -296,6 +300,9 @@ public class ConceptService {
                 conceptLabelRepository.save(conceptLabel);
             }
         }
+        if (!deletedConcepts.isEmpty()) {
+            conceptAutocompleteIndexService.invalidateAll();
+        }
         log.trace("Mark as deleted {} concepts for parent concept {} in {}", deletedConcepts.size(), parentSavedConcept.getExternalId(), parentSavedConcept.getVocabulary().getExternalVocabularyId());
     }
 
@@ -363,6 +370,7 @@ public class ConceptService {
      * @return a list of matching ConceptAutocompleteDetachedDTO, one per matching label
      */
     @NonNull
+    @ExecutionTimeLogger
     public List<ConceptAutocompleteDetachedDTO> fetchAutocompleteFromRemoteThesaurus(VocabularyDTO vocabularyDTO, String input) throws JsonProcessingException {
         if (input == null || input.isBlank()) {
             return Collections.emptyList();
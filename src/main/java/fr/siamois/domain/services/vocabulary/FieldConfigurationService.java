@@ -57,6 +57,7 @@ public class FieldConfigurationService {
 
     private final ConceptFieldConfigRepository conceptFieldConfigRepository;
     private final AutocompleteRepository autocompleteRepository;
+    private final ConceptAutocompleteIndexService conceptAutocompleteIndexService;
     private final InstitutionMapper institutionMapper;
     private final ActionUnitMapper actionUnitMapper;
     private final FieldFormConfigRepository fieldFormConfigRepository;
@@ -418,7 +419,7 @@ public class FieldConfigurationService {
     @ExecutionTimeLogger
     public List<ConceptAutocompleteDTO> fetchAutocomplete(@NonNull UserInfo info, @NonNull String fieldCode, @Nullable String input, @Nullable Long actionUnitId) throws NoConfigForFieldException {
         ConceptFieldConfig config = findConfigurationForFieldCode(info, fieldCode, actionUnitId);
-        return autocompleteRepository.findMatchingConceptsFor(config.getConcept(), info.getLang(), input, LIMIT_RESULTS);
+        return conceptAutocompleteIndexService.findMatchingConceptsFor(config.getConcept(), info.getLang(), input, LIMIT_RESULTS);
     }
 
     /**
@@ -459,9 +460,9 @@ public class FieldConfigurationService {
             throw new IllegalStateException(String.format("ConceptFieldFormConfig %s should not be saved without any configurations", conceptFieldFormConfig.getId()));
         }
         if (conceptFieldFormConfig.isBranchConfig()) {
-            return autocompleteRepository.findMatchingConceptsInBranchOf(conceptFieldFormConfig.getBranchTopTerm(), info.getLang(), input, LIMIT_RESULTS);
+            return conceptAutocompleteIndexService.findMatchingConceptsInBranchOf(conceptFieldFormConfig.getBranchTopTerm(), info.getLang(), input, LIMIT_RESULTS);
         }
-        return autocompleteRepository.findMatchingConceptsInCollection(conceptFieldFormConfig.getCollection(), info.getLang(), input, LIMIT_RESULTS);
+        return conceptAutocompleteIndexService.findMatchingConceptsInCollection(conceptFieldFormConfig.getCollection(), info.getLang(), input, LIMIT_RESULTS);
     }
 
     /**
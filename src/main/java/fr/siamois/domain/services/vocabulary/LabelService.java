@@ -37,6 +37,7 @@ public class LabelService {
     private final VocabularyLabelRepository vocabularyLabelRepository;
     private final ConceptLabelRepository conceptLabelRepository;
     private final ConversionService conversionService;
+    private final ConceptAutocompleteIndexService conceptAutocompleteIndexService;
 
     /**
      * Finds the label for a given vocabulary in the specified language.
@@ -93,6 +94,7 @@ public class LabelService {
             prefLabel.setParentConcept(fieldParentConcept);
         }
         conceptLabelRepository.save(prefLabel);
+        conceptAutocompleteIndexService.invalidateAll();
     }
 
     /**
@@ -145,6 +147,7 @@ public class LabelService {
             altLabel.setParentConcept(fieldParentConcept);
         }
         conceptLabelRepository.save(altLabel);
+        conceptAutocompleteIndexService.invalidateAll();
     }
 
     /**
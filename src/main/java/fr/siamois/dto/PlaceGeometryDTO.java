@@ -0,0 +1,12 @@
+package fr.siamois.dto;
+
+/**
+ * Geometry of a place drawn on a map, already serialized as GeoJSON by the database.
+ */
+public record PlaceGeometryDTO(
+        Long id,
+        String name,
+        String code,
+        String geoJson
+) {
+}
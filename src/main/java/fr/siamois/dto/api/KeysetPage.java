@@ -0,0 +1,12 @@
+package fr.siamois.dto.api;
+
+import java.util.List;
+
+/**
+ * A page of a keyset (cursor) pagination. The next cursor is null on the last page.
+ */
+public record KeysetPage<T>(
+        List<T> content,
+        String nextCursor
+) {
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import fr.siamois.domain.models.exceptions.ErrorProcessingExpansionException;
 import fr.siamois.domain.models.exceptions.api.NotSiamoisThesaurusException;
 import fr.siamois.domain.models.settings.ConceptFieldConfig;
@@ -32,6 +34,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.net.URI;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -49,6 +52,15 @@ public class ConceptApi {
     private final ObjectMapper mapper;
     private FieldRepository fieldRepository;
     private ConceptCollectionRepository conceptCollectionRepository;
+    /** Conditional GETs of the expansions, branches and concept infos; null for the test constructors */
+    @Nullable
+    private ThesaurusHttpCache httpCache;
+
+    /** Concept id of each ark, by base URI of the thesaurus: an ark always designates the same concept */
+    private final Cache<String, String> conceptIdsOfArks = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(12))
+            .build();
 
     /**
      * Autowired constructor for ConceptApi.
@@ -56,12 +68,14 @@ public class ConceptApi {
      * @param factory RequestFactory to build the RestTemplate.
      */
     @Autowired
-    public ConceptApi(RequestFactory factory, FieldRepository fieldRepository, ConceptCollectionRepository conceptCollectionRepository) {
+    public ConceptApi(RequestFactory factory, FieldRepository fieldRepository, ConceptCollectionRepository conceptCollectionRepository,
+                      ThesaurusHttpCache httpCache) {
         restTemplate = factory.buildRestTemplate(true);
         mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         this.fieldRepository = fieldRepository;
         this.conceptCollectionRepository = conceptCollectionRepository;
+        this.httpCache = httpCache;
     }
 
     /**
@@ -98,12 +112,12 @@ public class ConceptApi {
     public ConceptBranchDTO fetchDownExpansion(Vocabulary vocabulary, String idConcept) throws ErrorProcessingExpansionException {
         URI uri = expansionUri(vocabulary, idConcept);
 
-        ResponseEntity<String> response = sendRequestAcceptJson(uri);
+        ThesaurusHttpCache.CachedResponse response = fetchJson(uri);
 
         TypeReference<Map<String, FullInfoDTO>> typeReference = new TypeReference<>() {
         };
 
-        return processApiResponse(response, typeReference);
+        return processApiResponse(response.body(), typeReference);
     }
 
     private URI expansionUri(Vocabulary vocabulary, String idConcept) throws ErrorProcessingExpansionException {
@@ -115,19 +129,25 @@ public class ConceptApi {
         if (externalId == null || !externalId.startsWith("ark:")) {
             return externalId;
         }
+        String key = vocabulary.getBaseUri() + " " + externalId;
+        String known = conceptIdsOfArks.getIfPresent(key);
+        if (known != null) {
+            return known;
+        }
         FullInfoDTO info = fetchConceptInfoByUri(vocabulary, externalId);
         if (info == null || info.getIdentifier() == null || info.getIdentifier().length == 0) {
             throw new ErrorProcessingExpansionException("Could not resolve the concept id of ark " + externalId);
         }
         String conceptId = info.getIdentifierStr();
         log.debug("Ark {} resolved to concept id {}", externalId, conceptId);
+        conceptIdsOfArks.put(key, conceptId);
         return conceptId;
     }
 
-    private ConceptBranchDTO processApiResponse(ResponseEntity<String> response, TypeReference<Map<String, FullInfoDTO>> typeReference) throws ErrorProcessingExpansionException {
+    private ConceptBranchDTO processApiResponse(String body, TypeReference<Map<String, FullInfoDTO>> typeReference) throws ErrorProcessingExpansionException {
         Map<String, FullInfoDTO> result;
         try {
-            result = mapper.readValue(response.getBody(), typeReference);
+            result = mapper.readValue(body, typeReference);
             ConceptBranchDTO branch = new ConceptBranchDTO();
             result.forEach(branch::addConceptBranchDTO);
             return branch;
@@ -149,7 +169,7 @@ public class ConceptApi {
         return hexString.toString();
     }
 
-    private static String hashOfString(String string) {
+    static String hashOfString(String string) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA3-256");
             byte[] hash = digest.digest(string.getBytes());
@@ -164,10 +184,11 @@ public class ConceptApi {
         Vocabulary vocabulary = concept.getVocabulary();
         String existingChecksum = config.getExistingHash();
         URI uri = expansionUri(vocabulary, concept.getExternalId());
-        ResponseEntity<String> response = sendRequestAcceptJson(uri);
-        String body = response.getBody();
+        ThesaurusHttpCache.CachedResponse response = fetchJson(uri);
+        String body = response.body();
         if (body == null) return null;
-        String contentSum = hashOfString(body);
+        // on a 304, the hash is the stored one: an unchanged branch is skipped before any parsing
+        String contentSum = response.contentHash();
         if (existingChecksum != null && existingChecksum.equals(contentSum))
             return null;
 
@@ -175,7 +196,7 @@ public class ConceptApi {
 
         TypeReference<Map<String, FullInfoDTO>> typeReference = new TypeReference<>() {
         };
-        return processApiResponse(response, typeReference);
+        return processApiResponse(body, typeReference);
     }
 
     /**
@@ -187,12 +208,12 @@ public class ConceptApi {
     @Nullable
     public ConceptBranchDTO fetchCollectionBranch(Vocabulary vocabulary, ConceptCollection collection) throws ErrorProcessingExpansionException {
         URI uri = URI.create(String.format("%s/openapi/v1/group/%s/branch?idGroups=%s", vocabulary.getBaseUri(), vocabulary.getExternalVocabularyId(), collection.getExternalId()));
-        ResponseEntity<String> response = sendRequestAcceptJson(uri);
-        String body = response.getBody();
+        ThesaurusHttpCache.CachedResponse response = fetchJson(uri);
+        String body = response.body();
         if (body == null) {
             throw new ErrorProcessingExpansionException("Could not find branch with id " + collection.getExternalId());
         }
-        String contentSum = hashOfString(body);
+        String contentSum = response.contentHash();
         if (Objects.equals(collection.getExistingHash(), contentSum)) {
             log.warn("Collection {} of {} has not changed. Skipping...",  collection.getExternalId(), vocabulary.getExternalVocabularyId());
             return null;
@@ -203,7 +224,7 @@ public class ConceptApi {
 
         TypeReference<Map<String, FullInfoDTO>> typeReference = new TypeReference<>() {};
 
-        return processApiResponse(response, typeReference);
+        return processApiResponse(body, typeReference);
     }
 
     /**
@@ -259,13 +280,13 @@ public class ConceptApi {
      */
     public FullInfoDTO fetchConceptInfo(Vocabulary vocabulary, String conceptId) {
         URI uri = URI.create(vocabulary.getBaseUri() + String.format("/openapi/v1/concept/%s/%s", vocabulary.getExternalVocabularyId(), conceptId));
-        ResponseEntity<String> response = sendRequestAcceptJson(uri);
+        ThesaurusHttpCache.CachedResponse response = fetchJson(uri);
 
         TypeReference<Map<String, FullInfoDTO>> typeReference = new TypeReference<>() {
         };
 
         try {
-            Map<String, FullInfoDTO> result = mapper.readValue(response.getBody(), typeReference);
+            Map<String, FullInfoDTO> result = mapper.readValue(response.body(), typeReference);
             return result.values().stream().findFirst().orElseThrow(() -> new RuntimeException("Invalid concept"));
         } catch (JsonProcessingException e) {
             log.error(e.getMessage(), e);
@@ -324,13 +345,13 @@ public class ConceptApi {
             identifier = params.getFirst("idt") + "/" + params.getFirst("idc");
         }
         URI uri = URI.create(baseUri + String.format("/openapi/v1/concept/%s", identifier));
-        ResponseEntity<String> response = sendRequestAcceptJson(uri);
+        ThesaurusHttpCache.CachedResponse response = fetchJson(uri);
 
         TypeReference<Map<String, FullInfoDTO>> typeReference = new TypeReference<>() {
         };
 
         try {
-            Map<String, FullInfoDTO> result = mapper.readValue(response.getBody(), typeReference);
+            Map<String, FullInfoDTO> result = mapper.readValue(response.body(), typeReference);
             if (result.isEmpty()) {
                 return null;
             }
@@ -352,6 +373,18 @@ public class ConceptApi {
         return restTemplate.exchange(uri, HttpMethod.GET, requestEntity, String.class);
     }
 
+    /**
+     * GET of a thesaurus resource whose content is compared by hash, through the {@link ThesaurusHttpCache} when
+     * there is one.
+     */
+    private ThesaurusHttpCache.CachedResponse fetchJson(URI uri) {
+        if (httpCache != null) {
+            return httpCache.get(restTemplate, uri);
+        }
+        String body = sendRequestAcceptJson(uri).getBody();
+        return new ThesaurusHttpCache.CachedResponse(body, body == null ? null : hashOfString(body), false);
+    }
+
     private boolean isAutocompleteTopTerm(FullInfoDTO concept) {
         return concept != null && concept.getNotation() != null
                 && Arrays.stream(concept.getNotation())
@@ -1,5 +1,7 @@
 package fr.siamois.infrastructure.api;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import fr.siamois.domain.models.exceptions.api.InvalidEndpointException;
 import fr.siamois.infrastructure.api.dto.ThesaurusDTO;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +15,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -42,6 +45,18 @@ public class ThesaurusApi {
 
     private final ConceptApi conceptApi;
 
+    /** Location each ark URI redirects to. Failed or missing redirections are not kept */
+    private final Cache<URI, URI> redirections = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(12))
+            .build();
+
+    /** Thesaurus id of each ark, by API root */
+    private final Cache<String, String> thesaurusIdsOfArks = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(12))
+            .build();
+
     public ThesaurusApi(RequestFactory requestFactory, ConceptApi conceptApi) {
         this.restTemplate = requestFactory.buildRestTemplate(true);
         this.arkResolvingTemplate = requestFactory.buildRestTemplate(false);
@@ -125,7 +140,7 @@ public class ThesaurusApi {
             if (current.getRawQuery() != null && !current.getRawQuery().isEmpty()) {
                 return current;
             }
-            URI next = redirectionOf(current);
+            URI next = redirections.get(current, this::redirectionOf);
             if (next == null || next.equals(current)) {
                 return current;
             }
@@ -178,9 +193,15 @@ public class ThesaurusApi {
     }
 
     private String thesaurusIdOfArk(String apiRoot, String ark) {
-        return conceptApi.fetchSchemeUriOfArk(apiRoot, ark)
-                .map(ThesaurusApi::lastSegmentOf)
-                .orElseGet(() -> lastSegmentOf(ark));
+        String key = apiRoot + " " + ark;
+        String known = thesaurusIdsOfArks.getIfPresent(key);
+        if (known != null) {
+            return known;
+        }
+        Optional<String> resolved = conceptApi.fetchSchemeUriOfArk(apiRoot, ark).map(ThesaurusApi::lastSegmentOf);
+        // the fallback is not kept: the scheme may be found once the API answers again
+        resolved.ifPresent(id -> thesaurusIdsOfArks.put(key, id));
+        return resolved.orElseGet(() -> lastSegmentOf(ark));
     }
 
     private static String lastSegmentOf(String uri) {
@@ -0,0 +1,75 @@
+package fr.siamois.infrastructure.api;
+
+import fr.siamois.domain.models.vocabulary.ThesaurusHttpResponse;
+import fr.siamois.infrastructure.database.repositories.vocabulary.ThesaurusHttpResponseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conditional GETs on the thesaurus API. The last response to each URL is stored with its {@code ETag} and
+ * {@code Last-Modified} validators; when the server answers {@code 304 Not Modified}, the stored body and its hash
+ * are returned without downloading nor hashing the content again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThesaurusHttpCache {
+
+    private final ThesaurusHttpResponseRepository repository;
+
+    /**
+     * @param body        the body of the response, null if the server sent none
+     * @param contentHash SHA3-256 of the body, null if there is no body
+     * @param notModified true if the server confirmed the stored response is still valid
+     */
+    public record CachedResponse(@Nullable String body, @Nullable String contentHash, boolean notModified) {
+    }
+
+    public CachedResponse get(RestTemplate restTemplate, URI uri) {
+        String url = uri.toString();
+        Optional<ThesaurusHttpResponse> stored = url.length() <= ThesaurusHttpResponse.MAX_URL_LENGTH
+                ? repository.findById(url)
+                : Optional.empty();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        stored.ifPresent(previous -> {
+            if (previous.getEtag() != null) headers.setIfNoneMatch(previous.getEtag());
+            if (previous.getLastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.getLastModified());
+        });
+        ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stored.isPresent()) {
+            log.debug("{} not modified since {}", url, stored.get().getFetchedAt());
+            return new CachedResponse(stored.get().getBody(), stored.get().getContentHash(), true);
+        }
+
+        String body = response.getBody();
+        String hash = body == null ? null : ConceptApi.hashOfString(body);
+        String etag = response.getHeaders().getETag();
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (body != null && (etag != null || lastModified != null) && url.length() <= ThesaurusHttpResponse.MAX_URL_LENGTH) {
+            ThesaurusHttpResponse entry = stored.orElseGet(ThesaurusHttpResponse::new);
+            entry.setUrl(url);
+            entry.setEtag(etag);
+            entry.setLastModified(lastModified);
+            entry.setContentHash(hash);
+            entry.setBody(body);
+            entry.setFetchedAt(OffsetDateTime.now());
+            repository.save(entry);
+        } else {
+            // the validators of the stored response no longer apply
+            stored.ifPresent(repository::delete);
+        }
+        return new CachedResponse(body, hash, false);
+    }
+}
@@ -28,6 +28,7 @@ public class IndexGistInitializer implements DatabaseInitializer {
             statement.addBatch("CREATE INDEX IF NOT EXISTS users_username_trgm ON person USING gist (username gist_trgm_ops);");
             statement.addBatch("CREATE INDEX IF NOT EXISTS users_email_trgm ON person USING gist (mail gist_trgm_ops);");
             statement.addBatch("CREATE INDEX IF NOT EXISTS concept_label_trgm ON concept_label USING gist(label gist_trgm_ops)");
+            statement.addBatch("CREATE INDEX IF NOT EXISTS idx_spatial_unit_geom ON spatial_unit USING gist (geom)");
             statement.executeBatch();
             log.info("GIST indexes created successfully");
         } catch (SQLException e) {
@@ -1,10 +1,12 @@
 package fr.siamois.infrastructure.database.initializer.seeder;
 
+import fr.siamois.annotations.ExecutionTimeLogger;
 import fr.siamois.domain.models.misc.ImportProgress;
 import fr.siamois.dto.entity.ActionUnitDTO;
 import fr.siamois.infrastructure.dataimport.ImportSchema;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -26,7 +28,22 @@ public class ProjectDataSeeder {
                 + spec.specimenSpecs().size() + spec.recordingUnitStratiRelSpecs().size() + spec.recordingUnitRelSpecs().size()
                 + spec.spatialUnitRelSpecs().size();
         progress.start(ImportProgress.Phase.PERSISTING, total);
+        seedSteps(spec, project, progress);
+    }
+
+    /**
+     * Seeds one chunk of a streamed import ({@link fr.siamois.infrastructure.dataimport.OOXMLImportService#streamProjectSpecs})
+     * in its own transaction: the chunk is committed when this method returns, and the chunks already committed stay
+     * if a later one fails. Chunks come in the order of {@code streamProjectSpecs}, each one referring to rows
+     * committed by the chunks before it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @ExecutionTimeLogger
+    public void seedChunk(ImportSpecs chunk, ActionUnitDTO project) {
+        seedSteps(chunk, project, new ImportProgress());
+    }
 
+    private void seedSteps(ImportSpecs spec, ActionUnitDTO project, ImportProgress progress) {
         // RecordingUnitSeeder, SpecimenSeeder, PhaseSeeder, and RecordingUnitStratiRelSeeder all
         // self-report progress per 100-row flush/clear chunk internally — don't also advance after
         // those steps, that would double-count. SpatialUnitSeeder, RecordingUnitRelSeeder and
@@ -9,6 +9,7 @@ import fr.siamois.domain.models.phase.Phase;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.spatialunit.SpatialUnit;
 import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.RecordingUnitService;
 import fr.siamois.infrastructure.database.repositories.PhaseRepository;
 import fr.siamois.infrastructure.database.repositories.SpatialUnitRepository;
 import fr.siamois.infrastructure.database.repositories.actionunit.ActionUnitRepository;
@@ -20,6 +21,7 @@ import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,6 +40,7 @@ public class RecordingUnitSeeder {
     private final PhaseRepository phaseRepository;
     private final InstitutionRepository institutionRepository;
     private final ConceptRepository conceptRepository;
+    private final RecordingUnitService recordingUnitService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -68,6 +71,26 @@ public class RecordingUnitSeeder {
     public record RecordingUnitKey(String fullIdentifier, String actionIdentifier) {
     }
 
+    /**
+     * Natural key of a row imported without identifier: its content. The identifier is generated on import, so a
+     * row seeded again is recognized by this key instead.
+     */
+    record UnidentifiedKey(String actionIdentifier, String description, String typeExternalId, String spatialUnitName,
+                           Instant openingDate, Instant closingDate,
+                           String matrixColor, String matrixComposition, String matrixTexture) {
+
+        static UnidentifiedKey of(RecordingUnit ru) {
+            return new UnidentifiedKey(
+                    ru.getActionUnit() == null ? null : ru.getActionUnit().getFullIdentifier(),
+                    ru.getDescription(),
+                    ru.getType() == null ? null : ru.getType().getExternalId(),
+                    ru.getSpatialUnit() == null ? null : ru.getSpatialUnit().getName(),
+                    ru.getOpeningDate() == null ? null : ru.getOpeningDate().toInstant(),
+                    ru.getClosingDate() == null ? null : ru.getClosingDate().toInstant(),
+                    ru.getMatrixColor(), ru.getMatrixComposition(), ru.getMatrixTexture());
+        }
+    }
+
 
 
     public ActionUnit getActionUnitFromKey(ActionUnitSeeder.ActionUnitKey key) {
@@ -127,11 +150,17 @@ public class RecordingUnitSeeder {
         Map<RecordingUnitKey, Boolean> existingKeys = fetchExistingRecordingUnits(specs, institutionsByIdentifier, actionUnitsByKey);
 
         List<RecordingUnit> toInsert = new ArrayList<>();
+        // Rows without identifier: numbered from the project's identifier counters, by blocks
+        List<RecordingUnit> toIdentify = new ArrayList<>();
         for (int i = 0; i < specs.size(); i++) {
             var s = specs.get(i);
             try {
                 RecordingUnit built = buildRecordingUnit(s, institutionsByIdentifier, personCache, conceptsByKey,
                         actionUnitsByKey, spatialUnitsByKey, phasesByCompositeKey);
+                if (s.fullIdentifier() == null || s.fullIdentifier().isBlank()) {
+                    toIdentify.add(built);
+                    continue;
+                }
                 RecordingUnitKey key = new RecordingUnitKey(s.fullIdentifier(), built.getActionUnit().getFullIdentifier());
                 if (existingKeys.putIfAbsent(key, Boolean.TRUE) == null) {
                     toInsert.add(built);
@@ -141,6 +170,11 @@ public class RecordingUnitSeeder {
                         "[UE ligne " + (i + 1) + "] '" + s.fullIdentifier() + "' : " + e.getMessage(), e);
             }
         }
+        toIdentify = withoutAlreadyImported(toIdentify);
+        if (!toIdentify.isEmpty()) {
+            recordingUnitService.generateFullIdentifiers(toIdentify);
+            toInsert.addAll(toIdentify);
+        }
 
         for (int i = 0; i < toInsert.size(); i += FLUSH_CHUNK_SIZE) {
             List<RecordingUnit> chunk = toInsert.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, toInsert.size()));
@@ -354,6 +388,42 @@ public class RecordingUnitSeeder {
 
     private record InstitutionActionKey(Long institutionId, String actionUnitFullIdentifier) {}
 
+    /**
+     * Drops the rows without identifier already seeded by a previous import of the file. Rows are matched on their
+     * content ({@link UnidentifiedKey}) as a multiset: a file holding the same row three times, of which one is in
+     * the database, inserts two units, so identical rows of a file are all kept and a re-import inserts nothing.
+     */
+    private List<RecordingUnit> withoutAlreadyImported(List<RecordingUnit> unidentified) {
+        if (unidentified.isEmpty()) return unidentified;
+
+        Map<InstitutionActionKey, Set<String>> descriptionsByInstitutionAndAction = new HashMap<>();
+        for (RecordingUnit ru : unidentified) {
+            if (ru.getDescription() == null) continue;
+            descriptionsByInstitutionAndAction.computeIfAbsent(
+                    new InstitutionActionKey(ru.getCreatedByInstitution().getId(), ru.getActionUnit().getFullIdentifier()),
+                    k -> new HashSet<>()).add(ru.getDescription());
+        }
+        Map<UnidentifiedKey, Integer> alreadyImported = new HashMap<>();
+        for (var entry : descriptionsByInstitutionAndAction.entrySet()) {
+            for (RecordingUnit existing : recordingUnitRepository.findAllByDescriptionInAndInstitutionIdAndActionUnitFullIdentifier(
+                    entry.getValue(), entry.getKey().institutionId(), entry.getKey().actionUnitFullIdentifier())) {
+                alreadyImported.merge(UnidentifiedKey.of(existing), 1, Integer::sum);
+            }
+        }
+
+        List<RecordingUnit> result = new ArrayList<>();
+        for (RecordingUnit ru : unidentified) {
+            UnidentifiedKey key = UnidentifiedKey.of(ru);
+            int left = alreadyImported.getOrDefault(key, 0);
+            if (left > 0) {
+                alreadyImported.put(key, left - 1);
+            } else {
+                result.add(ru);
+            }
+        }
+        return result;
+    }
+
     private Map<RecordingUnitKey, Boolean> fetchExistingRecordingUnits(List<RecordingUnitSpecs> specs,
                                                                         Map<String, Institution> institutionsByIdentifier,
                                                                         Map<ActionUnitSeeder.ActionUnitKey, ActionUnit> actionUnitsByKey) {
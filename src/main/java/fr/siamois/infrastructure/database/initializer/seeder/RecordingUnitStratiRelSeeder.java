@@ -1,9 +1,11 @@
 package fr.siamois.infrastructure.database.initializer.seeder;
 
+import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.misc.ImportProgress;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
 import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.StratigraphicClosureService;
 import fr.siamois.infrastructure.database.repositories.recordingunit.StratigraphicRelationshipRepository;
 import fr.siamois.infrastructure.database.repositories.vocabulary.ConceptRepository;
 import jakarta.persistence.EntityManager;
@@ -23,6 +25,7 @@ public class RecordingUnitStratiRelSeeder {
     private final StratigraphicRelationshipRepository stratigraphicRelationshipRepository;
     private final RecordingUnitSeeder recordingUnitSeeder;
     private final ConceptRepository conceptRepository;
+    private final StratigraphicClosureService stratigraphicClosureService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -72,7 +75,15 @@ public class RecordingUnitStratiRelSeeder {
                 .filter(r -> !existingPairs.contains(r.getUnit1().getId() + "|" + r.getUnit2().getId()))
                 .toList();
 
+        // Bulk insert: the closure of each touched action unit is rebuilt on next use rather than updated per row
+        Set<Long> actionUnitIds = toInsert.stream()
+                .map(r -> r.getUnit1().getActionUnit())
+                .filter(Objects::nonNull)
+                .map(ActionUnit::getId)
+                .collect(Collectors.toSet());
+
         flushInBatches(toInsert, progress);
+        actionUnitIds.forEach(stratigraphicClosureService::invalidate);
         // specs skipped (null rel, in-batch duplicate, or already-existing) never went into toInsert,
         // so they'd otherwise never be accounted for in the running total.
         progress.advance(specs.size() - toInsert.size());
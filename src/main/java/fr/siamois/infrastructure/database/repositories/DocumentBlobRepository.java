@@ -0,0 +1,50 @@
+package fr.siamois.infrastructure.database.repositories;
+
+import fr.siamois.domain.models.document.DocumentBlob;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentBlobRepository extends CrudRepository<DocumentBlob, String> {
+
+    /**
+     * Locks a blob until the end of the transaction. The key is locked rather than the row, which does not exist
+     * yet for a new blob nor once the blob is deleted: counting the references and looking up, publishing or
+     * deleting the file of the blob are done under this lock.
+     */
+    @Query(
+            nativeQuery = true,
+            value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('document_blob'), hashtext(:blobKey))) l"
+    )
+    int lock(@Param("blobKey") String blobKey);
+
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value = "INSERT INTO document_blob(blob_key, ref_count) VALUES (:blobKey, 1) " +
+                    "ON CONFLICT (blob_key) DO UPDATE SET ref_count = document_blob.ref_count + 1"
+    )
+    void acquire(@Param("blobKey") String blobKey);
+
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value = "UPDATE document_blob SET ref_count = ref_count - 1 WHERE blob_key = :blobKey"
+    )
+    void release(@Param("blobKey") String blobKey);
+
+    /**
+     * Removes the blob row if no document references it anymore.
+     *
+     * @return 1 if the row was removed, so the stored file can be deleted
+     */
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value = "DELETE FROM document_blob WHERE blob_key = :blobKey AND ref_count <= 0"
+    )
+    int deleteIfUnreferenced(@Param("blobKey") String blobKey);
+}
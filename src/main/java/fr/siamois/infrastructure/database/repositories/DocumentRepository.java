@@ -2,7 +2,11 @@ package fr.siamois.infrastructure.database.repositories;
 
 import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.models.institution.Institution;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -14,13 +18,35 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DocumentRepository extends CrudRepository<Document, Long>, RevisionRepository<Document, Long, Long> {
+public interface DocumentRepository extends CrudRepository<Document, Long>, RevisionRepository<Document, Long, Long>, JpaSpecificationExecutor<Document> {
     List<Document> findAllByArkIsNullAndCreatedByInstitution(Institution institution);
 
     boolean existsByFileCode(String fileCode);
 
     Optional<Document> findByFileCode(String fileCode);
 
+    /**
+     * The ids of the documents whose file is stored per institution, before the content-addressed store.
+     */
+    @Query("SELECT d.id FROM Document d WHERE d.id > :id AND d.sha256Sum IS NULL AND d.storedFileName IS NOT NULL ORDER BY d.id")
+    List<Long> findIdsWithoutSha256SumAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Loads a document and locks its row until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Takes the lock of the document deduplication job until the end of the transaction, unless another instance
+     * holds it.
+     *
+     * @return true if the lock was taken
+     */
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(hashtext('document_deduplication'))")
+    boolean tryLockDeduplication();
+
     @Query(
             nativeQuery = true,
             value = "SELECT d.* FROM siamois_document d " +
@@ -47,6 +47,93 @@ public interface SpatialUnitRepository extends CrudRepository<SpatialUnit, Long>
     )
     List<SpatialUnit> findAllOfInstitution(Long institutionId);
 
+    @Query(
+            nativeQuery = true,
+            value = """
+        SELECT su.* FROM spatial_unit su
+        WHERE su.fk_institution_id = :institutionId
+          AND NOT EXISTS (
+              SELECT 1
+              FROM spatial_unit_closure c
+              WHERE c.fk_descendant_id = su.spatial_unit_id
+          )
+        ORDER BY su.creation_time DESC, su.spatial_unit_id DESC
+        """
+    )
+    List<SpatialUnit> findRootsOfInstitution(@Param("institutionId") Long institutionId);
+
+    /**
+     * All the parent/child links leading to a spatial unit of the institution, as (parent id, child id), children of
+     * a parent in the same order as {@link #findChildrensOf(Long)}.
+     */
+    @Query(
+            nativeQuery = true,
+            value = """
+        SELECT sh.fk_parent_id, sh.fk_child_id FROM spatial_hierarchy sh
+        JOIN spatial_unit su ON su.spatial_unit_id = sh.fk_child_id
+        WHERE su.fk_institution_id = :institutionId
+        ORDER BY sh.fk_parent_id, su.creation_time DESC, su.spatial_unit_id DESC
+        """
+    )
+    List<Object[]> findHierarchyEdgesOfInstitution(@Param("institutionId") Long institutionId);
+
+    /**
+     * Places of the institution whose geometry intersects the box (WGS 84), largest first, as (id, name, code,
+     * GeoJSON geometry). Geometries are simplified to the tolerance, and those smaller than it are reduced to a
+     * point.
+     */
+    @Query(
+            nativeQuery = true,
+            value = """
+        SELECT su.spatial_unit_id, su.name, su.code,
+               ST_AsGeoJSON(CASE
+                   WHEN GREATEST(ST_XMax(su.geom) - ST_XMin(su.geom), ST_YMax(su.geom) - ST_YMin(su.geom)) < :tolerance
+                       THEN ST_PointOnSurface(su.geom)
+                   ELSE ST_SimplifyPreserveTopology(su.geom, :tolerance)
+               END, :digits)
+        FROM spatial_unit su
+        WHERE su.fk_institution_id = :institutionId
+          AND su.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+        ORDER BY ST_Area(su.geom) DESC, su.spatial_unit_id
+        LIMIT :limit
+        """
+    )
+    List<Object[]> findGeometriesInBox(@Param("institutionId") Long institutionId,
+                                       @Param("minLon") double minLon,
+                                       @Param("minLat") double minLat,
+                                       @Param("maxLon") double maxLon,
+                                       @Param("maxLat") double maxLat,
+                                       @Param("tolerance") double tolerance,
+                                       @Param("digits") int digits,
+                                       @Param("limit") int limit);
+
+    /**
+     * Mapbox vector tile z/x/y (web mercator) of the places of the institution, layer "places". ST_AsMVTGeom clips
+     * the geometries to the tile and snaps them to its 4096 x 4096 grid.
+     */
+    @Query(
+            nativeQuery = true,
+            value = """
+        WITH bounds AS (
+            SELECT ST_TileEnvelope(:z, :x, :y) AS mercator,
+                   ST_Transform(ST_TileEnvelope(:z, :x, :y), 4326) AS wgs84
+        )
+        SELECT ST_AsMVT(tile, 'places', 4096, 'geom', 'id')
+        FROM (
+            SELECT su.spatial_unit_id AS id, su.name, su.code,
+                   ST_AsMVTGeom(ST_Transform(su.geom, 3857), bounds.mercator, 4096, 64, true) AS geom
+            FROM spatial_unit su, bounds
+            WHERE su.fk_institution_id = :institutionId
+              AND su.geom && bounds.wgs84
+        ) tile
+        WHERE tile.geom IS NOT NULL
+        """
+    )
+    byte[] findVectorTile(@Param("institutionId") Long institutionId,
+                          @Param("z") int z,
+                          @Param("x") int x,
+                          @Param("y") int y);
+
     Page<SpatialUnit> findByCreatedByInstitutionId(Long institutionId, Pageable pageable);
 
     @Transactional
@@ -99,27 +186,14 @@ public interface SpatialUnitRepository extends CrudRepository<SpatialUnit, Long>
     Set<SpatialUnit> findParentsOf(Long spatialUnitId);
 
     @Query(value = """
-            WITH RECURSIVE tree (id, depth, path) AS (
-                -- Seed with children of the roots (depth = 1)
-                SELECT c.spatial_unit_id, 1, ARRAY[c.spatial_unit_id]
-                FROM spatial_hierarchy h
-                JOIN spatial_unit c ON c.spatial_unit_id = h.fk_child_id
-                WHERE h.fk_parent_id = ANY(:rootIds)
-            
-                UNION ALL
-            
-                -- Walk down using the hierarchy table
-                SELECT c.spatial_unit_id, t.depth + 1, t.path || c.spatial_unit_id
-                FROM spatial_hierarchy h
-                JOIN tree t ON h.fk_parent_id = t.id
-                JOIN spatial_unit c ON c.spatial_unit_id = h.fk_child_id
-                WHERE t.depth < :maxDepth -- stop at :maxDepth
-                  AND NOT c.spatial_unit_id = ANY(t.path)
-            )
-            -- Descendants only; DISTINCT handles nodes reachable via multiple paths
-            SELECT DISTINCT su.*
+            SELECT su.*
             FROM spatial_unit su
-            JOIN tree t ON su.spatial_unit_id = t.id
+            WHERE su.spatial_unit_id IN (
+                SELECT c.fk_descendant_id
+                FROM spatial_unit_closure c
+                WHERE c.fk_ancestor_id = ANY(:rootIds)
+                  AND c.depth <= :maxDepth
+            )
             ORDER BY su.spatial_unit_id
             """,
             nativeQuery = true)
@@ -142,8 +216,8 @@ public interface SpatialUnitRepository extends CrudRepository<SpatialUnit, Long>
             WHERE su.fk_institution_id = :institutionId
               AND NOT EXISTS (
                   SELECT 1
-                  FROM spatial_hierarchy h
-                  WHERE h.fk_child_id = su.spatial_unit_id
+                  FROM spatial_unit_closure c
+                  WHERE c.fk_descendant_id = su.spatial_unit_id
               )
             """, nativeQuery = true)
     boolean existsRootChildrenByInstitution(@Param("institutionId") Long institutionId);
@@ -178,17 +252,37 @@ public interface SpatialUnitRepository extends CrudRepository<SpatialUnit, Long>
             @Param("query") String query
     );
 
+    /**
+     * The seeds and all their ancestors, read from the closure table maintained by the {@code spatial_hierarchy}
+     * triggers.
+     */
     @Query(value = """
-            WITH RECURSIVE ascend(id) AS (
-                SELECT seed FROM unnest(CAST(:seedIds AS BIGINT[])) AS seed
-                UNION
-                SELECT h.fk_parent_id
-                FROM spatial_hierarchy h JOIN ascend a ON h.fk_child_id = a.id
-            )
-            SELECT id FROM ascend
+            SELECT seed FROM unnest(CAST(:seedIds AS BIGINT[])) AS seed
+            UNION
+            SELECT c.fk_ancestor_id
+            FROM spatial_unit_closure c
+            WHERE c.fk_descendant_id = ANY(CAST(:seedIds AS BIGINT[]))
             """, nativeQuery = true)
     List<Long> findAncestorClosure(@Param("seedIds") Long[] seedIds);
 
+    @Query(value = """
+            SELECT DISTINCT c.fk_descendant_id
+            FROM spatial_unit_closure c
+            WHERE c.fk_ancestor_id = :ancestorId
+            """, nativeQuery = true)
+    List<Long> findDescendantIds(@Param("ancestorId") Long ancestorId);
+
+    /**
+     * Number of distinct descendants of each spatial unit, units without descendants are omitted.
+     */
+    @Query(value = """
+            SELECT c.fk_ancestor_id, COUNT(DISTINCT c.fk_descendant_id)
+            FROM spatial_unit_closure c
+            WHERE c.fk_ancestor_id IN (:ids)
+            GROUP BY c.fk_ancestor_id
+            """, nativeQuery = true)
+    List<Object[]> countDescendantsByIds(@Param("ids") Collection<Long> ids);
+
     @Transactional
     @Modifying
     @Query(nativeQuery = true, value = "DELETE FROM spatial_hierarchy WHERE fk_parent_id = :spatialUnitId OR fk_child_id = :spatialUnitId")
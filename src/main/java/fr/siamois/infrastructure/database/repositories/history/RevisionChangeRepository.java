@@ -0,0 +1,121 @@
+package fr.siamois.infrastructure.database.repositories.history;
+
+import fr.siamois.domain.models.history.InfoRevisionEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Reads the Envers audit tables to find what changed in a project between two transaction watermarks.
+ * <p>
+ * A window {@code [since, until)} holds the revisions written by the transactions whose id is in it, see
+ * {@code revinfo.transaction_id} ({@code pgplsql/revision_transaction.sql}). Change rows are
+ * {@code (entity_id, rev, revtype)}, keeping only the last change of each entity in the window (revtype 2 means the
+ * entity was deleted). Recording units and finds are scoped by project, places and documents by organization.
+ */
+@org.springframework.stereotype.Repository
+public interface RevisionChangeRepository extends Repository<InfoRevisionEntity, Long> {
+
+    /**
+     * The id of the oldest transaction still running, or of the next one if none: every transaction below it is
+     * finished, so its revisions are all visible and no other revision can appear below it.
+     */
+    @Query(value = """
+        SELECT pg_snapshot_xmin(pg_current_snapshot())::TEXT::BIGINT
+        """, nativeQuery = true)
+    long findTransactionWatermark();
+
+    /**
+     * The number of audited changes of the project written by each transaction of {@code [since, until)}, as
+     * {@code (transaction_id, count)} rows ordered by transaction.
+     */
+    @Query(value = """
+        WITH revisions AS (
+            SELECT r.rev_id, r.transaction_id FROM revinfo r
+            WHERE r.transaction_id >= :since AND r.transaction_id < :until
+        )
+        SELECT w.transaction_id, COUNT(*) FROM (
+            SELECT a.rev FROM recording_unit_aud a
+            WHERE a.fk_action_unit_id = :actionUnitId AND a.rev IN (SELECT rev_id FROM revisions)
+            UNION ALL
+            SELECT a.rev FROM specimen_aud a
+            WHERE a.fk_action_unit_id = :actionUnitId AND a.rev IN (SELECT rev_id FROM revisions)
+            UNION ALL
+            SELECT a.rev FROM spatial_unit_aud a
+            WHERE a.fk_institution_id = :institutionId AND a.rev IN (SELECT rev_id FROM revisions)
+            UNION ALL
+            SELECT a.rev FROM siamois_document_aud a
+            WHERE a.fk_institution_id = :institutionId AND a.rev IN (SELECT rev_id FROM revisions)
+        ) c
+        JOIN revisions w ON w.rev_id = c.rev
+        GROUP BY w.transaction_id
+        ORDER BY w.transaction_id
+        """, nativeQuery = true)
+    List<Object[]> countChangesByTransaction(@Param("actionUnitId") Long actionUnitId,
+                                             @Param("institutionId") Long institutionId,
+                                             @Param("since") long since,
+                                             @Param("until") long until);
+
+    @Query(value = """
+        SELECT DISTINCT ON (a.recording_unit_id) a.recording_unit_id, a.rev, a.revtype
+        FROM recording_unit_aud a
+        WHERE a.fk_action_unit_id = :actionUnitId
+          AND a.rev IN (SELECT r.rev_id FROM revinfo r WHERE r.transaction_id >= :since AND r.transaction_id < :until)
+        ORDER BY a.recording_unit_id, a.rev DESC
+        """, nativeQuery = true)
+    List<Object[]> findRecordingUnitChanges(@Param("actionUnitId") Long actionUnitId,
+                                            @Param("since") long since,
+                                            @Param("until") long until);
+
+    @Query(value = """
+        SELECT DISTINCT ON (a.specimen_id) a.specimen_id, a.rev, a.revtype
+        FROM specimen_aud a
+        WHERE a.fk_action_unit_id = :actionUnitId
+          AND a.rev IN (SELECT r.rev_id FROM revinfo r WHERE r.transaction_id >= :since AND r.transaction_id < :until)
+        ORDER BY a.specimen_id, a.rev DESC
+        """, nativeQuery = true)
+    List<Object[]> findSpecimenChanges(@Param("actionUnitId") Long actionUnitId,
+                                       @Param("since") long since,
+                                       @Param("until") long until);
+
+    @Query(value = """
+        SELECT DISTINCT ON (a.spatial_unit_id) a.spatial_unit_id, a.rev, a.revtype
+        FROM spatial_unit_aud a
+        WHERE a.fk_institution_id = :institutionId
+          AND a.rev IN (SELECT r.rev_id FROM revinfo r WHERE r.transaction_id >= :since AND r.transaction_id < :until)
+        ORDER BY a.spatial_unit_id, a.rev DESC
+        """, nativeQuery = true)
+    List<Object[]> findSpatialUnitChanges(@Param("institutionId") Long institutionId,
+                                          @Param("since") long since,
+                                          @Param("until") long until);
+
+    /**
+     * Changes of the documents attached to the project, its recording units or its finds. Deleted documents have
+     * lost their links, so every deletion of the organization is returned.
+     */
+    @Query(value = """
+        SELECT DISTINCT ON (a.document_id) a.document_id, a.rev, a.revtype
+        FROM siamois_document_aud a
+        WHERE a.fk_institution_id = :institutionId
+          AND a.rev IN (SELECT r.rev_id FROM revinfo r WHERE r.transaction_id >= :since AND r.transaction_id < :until)
+          AND (a.revtype = 2 OR a.document_id IN (
+              SELECT aud.fk_document_id FROM action_unit_document aud
+              WHERE aud.fk_action_unit_id = :actionUnitId
+              UNION
+              SELECT rud.fk_document_id FROM recording_unit_document rud
+              JOIN recording_unit ru ON ru.recording_unit_id = rud.fk_recording_unit_id
+              WHERE ru.fk_action_unit_id = :actionUnitId
+              UNION
+              SELECT sd.fk_document_id FROM specimen_document sd
+              JOIN specimen s ON s.specimen_id = sd.fk_specimen_id
+              WHERE s.fk_action_unit_id = :actionUnitId
+          ))
+        ORDER BY a.document_id, a.rev DESC
+        """, nativeQuery = true)
+    List<Object[]> findDocumentChanges(@Param("actionUnitId") Long actionUnitId,
+                                       @Param("institutionId") Long institutionId,
+                                       @Param("since") long since,
+                                       @Param("until") long until);
+}
@@ -18,4 +18,18 @@ public interface IdentifierCounterRepository extends CrudRepository<IdentifierCo
                   @Param("formConfigId") Long formConfigId,
                   @Param("canonicalKey") String canonicalKey,
                   @Param("minCode") int minCode);
+
+    /**
+     * Reserves {@code count} consecutive numbers of the counter.
+     *
+     * @return the first reserved number
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(nativeQuery = true,
+            value = "SELECT identifier_nextval_block(:actionUnitId, :formConfigId, :canonicalKey, :minCode, :count)")
+    int nextValues(@Param("actionUnitId") Long actionUnitId,
+                   @Param("formConfigId") Long formConfigId,
+                   @Param("canonicalKey") String canonicalKey,
+                   @Param("minCode") int minCode,
+                   @Param("count") int count);
 }
@@ -15,6 +15,22 @@ import java.util.Set;
 @Repository
 public interface PersonProfileAssignmentRepository extends CrudRepository<PersonProfileAssignment, PersonProfileAssignment.PersonProfileAssignmentId> {
 
+    /**
+     * Every profile of the person with its permissions, one row per profile and permission: profile code, scope,
+     * institution id, action unit id and permission code (null for a profile without permission). One query loads
+     * everything needed to build the {@link fr.siamois.domain.services.permissions.PermissionSnapshot} of the person.
+     */
+    @Query("""
+            SELECT prof.code, prof.scope, inst.id, au.id, perm.code
+            FROM PersonProfileAssignment a
+            JOIN a.profile prof
+            LEFT JOIN prof.institution inst
+            LEFT JOIN prof.actionUnit au
+            LEFT JOIN prof.permissions perm
+            WHERE a.person.id = :personId
+            """)
+    List<Object[]> findAllPermissionGrantsOfPerson(@Param("personId") Long personId);
+
     @Query("""
             SELECT COUNT(a) > 0
             FROM PersonProfileAssignment a
@@ -266,6 +266,25 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
             @Param("actionUnitFullIdentifier") String actionUnitFullIdentifier
     );
 
+    /**
+     * Recording units of an action unit with one of the descriptions, to recognize the rows imported without
+     * identifier.
+     */
+    @Query(
+            value = "SELECT ru.* " +
+                    "FROM recording_unit ru " +
+                    "JOIN action_unit au ON ru.fk_action_unit_id = au.action_unit_id " +
+                    "WHERE ru.description IN (:descriptions) " +
+                    "AND ru.fk_institution_id = :institutionId " +
+                    "AND au.full_identifier = :actionUnitFullIdentifier",
+            nativeQuery = true
+    )
+    List<RecordingUnit> findAllByDescriptionInAndInstitutionIdAndActionUnitFullIdentifier(
+            @Param("descriptions") Collection<String> descriptions,
+            @Param("institutionId") Long institutionId,
+            @Param("actionUnitFullIdentifier") String actionUnitFullIdentifier
+    );
+
 
     @Query(
             value = "SELECT COUNT(*) FROM recording_unit WHERE fk_spatial_unit_id = :spatialUnitId",
@@ -288,8 +307,8 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
     WHERE ru.fk_institution_id = :institutionId
       AND NOT EXISTS (
           SELECT 1
-          FROM recording_unit_hierarchy h
-          WHERE h.fk_child_id = ru.recording_unit_id
+          FROM recording_unit_closure c
+          WHERE c.fk_descendant_id = ru.recording_unit_id
       )
     ORDER BY ru.creation_time DESC, ru.recording_unit_id DESC
     """, nativeQuery = true)
@@ -322,8 +341,8 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
     WHERE ru.fk_action_unit_id = :actionId
       AND NOT EXISTS (
           SELECT 1
-          FROM recording_unit_hierarchy h
-          WHERE h.fk_child_id = ru.recording_unit_id
+          FROM recording_unit_closure c
+          WHERE c.fk_descendant_id = ru.recording_unit_id
       )
     ORDER BY ru.creation_time DESC, ru.recording_unit_id DESC
     """, nativeQuery = true)
@@ -333,6 +352,14 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
     @NonNull
     List<RecordingUnit> findByFullIdentifierAndActionUnitId(String fullIdentifier, Long actionUnitId);
 
+    /**
+     * The identifiers among the candidates that are already used in the action unit.
+     */
+    @Query("SELECT ru.fullIdentifier FROM RecordingUnit ru " +
+            "WHERE ru.actionUnit.id = :actionUnitId AND ru.fullIdentifier IN :fullIdentifiers")
+    List<String> findUsedFullIdentifiers(@Param("actionUnitId") Long actionUnitId,
+                                         @Param("fullIdentifiers") Collection<String> fullIdentifiers);
+
     @Query(value = """
     SELECT COUNT(1) > 0
     FROM recording_unit ru
@@ -349,8 +376,8 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
     WHERE ru.fk_institution_id = :institutionId
       AND NOT EXISTS (
           SELECT 1
-          FROM recording_unit_hierarchy h
-          WHERE h.fk_child_id = ru.recording_unit_id
+          FROM recording_unit_closure c
+          WHERE c.fk_descendant_id = ru.recording_unit_id
       )
     """, nativeQuery = true)
     boolean existsRootChildrenByInstitution(@Param("institutionId") Long institutionId);
@@ -361,8 +388,8 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
     WHERE ru.fk_action_unit_id = :actionId
       AND NOT EXISTS (
           SELECT 1
-          FROM recording_unit_hierarchy h
-          WHERE h.fk_child_id = ru.recording_unit_id
+          FROM recording_unit_closure c
+          WHERE c.fk_descendant_id = ru.recording_unit_id
       )
     """, nativeQuery = true)
     boolean existsRootChildrenByAction(Long actionId);
@@ -387,15 +414,45 @@ public interface RecordingUnitRepository extends CrudRepository<RecordingUnit, L
 """)
     List<RecordingUnit> findChildrensOf(Long parentRecordingUnitId);
 
+    /**
+     * The seeds and all their ancestors, read from the closure table maintained by the
+     * {@code recording_unit_hierarchy} triggers.
+     */
     @Query(value = """
-            WITH RECURSIVE ascend(id) AS (
-                SELECT seed FROM unnest(CAST(:seedIds AS BIGINT[])) AS seed
-                UNION
-                SELECT h.fk_parent_id
-                FROM recording_unit_hierarchy h JOIN ascend a ON h.fk_child_id = a.id
-            )
-            SELECT id FROM ascend
+            SELECT seed FROM unnest(CAST(:seedIds AS BIGINT[])) AS seed
+            UNION
+            SELECT c.fk_ancestor_id
+            FROM recording_unit_closure c
+            WHERE c.fk_descendant_id = ANY(CAST(:seedIds AS BIGINT[]))
             """, nativeQuery = true)
     List<Long> findAncestorClosure(@Param("seedIds") Long[] seedIds);
 
+    @Query(value = """
+            SELECT DISTINCT c.fk_descendant_id
+            FROM recording_unit_closure c
+            WHERE c.fk_ancestor_id = :ancestorId
+            """, nativeQuery = true)
+    List<Long> findDescendantIds(@Param("ancestorId") Long ancestorId);
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM recording_unit_closure c
+                WHERE c.fk_ancestor_id = :ancestorId
+                  AND c.fk_descendant_id = :descendantId
+            )
+            """, nativeQuery = true)
+    boolean isAncestorOf(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    /**
+     * Number of distinct descendants of each unit, units without descendants are omitted.
+     */
+    @Query(value = """
+            SELECT c.fk_ancestor_id, COUNT(DISTINCT c.fk_descendant_id)
+            FROM recording_unit_closure c
+            WHERE c.fk_ancestor_id IN (:ids)
+            GROUP BY c.fk_ancestor_id
+            """, nativeQuery = true)
+    List<Object[]> countDescendantsByIds(@Param("ids") Collection<Long> ids);
+
 }
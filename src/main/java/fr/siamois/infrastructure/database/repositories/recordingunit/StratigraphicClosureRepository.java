@@ -0,0 +1,73 @@
+package fr.siamois.infrastructure.database.repositories.recordingunit;
+
+import fr.siamois.domain.models.recordingunit.StratigraphicClosureVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface StratigraphicClosureRepository extends JpaRepository<StratigraphicClosureVersion, Long> {
+
+    /**
+     * The relationships of an action unit as {@code (unit1_id, unit2_id, synchronous)} rows, without loading the
+     * entities. A relationship belongs to the action unit of its first unit. The synchronous flag is computed as
+     * {@link fr.siamois.domain.services.recordingunit.StratigraphicClosureService#isSynchronous}.
+     */
+    @Query(value = """
+        SELECT sr.fk_recording_unit_1_id, sr.fk_recording_unit_2_id,
+               (sr.asynchronous IS NOT NULL AND NOT sr.asynchronous) OR c.external_id IS NOT DISTINCT FROM 'SIAMOIS_SYNCHRONOUS'
+        FROM stratigraphic_relationship sr
+        JOIN recording_unit ru ON ru.recording_unit_id = sr.fk_recording_unit_1_id
+        LEFT JOIN concept c ON c.concept_id = sr.fk_relationship_concept_id
+        WHERE ru.fk_action_unit_id = :actionUnitId
+        """, nativeQuery = true)
+    List<Object[]> findRelationshipEdgesByActionUnitId(@Param("actionUnitId") Long actionUnitId);
+
+    @Query(value = """
+        SELECT ru.fk_action_unit_id FROM recording_unit ru WHERE ru.recording_unit_id = :recordingUnitId
+        """, nativeQuery = true)
+    Long findActionUnitIdOfRecordingUnit(@Param("recordingUnitId") Long recordingUnitId);
+
+    /**
+     * Increments the version of the closure of an action unit, and locks it until the end of the transaction.
+     *
+     * @return the new version, 1 for the first one
+     */
+    @Transactional
+    @Query(value = """
+        INSERT INTO stratigraphic_closure_version (fk_action_unit_id, version) VALUES (:actionUnitId, 1)
+        ON CONFLICT (fk_action_unit_id) DO UPDATE SET version = stratigraphic_closure_version.version + 1
+        RETURNING version
+        """, nativeQuery = true)
+    long incrementVersion(@Param("actionUnitId") Long actionUnitId);
+
+    /**
+     * @return the last committed version of the closure of an action unit, 0 if it never had one
+     */
+    @Query(value = """
+        SELECT COALESCE(MAX(v.version), 0) FROM stratigraphic_closure_version v WHERE v.fk_action_unit_id = :actionUnitId
+        """, nativeQuery = true)
+    long findVersion(@Param("actionUnitId") Long actionUnitId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO stratigraphic_closure_version (fk_action_unit_id, version) VALUES (:actionUnitId, 0)
+        ON CONFLICT (fk_action_unit_id) DO NOTHING
+        """, nativeQuery = true)
+    void createVersionIfAbsent(@Param("actionUnitId") Long actionUnitId);
+
+    /**
+     * Reads the version of the closure of an action unit and keeps it from being incremented until the end of the
+     * transaction. Its row must exist.
+     */
+    @Query(value = """
+        SELECT v.version FROM stratigraphic_closure_version v WHERE v.fk_action_unit_id = :actionUnitId FOR SHARE
+        """, nativeQuery = true)
+    long lockVersion(@Param("actionUnitId") Long actionUnitId);
+}
@@ -0,0 +1,29 @@
+package fr.siamois.infrastructure.database.repositories.specs;
+
+import fr.siamois.domain.models.actionunit.ActionUnit;
+import fr.siamois.domain.models.document.Document;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+public class DocumentSpec {
+
+    private DocumentSpec() {
+        throw new UnsupportedOperationException("Spec should never be instantiated");
+    }
+
+    /**
+     * Documents linked to the action unit through {@code action_unit_document}.
+     */
+    @NonNull
+    public static Specification<Document> documentOfActionUnit(long actionUnitId) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> linked = query.subquery(Long.class);
+            Root<ActionUnit> actionUnit = linked.from(ActionUnit.class);
+            linked.select(actionUnit.join("documents").get("id"))
+                    .where(criteriaBuilder.equal(actionUnit.get("id"), actionUnitId));
+            return root.get("id").in(linked);
+        };
+    }
+}
@@ -0,0 +1,210 @@
+package fr.siamois.infrastructure.database.repositories.specs;
+
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
+import fr.siamois.dto.api.KeysetPage;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination on a sort property and the id.
+ * <p>
+ * The cursor holds the sort, the sort value and the id of the last row of a page, and the next page starts after
+ * this row: its cost does not depend on the position in the list, and rows inserted meanwhile do not shift it. Null
+ * sort values come last in ascending order and first in descending order, as in PostgreSQL.
+ */
+public class KeysetSpec {
+
+    public static final String ID = "id";
+    private static final char SEPARATOR = '\n';
+
+    private KeysetSpec() {
+        throw new UnsupportedOperationException("Spec should never be instantiated");
+    }
+
+    /**
+     * Position of the last row of a page.
+     *
+     * @param sort  the sort of the pagination, as {@code property:direction}
+     * @param value the sort value of the row, null if the row has no value
+     * @param id    the id of the row
+     */
+    public record Cursor(String sort, @Nullable Object value, long id) {
+
+        public String encode() {
+            String raw = sort + SEPARATOR + (value == null ? "" : typeOf(value) + value.toString()) + SEPARATOR + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws InvalidCursorException if the cursor was not produced by {@link #encode()}
+         */
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int first = raw.indexOf(SEPARATOR);
+                int last = raw.lastIndexOf(SEPARATOR);
+                if (first < 0 || first == last) {
+                    throw new InvalidCursorException("Invalid cursor");
+                }
+                String value = raw.substring(first + 1, last);
+                return new Cursor(raw.substring(0, first),
+                        value.isEmpty() ? null : parse(value.charAt(0), value.substring(1)),
+                        Long.parseLong(raw.substring(last + 1)));
+            } catch (InvalidCursorException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Invalid cursor", e);
+            }
+        }
+
+        private static char typeOf(Object value) {
+            if (value instanceof String) return 's';
+            if (value instanceof Long) return 'l';
+            if (value instanceof Integer) return 'i';
+            if (value instanceof OffsetDateTime) return 'o';
+            if (value instanceof LocalDateTime) return 't';
+            if (value instanceof LocalDate) return 'd';
+            if (value instanceof Instant) return 'n';
+            throw new IllegalArgumentException("Unsupported keyset value " + value.getClass());
+        }
+
+        private static Object parse(char type, String value) {
+            return switch (type) {
+                case 's' -> value;
+                case 'l' -> Long.valueOf(value);
+                case 'i' -> Integer.valueOf(value);
+                case 'o' -> OffsetDateTime.parse(value);
+                case 't' -> LocalDateTime.parse(value);
+                case 'd' -> LocalDate.parse(value);
+                case 'n' -> Instant.parse(value);
+                default -> throw new IllegalArgumentException("Unknown keyset value type " + type);
+            };
+        }
+    }
+
+    /**
+     * The sort order of a keyset pagination: the first order of the sort, then the id as tie-breaker.
+     */
+    @NonNull
+    public static Sort keysetSort(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return Sort.by(Sort.Direction.ASC, ID);
+        }
+        Sort.Order primary = orders.get(0);
+        if (ID.equals(primary.getProperty())) {
+            return Sort.by(primary);
+        }
+        Sort.Order tieBreaker = orders.size() > 1 && ID.equals(orders.get(1).getProperty())
+                ? orders.get(1)
+                : Sort.Order.asc(ID);
+        return Sort.by(primary, tieBreaker);
+    }
+
+    private static String sortKey(Sort.Order order) {
+        return order.getProperty() + ":" + order.getDirection().name().toLowerCase();
+    }
+
+    /**
+     * Rows after the cursor, for the given keyset sort.
+     *
+     * @throws InvalidCursorException if the cursor was made for another sort
+     */
+    @NonNull
+    public static <T> Specification<T> after(Sort keysetSort, Cursor cursor) {
+        List<Sort.Order> orders = keysetSort.toList();
+        Sort.Order primary = orders.get(0);
+        Sort.Order idOrder = orders.get(orders.size() - 1);
+        if (!sortKey(primary).equals(cursor.sort())) {
+            throw new InvalidCursorException("Cursor made for another sort");
+        }
+        return (root, query, cb) -> {
+            Predicate idAfter = beyond(cb, root.get(ID), cursor.id(), idOrder.isAscending());
+            if (orders.size() == 1) {
+                return idAfter;
+            }
+            Path<?> path = root.get(primary.getProperty());
+            if (cursor.value() == null) {
+                Predicate sameNull = cb.and(cb.isNull(path), idAfter);
+                return primary.isAscending() ? sameNull : cb.or(sameNull, cb.isNotNull(path));
+            }
+            Object value = cursor.value();
+            // The first bound lets the database start an index range scan at the cursor
+            Predicate after = cb.and(
+                    notBefore(cb, path, value, primary.isAscending()),
+                    cb.or(beyond(cb, path, value, primary.isAscending()), idAfter));
+            return primary.isAscending() ? cb.or(after, cb.isNull(path)) : after;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate notBefore(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending) {
+        Path<Comparable> comparable = (Path<Comparable>) path;
+        return ascending
+                ? cb.greaterThanOrEqualTo(comparable, (Comparable) value)
+                : cb.lessThanOrEqualTo(comparable, (Comparable) value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending) {
+        Path<Comparable> comparable = (Path<Comparable>) path;
+        return ascending
+                ? cb.greaterThan(comparable, (Comparable) value)
+                : cb.lessThan(comparable, (Comparable) value);
+    }
+
+    /**
+     * Fetches the page after the cursor, reading one more row to know if there is a next page.
+     *
+     * @param repository the repository of the entities
+     * @param spec       the filter of the list
+     * @param sort       the requested sort, completed with the id
+     * @param cursor     the cursor of the previous page, null or blank for the first page
+     * @param limit      the number of rows of the page
+     * @param mapper     converts the entities of the page
+     * @throws InvalidCursorException if the cursor is invalid or was made for another sort
+     */
+    @NonNull
+    public static <E, D> KeysetPage<D> findPage(JpaSpecificationExecutor<E> repository,
+                                                Specification<E> spec,
+                                                Sort sort,
+                                                @Nullable String cursor,
+                                                int limit,
+                                                Function<List<E>, List<D>> mapper) {
+        Sort keysetSort = keysetSort(sort);
+        Specification<E> filter = cursor == null || cursor.isBlank()
+                ? spec
+                : spec.and(after(keysetSort, Cursor.decode(cursor)));
+        // limit before sortBy: the other way round, Spring Data 3.3 repeats the order by clause
+        List<E> rows = repository.findBy(filter, query -> query.limit(limit + 1).sortBy(keysetSort).all());
+
+        List<E> content = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        String nextCursor = rows.size() > limit ? cursorOf(content.get(content.size() - 1), keysetSort).encode() : null;
+        return new KeysetPage<>(mapper.apply(content), nextCursor);
+    }
+
+    static Cursor cursorOf(Object row, Sort keysetSort) {
+        var accessor = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        Sort.Order primary = keysetSort.iterator().next();
+        Object value = accessor.getPropertyValue(primary.getProperty());
+        Object id = accessor.getPropertyValue(ID);
+        return new Cursor(sortKey(primary), value, ((Number) id).longValue());
+    }
+}
@@ -228,7 +228,57 @@ public class AutocompleteRepository {
         }
     }
 
+    /**
+     * Every candidate of {@link #findMatchingConceptsFor(Concept, String, String, int)}, without input nor limit.
+     * Unlike the find methods, a failure of the query is thrown instead of answered as no candidate.
+     */
+    @NonNull
+    @ExecutionTimeLogger
+    public List<ConceptAutocompleteDTO> findAllCandidatesFor(@NonNull Concept field, @NonNull String lang) throws SQLException {
+        return findAllCandidates("concept_autocomplete", field.getId(), lang);
+    }
+
+    /**
+     * Every candidate of {@link #findMatchingConceptsInBranchOf(Concept, String, String, int)}, without input nor
+     * limit. Unlike the find methods, a failure of the query is thrown instead of answered as no candidate.
+     */
+    @NonNull
+    @ExecutionTimeLogger
+    public List<ConceptAutocompleteDTO> findAllCandidatesInBranchOf(@NonNull Concept topTerm, @NonNull String lang) throws SQLException {
+        return findAllCandidates("concept_autocomplete_branch", topTerm.getId(), lang);
+    }
+
+    /**
+     * Every candidate of {@link #findMatchingConceptsInCollection(ConceptCollection, String, String, int)}, without
+     * input nor limit. Unlike the find methods, a failure of the query is thrown instead of answered as no candidate.
+     */
+    @NonNull
+    @ExecutionTimeLogger
+    public List<ConceptAutocompleteDTO> findAllCandidatesInCollection(@NonNull ConceptCollection collection, @NonNull String lang) throws SQLException {
+        return findAllCandidates("concept_autocomplete_collection", collection.getId(), lang);
+    }
+
+    private List<ConceptAutocompleteDTO> findAllCandidates(@NonNull String function, long id, @NonNull String lang) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT ca.* FROM " + function + "(?, ?, ?, ?) ca")) {
+            statement.setLong(1, id);
+            statement.setString(2, lang);
+            statement.setString(3, "");
+            statement.setInt(4, Integer.MAX_VALUE);
+            return readResultSet(lang, statement);
+        }
+    }
+
     private List<ConceptAutocompleteDTO> processResultSet(@NonNull String searchedScope, @NonNull String lang, PreparedStatement statement) {
+        try {
+            return readResultSet(lang, statement);
+        } catch (Exception e) {
+            log.error("Error while processing result set for concept autocomplete of {}: {}", searchedScope, e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    private List<ConceptAutocompleteDTO> readResultSet(@NonNull String lang, PreparedStatement statement) throws SQLException {
         List<ConceptAutocompleteDTO> results = new ArrayList<>();
         try (ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
@@ -237,9 +287,6 @@ public class AutocompleteRepository {
                 results.add(dto);
             }
             return results;
-        } catch (Exception e) {
-            log.error("Error while processing result set for concept autocomplete of {}: {}", searchedScope, e.getMessage(), e);
-            return List.of();
         }
     }
 
@@ -0,0 +1,9 @@
+package fr.siamois.infrastructure.database.repositories.vocabulary;
+
+import fr.siamois.domain.models.vocabulary.ThesaurusHttpResponse;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ThesaurusHttpResponseRepository extends CrudRepository<ThesaurusHttpResponse, String> {
+}
@@ -128,19 +128,23 @@ public final class ExcelCellHelper {
         forEachDataRow(sheet, errors, new ImportProgress(), consumer);
     }
 
+    /**
+     * Calls the consumer for each row of the sheet but the header, in order. Only the rows present in the sheet are
+     * visited, so a sheet holding one streamed chunk at its original row numbers ({@link StreamingWorkbook}) is
+     * read in proportion to the chunk.
+     */
     public static void forEachDataRow(Sheet sheet, List<ImportError> errors, ImportProgress progress, Consumer<Row> consumer) {
-        for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-            Row row = sheet.getRow(r);
-            if (row != null) {
-                try {
-                    consumer.accept(row);
-                } catch (Exception e) {
-                    if (errors.size() < MAX_ERRORS) {
-                        errors.add(ImportError.forRow(sheet.getSheetName(), r + 1, e.getMessage()));
-                    }
+        for (Row row : sheet) {
+            int r = row.getRowNum();
+            if (r == 0) continue;
+            try {
+                consumer.accept(row);
+            } catch (Exception e) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(ImportError.forRow(sheet.getSheetName(), r + 1, e.getMessage()));
                 }
-                progress.increment();
             }
+            progress.increment();
         }
     }
 
@@ -0,0 +1,103 @@
+package fr.siamois.infrastructure.dataimport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the tasks of an import table by table, concurrently for the tables that do not depend on each other.
+ * <p>
+ * The tasks of a table run one after the other, in the order they are submitted. The first task of a table waits
+ * for the tasks already submitted for the tables it depends on, so every task of a table must be submitted before
+ * the tasks of the tables depending on it. Once a task fails, the later tasks of its table and of the tables
+ * depending on it are skipped.
+ */
+public class ImportPlan {
+
+    private final Map<String, Set<String>> dependencies;
+    private final Executor executor;
+    /** Last task submitted for each table */
+    private final Map<String, CompletableFuture<?>> lanes = new LinkedHashMap<>();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    /**
+     * @param dependencies maps a table ID to the tables it depends on (see {@link ImportSchema#PERSIST_DEPENDENCIES})
+     * @param executor     runs the tasks; must not be the executor of the thread waiting on the plan
+     */
+    public ImportPlan(Map<String, Set<String>> dependencies, Executor executor) {
+        this.dependencies = dependencies;
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules a task of a table.
+     *
+     * @return the result of the task, completed exceptionally if the task failed or was skipped
+     * @throws IllegalStateException if a table depending on this one already has tasks
+     */
+    public synchronized <T> CompletableFuture<T> submit(String tableId, Supplier<T> task) {
+        for (String started : lanes.keySet()) {
+            if (dependencies.getOrDefault(started, Set.of()).contains(tableId)) {
+                throw new IllegalStateException("Table " + tableId + " submitted after " + started + ", which depends on it");
+            }
+        }
+        CompletableFuture<?> previous = lanes.get(tableId);
+        if (previous == null) {
+            previous = CompletableFuture.allOf(dependencies.getOrDefault(tableId, Set.of()).stream()
+                    .map(lanes::get)
+                    .filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new));
+        }
+        CompletableFuture<T> next = previous.thenApplyAsync(ignored -> run(task), executor);
+        lanes.put(tableId, next);
+        return next;
+    }
+
+    public CompletableFuture<Void> execute(String tableId, Runnable task) {
+        return submit(tableId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private <T> T run(Supplier<T> task) {
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+
+    public boolean hasFailed() {
+        return failure.get() != null;
+    }
+
+    /** Throws the first exception raised by a task, if any */
+    public void throwIfFailed() {
+        RuntimeException e = failure.get();
+        if (e != null) throw e;
+    }
+
+    /**
+     * Waits for every task submitted, then throws the first exception raised by a task, if any.
+     */
+    public void await() {
+        CompletableFuture<?>[] lasts;
+        synchronized (this) {
+            lasts = lanes.values().toArray(CompletableFuture[]::new);
+        }
+        try {
+            CompletableFuture.allOf(lasts).join();
+        } catch (CompletionException e) {
+            throwIfFailed();
+            throw e;
+        }
+    }
+}
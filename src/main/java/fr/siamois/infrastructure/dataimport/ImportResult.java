@@ -2,17 +2,45 @@ package fr.siamois.infrastructure.dataimport;
 
 import fr.siamois.infrastructure.database.initializer.seeder.ImportSpecs;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import static fr.siamois.infrastructure.dataimport.ImportSchema.*;
+
 /**
  * @param allSheetColumns  raw column headers per sheet (all except _meta), for display
+ * @param specCounts       number of specs per project table ID; a streamed validation only counts them and leaves
+ *                         {@code specs} empty
  */
 public record ImportResult(
         ImportSpecs specs,
         List<ImportError> errors,
         SheetMetadata meta,
-        Map<String, List<String>> allSheetColumns
+        Map<String, List<String>> allSheetColumns,
+        Map<String, Integer> specCounts
 ) {
+    public ImportResult(ImportSpecs specs, List<ImportError> errors, SheetMetadata meta,
+                        Map<String, List<String>> allSheetColumns) {
+        this(specs, errors, meta, allSheetColumns, countSpecs(specs));
+    }
+
     public boolean hasErrors() { return !errors.isEmpty(); }
+
+    public int specCount(String tableId) { return specCounts.getOrDefault(tableId, 0); }
+
+    public int totalSpecCount() { return specCounts.values().stream().mapToInt(Integer::intValue).sum(); }
+
+    /** Number of specs of each project table */
+    public static Map<String, Integer> countSpecs(ImportSpecs specs) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put(SPATIAL_UNIT, specs.spatialUnits().size());
+        counts.put(SPATIAL_UNIT_REL, specs.spatialUnitRelSpecs().size());
+        counts.put(PHASE, specs.phaseSpecs().size());
+        counts.put(RECORDING_UNIT, specs.recordingUnits().size());
+        counts.put(SPECIMEN, specs.specimenSpecs().size());
+        counts.put(STRATI_REL, specs.recordingUnitStratiRelSpecs().size());
+        counts.put(RECORDING_REL, specs.recordingUnitRelSpecs().size());
+        return counts;
+    }
 }
@@ -2,6 +2,7 @@ package fr.siamois.infrastructure.dataimport;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Schema constants for the SIAMOIS Excel import format:
@@ -91,4 +92,18 @@ public final class ImportSchema {
             Map.entry(STRATI_REL,      List.of("us1", "us2", "relation", "relation label", "direction vocabulaire", "asynchrone", "incertain")),
             Map.entry(SPATIAL_UNIT_REL, List.of("parent", "enfant"))
     );
+
+    /**
+     * Maps technical table ID → tables whose rows must be persisted before its own (project import).
+     * Tables without a path between them in this graph are persisted concurrently, see {@link ImportPlan}.
+     */
+    public static final Map<String, Set<String>> PERSIST_DEPENDENCIES = Map.ofEntries(
+            Map.entry(SPATIAL_UNIT,     Set.of()),
+            Map.entry(PHASE,            Set.of()),
+            Map.entry(SPATIAL_UNIT_REL, Set.of(SPATIAL_UNIT)),
+            Map.entry(RECORDING_UNIT,   Set.of(SPATIAL_UNIT, PHASE)),
+            Map.entry(SPECIMEN,         Set.of(RECORDING_UNIT)),
+            Map.entry(STRATI_REL,       Set.of(RECORDING_UNIT)),
+            Map.entry(RECORDING_REL,    Set.of(RECORDING_UNIT))
+    );
 }
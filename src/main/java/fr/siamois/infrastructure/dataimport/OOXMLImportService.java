@@ -14,11 +14,15 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLDecoder;
+import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import static fr.siamois.infrastructure.dataimport.ExcelCellHelper.*;
 import static fr.siamois.infrastructure.dataimport.ImportSchema.*;
@@ -33,6 +37,7 @@ public class OOXMLImportService {
     public static final String ENFANT = "enfant";
 
     private final ConceptService conceptService;
+    private final Executor importWorkerExecutor;
 
     // -------------------------------------------------------------------------
     // Sheet metadata
@@ -196,6 +201,8 @@ public class OOXMLImportService {
                     + spatialUnitRows + recordingUnitRows + specimenRows + phaseRows + recordingRelRows + stratiRelRows
                     + spatialUnitRelRows);
 
+            // A loaded workbook is not thread-safe: its sheets are parsed one after the other. The streaming
+            // validation reads the tables concurrently, each one with its own reader (see validateStreaming).
             List<InstitutionSeeder.InstitutionSpec>             institutions  = new ArrayList<>();
             List<PersonSeeder.PersonSpec>                       persons       = new ArrayList<>();
             List<ActionCodeSeeder.ActionCodeSpec>               actionCodes   = new ArrayList<>();
@@ -227,6 +234,159 @@ public class OOXMLImportService {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Streaming import
+    // -------------------------------------------------------------------------
+
+    /** Number of sheet rows parsed, then persisted, together by a streaming import */
+    public static final int STREAM_CHUNK_SIZE = 500;
+
+    /** Tables of a project import, in the order they are persisted */
+    private static final List<String> PROJECT_TABLES = List.of(
+            SPATIAL_UNIT, SPATIAL_UNIT_REL, PHASE, RECORDING_UNIT, SPECIMEN, STRATI_REL, RECORDING_REL);
+
+    /**
+     * Receives the specs parsed from one chunk of a sheet, all of the table {@code tableId}, with the number of sheet
+     * rows they were read from.
+     */
+    @FunctionalInterface
+    public interface SpecChunkConsumer {
+        void accept(String tableId, ImportSpecs chunk, int rows);
+    }
+
+    /**
+     * Project import of a large file: parses every row to collect the errors and count the specs, without keeping
+     * them. The specs of the result are empty; {@link #streamProjectSpecs} reads them again, chunk by chunk, to
+     * persist them.
+     * <p>
+     * The tables are read concurrently, each one with its own {@link StreamingWorkbook#openReader() reader} of the
+     * file since POI workbooks are not thread-safe. The readers share the shared strings table of the file, which is
+     * then held in memory once. Each table collects its own errors and counts, merged in table order.
+     */
+    public ImportResult validateStreaming(Path file, ActionUnitDTO actionUnitDTO, ImportProgress progress) throws IOException {
+        progress.start(ImportProgress.Phase.OPENING, 0);
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(file)) {
+            SheetMetadata meta = readSheetMetadata(workbook.skeleton());
+            progress.start(ImportProgress.Phase.PARSING, countProjectRows(workbook, meta));
+
+            ImportPlan plan = new ImportPlan(Map.of(), importWorkerExecutor);
+            List<List<ImportError>> tableErrors = new ArrayList<>();
+            List<Map<String, Integer>> tableCounts = new ArrayList<>();
+            for (String tableId : PROJECT_TABLES) {
+                List<ImportError> errors = new ArrayList<>();
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                tableErrors.add(errors);
+                tableCounts.add(counts);
+                plan.execute(tableId, () -> {
+                    try (StreamingWorkbook reader = workbook.openReader()) {
+                        streamTable(reader, tableId, meta, actionUnitDTO, errors, progress, (table, chunk, rows) ->
+                                ImportResult.countSpecs(chunk).forEach((countedId, count) -> counts.merge(countedId, count, Integer::sum)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            try {
+                plan.await();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            List<ImportError> errors = new ArrayList<>();
+            tableErrors.forEach(errors::addAll);
+            if (errors.size() > MAX_ERRORS) errors.subList(MAX_ERRORS, errors.size()).clear();
+            Map<String, Integer> specCounts = new LinkedHashMap<>();
+            tableCounts.forEach(counts -> counts.forEach((tableId, count) -> specCounts.merge(tableId, count, Integer::sum)));
+
+            ImportSpecs noSpecs = new ImportSpecs(List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    List.of(), List.of(), List.of(), List.of(), List.of());
+            return new ImportResult(noSpecs, errors, meta, collectAllSheetColumns(workbook.skeleton()), specCounts);
+        }
+    }
+
+    /** Data rows of the sheets of the project tables, as declared by the sheets */
+    public int countProjectRows(StreamingWorkbook workbook, SheetMetadata meta) {
+        int rows = 0;
+        for (String tableId : PROJECT_TABLES) {
+            for (Sheet sheet : getSheetsForTable(workbook.skeleton(), meta, tableId)) {
+                rows += workbook.dataRowCount(sheet.getSheetName());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Parses the project tables of a streamed workbook by chunks of {@link #STREAM_CHUNK_SIZE} rows, in the order
+     * they must be persisted. Each chunk holds the specs of one table; the relations declared in the "enfants" column
+     * of the spatial units come after all the spatial units, from a second reading of their sheets.
+     *
+     * @param errors   receives the row errors
+     * @param progress incremented for each row parsed
+     */
+    public void streamProjectSpecs(StreamingWorkbook workbook, SheetMetadata meta, ActionUnitDTO actionUnitDTO,
+                                   List<ImportError> errors, ImportProgress progress,
+                                   SpecChunkConsumer consumer) throws IOException {
+        for (String tableId : PROJECT_TABLES) {
+            streamTable(workbook, tableId, meta, actionUnitDTO, errors, progress, consumer);
+        }
+    }
+
+    /** Parses the sheets of one of the {@link #PROJECT_TABLES} by chunks, see {@link #streamProjectSpecs} */
+    private void streamTable(StreamingWorkbook workbook, String tableId, SheetMetadata meta, ActionUnitDTO actionUnitDTO,
+                             List<ImportError> errors, ImportProgress progress, SpecChunkConsumer consumer) throws IOException {
+        Workbook skeleton = workbook.skeleton();
+        List<Sheet> sheets = getSheetsForTable(skeleton, meta, tableId);
+        switch (tableId) {
+            case SPATIAL_UNIT -> streamSheets(workbook, SPATIAL_UNIT, sheets, consumer, sheet -> spatialUnitChunk(
+                    parseSpatialUnits(List.of(sheet), actionUnitDTO, meta, errors, progress, new ArrayList<>()), List.of()));
+            case SPATIAL_UNIT_REL -> {
+                // Second reading of the spatial units: the errors and progress of these rows are already accounted for
+                streamSheets(workbook, SPATIAL_UNIT_REL, getSheetsForTable(skeleton, meta, SPATIAL_UNIT),
+                        (table, chunk, rows) -> consumer.accept(table, chunk, 0), sheet -> {
+                            List<SpatialUnitRelSeeder.SpatialUnitRelDTO> childRels = new ArrayList<>();
+                            parseSpatialUnits(List.of(sheet), actionUnitDTO, meta, new ArrayList<>(), new ImportProgress(), childRels);
+                            return spatialUnitChunk(List.of(), childRels);
+                        });
+                streamSheets(workbook, SPATIAL_UNIT_REL, sheets, consumer, sheet -> spatialUnitChunk(
+                        List.of(), parseSpatialUnitRels(List.of(sheet), meta, errors, progress)));
+            }
+            case PHASE -> streamSheets(workbook, PHASE, sheets, consumer, sheet -> new ImportSpecs(
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    parsePhases(List.of(sheet), actionUnitDTO, meta, errors, progress), List.of(), List.of(), List.of()));
+            case RECORDING_UNIT -> streamSheets(workbook, RECORDING_UNIT, sheets, consumer, sheet -> new ImportSpecs(
+                    List.of(), List.of(), List.of(), List.of(), List.of(),
+                    parseRecordingUnits(List.of(sheet), ImportScope.PROJECT, actionUnitDTO, meta, errors, progress),
+                    List.of(), List.of(), List.of(), List.of(), List.of()));
+            case SPECIMEN -> streamSheets(workbook, SPECIMEN, sheets, consumer, sheet -> new ImportSpecs(
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    parseSpecimens(List.of(sheet), actionUnitDTO, meta, errors, progress),
+                    List.of(), List.of(), List.of(), List.of()));
+            case STRATI_REL -> streamSheets(workbook, STRATI_REL, sheets, consumer, sheet -> new ImportSpecs(
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    parseStratiRels(List.of(sheet), actionUnitDTO, meta, errors, progress), List.of()));
+            case RECORDING_REL -> streamSheets(workbook, RECORDING_REL, sheets, consumer, sheet -> new ImportSpecs(
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    parseRecordingRels(List.of(sheet), meta, errors, progress), List.of(), List.of()));
+            default -> throw new IllegalArgumentException("Not a project table: " + tableId);
+        }
+    }
+
+    private static ImportSpecs spatialUnitChunk(List<SpatialUnitSeeder.SpatialUnitSpecs> spatialUnits,
+                                                List<SpatialUnitRelSeeder.SpatialUnitRelDTO> spatialUnitRels) {
+        return new ImportSpecs(List.of(), List.of(), spatialUnits, List.of(), List.of(), List.of(), List.of(),
+                List.of(), List.of(), List.of(), spatialUnitRels);
+    }
+
+    private static void streamSheets(StreamingWorkbook workbook, String tableId, List<Sheet> sheets, SpecChunkConsumer consumer,
+                                     Function<Sheet, ImportSpecs> parser) throws IOException {
+        for (Sheet sheet : sheets) {
+            workbook.forEachChunk(sheet, STREAM_CHUNK_SIZE, chunk -> {
+                int rows = chunk.getPhysicalNumberOfRows() - (chunk.getRow(0) != null ? 1 : 0);
+                consumer.accept(tableId, parser.apply(chunk), rows);
+            });
+        }
+    }
+
     private int sumDataRows(List<Sheet> sheets) {
         int sum = 0;
         for (Sheet s : sheets) {
@@ -0,0 +1,295 @@
+package fr.siamois.infrastructure.dataimport;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of an .xlsx file that never loads a whole sheet: the sheets are read with a SAX parser and their
+ * data rows are handed over by chunks.
+ * <p>
+ * The {@link #skeleton()} workbook has every sheet of the file with its header row only (and the whole {@code _meta}
+ * sheet), so that the sheet metadata and column indexes are read as for a fully loaded workbook. The rows of a chunk
+ * are put in the skeleton sheet at their own row numbers, so the row parsers of {@link OOXMLImportService} and the
+ * line numbers of the errors work unchanged, and are removed once the chunk is processed.
+ * <p>
+ * Memory is bounded by the chunk size, plus the shared strings table of the file which POI keeps in memory. Other
+ * readers of the file, for other threads, are opened with {@link #openReader()}: they share this table instead of
+ * loading it again.
+ */
+public class StreamingWorkbook implements AutoCloseable {
+
+    private static final String META_SHEET = "_meta";
+
+    private final Path file;
+    private final OPCPackage pkg;
+    /** Only read once loaded: shared by the readers of the file */
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final Map<String, PackagePart> partsBySheet = new LinkedHashMap<>();
+    private final Map<String, Integer> dataRowCounts = new HashMap<>();
+    private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+    private final XSSFWorkbook skeleton = new XSSFWorkbook();
+    private final CellStyle dateStyle;
+
+    private StreamingWorkbook(Path file, OPCPackage pkg, ReadOnlySharedStringsTable strings)
+            throws IOException, OpenXML4JException, SAXException {
+        this.file = file;
+        this.pkg = pkg;
+        XSSFReader reader = new XSSFReader(pkg);
+        this.strings = strings != null ? strings : new ReadOnlySharedStringsTable(pkg);
+        this.styles = reader.getStylesTable();
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (sheets.hasNext()) {
+            try (InputStream ignored = sheets.next()) {
+                partsBySheet.put(sheets.getSheetName(), sheets.getSheetPart());
+            }
+        }
+        this.dateStyle = skeleton.createCellStyle();
+        dateStyle.setDataFormat(skeleton.createDataFormat().getFormat("yyyy-mm-dd"));
+    }
+
+    /**
+     * Opens the file read-only and reads the header row of each sheet.
+     *
+     * @throws IOException if the file is not a readable .xlsx workbook
+     */
+    public static StreamingWorkbook open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Opens another reader of the same file, with its own package and skeleton so that it can be used by another
+     * thread. It shares the shared strings table of this workbook, which must stay open meanwhile.
+     *
+     * @throws IOException if the file can no longer be read
+     */
+    public StreamingWorkbook openReader() throws IOException {
+        return open(file, strings);
+    }
+
+    private static StreamingWorkbook open(Path file, ReadOnlySharedStringsTable strings) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            StreamingWorkbook workbook = new StreamingWorkbook(file, pkg, strings);
+            workbook.readHeaders();
+            return workbook;
+        } catch (OpenXML4JException | SAXException | RuntimeException e) {
+            if (pkg != null) pkg.revert();
+            throw new IOException("Classeur Excel illisible : " + e.getMessage(), e);
+        }
+    }
+
+    private void readHeaders() throws IOException, SAXException {
+        for (String sheetName : partsBySheet.keySet()) {
+            Sheet sheet = skeleton.createSheet(sheetName);
+            boolean meta = META_SHEET.equalsIgnoreCase(sheetName);
+            RowHandler handler = new RowHandler(sheet, meta ? Integer.MAX_VALUE : 0, null);
+            parse(sheetName, handler);
+            dataRowCounts.put(sheetName, handler.lastRowNum);
+        }
+    }
+
+    /**
+     * @return a workbook with every sheet of the file, holding its header row only (whole sheet for {@code _meta})
+     */
+    public Workbook skeleton() {
+        return skeleton;
+    }
+
+    /**
+     * Number of data rows of a sheet, as declared by its dimension (0 if the sheet does not declare it).
+     */
+    public int dataRowCount(String sheetName) {
+        return dataRowCounts.getOrDefault(sheetName, 0);
+    }
+
+    /**
+     * Streams the data rows of a sheet of the skeleton: at most {@code chunkSize} rows at a time are put in it, then
+     * handed to {@code onChunk} and removed.
+     */
+    public void forEachChunk(Sheet sheet, int chunkSize, Consumer<Sheet> onChunk) throws IOException {
+        if (sheet.getWorkbook() != skeleton) {
+            throw new IllegalArgumentException("Sheet " + sheet.getSheetName() + " does not belong to this workbook");
+        }
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        RowHandler handler = new RowHandler(sheet, Integer.MAX_VALUE, row -> {
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flushChunk(sheet, chunk, onChunk);
+            }
+        });
+        try {
+            parse(sheet.getSheetName(), handler);
+            if (!chunk.isEmpty()) {
+                flushChunk(sheet, chunk, onChunk);
+            }
+        } catch (SAXException e) {
+            throw new IOException("Feuille " + sheet.getSheetName() + " illisible : " + e.getMessage(), e);
+        } finally {
+            chunk.forEach(sheet::removeRow);
+            chunk.clear();
+        }
+    }
+
+    private static void flushChunk(Sheet sheet, List<Row> chunk, Consumer<Sheet> onChunk) {
+        try {
+            onChunk.accept(sheet);
+        } finally {
+            chunk.forEach(sheet::removeRow);
+            chunk.clear();
+        }
+    }
+
+    private void parse(String sheetName, RowHandler handler) throws IOException, SAXException {
+        PackagePart part = partsBySheet.get(sheetName);
+        if (part == null) return;
+        try (InputStream is = part.getInputStream()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(is));
+        } catch (StopReading stop) {
+            // the requested rows have been read
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        return dateStyles.computeIfAbsent(styleIndex, index -> {
+            XSSFCellStyle style = styles.getStyleAt(index);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        skeleton.close();
+        pkg.revert();
+    }
+
+    /** Thrown to end the parsing of a sheet once the requested rows are read */
+    private static final class StopReading extends SAXException {
+    }
+
+    /**
+     * Builds the rows of a sheet from its XML, with the cell types a loaded workbook would give: shared and inline
+     * strings, numbers (with a date style when the cell has a date format), booleans and formula results.
+     */
+    private final class RowHandler extends DefaultHandler {
+
+        private final Sheet sheet;
+        private final int maxRowNum;
+        private final Consumer<Row> onRow;
+        private final StringBuilder text = new StringBuilder();
+        private Row row;
+        private int nextRowNum;
+        private int nextColumn;
+        private int column;
+        private String cellType;
+        private int cellStyle;
+        private boolean inValue;
+        private int lastRowNum;
+
+        private RowHandler(Sheet sheet, int maxRowNum, Consumer<Row> onRow) {
+            this.sheet = sheet;
+            this.maxRowNum = maxRowNum;
+            this.onRow = onRow;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            switch (localName) {
+                case "dimension" -> lastRowNum = lastRowOf(attributes.getValue("ref"));
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    int rowNum = r != null ? Integer.parseInt(r) - 1 : nextRowNum;
+                    if (rowNum > maxRowNum) throw new StopReading();
+                    nextRowNum = rowNum + 1;
+                    nextColumn = 0;
+                    // when streaming, the header row is already in the skeleton
+                    row = onRow != null && rowNum == 0 ? null : sheet.createRow(rowNum);
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    nextColumn = column + 1;
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    cellStyle = s != null ? Integer.parseInt(s) : -1;
+                    text.setLength(0);
+                }
+                case "v", "t" -> inValue = true;
+                default -> {
+                    // other elements carry no cell value
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> inValue = false;
+                case "c" -> {
+                    if (row != null) writeCell(row.createCell(column), text.toString());
+                }
+                case "row" -> {
+                    if (row != null && onRow != null) onRow.accept(row);
+                    row = null;
+                    if (maxRowNum == 0) throw new StopReading();
+                }
+                default -> {
+                    // nothing to do
+                }
+            }
+        }
+
+        private void writeCell(Cell cell, String value) {
+            if (cellType == null || "n".equals(cellType)) {
+                if (value.isEmpty()) return;
+                cell.setCellValue(Double.parseDouble(value));
+                if (cellStyle >= 0 && isDateStyle(cellStyle)) cell.setCellStyle(dateStyle);
+                return;
+            }
+            switch (cellType) {
+                case "s" -> cell.setCellValue(strings.getItemAt(Integer.parseInt(value)).getString());
+                case "b" -> cell.setCellValue("1".equals(value));
+                default -> cell.setCellValue(value);
+            }
+        }
+    }
+
+    /** Last 0-based row index of a dimension such as {@code A1:T2001} */
+    static int lastRowOf(String ref) {
+        if (ref == null || ref.isBlank()) return 0;
+        String last = ref.substring(ref.indexOf(':') + 1);
+        return Math.max(0, new CellReference(last).getRow());
+    }
+}
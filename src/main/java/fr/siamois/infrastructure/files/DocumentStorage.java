@@ -1,30 +1,48 @@
 package fr.siamois.infrastructure.files;
 
-import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.services.document.compressor.FileCompressor;
+import fr.siamois.domain.services.document.compressor.OtherCompressor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MimeType;
 
-import java.io.*;
+import javax.imageio.ImageIO;
+import java.awt.image.RenderedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Service to manage document storage.
- * Handles saving, finding, and compressing documents.
+ * Handles saving, finding, and compressing documents. Files are stored once per content under {@code blobs/}, keyed
+ * by their SHA-256; documents saved before that are still found in their institution folder.
  */
 @Slf4j
 @Service
 public class DocumentStorage {
 
+    static final String BLOBS_FOLDER = "blobs";
+    static final String THUMBNAILS_FOLDER = "thumbnails";
+    private static final String THUMBNAIL_EXTENSION = ".jpg";
+
     @Value("${siamois.documents.allowed-types:*/*}")
     private String[] mimeTypes;
 
@@ -55,46 +73,122 @@ public class DocumentStorage {
     }
 
     /**
-     * Saves a document to the storage.
+     * Saves a document to the content-addressed store.
+     * The content is hashed (SHA-256) and compressed in a single pass into a temporary file, which is then moved to
+     * {@code blobs/<2 first chars>/<2 next chars>/<sha256>.<extension>}. If a blob with the same content already
+     * exists, the temporary file is dropped and the document shares the existing one. The document gets its
+     * {@code sha256Sum} and its {@code storedFileName}, which is the blob key.
      *
-     * @param userInfo User information for the document creator.
      * @param document Document object containing metadata and file information.
      * @param content  InputStream containing the document content.
+     * @param reserve  called with the blob key before the blob is looked up, to lock it so that it is not deleted
+     *                 before the document referencing it is committed
      * @throws IOException If an I/O error occurs during saving the document.
      */
-    public void save(UserInfo userInfo, Document document, InputStream content) throws IOException {
-        byte[] bytes = compressAndSetStoredName(document, content);
-        ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
+    public void save(Document document, InputStream content, Consumer<String> reserve) throws IOException {
+        FileCompressor compressor = findCompressor(document.mimeTypeObject());
+        compressor.updateStoredFilename(document);
+        String extension = storedExtension(document.getStoredFileName());
 
-        Path path = Paths.get(
-                documentsPath,
-                userInfo.getInstitution().getId().toString(),
-                document.getStoredFileName()
-        );
+        Path blobsFolder = Paths.get(documentsPath, BLOBS_FOLDER);
+        Files.createDirectories(blobsFolder);
 
-        Files.createDirectories(path.getParent());
+        MessageDigest sha256 = DigestUtils.getSha256Digest();
+        Path temporaryFile = Files.createTempFile(blobsFolder, "upload", ".part");
+        try (DigestInputStream digestInputStream = new DigestInputStream(content, sha256)) {
+            compressor.compress(digestInputStream, temporaryFile);
+            String hash = Hex.encodeHexString(sha256.digest());
+            document.setSha256Sum(hash);
+            document.setStoredFileName(hash + extension);
+            reserve.accept(document.getStoredFileName());
+            publish(temporaryFile, blobPath(document.getStoredFileName()));
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
 
-        File file = path.toFile();
-        if (file.createNewFile()) {
-            log.info("File created: {}", file.getAbsolutePath());
+    }
+
+    /**
+     * Copies the legacy file of a document, stored per institution, into the content-addressed store. The SHA-256 is
+     * computed on the original content (decompressed if the file is stored compressed), so the blob is shared with
+     * identical uploads. The document gets its {@code sha256Sum} and blob key; the legacy file is left untouched so
+     * that it can be deleted once the document is updated.
+     *
+     * @param document a document without {@code sha256Sum}
+     * @param reserve  called with the blob key before the blob is looked up, as in {@link #save}
+     * @return the legacy file, or empty if the document has no stored file
+     * @throws IOException If an I/O error occurs while reading or copying the file.
+     */
+    public Optional<Path> copyToBlobStore(Document document, Consumer<String> reserve) throws IOException {
+        Optional<File> legacyFile = find(document);
+        if (legacyFile.isEmpty()) {
+            return Optional.empty();
+        }
+        Path source = legacyFile.get().toPath();
+        String extension = storedExtension(document.getStoredFileName());
+
+        String hash;
+        try (InputStream stored = Files.newInputStream(source);
+             InputStream original = OtherCompressor.STORED_EXTENSION.equals(extension) ? new GZIPInputStream(stored) : stored) {
+            hash = DigestUtils.sha256Hex(original);
         }
+        String blobKey = hash + extension;
+        reserve.accept(blobKey);
 
-        try (FileOutputStream outputStream = new FileOutputStream(file)) {
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = bais.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+        Path target = blobPath(blobKey);
+        if (!Files.exists(target)) {
+            Path blobsFolder = Paths.get(documentsPath, BLOBS_FOLDER);
+            Files.createDirectories(blobsFolder);
+            Path temporaryFile = Files.createTempFile(blobsFolder, "legacy", ".part");
+            try {
+                Files.copy(source, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+                publish(temporaryFile, target);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
             }
         }
 
-        content.close();
+        document.setSha256Sum(hash);
+        document.setStoredFileName(blobKey);
+        return Optional.of(source);
+    }
 
+    private static String storedExtension(String storedFileName) {
+        int i = storedFileName.lastIndexOf('.');
+        return i < 0 ? "" : storedFileName.substring(i);
     }
 
-    private byte[] compressAndSetStoredName(Document document, InputStream content) throws IOException {
-        FileCompressor compressor = findCompressor(document.mimeTypeObject());
-        compressor.updateStoredFilename(document);
-        return compressor.compress(content);
+    private Path blobPath(String blobKey) {
+        return Paths.get(documentsPath, BLOBS_FOLDER, blobKey.substring(0, 2), blobKey.substring(2, 4), blobKey);
+    }
+
+    private Path storedPath(Document document) {
+        if (document.getSha256Sum() != null) {
+            return blobPath(document.getStoredFileName());
+        }
+        return Paths.get(
+                documentsPath,
+                document.getCreatedByInstitution().getId().toString(),
+                document.getStoredFileName()
+        );
+    }
+
+    private static void publish(Path temporaryFile, Path target) throws IOException {
+        if (Files.exists(target)) {
+            log.debug("Blob already stored: {}", target.toAbsolutePath());
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        moveInPlace(temporaryFile, target);
+        log.info("File created: {}", target.toAbsolutePath());
+    }
+
+    private static void moveInPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     private FileCompressor findCompressor(MimeType type) {
@@ -113,13 +207,7 @@ public class DocumentStorage {
      * @return Optional containing the File if found, otherwise empty.
      */
     public Optional<File> find(Document document) {
-        Path filePath = Paths.get(
-                documentsPath,
-                document.getCreatedByInstitution().getId().toString(),
-                document.getStoredFileName()
-        );
-
-        File file = filePath.toFile();
+        File file = storedPath(document).toFile();
 
         if (file.exists()) {
             return Optional.of(file);
@@ -129,17 +217,18 @@ public class DocumentStorage {
     }
 
     /**
-     * Finds the byte stream of a file based on its Document object.
+     * Opens the stored file of a Document object. The stream reads the file as stored (compressed or not) and must be
+     * closed by the caller.
      *
      * @param document Document object containing metadata to locate the file.
-     * @return Optional containing the byte array of the file if found, otherwise empty.
+     * @return Optional containing an InputStream on the file if found, otherwise empty.
      */
-    public Optional<byte[]> findStreamOf(Document document) {
+    public Optional<InputStream> findStreamOf(Document document) {
         Optional<File> file = find(document);
         if (file.isEmpty())
             return Optional.empty();
-        try (FileInputStream fileInputStream = new FileInputStream(file.get())) {
-            return Optional.of(fileInputStream.readAllBytes());
+        try {
+            return Optional.of(Files.newInputStream(file.get().toPath()));
         } catch (IOException e) {
             log.error("File not found: {}", file.get().getAbsolutePath());
         }
@@ -148,6 +237,8 @@ public class DocumentStorage {
 
     /**
      * Supprime le fichier physique associé au document s'il existe (même logique de chemin que {@link #find}).
+     * Pour un document du stockage par contenu, le fichier est partagé : utiliser {@link #deleteBlob} quand il
+     * n'est plus référencé.
      */
     public void deleteStoredFile(Document document) {
         find(document).ifPresent(file -> {
@@ -155,6 +246,96 @@ public class DocumentStorage {
                 log.warn("Could not delete file: {}", file.getAbsolutePath());
             }
         });
+        deleteThumbnails(thumbnailKey(document));
+    }
+
+    /**
+     * Supprime un fichier du stockage par contenu.
+     *
+     * @param blobKey la clé du fichier ({@code storedFileName} des documents qui le partagent)
+     */
+    public void deleteBlob(String blobKey) {
+        deleteFile(blobPath(blobKey));
+        deleteThumbnails(storedNameWithoutExtension(blobKey));
+    }
+
+    /**
+     * Finds a thumbnail of a document.
+     *
+     * @param document the document
+     * @param size     the size of the thumbnail, in pixels
+     * @return Optional containing the thumbnail (JPEG) if it was generated, otherwise empty.
+     */
+    public Optional<File> findThumbnail(Document document, int size) {
+        File file = thumbnailPath(thumbnailKey(document), size).toFile();
+        return file.exists() ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Saves a thumbnail of a document as JPEG. Thumbnails derive from the content, so documents sharing a blob share
+     * their thumbnails.
+     *
+     * @param document  the document
+     * @param size      the size of the thumbnail, in pixels
+     * @param thumbnail the thumbnail, without alpha channel
+     * @throws IOException If an I/O error occurs while writing the thumbnail.
+     */
+    public void saveThumbnail(Document document, int size, RenderedImage thumbnail) throws IOException {
+        Path target = thumbnailPath(thumbnailKey(document), size);
+        Files.createDirectories(target.getParent());
+        Path temporaryFile = Files.createTempFile(target.getParent(), "thumbnail", ".part");
+        try {
+            if (!ImageIO.write(thumbnail, "jpg", temporaryFile.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            moveInPlace(temporaryFile, target);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static String thumbnailKey(Document document) {
+        return document.getSha256Sum() != null ? document.getSha256Sum() : document.getFileCode();
+    }
+
+    private static String storedNameWithoutExtension(String storedFileName) {
+        int i = storedFileName.lastIndexOf('.');
+        return i < 0 ? storedFileName : storedFileName.substring(0, i);
+    }
+
+    private Path thumbnailPath(String key, int size) {
+        return Paths.get(documentsPath, THUMBNAILS_FOLDER, Integer.toString(size), key.substring(0, 2),
+                key + THUMBNAIL_EXTENSION);
+    }
+
+    private void deleteThumbnails(String key) {
+        if (key == null) {
+            return;
+        }
+        Path thumbnails = Paths.get(documentsPath, THUMBNAILS_FOLDER);
+        if (!Files.isDirectory(thumbnails)) {
+            return;
+        }
+        try (Stream<Path> sizes = Files.list(thumbnails)) {
+            sizes.forEach(size -> deleteFile(size.resolve(key.substring(0, 2)).resolve(key + THUMBNAIL_EXTENSION)));
+        } catch (IOException e) {
+            log.warn("Could not delete thumbnails of {}", key);
+        }
+    }
+
+    /**
+     * Supprime un ancien fichier, stocké par institution, une fois copié dans le stockage par contenu.
+     */
+    public void deleteLegacyFile(Path legacyFile) {
+        deleteFile(legacyFile);
+    }
+
+    private static void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete file: {}", path.toAbsolutePath());
+        }
     }
 
 }
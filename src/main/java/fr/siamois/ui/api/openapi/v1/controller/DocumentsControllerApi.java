@@ -13,15 +13,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/v1/documents")
@@ -71,18 +78,29 @@ public class DocumentsControllerApi {
             summary = "Télécharger le fichier d'un document",
             description = "Flux binaire du fichier associé au document (`document_id`). "
                     + "L'institution de création du document doit être dans le périmètre JWT. "
-                    + "404 si document absent, hors périmètre ou fichier introuvable sur le stockage."
+                    + "404 si document absent, hors périmètre ou fichier introuvable sur le stockage. "
+                    + "Supporte `Range` (206 Partial Content) pour reprendre un téléchargement interrompu, "
+                    + "ainsi que `If-None-Match` (ETag = somme MD5 du fichier) et `If-Modified-Since` (304 Not Modified). "
+                    + "Les fichiers stockés compressés sont envoyés tels quels avec `Content-Encoding: gzip` "
+                    + "si le client l'accepte (`Accept-Encoding`) ; les plages portent alors sur le flux compressé. "
+                    + "Sinon ils sont décompressés à la volée et envoyés en entier, sans support des plages."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok",
                     content = @Content(mediaType = "*/*", schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "206", description = "Contenu partiel (en-tête Range)",
+                    content = @Content(mediaType = "*/*", schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "304", description = "Non modifié (If-None-Match / If-Modified-Since)"),
             @ApiResponse(responseCode = "401", description = "Non authentifié"),
             @ApiResponse(responseCode = "404", description = "Document ou fichier introuvable / hors périmètre"),
+            @ApiResponse(responseCode = "416", description = "Plage demandée invalide"),
             @ApiResponse(responseCode = "500", description = "Erreur interne")
     })
     public ResponseEntity<Resource> downloadContent(
             @Parameter(description = "Identifiant numérique du document (document_id).", example = "42")
-            @PathVariable("id") long id) {
+            @PathVariable("id") long id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
 
         ProjectApiCaller caller = projectApiService.requireCaller();
         DocumentContentOpenApiService.DocumentFilePayload payload =
@@ -92,10 +110,94 @@ public class DocumentsControllerApi {
                 .filename(payload.fileName(), StandardCharsets.UTF_8)
                 .build();
 
-        return ResponseEntity.ok()
+        // Range, If-None-Match et If-Modified-Since sont traités par Spring à partir de la ressource fichier,
+        // de l'ETag et de la date de modification.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(payload.mediaType())
                 .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
-                .body(new InputStreamResource(payload.inputStream()));
+                .lastModified(payload.file().lastModified());
+
+        if (payload.contentEncoding() == null) {
+            return withETag(response, payload.md5Sum())
+                    .body(new FileSystemResource(payload.file()));
+        }
+
+        response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsEncoding(acceptEncoding, payload.contentEncoding())) {
+            // L'ETag doit distinguer la représentation compressée de la représentation décompressée
+            String eTag = payload.md5Sum() == null ? null : payload.md5Sum() + "-" + payload.contentEncoding();
+            return withETag(response, eTag)
+                    .header(HttpHeaders.CONTENT_ENCODING, payload.contentEncoding())
+                    .body(new FileSystemResource(payload.file()));
+        }
+
+        // Client ne supportant pas la compression : décompression à la volée, sans support des plages.
+        // Le fichier n'est ouvert qu'à l'écriture de la réponse, donc pas pour un 304, et Spring ignore l'en-tête
+        // Range pour une InputStreamResource : la réponse est toujours complète.
+        return withETag(response, payload.md5Sum())
+                .header(HttpHeaders.ACCEPT_RANGES, "none")
+                .body(new InputStreamResource(() -> new GZIPInputStream(Files.newInputStream(payload.file().toPath()))));
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, String eTag) {
+        return eTag == null ? response : response.eTag(eTag);
+    }
+
+    @GetMapping("/{id}/thumbnail")
+    @Operation(
+            summary = "Vignette d'un document image",
+            description = "Vignette JPEG du document, inscrite dans un carré de la taille demandée "
+                    + "(arrondie à une des tailles générées : 128 ou 512 pixels). "
+                    + "Les vignettes sont générées en arrière-plan au dépôt du fichier, ou à la première demande. "
+                    + "Même règle d'accès que le téléchargement. 404 si le document n'est pas une image supportée."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok",
+                    content = @Content(mediaType = "image/jpeg", schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "304", description = "Non modifié (If-Modified-Since)"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié"),
+            @ApiResponse(responseCode = "404", description = "Document introuvable / hors périmètre, ou sans vignette"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    public ResponseEntity<Resource> downloadThumbnail(
+            @Parameter(description = "Identifiant numérique du document (document_id).", example = "42")
+            @PathVariable("id") long id,
+            @Parameter(description = "Taille souhaitée en pixels (plus grand côté).", example = "128")
+            @RequestParam(value = "size", defaultValue = "128") int size) {
+
+        ProjectApiCaller caller = projectApiService.requireCaller();
+        File thumbnail = documentContentOpenApiService.requireThumbnail(id, caller.accessibleInstitutionIds(), size);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePrivate())
+                .lastModified(thumbnail.lastModified())
+                .body(new FileSystemResource(thumbnail));
+    }
+
+    /**
+     * Indique si l'en-tête {@code Accept-Encoding} accepte le codage donné, explicitement ou via {@code *}.
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean explicit = null;
+        boolean wildcard = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String coding = parts[0].trim();
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                refused |= parts[i].trim().matches("q\\s*=\\s*0(\\.0{0,3})?");
+            }
+            if (coding.equalsIgnoreCase(encoding)) {
+                explicit = !refused;
+            } else if (coding.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return explicit != null ? explicit : wildcard;
     }
 
     @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
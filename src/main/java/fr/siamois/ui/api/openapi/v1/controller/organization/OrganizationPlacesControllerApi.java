@@ -30,7 +30,9 @@ public class OrganizationPlacesControllerApi {
     @GetMapping("/{id}/places")
     @Operation(
             summary = "Liste des lieux d'une organisation",
-            description = "Liste paginée de toutes les unités spatiales (lieux) de l'organisation."
+            description = "Liste paginée de toutes les unités spatiales (lieux) de l'organisation. "
+                    + "Pagination par curseur : passer cursor (vide pour la première page) au lieu d'offset, puis "
+                    + "meta.nextCursor pour la page suivante ; ni total ni X-Total-Count dans ce mode."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok"),
@@ -47,7 +49,17 @@ public class OrganizationPlacesControllerApi {
             @RequestParam(defaultValue = "50") int limit,
             @Parameter(description = "Tri : name, id, code, creationTime ; direction asc ou desc.")
             @RequestParam(defaultValue = "name:asc") String sort,
-            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage) {
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
+            @Parameter(description = "Curseur (meta.nextCursor de la page précédente, vide pour la première page) ; "
+                    + "remplace offset")
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            projectApiService.validateCursorListRequest(limit);
+            ProjectApiCaller caller = projectApiService.requireCaller();
+            String lang = ProjectApiService.primaryAcceptLanguage(acceptLanguage);
+            return ResponseEntity.ok(placeOpenApiService.listByOrganizationAfter(caller, id, cursor, limit, sort, lang));
+        }
 
         projectApiService.validatePagedListRequest(offset, limit);
         ProjectApiCaller caller = projectApiService.requireCaller();
@@ -2,6 +2,7 @@ package fr.siamois.ui.api.openapi.v1.controller.organization;
 
 import fr.siamois.domain.services.recordingunit.RecordingUnitService;
 import fr.siamois.dto.FilterDTO;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.InstitutionDTO;
 import fr.siamois.dto.entity.RecordingUnitDTO;
 import fr.siamois.ui.api.openapi.v1.OpenApiTags;
@@ -12,6 +13,7 @@ import fr.siamois.ui.api.openapi.v1.response.recordingunit.RecordingUnitListResp
 import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
 import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,7 +40,10 @@ public class OrganizationRecordingUnitsControllerApi {
 
 
     @GetMapping("/{id}/recording-units")
-    @Operation(summary = "Liste paginée des unités d'enregistrement d'une institution")
+    @Operation(summary = "Liste paginée des unités d'enregistrement d'une institution",
+            description = "Pagination par offset, ou par curseur : passer cursor (vide pour la première page) au lieu "
+                    + "d'offset, puis meta.nextCursor pour la page suivante. Par curseur, les unités sont triées par "
+                    + "creationTime:desc, et la réponse n'a ni total ni X-Total-Count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok"),
             @ApiResponse(responseCode = "403", description = "Organisation hors périmètre"),
@@ -48,7 +53,22 @@ public class OrganizationRecordingUnitsControllerApi {
     public ResponseEntity<RecordingUnitListResponse> getRecordingUnits(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Curseur (meta.nextCursor de la page précédente, vide pour la première page) ; "
+                    + "remplace offset")
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            projectApiService.validateCursorListRequest(limit);
+            ProjectApiCaller caller = projectApiService.requireCaller();
+            InstitutionDTO institution = projectApiService.requireOrganization(id, caller);
+            KeysetPage<RecordingUnitDTO> page = ProjectApiService.withCursor(() -> recordingUnitService.searchRecordingUnitAfter(
+                    institution, new FilterDTO(), ProjectApiService.parseRecordingUnitSort(null), cursor, limit));
+            List<RecordingUnitResource> resources = page.content().stream()
+                    .map(recordingUnitResourceMapper::convert)
+                    .toList();
+            return ResponseEntity.ok(new RecordingUnitListResponse(resources, ListMeta.ofCursor(limit, page.nextCursor())));
+        }
 
         projectApiService.validatePagedListRequest(offset, limit);
         ProjectApiCaller caller = projectApiService.requireCaller();
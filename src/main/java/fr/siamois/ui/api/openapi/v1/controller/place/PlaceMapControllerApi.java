@@ -0,0 +1,92 @@
+package fr.siamois.ui.api.openapi.v1.controller.place;
+
+import fr.siamois.ui.api.openapi.v1.OpenApiTags;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeatureCollectionResponse;
+import fr.siamois.ui.api.openapi.v1.service.PlaceMapOpenApiService;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * Lieux pour les fonds de plan des clients cartographiques : emprise + zoom en GeoJSON, ou tuiles vectorielles.
+ */
+@RestController
+@RequestMapping("/api/v1/places")
+@Tag(name = OpenApiTags.SPATIAL_UNIT)
+@RequiredArgsConstructor
+public class PlaceMapControllerApi {
+
+    public static final String GEO_JSON = "application/geo+json";
+    public static final String MAPBOX_VECTOR_TILE = "application/vnd.mapbox-vector-tile";
+    private static final CacheControl TILE_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+
+    private final ProjectApiService projectApiService;
+    private final PlaceMapOpenApiService placeMapOpenApiService;
+
+    @GetMapping(value = "/features", produces = {GEO_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Lieux d'une organisation visibles dans une emprise",
+            description = "GeoJSON FeatureCollection des lieux dont la géométrie intersecte l'emprise (WGS 84). "
+                    + "Les géométries sont simplifiées à la taille d'un pixel du niveau de zoom, et les lieux plus "
+                    + "petits qu'un pixel sont réduits à un point. Au plus "
+                    + PlaceMapOpenApiService.MAX_FEATURES + " lieux, les plus grands d'abord (truncated = vrai sinon)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok"),
+            @ApiResponse(responseCode = "400", description = "Emprise ou zoom invalide"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié"),
+            @ApiResponse(responseCode = "403", description = "Organisation hors périmètre"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    public ResponseEntity<PlaceFeatureCollectionResponse> getFeatures(
+            @Parameter(description = "Institution propriétaire des lieux (doit être dans le périmètre JWT).", example = "10", required = true)
+            @RequestParam("organizationId") long organizationId,
+            @Parameter(description = "Emprise minLon,minLat,maxLon,maxLat en WGS 84", example = "4.83,45.75,4.85,45.77", required = true)
+            @RequestParam("bbox") String bbox,
+            @Parameter(description = "Niveau de zoom de la carte (0 à " + PlaceMapOpenApiService.MAX_ZOOM + ")", example = "16", required = true)
+            @RequestParam("zoom") int zoom) {
+
+        ProjectApiCaller caller = projectApiService.requireCaller();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GEO_JSON))
+                .body(placeMapOpenApiService.featuresInBox(caller, organizationId, bbox, zoom));
+    }
+
+    @GetMapping(value = "/tiles/{z}/{x}/{y}.mvt", produces = MAPBOX_VECTOR_TILE)
+    @Operation(
+            summary = "Tuile vectorielle des lieux d'une organisation",
+            description = "Tuile Mapbox Vector Tile (schéma XYZ, web mercator), couche « places » avec les attributs "
+                    + "id, name et code. Les géométries sont découpées à la tuile et ramenées à sa grille de 4096 points."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok (corps vide si aucun lieu dans la tuile)"),
+            @ApiResponse(responseCode = "400", description = "Tuile invalide"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié"),
+            @ApiResponse(responseCode = "403", description = "Organisation hors périmètre"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @Parameter(description = "Institution propriétaire des lieux (doit être dans le périmètre JWT).", example = "10", required = true)
+            @RequestParam("organizationId") long organizationId) {
+
+        ProjectApiCaller caller = projectApiService.requireCaller();
+        return ResponseEntity.ok()
+                .cacheControl(TILE_CACHE)
+                .contentType(MediaType.parseMediaType(MAPBOX_VECTOR_TILE))
+                .body(placeMapOpenApiService.vectorTile(caller, organizationId, z, x, y));
+    }
+}
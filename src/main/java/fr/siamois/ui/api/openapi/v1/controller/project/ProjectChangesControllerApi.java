@@ -0,0 +1,54 @@
+package fr.siamois.ui.api.openapi.v1.controller.project;
+
+import fr.siamois.ui.api.openapi.v1.OpenApiTags;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangesResponse;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
+import fr.siamois.ui.api.openapi.v1.service.SyncChangesOpenApiService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/projects/{id}/changes")
+@Tag(name = OpenApiTags.PROJECT)
+@RequiredArgsConstructor
+public class ProjectChangesControllerApi {
+
+    private final ProjectApiService projectApiService;
+    private final SyncChangesOpenApiService syncChangesOpenApiService;
+
+    @GetMapping
+    @Operation(summary = "Changements d'un projet depuis un curseur de synchronisation",
+            description = "Clé de projet : identique à GET /api/v1/projects/{id}. "
+                    + "Renvoie, en une seule réponse, les unités d'enregistrement, mobiliers, lieux de l'organisation "
+                    + "et documents créés, modifiés (état actuel) ou supprimés (identifiants) après le curseur « since ». "
+                    + "Sans curseur (0), renvoie tout le projet. Le curseur de la réponse (meta.cursor) est à renvoyer "
+                    + "au prochain appel ; tant que meta.hasMore est vrai, d'autres changements restent à récupérer. "
+                    + "Une modification peut être renvoyée plusieurs fois : l'application des changements doit être idempotente.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok"),
+            @ApiResponse(responseCode = "400", description = "Curseur ou limite invalide"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié"),
+            @ApiResponse(responseCode = "404", description = "Projet introuvable ou non accessible"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    public ResponseEntity<SyncChangesResponse> getChanges(
+            @PathVariable("id") String id,
+            @Parameter(description = "Curseur renvoyé par l'appel précédent (meta.cursor), 0 pour une synchronisation complète")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Nombre approximatif de changements par réponse (une révision n'est jamais coupée)")
+            @RequestParam(defaultValue = "" + SyncChangesOpenApiService.DEFAULT_LIMIT) int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage) {
+
+        ProjectApiCaller caller = projectApiService.requireCaller();
+        String lang = ProjectApiService.primaryAcceptLanguage(acceptLanguage);
+        return ResponseEntity.ok(syncChangesOpenApiService.changesSince(caller, id, since, limit, lang));
+    }
+}
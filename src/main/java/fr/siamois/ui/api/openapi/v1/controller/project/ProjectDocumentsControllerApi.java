@@ -1,6 +1,8 @@
 package fr.siamois.ui.api.openapi.v1.controller.project;
 
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.ui.api.openapi.v1.OpenApiTags;
+import fr.siamois.ui.api.openapi.v1.generic.response.ListMeta;
 import fr.siamois.ui.api.openapi.v1.resource.document.DocumentResource;
 import fr.siamois.ui.api.openapi.v1.response.document.DocumentListResponse;
 import fr.siamois.ui.api.openapi.v1.response.document.DocumentResponse;
@@ -8,6 +10,7 @@ import fr.siamois.ui.api.openapi.v1.service.DocumentWriteOpenApiService;
 import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
 import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -68,7 +71,9 @@ public class ProjectDocumentsControllerApi {
     @Operation(
             summary = "Documents rattachés à un projet",
             description = "Liste des documents liés à l'unité d'action (projet) via action_unit_document. "
-                    + "Même clé de projet que GET /api/v1/projects/{id} (id numérique, fullIdentifier, identifiant court)."
+                    + "Même clé de projet que GET /api/v1/projects/{id} (id numérique, fullIdentifier, identifiant court). "
+                    + "Pagination par curseur (tri par id) : passer cursor (vide pour la première page) et limit, "
+                    + "puis meta.nextCursor pour la page suivante."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok"),
@@ -76,9 +81,19 @@ public class ProjectDocumentsControllerApi {
             @ApiResponse(responseCode = "404", description = "Projet introuvable ou non accessible"),
             @ApiResponse(responseCode = "500", description = "Erreur interne")
     })
-    public ResponseEntity<DocumentListResponse> getDocuments(@PathVariable("id") String id) {
+    public ResponseEntity<DocumentListResponse> getDocuments(
+            @PathVariable("id") String id,
+            @Parameter(description = "Taille de page, avec cursor uniquement")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Curseur (meta.nextCursor de la page précédente, vide pour la première page). "
+                    + "Sans curseur, tous les documents sont renvoyés.")
+            @RequestParam(required = false) String cursor) {
         ProjectApiCaller caller = projectApiService.requireCaller();
-        // todo : add pagination
+        if (cursor != null) {
+            projectApiService.validateCursorListRequest(limit);
+            KeysetPage<DocumentResource> page = projectApiService.keysetDocumentsForAccessibleProject(caller, id, cursor, limit);
+            return ResponseEntity.ok(new DocumentListResponse(page.content(), ListMeta.ofCursor(limit, page.nextCursor())));
+        }
         List<DocumentResource> documents = projectApiService.listDocumentsForAccessibleProject(caller, id);
         return ResponseEntity.ok(new DocumentListResponse(documents, null));
     }
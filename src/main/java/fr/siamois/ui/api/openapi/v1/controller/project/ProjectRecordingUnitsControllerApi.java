@@ -1,5 +1,6 @@
 package fr.siamois.ui.api.openapi.v1.controller.project;
 
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.RecordingUnitDTO;
 import fr.siamois.ui.api.openapi.v1.OpenApiTags;
 import fr.siamois.ui.api.openapi.v1.generic.response.ListMeta;
@@ -36,6 +37,8 @@ public class ProjectRecordingUnitsControllerApi {
                     + "Tri : paramètre sort au format « propriété:asc » ou « propriété:desc » "
                     + "(propriétés autorisées : creationTime, id, identifier, fullIdentifier, openingDate, closingDate). "
                     + "Valeur par défaut : creationTime:desc. "
+                    + "Pagination par curseur : passer cursor (vide pour la première page) au lieu d'offset, puis "
+                    + "meta.nextCursor pour la page suivante ; ni total ni X-Total-Count dans ce mode. "
                     + "Chaque élément inclut notamment : identifiant, type, nombre de relations stratigraphiques, "
                     + "nombre de mobiliers, dates, lieu (référence place), couleur de matrice, auteur et contributeurs.")
     @ApiResponses(value = {
@@ -50,7 +53,20 @@ public class ProjectRecordingUnitsControllerApi {
             @RequestParam(defaultValue = "0") int offset,
             @RequestParam(defaultValue = "10") int limit,
             @Parameter(description = "Tri, ex. fullIdentifier:asc ou creationTime:desc")
-            @RequestParam(defaultValue = "creationTime:desc") String sort) {
+            @RequestParam(defaultValue = "creationTime:desc") String sort,
+            @Parameter(description = "Curseur (meta.nextCursor de la page précédente, vide pour la première page) ; "
+                    + "remplace offset")
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            projectApiService.validateCursorListRequest(limit);
+            ProjectApiCaller caller = projectApiService.requireCaller();
+            KeysetPage<RecordingUnitDTO> page = projectApiService.keysetRecordingUnitsForProject(caller, id, cursor, limit, sort);
+            List<RecordingUnitResource> resources = page.content().stream()
+                    .map(recordingUnitResourceMapper::convert)
+                    .toList();
+            return ResponseEntity.ok(new RecordingUnitListResponse(resources, ListMeta.ofCursor(limit, page.nextCursor())));
+        }
 
         projectApiService.validatePagedListRequest(offset, limit);
         ProjectApiCaller caller = projectApiService.requireCaller();
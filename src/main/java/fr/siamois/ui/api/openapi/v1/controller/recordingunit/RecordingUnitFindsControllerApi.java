@@ -1,5 +1,6 @@
 package fr.siamois.ui.api.openapi.v1.controller.recordingunit;
 
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.ui.api.openapi.v1.OpenApiTags;
 import fr.siamois.ui.api.openapi.v1.generic.response.ListMeta;
 import fr.siamois.ui.api.openapi.v1.resource.find.FindResource;
@@ -33,7 +34,9 @@ public class RecordingUnitFindsControllerApi {
                     + "Pagination : offset, limit (max 200, offset multiple de limit). "
                     + "Tri : creationTime, id ou fullIdentifier (ex. creationTime:desc). "
                     + "Même clé d'UE que GET /api/v1/recording-units/{id}. "
-                    + "La langue pour les libellés de type suit Accept-Language."
+                    + "La langue pour les libellés de type suit Accept-Language. "
+                    + "Pagination par curseur : passer cursor (vide pour la première page) au lieu d'offset, puis "
+                    + "meta.nextCursor pour la page suivante ; ni total ni X-Total-Count dans ce mode."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok"),
@@ -53,7 +56,18 @@ public class RecordingUnitFindsControllerApi {
             @Parameter(description = "Tri, ex. fullIdentifier:asc ou creationTime:desc")
             @RequestParam(defaultValue = "creationTime:desc") String sort,
             @Parameter(description = "Langue pour le classement des libellés de type (requête SQL).")
-            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage) {
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
+            @Parameter(description = "Curseur (meta.nextCursor de la page précédente, vide pour la première page) ; "
+                    + "remplace offset")
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            projectApiService.validateCursorListRequest(limit);
+            ProjectApiCaller caller = projectApiService.requireCaller();
+            KeysetPage<FindResource> page = projectApiService.keysetFindsForAccessibleRecordingUnit(
+                    caller, id, cursor, limit, sort);
+            return ResponseEntity.ok(new FindListResponse(page.content(), ListMeta.ofCursor(limit, page.nextCursor())));
+        }
 
         projectApiService.validatePagedListRequest(offset, limit);
         ProjectApiCaller caller = projectApiService.requireCaller();
@@ -1,4 +1,24 @@
 package fr.siamois.ui.api.openapi.v1.generic.response;
 
-public record ListMeta(Long total, Integer limit, Long offset) {}
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
 
+public record ListMeta(
+        Long total,
+        Integer limit,
+        Long offset,
+        @Schema(description = "Curseur de la page suivante (pagination par curseur uniquement), absent sur la dernière page")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String nextCursor) {
+
+    public ListMeta(Long total, Integer limit, Long offset) {
+        this(total, limit, offset, null);
+    }
+
+    /**
+     * Méta d'une page obtenue par curseur : ni total ni offset, qui obligeraient à parcourir la liste.
+     */
+    public static ListMeta ofCursor(Integer limit, String nextCursor) {
+        return new ListMeta(null, limit, null, nextCursor);
+    }
+}
@@ -0,0 +1,30 @@
+package fr.siamois.ui.api.openapi.v1.response.spatialunit;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import fr.siamois.ui.api.openapi.v1.generic.response.geom.GeometryDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.lang.Nullable;
+
+/**
+ * Lieu sur une carte : géométrie généralisée pour le niveau de zoom, sans les autres champs du lieu.
+ */
+@Schema(description = "GeoJSON Feature d'un lieu")
+public record PlaceFeature(
+        @Schema(example = "Feature")
+        String type,
+        @Schema(description = "spatial_unit_id", example = "42")
+        Long id,
+        @JsonRawValue
+        @Schema(implementation = GeometryDTO.class,
+                description = "Géométrie simplifiée ; un point pour les lieux plus petits qu'un pixel")
+        String geometry,
+        Properties properties
+) {
+
+    public PlaceFeature(Long id, String geometry, String name, @Nullable String code) {
+        this("Feature", id, geometry, new Properties(name, code));
+    }
+
+    public record Properties(String name, @Nullable String code) {
+    }
+}
@@ -0,0 +1,22 @@
+package fr.siamois.ui.api.openapi.v1.response.spatialunit;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Lieux visibles sur une carte, en GeoJSON.
+ */
+@Schema(description = "GeoJSON FeatureCollection des lieux visibles dans l'emprise demandée")
+public record PlaceFeatureCollectionResponse(
+        @Schema(example = "FeatureCollection")
+        String type,
+        List<PlaceFeature> features,
+        @Schema(description = "Vrai si des lieux (les plus petits) ont été omis : zoomer pour les obtenir")
+        boolean truncated
+) {
+
+    public PlaceFeatureCollectionResponse(List<PlaceFeature> features, boolean truncated) {
+        this("FeatureCollection", features, truncated);
+    }
+}
@@ -0,0 +1,16 @@
+package fr.siamois.ui.api.openapi.v1.response.sync;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Changements d'un type d'entité depuis le curseur")
+public record SyncChangeSet<T>(
+
+        @Schema(description = "Entités créées ou modifiées, dans leur état serveur actuel")
+        List<T> upserted,
+
+        @Schema(description = "Identifiants des entités supprimées")
+        List<String> deleted
+) {
+}
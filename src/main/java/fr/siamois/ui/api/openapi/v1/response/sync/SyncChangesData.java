@@ -0,0 +1,22 @@
+package fr.siamois.ui.api.openapi.v1.response.sync;
+
+import fr.siamois.ui.api.openapi.v1.resource.document.DocumentResource;
+import fr.siamois.ui.api.openapi.v1.resource.find.FindResource;
+import fr.siamois.ui.api.openapi.v1.resource.place.PlaceResource;
+import fr.siamois.ui.api.openapi.v1.resource.recordingunit.RecordingUnitResource;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Changements d'un projet entre deux curseurs de synchronisation")
+public record SyncChangesData(
+
+        SyncChangeSet<RecordingUnitResource> recordingUnits,
+
+        SyncChangeSet<FindResource> finds,
+
+        @Schema(description = "Lieux de l'organisation du projet")
+        SyncChangeSet<PlaceResource> places,
+
+        @Schema(description = "Documents rattachés au projet, à ses unités d'enregistrement ou à ses mobiliers")
+        SyncChangeSet<DocumentResource> documents
+) {
+}
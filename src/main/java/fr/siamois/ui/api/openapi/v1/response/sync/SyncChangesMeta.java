@@ -0,0 +1,16 @@
+package fr.siamois.ui.api.openapi.v1.response.sync;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record SyncChangesMeta(
+
+        @Schema(description = "Curseur reçu")
+        String since,
+
+        @Schema(description = "Curseur à renvoyer dans « since » au prochain appel")
+        String cursor,
+
+        @Schema(description = "Vrai si d'autres changements restent à récupérer avec le nouveau curseur")
+        boolean hasMore
+) {
+}
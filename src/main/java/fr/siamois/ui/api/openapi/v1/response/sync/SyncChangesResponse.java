@@ -0,0 +1,17 @@
+package fr.siamois.ui.api.openapi.v1.response.sync;
+
+import fr.siamois.ui.api.openapi.v1.generic.response.Response;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SyncChangesResponse extends Response<SyncChangesData> {
+
+    private SyncChangesMeta meta;
+
+    public SyncChangesResponse(SyncChangesData data, SyncChangesMeta meta) {
+        super(data);
+        this.meta = meta;
+    }
+}
@@ -2,15 +2,18 @@ package fr.siamois.ui.api.openapi.v1.service;
 
 import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.services.document.DocumentService;
+import fr.siamois.domain.services.document.DocumentThumbnailService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.InputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.Set;
 
 /**
@@ -21,8 +24,14 @@ import java.util.Set;
 public class DocumentContentOpenApiService {
 
     private final DocumentService documentService;
+    private final DocumentThumbnailService documentThumbnailService;
 
-    public record DocumentFilePayload(InputStream inputStream, MediaType mediaType, String fileName) {
+    /**
+     * Fichier stocké d'un document. {@code contentEncoding} vaut {@code gzip} si le fichier est stocké compressé
+     * ({@link fr.siamois.domain.services.document.compressor.OtherCompressor}), {@code null} sinon.
+     */
+    public record DocumentFilePayload(File file, MediaType mediaType, String fileName, String md5Sum,
+                                      String contentEncoding) {
     }
 
     /**
@@ -49,10 +58,34 @@ public class DocumentContentOpenApiService {
     @Transactional(readOnly = true)
     public DocumentFilePayload requireDownloadableContent(long documentId, Set<Long> accessibleInstitutionIds) {
         Document doc = resolveAccessibleDocument(documentId, accessibleInstitutionIds);
-        InputStream stream = documentService.findInputStreamOfDocument(doc)
+        File file = documentService.findFile(doc)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found"));
         MediaType mediaType = resolveMediaType(doc.getMimeType());
-        return new DocumentFilePayload(stream, mediaType, doc.contentFileName());
+        return new DocumentFilePayload(file, mediaType, doc.contentFileName(), doc.getMd5Sum(), resolveContentEncoding(doc));
+    }
+
+    /**
+     * Vignette JPEG d'un document image accessible, générée à la demande si elle n'existe pas encore.
+     *
+     * @param size taille demandée en pixels, arrondie à une des {@link DocumentThumbnailService#SIZES}
+     */
+    @Transactional(readOnly = true)
+    public File requireThumbnail(long documentId, Set<Long> accessibleInstitutionIds, int size) {
+        Document doc = resolveAccessibleDocument(documentId, accessibleInstitutionIds);
+        try {
+            return documentThumbnailService.findThumbnail(doc, size)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Thumbnail not available"));
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Thumbnail generation failed", e);
+        }
+    }
+
+    private String resolveContentEncoding(Document doc) {
+        try {
+            return documentService.findCompressorOf(doc).encodingTypes();
+        } catch (UnsupportedOperationException | InvalidMimeTypeException e) {
+            return null;
+        }
     }
 
     private static MediaType resolveMediaType(String rawMime) {
@@ -0,0 +1,111 @@
+package fr.siamois.ui.api.openapi.v1.service;
+
+import fr.siamois.domain.services.spatialunit.SpatialUnitService;
+import fr.siamois.dto.PlaceGeometryDTO;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeature;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeatureCollectionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Lieux d'une organisation pour l'affichage cartographique : seules les géométries visibles sont transférées,
+ * généralisées pour le niveau de zoom.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlaceMapOpenApiService {
+
+    public static final int MAX_ZOOM = 22;
+    public static final int MAX_FEATURES = 5000;
+    private static final int TILE_SIZE = 256;
+    private static final int MAX_DIGITS = 7;
+
+    private final ProjectApiService projectApiService;
+    private final SpatialUnitService spatialUnitService;
+
+    /**
+     * Taille d'un pixel en degrés de longitude au niveau de zoom (tuiles de 256 pixels).
+     */
+    static double pixelSize(int zoom) {
+        return 360.0 / ((double) TILE_SIZE * (1L << zoom));
+    }
+
+    /**
+     * Nombre de décimales suffisant pour placer les coordonnées au pixel près.
+     */
+    static int coordinateDigits(int zoom) {
+        int digits = (int) Math.ceil(-Math.log10(pixelSize(zoom)));
+        return Math.max(1, Math.min(MAX_DIGITS, digits));
+    }
+
+    /**
+     * @param bbox minLon,minLat,maxLon,maxLat en WGS 84
+     * @throws ResponseStatusException 400 si l'emprise est invalide
+     */
+    static double[] parseBbox(String bbox) {
+        String[] parts = bbox == null ? new String[0] : bbox.split(",");
+        if (parts.length != 4) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox attendu : minLon,minLat,maxLon,maxLat");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox doit contenir quatre nombres");
+        }
+        boolean valid = box[0] >= -180 && box[2] <= 180 && box[1] >= -90 && box[3] <= 90
+                && box[0] < box[2] && box[1] < box[3];
+        if (!valid) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox hors des limites WGS 84 ou vide");
+        }
+        return box;
+    }
+
+    private static void validateZoom(int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "zoom doit être compris entre 0 et " + MAX_ZOOM);
+        }
+    }
+
+    /**
+     * Lieux de l'organisation dont la géométrie intersecte l'emprise, au plus {@link #MAX_FEATURES}, les plus grands
+     * en premier.
+     */
+    @Transactional(readOnly = true)
+    public PlaceFeatureCollectionResponse featuresInBox(ProjectApiCaller caller, long organizationId, String bbox, int zoom) {
+        projectApiService.assertOrganizationInCallerScope(organizationId, caller.accessibleInstitutionIds());
+        validateZoom(zoom);
+        double[] box = parseBbox(bbox);
+
+        List<PlaceGeometryDTO> geometries = spatialUnitService.findGeometriesInBox(organizationId,
+                box[0], box[1], box[2], box[3], pixelSize(zoom), coordinateDigits(zoom), MAX_FEATURES + 1);
+
+        boolean truncated = geometries.size() > MAX_FEATURES;
+        List<PlaceFeature> features = geometries.stream()
+                .limit(MAX_FEATURES)
+                .map(g -> new PlaceFeature(g.id(), g.geoJson(), g.name(), g.code()))
+                .toList();
+        return new PlaceFeatureCollectionResponse(features, truncated);
+    }
+
+    /**
+     * Tuile vectorielle z/x/y (schéma XYZ, web mercator) des lieux de l'organisation.
+     */
+    @Transactional(readOnly = true)
+    public byte[] vectorTile(ProjectApiCaller caller, long organizationId, int z, int x, int y) {
+        projectApiService.assertOrganizationInCallerScope(organizationId, caller.accessibleInstitutionIds());
+        validateZoom(z);
+        long tiles = 1L << z;
+        if (x < 0 || y < 0 || x >= tiles || y >= tiles) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tuile hors de la grille du niveau de zoom");
+        }
+        return spatialUnitService.findVectorTile(organizationId, z, x, y);
+    }
+}
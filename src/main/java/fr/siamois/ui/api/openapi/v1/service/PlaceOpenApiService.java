@@ -9,6 +9,7 @@ import fr.siamois.domain.services.InstitutionService;
 import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.domain.services.spatialunit.SpatialUnitService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.InstitutionDTO;
 import fr.siamois.dto.entity.SpatialUnitDTO;
 import fr.siamois.dto.entity.vocabulary.ConceptDTO;
@@ -64,6 +65,33 @@ public class PlaceOpenApiService {
         return new PlaceListResponse(resources, meta);
     }
 
+    /**
+     * Page des lieux d'une organisation après un curseur (pagination par clé : propriété de tri puis id).
+     */
+    @Transactional(readOnly = true)
+    public PlaceListResponse listByOrganizationAfter(ProjectApiCaller caller,
+                                                     long organizationId,
+                                                     String cursor,
+                                                     int limit,
+                                                     String sortParam,
+                                                     String lang) {
+        projectApiService.assertOrganizationInCallerScope(organizationId, caller.accessibleInstitutionIds());
+
+        InstitutionDTO institution = institutionService.findById(organizationId);
+        if (institution == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Organisation introuvable");
+        }
+
+        Sort sort = ProjectApiService.parsePlaceSort(sortParam);
+        KeysetPage<SpatialUnitDTO> page = ProjectApiService.withCursor(
+                () -> spatialUnitService.findByInstitutionIdAfter(organizationId, sort, cursor, limit));
+
+        var resources = page.content().stream()
+                .map(dto -> placeOpenApiMapper.toResource(dto, lang))
+                .toList();
+        return new PlaceListResponse(resources, ListMeta.ofCursor(limit, page.nextCursor()));
+    }
+
     @Transactional
     public PlaceCreatedResponse.PlaceCreatedItem createPlace(ProjectApiCaller caller,
                                                              PlaceCreateRequest request,
@@ -6,6 +6,7 @@ import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitAlreadyExistsException;
 import fr.siamois.domain.models.exceptions.actionunit.FailedActionUnitSaveException;
 import fr.siamois.domain.models.exceptions.actionunit.NullActionUnitIdentifierException;
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
 import fr.siamois.domain.models.permissions.PermissionConstants;
 import fr.siamois.domain.models.vocabulary.Concept;
 import fr.siamois.domain.services.InstitutionService;
@@ -18,6 +19,7 @@ import fr.siamois.domain.services.spatialunit.SpatialUnitService;
 import fr.siamois.domain.services.specimen.SpecimenService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
 import fr.siamois.dto.api.AccessibleProjectForApi;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.*;
 import fr.siamois.dto.entity.vocabulary.ConceptDTO;
 import fr.siamois.mapper.ConceptMapper;
@@ -29,6 +31,7 @@ import fr.siamois.ui.api.openapi.v1.request.project.ProjectPatchRequest;
 import fr.siamois.ui.api.openapi.v1.resource.document.DocumentResource;
 import fr.siamois.ui.api.openapi.v1.resource.find.FindResource;
 import fr.siamois.ui.api.openapi.v1.resource.phase.PhaseResource;
+import fr.siamois.ui.config.security.jwt.ApiCallerCache;
 import fr.siamois.utils.AuthenticatedUserUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -38,6 +41,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.lang.Long.parseLong;
@@ -65,6 +69,8 @@ public class ProjectApiService {
 
     private static final Set<String> ALLOWED_PLACE_SORT_FIELDS = Set.of("id", "name", "code", CREATION_TIME);
 
+    private static final Set<String> ALLOWED_FIND_KEYSET_SORT_FIELDS = Set.of(CREATION_TIME, "id", "fullIdentifier");
+
     private final InstitutionService institutionService;
     private final ActionUnitService actionUnitService;
     private final RecordingUnitService recordingUnitService;
@@ -79,6 +85,7 @@ public class ProjectApiService {
     private final ConceptMapper conceptMapper;
     private final RecordingUnitOpenApiService recordingUnitOpenApiService;
     private final PhaseService phaseService;
+    private final ApiCallerCache apiCallerCache;
 
     public void validatePagedListRequest(int offset, int limit) {
         if (offset < 0 || limit <= 0 || limit > MAX_PAGE_SIZE) {
@@ -89,9 +96,34 @@ public class ProjectApiService {
         }
     }
 
+    /**
+     * Limite d'une liste paginée par curseur (même borne que la pagination par offset).
+     */
+    public void validateCursorListRequest(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Paramètres de pagination invalides");
+        }
+    }
+
+    /**
+     * Exécute la lecture d'une page par curseur, un curseur invalide ou produit pour un autre tri donnant une 400.
+     * Les autres erreurs de la lecture ne sont pas interceptées.
+     */
+    public static <T> KeysetPage<T> withCursor(Supplier<KeysetPage<T>> pageSupplier) {
+        try {
+            return pageSupplier.get();
+        } catch (InvalidCursorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide", e);
+        }
+    }
+
     public ProjectApiCaller requireCaller() {
         Person person = AuthenticatedUserUtils.getAuthenticatedUser()
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentification requise"));
+        return apiCallerCache.callerOf(person.getId(), () -> loadCaller(person));
+    }
+
+    private ProjectApiCaller loadCaller(Person person) {
         PersonDTO personDto = personMapper.convert(person);
         List<InstitutionDTO> institutions = List.copyOf(institutionService.findInstitutionsOfPerson(personDto));
         Set<Long> institutionIds = institutions.stream()
@@ -361,6 +393,21 @@ public class ProjectApiService {
         return recordingUnitService.findByActionUnitId(row.actionUnit().getId(), limit, offset, sort);
     }
 
+    /**
+     * Page d'unités d'enregistrement d'un projet après un curseur : coût constant quelle que soit la profondeur,
+     * et stable pendant des insertions concurrentes (clé : propriété de tri puis id).
+     */
+    public KeysetPage<RecordingUnitDTO> keysetRecordingUnitsForProject(
+            ProjectApiCaller caller,
+            String projectIdOrKey,
+            String cursor,
+            int limit,
+            String sortParam) {
+        AccessibleProjectForApi row = requireAccessibleProject(caller, projectIdOrKey);
+        Sort sort = parseRecordingUnitSort(sortParam);
+        return withCursor(() -> recordingUnitService.findByActionUnitIdAfter(row.actionUnit().getId(), sort, cursor, limit));
+    }
+
     /**
      * Documents rattachés au projet (unité d'action) via la table {@code action_unit_document}.
      */
@@ -370,6 +417,18 @@ public class ProjectApiService {
         return toSortedDocumentResources(documentService.findForActionUnit(row.actionUnit()));
     }
 
+    /**
+     * Page de documents du projet après un curseur, triés par id.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<DocumentResource> keysetDocumentsForAccessibleProject(
+            ProjectApiCaller caller, String projectIdOrKey, String cursor, int limit) {
+        AccessibleProjectForApi row = requireAccessibleProject(caller, projectIdOrKey);
+        KeysetPage<Document> page = withCursor(() -> documentService.findForActionUnitAfter(row.actionUnit(), cursor, limit));
+        return new KeysetPage<>(page.content().stream().map(projectDocumentOpenApiMapper::toResource).toList(),
+                page.nextCursor());
+    }
+
     @Transactional(readOnly = true)
     public List<PhaseResource> listPhasesForAccessibleProject(ProjectApiCaller caller, String projectIdOrKey) {
         AccessibleProjectForApi row = requireAccessibleProject(caller, projectIdOrKey);
@@ -468,6 +527,29 @@ public class ProjectApiService {
         return page.map(findOpenApiMapper::toResource);
     }
 
+    /**
+     * Page de mobiliers d'une UE accessible après un curseur. Tri : creationTime, id ou fullIdentifier.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<FindResource> keysetFindsForAccessibleRecordingUnit(
+            ProjectApiCaller caller,
+            String recordingUnitKey,
+            String cursor,
+            int limit,
+            String sortParam) {
+        RecordingUnitDTO ru = recordingUnitService.findAccessibleRecordingUnitByKey(
+                recordingUnitKey, caller.accessibleInstitutionIds(), null);
+        requireRecordingUnitViewPermission(caller, ru);
+        InstitutionDTO institution = ru.getCreatedByInstitution();
+        if (institution == null || institution.getId() == null || ru.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unité d'enregistrement sans institution");
+        }
+        Sort sort = parseSortWithStableId(sortParam, ALLOWED_FIND_KEYSET_SORT_FIELDS);
+        KeysetPage<SpecimenDTO> page = withCursor(() -> specimenService.findByRecordingUnitIdAfter(
+                institution.getId(), ru.getId(), sort, cursor, limit));
+        return new KeysetPage<>(page.content().stream().map(findOpenApiMapper::toResource).toList(), page.nextCursor());
+    }
+
     /**
      * Langue principale depuis l'en-tête {@code Accept-Language} (première entrée, sans qualité).
      */
@@ -523,7 +605,7 @@ public class ProjectApiService {
         return parseSort(sortParam, ALLOWED_ORGANIZATION_SORT_FIELDS, "name");
     }
 
-    private static Sort parseRecordingUnitSort(String sortParam) {
+    public static Sort parseRecordingUnitSort(String sortParam) {
         return parseSortWithStableId(sortParam, ALLOWED_RECORDING_UNIT_SORT_FIELDS);
     }
 
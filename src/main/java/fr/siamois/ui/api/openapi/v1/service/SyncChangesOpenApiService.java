@@ -0,0 +1,152 @@
+package fr.siamois.ui.api.openapi.v1.service;
+
+import fr.siamois.domain.services.document.DocumentService;
+import fr.siamois.domain.services.recordingunit.RecordingUnitService;
+import fr.siamois.domain.services.spatialunit.SpatialUnitService;
+import fr.siamois.domain.services.specimen.SpecimenService;
+import fr.siamois.dto.entity.ActionUnitDTO;
+import fr.siamois.infrastructure.database.repositories.history.RevisionChangeRepository;
+import fr.siamois.ui.api.openapi.v1.mapper.FindOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.PlaceOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.ProjectDocumentOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.RecordingUnitResponseMapper;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangeSet;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangesData;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangesMeta;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangesResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Flux de synchronisation des clients mobiles : changements d'un projet depuis un curseur, lus dans les tables
+ * d'audit Envers.
+ * <p>
+ * Le curseur est un identifiant de transaction PostgreSQL. Un appel renvoie, pour chaque type d'entité, l'état actuel
+ * des entités créées ou modifiées par les transactions à partir du curseur et les identifiants des entités
+ * supprimées. Les numéros de révision suivent le début des transactions et non leur validation : un appel s'arrête
+ * donc à la plus ancienne transaction encore en cours ({@link RevisionChangeRepository#findTransactionWatermark()}),
+ * en dessous de laquelle toutes les révisions sont visibles, et une transaction validée tardivement est renvoyée par
+ * un appel suivant. Les transactions ne sont jamais coupées entre deux appels.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncChangesOpenApiService {
+
+    public static final int DEFAULT_LIMIT = 5000;
+    public static final int MAX_LIMIT = 20_000;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int REVTYPE_DELETED = 2;
+
+    private final ProjectApiService projectApiService;
+    private final RevisionChangeRepository revisionChangeRepository;
+    private final RecordingUnitService recordingUnitService;
+    private final SpecimenService specimenService;
+    private final SpatialUnitService spatialUnitService;
+    private final DocumentService documentService;
+    private final RecordingUnitResponseMapper recordingUnitResponseMapper;
+    private final FindOpenApiMapper findOpenApiMapper;
+    private final PlaceOpenApiMapper placeOpenApiMapper;
+    private final ProjectDocumentOpenApiMapper projectDocumentOpenApiMapper;
+
+    private record Changes(List<Long> upserted, List<String> deleted) {
+    }
+
+    /**
+     * Changements du projet écrits par les transactions à partir de {@code since}, par lots d'environ {@code limit}
+     * changements.
+     */
+    @Transactional(readOnly = true)
+    public SyncChangesResponse changesSince(ProjectApiCaller caller, String projectIdOrKey, long since, int limit,
+                                            String lang) {
+        if (since < 0 || limit <= 0 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Paramètres de synchronisation invalides");
+        }
+        ActionUnitDTO project = projectApiService.requireAccessibleProject(caller, projectIdOrKey).actionUnit();
+        if (project.getCreatedByInstitution() == null || project.getCreatedByInstitution().getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Projet sans organisation");
+        }
+        Long actionUnitId = project.getId();
+        Long institutionId = project.getCreatedByInstitution().getId();
+
+        long watermark = revisionChangeRepository.findTransactionWatermark();
+        if (watermark <= since) {
+            return new SyncChangesResponse(emptyData(), new SyncChangesMeta(String.valueOf(since), String.valueOf(since), false));
+        }
+
+        // Fenêtre [since, until) : until est la première transaction laissée au prochain appel
+        long until = watermark;
+        boolean hasMore = false;
+        long counted = 0;
+        for (Object[] row : revisionChangeRepository.countChangesByTransaction(actionUnitId, institutionId, since, watermark)) {
+            long transaction = ((Number) row[0]).longValue();
+            long count = ((Number) row[1]).longValue();
+            if (counted > 0 && counted + count > limit) {
+                until = transaction;
+                hasMore = true;
+                break;
+            }
+            counted += count;
+        }
+
+        Changes recordingUnits = split(revisionChangeRepository.findRecordingUnitChanges(actionUnitId, since, until));
+        Changes finds = split(revisionChangeRepository.findSpecimenChanges(actionUnitId, since, until));
+        Changes places = split(revisionChangeRepository.findSpatialUnitChanges(institutionId, since, until));
+        Changes documents = split(revisionChangeRepository.findDocumentChanges(actionUnitId, institutionId, since, until));
+
+        SyncChangesData data = new SyncChangesData(
+                new SyncChangeSet<>(load(recordingUnits.upserted(), recordingUnitService::findAllByIds,
+                        recordingUnitResponseMapper::convert), recordingUnits.deleted()),
+                new SyncChangeSet<>(load(finds.upserted(), specimenService::findAllByIds,
+                        findOpenApiMapper::toResource), finds.deleted()),
+                new SyncChangeSet<>(load(places.upserted(), spatialUnitService::findAllByIds,
+                        dto -> placeOpenApiMapper.toResource(dto, lang)), places.deleted()),
+                new SyncChangeSet<>(load(documents.upserted(), documentService::findAllByIds,
+                        projectDocumentOpenApiMapper::toResource), documents.deleted()));
+        return new SyncChangesResponse(data, new SyncChangesMeta(String.valueOf(since), String.valueOf(until), hasMore));
+    }
+
+    private static SyncChangesData emptyData() {
+        return new SyncChangesData(
+                new SyncChangeSet<>(List.of(), List.of()),
+                new SyncChangeSet<>(List.of(), List.of()),
+                new SyncChangeSet<>(List.of(), List.of()),
+                new SyncChangeSet<>(List.of(), List.of()));
+    }
+
+    /**
+     * Sépare les lignes {@code (id, rev, revtype)} en entités à mettre à jour et entités supprimées.
+     */
+    private static Changes split(List<Object[]> rows) {
+        List<Long> upserted = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (Object[] row : rows) {
+            long id = ((Number) row[0]).longValue();
+            if (((Number) row[2]).intValue() == REVTYPE_DELETED) {
+                deleted.add(String.valueOf(id));
+            } else {
+                upserted.add(id);
+            }
+        }
+        return new Changes(upserted, deleted);
+    }
+
+    /**
+     * Charge les entités par lots, pour rester sous la limite de paramètres d'une requête. Les entités supprimées
+     * depuis (elles seront dans un prochain lot) sont ignorées.
+     */
+    private static <D, R> List<R> load(List<Long> ids, Function<List<Long>, List<D>> finder, Function<D, R> mapper) {
+        List<R> resources = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + LOAD_BATCH_SIZE));
+            finder.apply(batch).stream().map(mapper).forEach(resources::add);
+        }
+        return resources;
+    }
+}
@@ -494,11 +494,10 @@ public abstract class AbstractSingleEntityPanel<T extends AbstractEntityDTO> ext
 
     public DefaultStreamedContent streamOf(Document document) {
 
-        Optional<InputStream> opt = documentService.findInputStreamOfDocument(document);
-        if (opt.isPresent()) {
-            InputStream inputStream = opt.get();
+        if (documentService.findFile(document).isPresent()) {
+            // The file is only opened when the content is actually downloaded
             return DefaultStreamedContent.builder()
-                    .stream(() -> inputStream)
+                    .stream(() -> documentService.findInputStreamOfDocument(document).orElse(null))
                     .contentType(document.getMimeType()) // Set the correct content type
                     .name(document.getFileName()) // Set the filename
                     .build();
@@ -8,10 +8,14 @@ import fr.siamois.dto.entity.ActionUnitDTO;
 import fr.siamois.infrastructure.database.initializer.seeder.ProjectDataSeeder;
 import fr.siamois.infrastructure.database.initializer.seeder.SeedException;
 import fr.siamois.infrastructure.dataimport.*;
+import jakarta.annotation.PreDestroy;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.Value;
 import org.primefaces.PrimeFaces;
 import org.primefaces.event.FileUploadEvent;
@@ -27,6 +31,9 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -90,6 +97,8 @@ public class ProjectUploadSettingsBean {
 
     ActionUnitDTO project;
     UploadedFile originalFile;
+    // copy of the upload, streamed by both import phases; deleted on reset and when the session ends
+    Path uploadedFile;
     StreamedContent templateFile;
     ImportResult importResult;
     List<ImportError> persistenceErrors = new ArrayList<>();
@@ -105,6 +114,13 @@ public class ProjectUploadSettingsBean {
     private volatile String pendingGrowlTarget;
     private volatile String pendingGrowlSummary;
     private volatile String pendingGrowlDetail;
+    // guarded by this: a background phase reads uploadedFile, the session end waits for it to delete the file
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean phaseRunning;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean sessionEnded;
 
     public void init(ActionUnitDTO project) {
         reset();
@@ -128,6 +144,7 @@ public class ProjectUploadSettingsBean {
 
     @EventListener(LoginEvent.class)
     public void reset() {
+        deleteUploadedFile();
         project = null;
         readyToUpload = false;
         importResult = null;
@@ -137,7 +154,32 @@ public class ProjectUploadSettingsBean {
         uploadedFileSize = 0;
     }
 
+    /**
+     * Deletes the uploaded file when the session ends (expiry, logout, user leaving mid-flow). If a phase is still
+     * reading it, the file is deleted once the phase finishes.
+     */
+    @PreDestroy
+    public synchronized void onSessionEnd() {
+        sessionEnded = true;
+        if (!phaseRunning) {
+            deleteUploadedFile();
+        }
+    }
+
+    private synchronized void phaseStarted() {
+        phaseRunning = true;
+    }
+
+    /** Called at the end of every background callback, from the background thread */
+    private synchronized void phaseFinished() {
+        phaseRunning = false;
+        if (sessionEnded) {
+            deleteUploadedFile();
+        }
+    }
+
     public void resetForNewFile() {
+        deleteUploadedFile();
         importResult = null;
         persistenceErrors = new ArrayList<>();
         readyToUpload = false;
@@ -298,29 +340,21 @@ public class ProjectUploadSettingsBean {
 
     private int getSpecCountForKey(String key) {
         if (importResult == null) return 0;
-        var specs = importResult.specs();
         return switch (key) {
-            case "lieu"   -> specs.spatialUnits().size();
-            case "ue"     -> specs.recordingUnits().size();
-            case UE_REL -> specs.recordingUnitRelSpecs().size();
-            case STRATI -> specs.recordingUnitStratiRelSpecs().size();
-            case LIEU_REL -> specs.spatialUnitRelSpecs().size();
-            case "mob"    -> specs.specimenSpecs().size();
-            case PHASE -> specs.phaseSpecs().size();
+            case "lieu"   -> importResult.specCount(ImportSchema.SPATIAL_UNIT);
+            case "ue"     -> importResult.specCount(ImportSchema.RECORDING_UNIT);
+            case UE_REL -> importResult.specCount(ImportSchema.RECORDING_REL);
+            case STRATI -> importResult.specCount(ImportSchema.STRATI_REL);
+            case LIEU_REL -> importResult.specCount(ImportSchema.SPATIAL_UNIT_REL);
+            case "mob"    -> importResult.specCount(ImportSchema.SPECIMEN);
+            case PHASE -> importResult.specCount(ImportSchema.PHASE);
             default       -> 0;
         };
     }
 
     public int getTotalImportRows() {
         if (importResult == null) return 0;
-        var s = importResult.specs();
-        return s.spatialUnits().size()
-             + s.recordingUnits().size()
-             + s.recordingUnitRelSpecs().size()
-             + s.recordingUnitStratiRelSpecs().size()
-             + s.spatialUnitRelSpecs().size()
-             + s.specimenSpecs().size()
-             + s.phaseSpecs().size();
+        return importResult.totalSpecCount();
     }
 
     public String getSummaryText() {
@@ -403,24 +437,26 @@ public class ProjectUploadSettingsBean {
     // pollProgress(), which runs on a real p:poll request thread.
 
     /**
-     * Dispatches the persist phase (seeding the previously-parsed {@link #importResult} into the
+     * Dispatches the persist phase (seeding the previously-validated {@link #uploadedFile} into the
      * database) to a background thread; a no-op if there's nothing to persist, import is blocked,
      * or a phase is already running.
      */
     public void uploadSpec() {
-        if (importResult == null || isImportBlocked() || progress.isRunning()) return;
+        if (importResult == null || uploadedFile == null || isImportBlocked() || progress.isRunning()) return;
         persistenceErrors = new ArrayList<>();
         // set synchronously, before dispatching, so the initiating request's own response already
         // reflects PERSISTING — otherwise the progress panel/p:poll might not render on the first
         // response if the background thread hasn't reached its own progress.start(...) call yet,
         // and nothing would ever refresh the view again.
         progress.start(ImportProgress.Phase.PERSISTING, 0);
-        asyncRunner.persistAsync(importResult.specs(), project, progress, this::onPersistSuccess, this::onPersistError);
+        phaseStarted();
+        asyncRunner.persistAsync(uploadedFile, project, progress, this::onPersistSuccess, this::onPersistError);
     }
 
     private void onPersistSuccess() {
         setPendingGrowl(SEVERITY_INFO, TEMPLATE_FORM_CC_TEMPLATE_FORM_TEMPLATE_GROWL, "Données importées avec succès", null);
         reset(); // pure field resets, no FacesContext — safe here; progress itself is reset separately by pollProgress()
+        phaseFinished();
     }
 
     private void onPersistError(Exception e) {
@@ -430,11 +466,12 @@ public class ProjectUploadSettingsBean {
             persistenceErrors.add(new ImportError("Import", 0, "—", e.getMessage()));
         }
         readyToUpload = false;
+        phaseFinished();
         // panels re-render via the poll's update attribute
     }
 
     /**
-     * Reads the uploaded file's bytes and dispatches the parse phase to a background thread; a no-op
+     * Copies the uploaded file to a temporary file and dispatches the parse phase to a background thread; a no-op
      * if a phase is already running.
      *
      * @param event PrimeFaces upload event carrying the uploaded file
@@ -448,17 +485,29 @@ public class ProjectUploadSettingsBean {
         if (file != null && file.getFileName() != null) {
             uploadedFileName = file.getFileName();
             uploadedFileSize = file.getSize();
-            byte[] bytes;
+            deleteUploadedFile();
             try (InputStream is = file.getInputStream()) {
-                bytes = is.readAllBytes();
+                uploadedFile = Files.createTempFile("siamois-import-", ".xlsx");
+                Files.copy(is, uploadedFile, StandardCopyOption.REPLACE_EXISTING);
             } catch (IOException e) {
+                deleteUploadedFile();
                 onParseError(e);
                 return;
             }
             progress.start(ImportProgress.Phase.OPENING, 0);
-            asyncRunner.parseAsync(bytes, OOXMLImportService.ImportScope.PROJECT, project, progress,
-                    this::onParseSuccess, this::onParseError);
+            phaseStarted();
+            asyncRunner.parseAsync(uploadedFile, project, progress, this::onParseSuccess, this::onParseError);
+        }
+    }
+
+    private void deleteUploadedFile() {
+        if (uploadedFile == null) return;
+        try {
+            Files.deleteIfExists(uploadedFile);
+        } catch (IOException e) {
+            uploadedFile.toFile().deleteOnExit();
         }
+        uploadedFile = null;
     }
 
     private void onParseSuccess(ImportResult result) {
@@ -468,10 +517,12 @@ public class ProjectUploadSettingsBean {
             String msg = result.errors().size() + " ligne(s) ignorée(s) lors du chargement";
             setPendingGrowl(SEVERITY_WARN, TEMPLATE_FORM_CC_TEMPLATE_FORM_TEMPLATE_GROWL, "Import partiel", msg);
         }
+        phaseFinished();
     }
 
     private void onParseError(Exception e) {
         setPendingGrowl(SEVERITY_ERROR, null, "Erreur", "Échec du chargement du fichier : " + e.getMessage());
+        phaseFinished();
     }
 
     private void setPendingGrowl(String severity, String target, String summary, String detail) {
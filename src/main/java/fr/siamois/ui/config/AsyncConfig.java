@@ -19,4 +19,29 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs the sheet parsing and table seeding tasks of an import ({@code ImportPlan}). Separate from
+     * {@link #importTaskExecutor()}, whose threads wait for these tasks.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setThreadNamePrefix("import-worker-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor derivativeTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("derivative-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,23 @@
+package fr.siamois.ui.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SiamoisCacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * Registers the caches of {@code siamois.cache.specs} with their own size and expiry. Their hits, misses and
+     * evictions are recorded, for the {@code cache.*} metrics of the actuator.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> namedCachesCustomizer(SiamoisCacheProperties properties) {
+        return cacheManager -> properties.getSpecs().forEach((name, spec) ->
+                cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build()));
+    }
+}
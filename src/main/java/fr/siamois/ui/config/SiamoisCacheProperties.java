@@ -0,0 +1,19 @@
+package fr.siamois.ui.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Propriétés {@code siamois.cache.*} : une spécification Caffeine par cache nommé, par exemple
+ * {@code maximumSize=2000,expireAfterWrite=10m}. Les caches sans spécification gardent celle de
+ * {@code spring.cache.caffeine.spec}. Les statistiques sont toujours enregistrées, voir {@link CacheConfig}.
+ */
+@Data
+@ConfigurationProperties(prefix = "siamois.cache")
+public class SiamoisCacheProperties {
+
+    private Map<String, String> specs = new LinkedHashMap<>();
+}
@@ -1,15 +1,16 @@
 package fr.siamois.ui.config;
 
-import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
 import fr.siamois.ui.bean.SessionSettingsBean;
 import fr.siamois.ui.config.handler.LoginSuccessHandler;
 import fr.siamois.ui.config.security.ApiUnauthorizedJsonWriter;
 import fr.siamois.ui.config.security.UserInfoContextFilter;
+import fr.siamois.ui.config.security.jwt.ApiCallerCache;
 import fr.siamois.ui.config.security.jwt.JwtAuthenticationFilter;
 import fr.siamois.ui.config.security.jwt.JwtService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,8 +40,8 @@ public class WebSecurityConfig {
      * Le filtre JWT ne doit pas être enregistré comme filtre Servlet global (sinon il s’applique à {@code /}, JSF, etc.).
      */
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, PersonRepository personRepository) {
-        return new JwtAuthenticationFilter(jwtService, personRepository);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, ApiCallerCache apiCallerCache) {
+        return new JwtAuthenticationFilter(jwtService, apiCallerCache);
     }
 
     @Bean
@@ -136,6 +137,8 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/ark:/**").permitAll()
                 .requestMatchers("/api/recording-units/**").permitAll()
                 .requestMatchers("/register/**").permitAll()
+                // métriques (dont celles des caches) réservées aux utilisateurs connectés
+                .requestMatchers(EndpointRequest.to(MetricsEndpoint.class)).authenticated()
                 .requestMatchers("/actuator/**").permitAll()
 
                 .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
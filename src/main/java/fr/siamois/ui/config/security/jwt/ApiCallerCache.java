@@ -0,0 +1,69 @@
+package fr.siamois.ui.config.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.models.events.PersonAccessChangeEvent;
+import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Utilisateurs authentifiés par JWT et leur périmètre d'institutions, conservés quelques secondes
+ * ({@code siamois.jwt.caller-cache-ttl}) par sujet du jeton : les clients mobiles enchaînent de nombreux petits
+ * appels, qui n'ont plus à relire la personne et ses institutions à chaque fois.
+ * <p>
+ * Une entrée est retirée dès que les profils de la personne changent ({@link PersonAccessChangeEvent}), une fois
+ * la transaction validée. Une durée nulle désactive le cache.
+ */
+@Component
+public class ApiCallerCache {
+
+    private final PersonRepository personRepository;
+    private final boolean enabled;
+    private final Cache<Long, Person> persons;
+    private final Cache<Long, ProjectApiCaller> callers;
+
+    public ApiCallerCache(PersonRepository personRepository, JwtProperties jwtProperties) {
+        this.personRepository = personRepository;
+        this.enabled = !jwtProperties.getCallerCacheTtl().isZero();
+        this.persons = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(jwtProperties.getCallerCacheTtl())
+                .build();
+        this.callers = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(jwtProperties.getCallerCacheTtl())
+                .build();
+    }
+
+    /**
+     * La personne du sujet {@code personId}; une personne inconnue n'est pas conservée.
+     */
+    public Optional<Person> findPerson(long personId) {
+        if (!enabled) {
+            return personRepository.findById(personId);
+        }
+        return Optional.ofNullable(persons.get(personId, id -> personRepository.findById(id.longValue()).orElse(null)));
+    }
+
+    /**
+     * Le périmètre de la personne, chargé par {@code loader} s'il n'est pas conservé.
+     */
+    public ProjectApiCaller callerOf(Long personId, Supplier<ProjectApiCaller> loader) {
+        if (!enabled || personId == null) {
+            return loader.get();
+        }
+        return callers.get(personId, id -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonAccessChange(PersonAccessChangeEvent event) {
+        persons.invalidate(event.getPersonId());
+        callers.invalidate(event.getPersonId());
+    }
+}
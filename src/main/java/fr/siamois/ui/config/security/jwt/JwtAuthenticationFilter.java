@@ -1,7 +1,6 @@
 package fr.siamois.ui.config.security.jwt;
 
 import fr.siamois.domain.models.auth.Person;
-import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
 import fr.siamois.ui.config.security.ApiUnauthorizedJsonWriter;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -37,7 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     );
 
     private final JwtService jwtService;
-    private final PersonRepository personRepository;
+    private final ApiCallerCache apiCallerCache;
 
     @Override
     protected void doFilterInternal(
@@ -66,7 +65,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             var claims = jwtService.parseAndValidateAccessToken(token);
             long personId = Long.parseLong(claims.getSubject());
-            Person person = personRepository.findById(personId).orElse(null);
+            Person person = apiCallerCache.findPerson(personId).orElse(null);
             if (person == null || !person.isEnabled()) {
                 writeUnauthorized(response, "Unknown or disabled user");
                 return;
@@ -18,4 +18,7 @@ public class JwtProperties {
     private String secret;
 
     private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+    /** Durée de conservation de l'utilisateur et de son périmètre d'institutions entre deux appels de l'API. */
+    private Duration callerCacheTtl = Duration.ofSeconds(30);
 }
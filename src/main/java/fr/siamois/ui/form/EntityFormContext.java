@@ -87,7 +87,7 @@ public class EntityFormContext<T extends AbstractEntityDTO> {
 
     private boolean autoSave = true;
 
-    @Getter
+    /** Created on first use : only the panel form adds fields, not the rows of a table */
     private NewFieldManagerBean newFieldManager;
 
     private final FieldSource fieldSource;
@@ -203,21 +203,28 @@ public class EntityFormContext<T extends AbstractEntityDTO> {
         this.enabledEngine = formService.buildEnabledEngine(fieldSource);
         this.enabledEngine.applyAll(vp, applier);
 
-        // Prepare new field manager; the list stays mutable so a field created here shows up in the
-        // "existing fields" dropdown without waiting for the next form init
-        List<CustomFieldMeasurement> measurementOptions = new ArrayList<>(
-                services.getCustomFieldMeasurementService()
-                        .findOptionsForRecordingUnit(recordingUnitIdOrNull(), 10));
-
-        this.newFieldManager = new NewFieldManagerBean(services.getCustomFieldMeasurementService(),
-                services.getRecordingUnitService(),
-                formService,
-                this.formResponse,
-                unit,
-                measurementOptions,
-                services.getUnitDefinitionService().findOptions()
-                );
+        // the new field manager is bound to the response, prepared again on its next use
+        this.newFieldManager = null;
+    }
 
+    public NewFieldManagerBean getNewFieldManager() {
+        if (newFieldManager == null) {
+            // the list stays mutable so a field created here shows up in the
+            // "existing fields" dropdown without waiting for the next form init
+            List<CustomFieldMeasurement> measurementOptions = new ArrayList<>(
+                    services.getCustomFieldMeasurementService()
+                            .findOptionsForRecordingUnit(recordingUnitIdOrNull(), 10));
+
+            this.newFieldManager = new NewFieldManagerBean(services.getCustomFieldMeasurementService(),
+                    services.getRecordingUnitService(),
+                    formService,
+                    this.formResponse,
+                    unit,
+                    measurementOptions,
+                    services.getUnitDefinitionService().findOptions()
+                    );
+        }
+        return newFieldManager;
     }
 
     private Long recordingUnitIdOrNull() {
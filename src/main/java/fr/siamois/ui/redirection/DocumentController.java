@@ -3,18 +3,24 @@ package fr.siamois.ui.redirection;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.services.document.DocumentService;
+import fr.siamois.domain.services.document.DocumentThumbnailService;
 import fr.siamois.domain.services.document.compressor.FileCompressor;
 import fr.siamois.ui.bean.SessionSettingsBean;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Optional;
 
 @Slf4j
@@ -25,11 +31,43 @@ public class DocumentController {
 
     private final SessionSettingsBean sessionSettingsBean;
     private final DocumentService documentService;
+    private final DocumentThumbnailService documentThumbnailService;
 
     public DocumentController(SessionSettingsBean sessionSettingsBean,
-                              DocumentService documentService) {
+                              DocumentService documentService,
+                              DocumentThumbnailService documentThumbnailService) {
         this.sessionSettingsBean = sessionSettingsBean;
         this.documentService = documentService;
+        this.documentThumbnailService = documentThumbnailService;
+    }
+
+    @GetMapping("/content/thumbnail/{fileCode}")
+    public ResponseEntity<Resource> thumbnail(
+            @PathVariable String fileCode,
+            @RequestParam(value = "size", defaultValue = "128") int size
+    ) throws IOException {
+        UserInfo userInfo = sessionSettingsBean.getUserInfo();
+        Optional<Document> opt = documentService.findByFileCode(fileCode);
+        if (opt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Document document = opt.get();
+        if (!document.getCreatedByInstitution().getId().equals(userInfo.getInstitution().getId())) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        Optional<File> thumbnail = documentThumbnailService.findThumbnail(document, size);
+        if (thumbnail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePrivate())
+                .lastModified(thumbnail.get().lastModified())
+                .body(new FileSystemResource(thumbnail.get()));
     }
 
     @GetMapping("/content/{fileCodeName}")
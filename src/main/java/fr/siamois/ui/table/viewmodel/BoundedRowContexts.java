@@ -0,0 +1,42 @@
+package fr.siamois.ui.table.viewmodel;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Contextes de formulaire des lignes d'une table, du moins au plus récemment utilisé.
+ * <p>
+ * Au-delà de {@code maxRows} contextes, les plus anciens qui ne sont pas épinglés (lignes en cours d'édition) sont
+ * retirés : ils seront recréés depuis l'entité si la ligne est de nouveau affichée. Les lignes modifiées et non
+ * enregistrées sont toujours gardées, la borne peut donc être dépassée tant qu'elles ne sont pas enregistrées ou
+ * annulées.
+ */
+final class BoundedRowContexts<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maxRows;
+    private final transient Predicate<V> pinned;
+
+    BoundedRowContexts(int maxRows, Predicate<V> pinned) {
+        super(16, 0.75f, true);
+        this.maxRows = maxRows;
+        this.pinned = pinned;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (size() <= maxRows) {
+            return false;
+        }
+        // le dernier contexte est celui qui vient d'être ajouté, il n'est jamais retiré
+        int candidates = size() - 1;
+        Iterator<V> contexts = values().iterator();
+        for (int i = 0; i < candidates && size() > maxRows; i++) {
+            if (!pinned.test(contexts.next())) {
+                contexts.remove();
+            }
+        }
+        return false;
+    }
+}
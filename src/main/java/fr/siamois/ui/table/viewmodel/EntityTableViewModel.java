@@ -31,6 +31,7 @@ import fr.siamois.ui.table.RowAction;
 import fr.siamois.ui.table.TableDefinition;
 import fr.siamois.ui.table.ToolbarCreateConfig;
 import fr.siamois.ui.table.column.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.primefaces.event.ColumnToggleEvent;
@@ -120,9 +121,25 @@ public abstract class EntityTableViewModel<T extends AbstractEntityDTO, ID> {
     private final TableDefinition tableDefinition = new TableDefinition();
 
     /**
-     * Contexte de formulaire par ligne (clé = ID de l'entité)
+     * Nombre de contextes de ligne gardés, au moins trois pages de la plus grande taille proposée
      */
-    protected final Map<ID, EntityFormContext<T>> rowContexts = new HashMap<>();
+    static final int MAX_ROW_CONTEXTS = 300;
+
+    /**
+     * Contexte de formulaire par ligne (clé = ID de l'entité), borné aux {@link #MAX_ROW_CONTEXTS} lignes les plus
+     * récemment utilisées ; les lignes en cours d'édition ne sont jamais retirées.
+     */
+    protected final Map<ID, EntityFormContext<T>> rowContexts =
+            new BoundedRowContexts<>(MAX_ROW_CONTEXTS, EntityFormContext::isHasUnsavedModifications);
+
+    /**
+     * FieldSource partagé par toutes les lignes d'un même formulaire (clé = formulaire résolu, par identité) :
+     * l'index des colonnes et des règles ne dépend que de la table et du formulaire, pas de la ligne.
+     * Un formulaire résolu à nouveau (configuration modifiée, cache expiré) est une nouvelle instance : les entrées
+     * qu'aucune ligne n'utilise plus sont alors retirées.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<FormUiDto, FieldSource> rowFieldSources = new IdentityHashMap<>();
 
     /**
      * Concepts sélectionnés pour le filtre d'une colonne (clé = valueBinding de la colonne).
@@ -300,8 +317,13 @@ public abstract class EntityTableViewModel<T extends AbstractEntityDTO, ID> {
             // 2) Configuration min/max des champs système pour CETTE ligne
             configureRowSystemFields(entity, rowForm);
 
-            // 3) FieldSource pour cette ligne : colonnes de la table + form spécifique
-            FieldSource fs = new TableRowFieldSource(tableDefinition, rowForm);
+            // 3) FieldSource du formulaire : colonnes de la table + form spécifique, partagé entre les lignes
+            FieldSource fs = rowFieldSources.get(rowForm);
+            if (fs == null) {
+                removeUnusedRowFieldSources();
+                fs = new TableRowFieldSource(tableDefinition, rowForm);
+                rowFieldSources.put(rowForm, fs);
+            }
 
             // 4) Contexte de formulaire pour cette ligne
             EntityFormContext<T> ctx = new EntityFormContext<>(
@@ -317,12 +339,25 @@ public abstract class EntityTableViewModel<T extends AbstractEntityDTO, ID> {
         });
     }
 
+    /**
+     * Retire les FieldSource des formulaires qu'aucun contexte de ligne n'utilise plus, par exemple ceux d'une
+     * version précédente de la configuration.
+     */
+    private void removeUnusedRowFieldSources() {
+        Set<FieldSource> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (EntityFormContext<T> context : rowContexts.values()) {
+            used.add(context.getFieldSource());
+        }
+        rowFieldSources.values().removeIf(source -> !used.contains(source));
+    }
+
     /**
      * À appeler si tu veux "réinitialiser" les contextes de formulaire,
      * par exemple après un gros refresh de la liste.
      */
     public void resetRowContexts() {
         rowContexts.clear();
+        rowFieldSources.clear();
     }
 
     // ---------------------- Hooks à surcharger par les sous-classes ----------------------
@@ -54,12 +54,6 @@ import static fr.siamois.ui.table.column.TableColumnAction.GO_TO_RECORDING_UNIT;
 @Getter
 public class RecordingUnitTableViewModel extends EntityTableViewModel<RecordingUnitDTO, Long> {
 
-    private record FormCacheKey(Long projectId, ConceptDTO type) {
-    }
-
-    // Cache: key = (projectId, type)
-    private final Map<FormCacheKey, FormUiDto> formCache = new HashMap<>();
-
     private final EffectiveFormResolver effectiveFormResolver;
 
     public static final String THIS = "@this";
@@ -115,16 +109,9 @@ public class RecordingUnitTableViewModel extends EntityTableViewModel<RecordingU
             return null;
         }
 
-        FormCacheKey key = new FormCacheKey(ru.getActionUnit().getId(), type);
-        if (formCache.containsKey(key)) {
-            return formCache.get(key);
-        }
-
-        FormUiDto formDto = effectiveFormResolver.resolveEffectiveForm(
+        // même formulaire pour toutes les lignes du type, gardé par le resolver
+        return effectiveFormResolver.resolveEffectiveForm(
                 RecordingUnit.DETAILS_FORM, ru.getActionUnit().getId(), ConfigurableTable.UE, type.getId());
-
-        formCache.put(key, formDto);
-        return formDto;
     }
 
 
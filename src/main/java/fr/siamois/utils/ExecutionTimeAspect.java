@@ -1,6 +1,11 @@
 package fr.siamois.utils;
 
 import fr.siamois.annotations.ExecutionTimeLogger;
+import fr.siamois.domain.models.UserInfo;
+import fr.siamois.utils.context.ExecutionContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -8,21 +13,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the execution time of the methods annotated with {@link ExecutionTimeLogger} in the
+ * {@value #TIMER_NAME} timer, with a percentile histogram, exposed by {@code /actuator/metrics}.
+ */
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class ExecutionTimeAspect {
 
+    public static final String TIMER_NAME = "siamois.method.execution";
+    static final String NO_INSTITUTION = "none";
+
     private static final Logger logger = LoggerFactory.getLogger(ExecutionTimeAspect.class);
 
+    private final MeterRegistry meterRegistry;
+
     @Around("@annotation(executionTimeLogger)")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint, ExecutionTimeLogger executionTimeLogger) throws Throwable {
-        long start = System.currentTimeMillis();
-
-        Object result = joinPoint.proceed();
-
-        long duration = System.currentTimeMillis() - start;
-        logger.debug("⏱ Method [{}] executed in {} ms", joinPoint.getSignature(), duration);
+        String method = executionTimeLogger.value().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : executionTimeLogger.value();
+        String institution = currentInstitution();
+        String outcome = "error";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            long nanos = sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Execution time of the service methods")
+                    .tag("method", method)
+                    .tag("institution", institution)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            logger.debug("Method [{}] executed in {} ms ({})", method, TimeUnit.NANOSECONDS.toMillis(nanos), outcome);
+        }
+    }
 
-        return result;
+    private static String currentInstitution() {
+        UserInfo info = ExecutionContextHolder.get();
+        if (info == null || info.getInstitution() == null || info.getInstitution().getId() == null) {
+            return NO_INSTITUTION;
+        }
+        return String.valueOf(info.getInstitution().getId());
     }
 }
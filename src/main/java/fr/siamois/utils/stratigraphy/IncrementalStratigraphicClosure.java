@@ -0,0 +1,496 @@
+package fr.siamois.utils.stratigraphy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stratigraphic closure of the recording units of one action unit, maintained on each added or removed relationship.
+ * <p>
+ * An asynchronous relationship {@code unit1 -> unit2} means that unit1 is anterior to unit2. A synchronous relationship
+ * is stored as two opposite edges, so that the units of a synchronous group share their anterior and posterior units.
+ * The units are indexed to ints and each one keeps a {@link BitSet} of the units it reaches and of the units reaching
+ * it, which makes {@link #isAnterior(long, long)} a constant time lookup.
+ * <p>
+ * Adding an edge only updates the rows of the units reaching its first end. Removing one only recomputes the rows of
+ * the units that could reach it, each search stopping at the units whose rows are still valid. Every change returns
+ * the reachability pairs it added or removed.
+ * <p>
+ * This class is not thread safe.
+ */
+public class IncrementalStratigraphicClosure {
+
+    /**
+     * A reachability pair: the unit {@code fromId} is anterior or synchronous to the unit {@code toId}.
+     */
+    public record Pair(long fromId, long toId) {
+    }
+
+    /**
+     * The reachability pairs added and removed by a change.
+     */
+    public record Delta(List<Pair> added, List<Pair> removed) {
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final Map<Long, Integer> indexOf = new HashMap<>();
+    private final List<Long> idOf = new ArrayList<>();
+
+    // Edge multiplicities of the reachability graph
+    private final List<Map<Integer, Integer>> successors = new ArrayList<>();
+    private final List<Map<Integer, Integer>> predecessors = new ArrayList<>();
+    private final List<Map<Integer, Integer>> synchronousNeighbours = new ArrayList<>();
+
+    private final List<BitSet> descendants = new ArrayList<>();
+    private final List<BitSet> ancestors = new ArrayList<>();
+
+    // Synchronous groups
+    private final List<Integer> groupOf = new ArrayList<>();
+    private final Map<Integer, Set<Integer>> groupMembers = new HashMap<>();
+    private int nextGroup = 0;
+
+    private int index(long unitId) {
+        Integer existing = indexOf.get(unitId);
+        if (existing != null) {
+            return existing;
+        }
+        int u = idOf.size();
+        indexOf.put(unitId, u);
+        idOf.add(unitId);
+        successors.add(new HashMap<>());
+        predecessors.add(new HashMap<>());
+        synchronousNeighbours.add(new HashMap<>());
+        descendants.add(new BitSet());
+        ancestors.add(new BitSet());
+        int group = nextGroup++;
+        groupOf.add(group);
+        Set<Integer> members = new HashSet<>();
+        members.add(u);
+        groupMembers.put(group, members);
+        return u;
+    }
+
+    public int size() {
+        return idOf.size();
+    }
+
+    /**
+     * Builds the closure of a set of relationships from scratch, with one search per unit.
+     *
+     * @param relationships the relationships, as {@code {unit1Id, unit2Id}} with the synchronous flag
+     * @param synchronous   for each relationship, true if it is synchronous
+     * @return the closure
+     */
+    public static IncrementalStratigraphicClosure build(List<long[]> relationships, List<Boolean> synchronous) {
+        Builder builder = builder();
+        for (int i = 0; i < relationships.size(); i++) {
+            builder.add(relationships.get(i)[0], relationships.get(i)[1], synchronous.get(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return a builder computing the closure once all the relationships are added, as {@link #build(List, List)}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects the relationships one at a time, for instance as they are read, without keeping them: only the edges
+     * of the graph are recorded, and the closure is computed once by {@link #build()}.
+     */
+    public static final class Builder {
+
+        private IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+
+        private Builder() {
+        }
+
+        /**
+         * @param unit1Id     the first unit, anterior to the second one for an asynchronous relationship
+         * @param unit2Id     the second unit
+         * @param synchronous true if the units are synchronous
+         */
+        public Builder add(long unit1Id, long unit2Id, boolean synchronous) {
+            checkNotBuilt();
+            closure.addEdges(unit1Id, unit2Id, synchronous);
+            return this;
+        }
+
+        /**
+         * @return the closure of the relationships added; the builder can not be used afterwards
+         */
+        public IncrementalStratigraphicClosure build() {
+            checkNotBuilt();
+            IncrementalStratigraphicClosure built = closure;
+            closure = null;
+            built.recomputeAll();
+            return built;
+        }
+
+        private void checkNotBuilt() {
+            if (closure == null) {
+                throw new IllegalStateException("The closure is already built");
+            }
+        }
+    }
+
+    /**
+     * @return an independent copy of this closure
+     */
+    public IncrementalStratigraphicClosure copy() {
+        IncrementalStratigraphicClosure copy = new IncrementalStratigraphicClosure();
+        copy.indexOf.putAll(indexOf);
+        copy.idOf.addAll(idOf);
+        for (int u = 0; u < idOf.size(); u++) {
+            copy.successors.add(new HashMap<>(successors.get(u)));
+            copy.predecessors.add(new HashMap<>(predecessors.get(u)));
+            copy.synchronousNeighbours.add(new HashMap<>(synchronousNeighbours.get(u)));
+            copy.descendants.add((BitSet) descendants.get(u).clone());
+            copy.ancestors.add((BitSet) ancestors.get(u).clone());
+        }
+        copy.groupOf.addAll(groupOf);
+        groupMembers.forEach((group, members) -> copy.groupMembers.put(group, new HashSet<>(members)));
+        copy.nextGroup = nextGroup;
+        return copy;
+    }
+
+    private boolean addEdges(long unit1Id, long unit2Id, boolean synchronous) {
+        int u1 = index(unit1Id);
+        int u2 = index(unit2Id);
+        boolean changed = incrementEdge(u1, u2);
+        if (synchronous) {
+            changed |= incrementEdge(u2, u1);
+            linkSynchronous(u1, u2);
+        }
+        return changed;
+    }
+
+    private boolean incrementEdge(int from, int to) {
+        predecessors.get(to).merge(from, 1, Integer::sum);
+        return successors.get(from).merge(to, 1, Integer::sum) == 1;
+    }
+
+    private boolean decrementEdge(int from, int to) {
+        Integer count = successors.get(from).get(to);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            successors.get(from).remove(to);
+            predecessors.get(to).remove(from);
+            return true;
+        }
+        successors.get(from).put(to, count - 1);
+        predecessors.get(to).put(from, count - 1);
+        return false;
+    }
+
+    /**
+     * Records a new relationship and updates the closure.
+     *
+     * @param unit1Id     the first unit, anterior to the second one for an asynchronous relationship
+     * @param unit2Id     the second unit
+     * @param synchronous true if the units are synchronous
+     * @return the reachability pairs added by the relationship
+     */
+    public Delta addRelationship(long unit1Id, long unit2Id, boolean synchronous) {
+        int u1 = index(unit1Id);
+        int u2 = index(unit2Id);
+        List<Pair> added = new ArrayList<>();
+        if (incrementEdge(u1, u2)) {
+            propagateInsertion(u1, u2, added);
+        }
+        if (synchronous) {
+            if (incrementEdge(u2, u1)) {
+                propagateInsertion(u2, u1, added);
+            }
+            linkSynchronous(u1, u2);
+        }
+        return new Delta(added, List.of());
+    }
+
+    /**
+     * Forgets a relationship and updates the closure.
+     *
+     * @param unit1Id     the first unit of the relationship
+     * @param unit2Id     the second unit of the relationship
+     * @param synchronous true if the relationship was synchronous
+     * @return the reachability pairs removed with the relationship
+     */
+    public Delta removeRelationship(long unit1Id, long unit2Id, boolean synchronous) {
+        Integer u1 = indexOf.get(unit1Id);
+        Integer u2 = indexOf.get(unit2Id);
+        if (u1 == null || u2 == null) {
+            return new Delta(List.of(), List.of());
+        }
+        List<Pair> removed = new ArrayList<>();
+        if (decrementEdge(u1, u2)) {
+            propagateDeletion(u1, u2, removed);
+        }
+        if (synchronous) {
+            if (decrementEdge(u2, u1)) {
+                propagateDeletion(u2, u1, removed);
+            }
+            if (unlinkSynchronous(u1, u2)) {
+                splitGroup(u1, u2);
+            }
+        }
+        return new Delta(List.of(), removed);
+    }
+
+    private void propagateInsertion(int from, int to, List<Pair> added) {
+        if (descendants.get(from).get(to)) {
+            return;
+        }
+        BitSet sources = (BitSet) ancestors.get(from).clone();
+        sources.set(from);
+        BitSet targets = (BitSet) descendants.get(to).clone();
+        targets.set(to);
+
+        for (int a = sources.nextSetBit(0); a >= 0; a = sources.nextSetBit(a + 1)) {
+            BitSet row = descendants.get(a);
+            BitSet newTargets = (BitSet) targets.clone();
+            newTargets.andNot(row);
+            row.or(newTargets);
+            for (int b = newTargets.nextSetBit(0); b >= 0; b = newTargets.nextSetBit(b + 1)) {
+                added.add(new Pair(idOf.get(a), idOf.get(b)));
+            }
+        }
+        for (int b = targets.nextSetBit(0); b >= 0; b = targets.nextSetBit(b + 1)) {
+            ancestors.get(b).or(sources);
+        }
+    }
+
+    private void propagateDeletion(int from, int to, List<Pair> removed) {
+        // Only the units reaching the first end may lose descendants, and only the units reached from the second
+        // end may lose ancestors
+        BitSet sources = (BitSet) ancestors.get(from).clone();
+        sources.set(from);
+        BitSet targets = (BitSet) descendants.get(to).clone();
+        targets.set(to);
+
+        for (int a = sources.nextSetBit(0); a >= 0; a = sources.nextSetBit(a + 1)) {
+            BitSet lost = descendants.get(a);
+            BitSet after = search(a, successors, descendants, sources);
+            lost.andNot(after);
+            for (int b = lost.nextSetBit(0); b >= 0; b = lost.nextSetBit(b + 1)) {
+                removed.add(new Pair(idOf.get(a), idOf.get(b)));
+            }
+            descendants.set(a, after);
+        }
+        for (int b = targets.nextSetBit(0); b >= 0; b = targets.nextSetBit(b + 1)) {
+            ancestors.set(b, search(b, predecessors, ancestors, targets));
+        }
+    }
+
+    private BitSet allUnits() {
+        BitSet all = new BitSet(idOf.size());
+        all.set(0, idOf.size());
+        return all;
+    }
+
+    /**
+     * Breadth first search from a unit. The rows of the units outside {@code invalid} are still valid and are merged
+     * instead of being explored again.
+     */
+    private BitSet search(int start, List<Map<Integer, Integer>> edges, List<BitSet> rows, BitSet invalid) {
+        BitSet visited = new BitSet(idOf.size());
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int v : edges.get(u).keySet()) {
+                if (visited.get(v)) {
+                    continue;
+                }
+                visited.set(v);
+                if (invalid.get(v)) {
+                    queue.add(v);
+                } else {
+                    visited.or(rows.get(v));
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void recomputeAll() {
+        BitSet all = allUnits();
+        for (int u = 0; u < idOf.size(); u++) {
+            descendants.set(u, search(u, successors, descendants, all));
+        }
+        for (int u = 0; u < idOf.size(); u++) {
+            ancestors.set(u, new BitSet());
+        }
+        for (int a = 0; a < idOf.size(); a++) {
+            BitSet row = descendants.get(a);
+            for (int b = row.nextSetBit(0); b >= 0; b = row.nextSetBit(b + 1)) {
+                ancestors.get(b).set(a);
+            }
+        }
+    }
+
+    private void linkSynchronous(int u1, int u2) {
+        synchronousNeighbours.get(u1).merge(u2, 1, Integer::sum);
+        if (u1 != u2) {
+            synchronousNeighbours.get(u2).merge(u1, 1, Integer::sum);
+        }
+        mergeGroups(u1, u2);
+    }
+
+    /**
+     * @return true if the units are no longer directly synchronous
+     */
+    private boolean unlinkSynchronous(int u1, int u2) {
+        Integer count = synchronousNeighbours.get(u1).get(u2);
+        if (count == null) {
+            return false;
+        }
+        if (count > 1) {
+            synchronousNeighbours.get(u1).put(u2, count - 1);
+            if (u1 != u2) {
+                synchronousNeighbours.get(u2).put(u1, count - 1);
+            }
+            return false;
+        }
+        synchronousNeighbours.get(u1).remove(u2);
+        synchronousNeighbours.get(u2).remove(u1);
+        return true;
+    }
+
+    private void mergeGroups(int u1, int u2) {
+        int g1 = groupOf.get(u1);
+        int g2 = groupOf.get(u2);
+        if (g1 == g2) {
+            return;
+        }
+        Set<Integer> members1 = groupMembers.get(g1);
+        Set<Integer> members2 = groupMembers.get(g2);
+        // Merge the smaller group into the larger one
+        if (members1.size() < members2.size()) {
+            int tmp = g1;
+            g1 = g2;
+            g2 = tmp;
+            Set<Integer> tmpMembers = members1;
+            members1 = members2;
+            members2 = tmpMembers;
+        }
+        for (int member : members2) {
+            groupOf.set(member, g1);
+        }
+        members1.addAll(members2);
+        groupMembers.remove(g2);
+    }
+
+    private void splitGroup(int u1, int u2) {
+        Set<Integer> reached = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        reached.add(u1);
+        queue.add(u1);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int v : synchronousNeighbours.get(u).keySet()) {
+                if (v == u2) {
+                    return; // still connected
+                }
+                if (reached.add(v)) {
+                    queue.add(v);
+                }
+            }
+        }
+        int group = groupOf.get(u1);
+        int newGroup = nextGroup++;
+        groupMembers.get(group).removeAll(reached);
+        groupMembers.put(newGroup, reached);
+        for (int member : reached) {
+            groupOf.set(member, newGroup);
+        }
+    }
+
+    private boolean sameGroup(int u1, int u2) {
+        return groupOf.get(u1).equals(groupOf.get(u2));
+    }
+
+    /**
+     * @param anteriorId  a unit
+     * @param posteriorId another unit
+     * @return true if the first unit is anterior to the second one, directly or by deduction
+     */
+    public boolean isAnterior(long anteriorId, long posteriorId) {
+        Integer a = indexOf.get(anteriorId);
+        Integer b = indexOf.get(posteriorId);
+        return a != null && b != null && descendants.get(a).get(b) && !sameGroup(a, b);
+    }
+
+    /**
+     * @param unitId a unit
+     * @return the ids of the units anterior to the given unit, directly or by deduction
+     */
+    public Set<Long> anteriorsOf(long unitId) {
+        return relatedOutsideGroup(unitId, ancestors);
+    }
+
+    /**
+     * @param unitId a unit
+     * @return the ids of the units posterior to the given unit, directly or by deduction
+     */
+    public Set<Long> posteriorsOf(long unitId) {
+        return relatedOutsideGroup(unitId, descendants);
+    }
+
+    /**
+     * @param unitId a unit
+     * @return the ids of the units of the synchronous group of the given unit, including itself
+     */
+    public Set<Long> synchronousGroupOf(long unitId) {
+        Integer u = indexOf.get(unitId);
+        if (u == null) {
+            return Set.of(unitId);
+        }
+        Set<Long> ids = new HashSet<>();
+        for (int member : groupMembers.get(groupOf.get(u))) {
+            ids.add(idOf.get(member));
+        }
+        return ids;
+    }
+
+    private Set<Long> relatedOutsideGroup(long unitId, List<BitSet> rows) {
+        Integer u = indexOf.get(unitId);
+        if (u == null) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>();
+        BitSet row = rows.get(u);
+        for (int v = row.nextSetBit(0); v >= 0; v = row.nextSetBit(v + 1)) {
+            if (!sameGroup(u, v)) {
+                ids.add(idOf.get(v));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return all the reachability pairs. A unit reaches itself when it is in a synchronous group or in a loop.
+     */
+    public List<Pair> reachabilityPairs() {
+        List<Pair> pairs = new ArrayList<>();
+        for (int a = 0; a < idOf.size(); a++) {
+            BitSet row = descendants.get(a);
+            for (int b = row.nextSetBit(0); b >= 0; b = row.nextSetBit(b + 1)) {
+                pairs.add(new Pair(idOf.get(a), idOf.get(b)));
+            }
+        }
+        return pairs;
+    }
+}
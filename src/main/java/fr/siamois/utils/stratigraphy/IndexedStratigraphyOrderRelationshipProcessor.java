@@ -0,0 +1,319 @@
+package fr.siamois.utils.stratigraphy;
+
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alternative engine to {@link StratigraphyOrderRelationshipProcessor} working on a compact graph.
+ * <p>
+ * The groups are indexed to ints and their relationships are stored as CSR arrays ({@code offsets}/{@code targets}).
+ * Loops are the strongly connected components found by an iterative Tarjan pass, run before the closure. The
+ * closure is then computed once per component, in the reverse topological order given by Tarjan, as {@code long[]}
+ * bitset rows merged word by word. The deduced relationships are finally written on the groups the same way as
+ * the legacy processor does: a relationship implied by a path of at least two relationships is marked
+ * {@link StratigraphicRelationshipService#ASYNCHRONOUS_DEDUCTED}.
+ */
+public class IndexedStratigraphyOrderRelationshipProcessor {
+
+    // Stratigraphic unit list and their relationship
+    @Getter
+    private final List<SynchronousGroup> groupList;
+
+    @Getter
+    private boolean signalConflict = false;
+    @Getter
+    private final List<List<SynchronousGroup>> loops = new ArrayList<>();
+
+    private Map<RecordingUnit, Integer> index;
+
+    // Compact adjacency
+    private int[] offsets;
+    private int[] targets;
+
+    // Strongly connected components
+    private int[] componentOf;
+    private int componentCount;
+
+    // Groups reachable from each component through at least one relationship
+    private long[][] reachable;
+
+    public IndexedStratigraphyOrderRelationshipProcessor(List<SynchronousGroup> groupList) {
+        this.groupList = groupList;
+    }
+
+    private void indexGroups() {
+        // Identity map: the groups are compared by id and may not have one
+        index = new IdentityHashMap<>();
+        for (int g = 0; g < groupList.size(); g++) {
+            index.putIfAbsent(groupList.get(g), g);
+        }
+    }
+
+    private void buildAdjacency() {
+        int n = groupList.size();
+        offsets = new int[n + 1];
+        for (int g = 0; g < n; g++) {
+            int degree = 0;
+            for (StratigraphicRelationship rel : groupList.get(g).getRelationshipsAsUnit1()) {
+                if (index.containsKey(rel.getUnit2())) {
+                    degree++;
+                }
+            }
+            offsets[g + 1] = offsets[g] + degree;
+        }
+        targets = new int[offsets[n]];
+        for (int g = 0; g < n; g++) {
+            int next = offsets[g];
+            for (StratigraphicRelationship rel : groupList.get(g).getRelationshipsAsUnit1()) {
+                Integer g2 = index.get(rel.getUnit2());
+                if (g2 != null) {
+                    targets[next++] = g2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterative Tarjan algorithm. Components are numbered in reverse topological order: a component only has
+     * relationships towards components with a lower number.
+     */
+    private void findStronglyConnectedComponents() {
+        int n = groupList.size();
+        componentOf = new int[n];
+        componentCount = 0;
+        int[] order = new int[n];
+        int[] lowLink = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callStack = new int[n];
+        int[] edgeCursor = new int[n];
+        Arrays.fill(order, -1);
+        int counter = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (order[start] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth] = start;
+            order[start] = lowLink[start] = counter++;
+            edgeCursor[start] = offsets[start];
+            stack[stackSize++] = start;
+            onStack[start] = true;
+
+            while (depth >= 0) {
+                int g = callStack[depth];
+                if (edgeCursor[g] < offsets[g + 1]) {
+                    int g2 = targets[edgeCursor[g]++];
+                    if (order[g2] < 0) {
+                        order[g2] = lowLink[g2] = counter++;
+                        edgeCursor[g2] = offsets[g2];
+                        stack[stackSize++] = g2;
+                        onStack[g2] = true;
+                        callStack[++depth] = g2;
+                    } else if (onStack[g2]) {
+                        lowLink[g] = Math.min(lowLink[g], order[g2]);
+                    }
+                    continue;
+                }
+                if (lowLink[g] == order[g]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        componentOf[member] = componentCount;
+                    } while (member != g);
+                    componentCount++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callStack[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[g]);
+                }
+            }
+        }
+    }
+
+    private List<List<Integer>> membersByComponent() {
+        List<List<Integer>> members = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            members.add(new ArrayList<>(1));
+        }
+        for (int g = 0; g < groupList.size(); g++) {
+            members.get(componentOf[g]).add(g);
+        }
+        return members;
+    }
+
+    private boolean isLoop(List<Integer> members) {
+        if (members.size() > 1) {
+            return true;
+        }
+        int g = members.get(0);
+        for (int e = offsets[g]; e < offsets[g + 1]; e++) {
+            if (targets[e] == g) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void loopsDetection(List<List<Integer>> members) {
+        for (List<Integer> component : members) {
+            if (isLoop(component)) {
+                signalConflict = true;
+                List<SynchronousGroup> newLoop = new ArrayList<>(component.size());
+                for (int g : component) {
+                    SynchronousGroup group = groupList.get(g);
+                    newLoop.add(group);
+                    // Remove the reflexive relationship
+                    group.getRelationshipsAsUnit1().removeIf(rel -> rel.getUnit2() == group);
+                }
+                loops.add(newLoop);
+            }
+        }
+    }
+
+    private void computeReachability(List<List<Integer>> members) {
+        int words = (groupList.size() + 63) >>> 6;
+        reachable = new long[componentCount][];
+        // Components are numbered in reverse topological order, successors are always computed first
+        for (int c = 0; c < componentCount; c++) {
+            long[] row = new long[words];
+            List<Integer> component = members.get(c);
+            boolean loop = isLoop(component);
+            for (int g : component) {
+                if (loop) {
+                    row[g >>> 6] |= 1L << g;
+                }
+                for (int e = offsets[g]; e < offsets[g + 1]; e++) {
+                    int g2 = targets[e];
+                    int c2 = componentOf[g2];
+                    if (c2 != c) {
+                        row[g2 >>> 6] |= 1L << g2;
+                        long[] successorRow = reachable[c2];
+                        for (int w = 0; w < words; w++) {
+                            row[w] |= successorRow[w];
+                        }
+                    }
+                }
+            }
+            reachable[c] = row;
+        }
+    }
+
+    /**
+     * Checks if group2 can be reached from group1 through a chain of relationships. Available once the closure is
+     * computed, by {@link #computeClosure()} alone or by {@link #process()}.
+     *
+     * @param group1 the first group
+     * @param group2 the second group
+     * @return true if there is a path from group1 to group2
+     */
+    public boolean isReachable(SynchronousGroup group1, SynchronousGroup group2) {
+        Integer g1 = index.get(group1);
+        Integer g2 = index.get(group2);
+        if (g1 == null || g2 == null) {
+            return false;
+        }
+        long[] row = reachable[componentOf[g1]];
+        return (row[g2 >>> 6] & (1L << g2)) != 0;
+    }
+
+    private void deductRelationshipByTransitivity() {
+        int words = (groupList.size() + 63) >>> 6;
+        long[] deducted = new long[words];
+        for (int g = 0; g < groupList.size(); g++) {
+            SynchronousGroup group = groupList.get(g);
+            if (!containsRelationshipOfType(group, StratigraphicRelationshipService.ASYNCHRONOUS)) {
+                continue;
+            }
+            // Relationships implied by a path of at least two relationships
+            Arrays.fill(deducted, 0L);
+            for (int e = offsets[g]; e < offsets[g + 1]; e++) {
+                long[] successorRow = reachable[componentOf[targets[e]]];
+                for (int w = 0; w < words; w++) {
+                    deducted[w] |= successorRow[w];
+                }
+            }
+            writeDeductedRelationships(group, g, deducted);
+        }
+    }
+
+    private void writeDeductedRelationships(SynchronousGroup group, int g, long[] deducted) {
+        Map<Integer, StratigraphicRelationship> existing = new HashMap<>();
+        for (int e = offsets[g]; e < offsets[g + 1]; e++) {
+            existing.put(targets[e], null);
+        }
+        if (!existing.isEmpty()) {
+            Map<RecordingUnit, StratigraphicRelationship> byUnit2 = new IdentityHashMap<>();
+            for (StratigraphicRelationship rel : group.getRelationshipsAsUnit1()) {
+                byUnit2.putIfAbsent(rel.getUnit2(), rel);
+            }
+            existing.replaceAll((g2, rel) -> byUnit2.get(groupList.get(g2)));
+        }
+        for (int w = 0; w < deducted.length; w++) {
+            long word = deducted[w];
+            while (word != 0) {
+                int g3 = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (g3 == g) {
+                    continue; // loops are reported by loopsDetection
+                }
+                StratigraphicRelationship rel = existing.get(g3);
+                if (rel != null) {
+                    // type is now asynchronous deducted
+                    rel.setConcept(StratigraphicRelationshipService.ASYNCHRONOUS_DEDUCTED);
+                } else {
+                    // we add it as asynchronous deducted
+                    StratigraphicRelationship newRel = new StratigraphicRelationship();
+                    newRel.setUnit1(group);
+                    newRel.setUnit2(groupList.get(g3));
+                    newRel.setConcept(StratigraphicRelationshipService.ASYNCHRONOUS_DEDUCTED);
+                    group.getRelationshipsAsUnit1().add(newRel);
+                }
+            }
+        }
+    }
+
+    private static boolean containsRelationshipOfType(SynchronousGroup group, Concept type) {
+        for (StratigraphicRelationship rel : group.getRelationshipsAsUnit1()) {
+            if (type.equals(rel.getConcept())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Detects the loops and computes the reachability between groups, without writing the deduced relationships
+     * on the groups. Use {@link #isReachable(SynchronousGroup, SynchronousGroup)} to query the closure.
+     */
+    public void computeClosure() {
+
+        indexGroups();
+        buildAdjacency();
+        findStronglyConnectedComponents();
+
+        List<List<Integer>> members = membersByComponent();
+        loopsDetection(members);
+        computeReachability(members);
+    }
+
+    public void process() {
+
+        computeClosure();
+        deductRelationshipByTransitivity();
+    }
+}
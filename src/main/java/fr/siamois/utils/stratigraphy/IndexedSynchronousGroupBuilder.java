@@ -0,0 +1,214 @@
+package fr.siamois.utils.stratigraphy;
+
+import fr.siamois.domain.models.exceptions.stratigraphy.StratigraphicUnitNotFoundInAnyGroup;
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alternative engine to {@link SynchronousGroupBuilder} producing the same list of {@link SynchronousGroup}:
+ * one group per set of units connected by synchronous relationships, then one group per remaining unit.
+ * <p>
+ * Units are indexed to ints once, synchronisms are merged with a union-find (the transitive, symmetric and
+ * reflexive closure of "synchrone avec" is exactly its connected components) and asynchronous relationships
+ * are transferred to the groups through an index lookup. Time and memory are near-linear in the number of
+ * units and relationships, where the legacy builder needs a {@code n x n} matrix and repeated scans.
+ * <p>
+ * Unlike the legacy builder, the relationships of the input units are never modified: the deduced
+ * synchronous relationships are not materialised. Each group gets its index in the list as id, so that
+ * the groups, and therefore the relationships between them, can be told apart.
+ */
+@Getter
+public class IndexedSynchronousGroupBuilder {
+
+    private static final String GROUP_MASTER_STATUS = "maître d'ES";
+
+    // Stratigraphic unit list and their relationship
+    private final List<RecordingUnit> recordingUnits;
+
+    private final String[] saiUstatut; // statut de l'US (Fait, MES, US simple par défaut)
+    private final long[] enSynch;
+    private final List<String> collecComm;
+
+    // The list of syncronous group to return
+    private final List<SynchronousGroup> synchronousGroupList = new ArrayList<>();
+
+    // Union-find over the unit indexes
+    private final int[] parent;
+    private final int[] rank;
+
+    public IndexedSynchronousGroupBuilder(List<RecordingUnit> recordingUnits, String[] saiUstatut, long[] enSynch, List<String> collecComm) {
+        this.recordingUnits = recordingUnits;
+        this.saiUstatut = saiUstatut;
+        this.enSynch = enSynch;
+        this.collecComm = collecComm;
+
+        int n = recordingUnits.size();
+        parent = new int[n];
+        rank = new int[n];
+        for (int u = 0; u < n; u++) {
+            parent[u] = u;
+        }
+    }
+
+    int find(int u) {
+        int root = u;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // Path compression
+        while (parent[u] != root) {
+            int next = parent[u];
+            parent[u] = root;
+            u = next;
+        }
+        return root;
+    }
+
+    void union(int u1, int u2) {
+        int r1 = find(u1);
+        int r2 = find(u2);
+        if (r1 == r2) {
+            return;
+        }
+        if (rank[r1] < rank[r2]) {
+            parent[r1] = r2;
+        } else if (rank[r1] > rank[r2]) {
+            parent[r2] = r1;
+        } else {
+            parent[r2] = r1;
+            rank[r1]++;
+        }
+    }
+
+    private Map<RecordingUnit, Integer> indexUnits() {
+        Map<RecordingUnit, Integer> index = new HashMap<>();
+        for (int u = 0; u < recordingUnits.size(); u++) {
+            index.putIfAbsent(recordingUnits.get(u), u);
+        }
+        return index;
+    }
+
+    /**
+     * Merges the synchronous units and flags the units that start a synchronous group, i.e. the units belonging
+     * to a component of at least two units or declared synchronous with themselves.
+     *
+     * @param index the unit to index map
+     * @return for each unit, true if it is in a synchronous group
+     */
+    private boolean[] mergeSynchronisms(Map<RecordingUnit, Integer> index) {
+        int n = recordingUnits.size();
+        boolean[] inGroup = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            for (StratigraphicRelationship rel : recordingUnits.get(u).getRelationshipsAsUnit1()) {
+                if (!StratigraphicRelationshipService.SYNCHRONOUS.equals(rel.getConcept())) {
+                    continue;
+                }
+                Integer u2 = index.get(rel.getUnit2());
+                if (u2 == null) {
+                    continue;
+                }
+                inGroup[u] = true;
+                inGroup[u2] = true;
+                union(u, u2);
+            }
+        }
+        return inGroup;
+    }
+
+    // La méthode qui simule la logique de "EnsemblesSynchrones" en Java
+    // constitution des ensembles synchrones certains
+    // déduction des synchronismes
+
+    public void build() {
+
+        int n = recordingUnits.size();
+        Map<RecordingUnit, Integer> index = indexUnits();
+        boolean[] inGroup = mergeSynchronisms(index);
+
+        // Synchronous groups come first, ordered by their first unit, then single unit groups
+        int[] groupOfRoot = new int[n];
+        int[] firstUnitOfRoot = new int[n];
+        int[] groupOfUnit = new int[n];
+        Arrays.fill(groupOfRoot, -1);
+        for (int u = 0; u < n; u++) {
+            if (!inGroup[u]) {
+                continue;
+            }
+            int root = find(u);
+            if (groupOfRoot[root] < 0) {
+                SynchronousGroup newGroup = new SynchronousGroup();
+                newGroup.setId((long) synchronousGroupList.size());
+                newGroup.addUnit(recordingUnits.get(u));
+                newGroup.setMaster(recordingUnits.get(u));
+                groupOfRoot[root] = synchronousGroupList.size();
+                firstUnitOfRoot[root] = u;
+                synchronousGroupList.add(newGroup);
+            }
+            SynchronousGroup group = synchronousGroupList.get(groupOfRoot[root]);
+            group.addUnit(recordingUnits.get(u));
+            enSynch[u] = firstUnitOfRoot[root]; // Indique la 1ère US de l'ensemble synchrone
+            if (GROUP_MASTER_STATUS.equals(saiUstatut[u])) {
+                group.setMaster(recordingUnits.get(u));
+            }
+            groupOfUnit[u] = groupOfRoot[root];
+        }
+
+        // Add units that are not in any group
+        for (int u = 0; u < n; u++) {
+            if (!inGroup[u]) {
+                SynchronousGroup singleUnitGroup = new SynchronousGroup();
+                singleUnitGroup.setId((long) synchronousGroupList.size());
+                singleUnitGroup.addUnit(recordingUnits.get(u));
+                singleUnitGroup.setMaster(recordingUnits.get(u)); // The unit itself is its own master
+                groupOfUnit[u] = synchronousGroupList.size();
+                synchronousGroupList.add(singleUnitGroup);
+            }
+        }
+
+        transferRelationshipsFromUnitsToGroup(index, groupOfUnit);
+    }
+
+    private void transferRelationshipsFromUnitsToGroup(Map<RecordingUnit, Integer> index, int[] groupOfUnit) {
+        // We iterate over each group to assign the relationships of its slaves to the group
+        for (SynchronousGroup group : synchronousGroupList) {
+            Set<Integer> targets = new HashSet<>();
+            for (RecordingUnit unit : group.getUnits()) {
+                for (StratigraphicRelationship rel : unit.getRelationshipsAsUnit1()) {
+                    // We will transfer asynchronous rel to the parent
+                    if (StratigraphicRelationshipService.ASYNCHRONOUS.equals(rel.getConcept())) {
+                        transferRelationshipToGroup(rel, group, index, groupOfUnit, targets);
+                    }
+                }
+            }
+        }
+    }
+
+    private void transferRelationshipToGroup(StratigraphicRelationship rel,
+                                             SynchronousGroup group,
+                                             Map<RecordingUnit, Integer> index,
+                                             int[] groupOfUnit,
+                                             Set<Integer> targets) {
+        Integer u2 = index.get(rel.getUnit2());
+        if (u2 == null) {
+            throw new StratigraphicUnitNotFoundInAnyGroup("Impossible to find unit2 in groups");
+        }
+        if (targets.add(groupOfUnit[u2])) {
+            StratigraphicRelationship newRel = new StratigraphicRelationship();
+            newRel.setUnit1(group);
+            newRel.setUnit2(synchronousGroupList.get(groupOfUnit[u2]));
+            newRel.setConcept(rel.getConcept());
+            group.getRelationshipsAsUnit1().add(newRel);
+        }
+    }
+
+}
@@ -3,11 +3,8 @@ package fr.siamois.utils.stratigraphy.stratifiant;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
 import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import fr.siamois.utils.stratigraphy.IncrementalStratigraphicClosure;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
 
@@ -18,73 +15,62 @@ public class Stratifiant {
     }
 
     // Load recording units and their relationship from a spreadsheet
+    // The spreadsheet is streamed (see StratifiantStreamingReader): only the units and relationships are kept in memory
     public static List<RecordingUnit> loadStratifiantDataFromSpreadsheet(String filename) throws IOException {
 
         ArrayList<RecordingUnit> units = new ArrayList<>();
 
-        try (FileInputStream file = new FileInputStream(filename)) {
-
-            //Create Workbook instance holding reference to .xlsx file
-            Map<String, RecordingUnit> indexMap;
-            boolean firstRow;
-            XSSFSheet sheetRel;
-            try (XSSFWorkbook workbook = new XSSFWorkbook(file)) {
-
-                // We start with the nodes
-                XSSFSheet sheetUS = workbook.getSheetAt(0);
-                int nodeIndex = 0;
-                indexMap = new HashMap<>();
+        StratifiantStreamingReader.read(filename, new StratifiantStreamingReader.Handler() {
+            @Override
+            public void unit(int index, String name) {
+                // New unit
+                RecordingUnit unit = new RecordingUnit();
+                unit.setId((long) index);
+                unit.setFullIdentifier(name);
+                units.add(unit);
+            }
 
-                firstRow = true;
-                for (Row row : sheetUS) {
-                    if (firstRow) {
-                        firstRow = false; // Skip the first row
-                        continue;
-                    }
-                    // New unit
-                    RecordingUnit unit = new RecordingUnit();
-                    unit.setId((long) nodeIndex);
-                    String nodeName = row.getCell(0).getStringCellValue();
-                    unit.setFullIdentifier(nodeName);
-                    indexMap.put(nodeName, unit);
-                    units.add(unit);
-                    nodeIndex++;
+            @Override
+            public void relationships(List<StratifiantStreamingReader.Relationship> batch) {
+                for (StratifiantStreamingReader.Relationship row : batch) {
+                    // New rel
+                    StratigraphicRelationship rel = new StratigraphicRelationship();
+                    rel.setUnit1(units.get(row.unit1()));
+                    rel.setUnit2(units.get(row.unit2()));
+                    rel.setConcept(row.concept());
+
+                    // Add the rel to the unit1
+                    rel.getUnit1().getRelationshipsAsUnit1().add(rel);
                 }
-
-                // Now we add the relationships
-                // Now we add edges
-                sheetRel = workbook.getSheetAt(1);
             }
+        }, StratifiantStreamingReader.DEFAULT_BATCH_SIZE);
 
-            firstRow = true;
-            for (Row row : sheetRel) {
-                if (firstRow) {
-                    firstRow = false; // Skip the first row
-                    continue;
-                }
-                // New rel
-                StratigraphicRelationship rel = new StratigraphicRelationship();
-                String ru1Name = String.valueOf(row.getCell(0).getStringCellValue());
-                String relType = String.valueOf(row.getCell(1).getStringCellValue());
-                String ru2Name = String.valueOf(row.getCell(2).getStringCellValue());
-                // find node RU1
-                rel.setUnit1(indexMap.get(ru1Name));
-                rel.setUnit2(indexMap.get(ru2Name));
-
-                if (Objects.equals(relType, "sous") || Objects.equals(relType, "peut-être sous")) {
-                    rel.setConcept(StratigraphicRelationshipService.ASYNCHRONOUS);
-                } else if (Objects.equals(relType, "synchrone avec") || Objects.equals(relType, "pt.être synchrone")) {
-                    rel.setConcept(StratigraphicRelationshipService.SYNCHRONOUS);
-                }
+        return units;
 
-                // Add the rel to the unit1
-                indexMap.get(ru1Name).getRelationshipsAsUnit1().add(rel);
-            }
+    }
 
-        }
+    // Load the stratigraphic closure of a spreadsheet, without creating any recording unit:
+    // the units are identified by their index in the spreadsheet, and each relationship is added to the closure as it is read
+    public static IncrementalStratigraphicClosure loadStratifiantClosureFromSpreadsheet(String filename) throws IOException {
 
+        IncrementalStratigraphicClosure.Builder closure = IncrementalStratigraphicClosure.builder();
 
-        return units;
+        StratifiantStreamingReader.read(filename, new StratifiantStreamingReader.Handler() {
+            @Override
+            public void unit(int index, String name) {
+                // Units only exist through their relationships
+            }
+
+            @Override
+            public void relationships(List<StratifiantStreamingReader.Relationship> batch) {
+                for (StratifiantStreamingReader.Relationship row : batch) {
+                    if (row.concept() != null) {
+                        closure.add(row.unit1(), row.unit2(), StratigraphicRelationshipService.SYNCHRONOUS.equals(row.concept()));
+                    }
+                }
+            }
+        }, StratifiantStreamingReader.DEFAULT_BATCH_SIZE);
 
+        return closure.build();
     }
 }
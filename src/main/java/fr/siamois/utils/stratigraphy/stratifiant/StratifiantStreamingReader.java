@@ -0,0 +1,216 @@
+package fr.siamois.utils.stratigraphy.stratifiant;
+
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a Stratifiant export ({@code .xlsx}) row by row with the XSSF event API, without building the workbook.
+ * <p>
+ * The first sheet lists the units (name in the first column), the second one the relationships
+ * ({@code unit1, type, unit2}). Both sheets have a header row. Units are given to the {@link Handler} as they are
+ * read, with their index in the sheet, and relationships are given by batches, with the indexes of their units.
+ * Only the names of the units are kept in memory during the read.
+ */
+public class StratifiantStreamingReader {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * A relationship of the spreadsheet, between the units of index {@code unit1} and {@code unit2}. The concept is
+     * null if the type is unknown.
+     */
+    public record Relationship(int unit1, int unit2, Concept concept) {
+    }
+
+    /**
+     * Receives the content of the spreadsheet while it is read.
+     */
+    public interface Handler {
+
+        void unit(int index, String name);
+
+        void relationships(List<Relationship> batch);
+    }
+
+    private StratifiantStreamingReader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static Concept conceptOf(String relType) {
+        return switch (relType) {
+            case "sous", "peut-être sous" -> StratigraphicRelationshipService.ASYNCHRONOUS;
+            case "synchrone avec", "pt.être synchrone" -> StratigraphicRelationshipService.SYNCHRONOUS;
+            default -> null;
+        };
+    }
+
+    /**
+     * Reads a Stratifiant spreadsheet.
+     *
+     * @param filename  the path of the {@code .xlsx} file
+     * @param handler   the handler receiving the units and relationships
+     * @param batchSize the number of relationships given to the handler at once
+     * @throws IOException if the file can't be read or is not a valid Stratifiant export
+     */
+    public static void read(String filename, Handler handler, int batchSize) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(filename, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+
+            Map<String, Integer> indexMap = new HashMap<>();
+            UnitSheetHandler unitSheet = new UnitSheetHandler(handler, indexMap);
+            RelationshipSheetHandler relationshipSheet = new RelationshipSheetHandler(handler, indexMap, batchSize);
+
+            parseSheet(nextSheet(sheets), styles, strings, unitSheet);
+            parseSheet(nextSheet(sheets), styles, strings, relationshipSheet);
+            relationshipSheet.flush();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Stratifiant spreadsheet " + filename, e);
+        }
+    }
+
+    private static InputStream nextSheet(Iterator<InputStream> sheets) throws IOException {
+        if (!sheets.hasNext()) {
+            throw new IOException("Missing sheet in Stratifiant spreadsheet");
+        }
+        return sheets.next();
+    }
+
+    private static void parseSheet(InputStream sheet, StylesTable styles, ReadOnlySharedStringsTable strings,
+                                   RowHandler rowHandler)
+            throws IOException, SAXException, ParserConfigurationException {
+        try (sheet) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, rowHandler, new DataFormatter(), false));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /**
+     * Collects the cells of a row, by column, and hands the row over once complete. The header row is skipped.
+     */
+    private abstract static class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final String[] cells;
+        private int currentRow;
+        private int nextColumn;
+
+        RowHandler(int columns) {
+            this.cells = new String[columns];
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = rowNum;
+            nextColumn = 0;
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            nextColumn = column + 1;
+            if (column < cells.length) {
+                cells[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum > 0) {
+                row(currentRow + 1, cells);
+            }
+        }
+
+        abstract void row(int lineNumber, String[] cells);
+    }
+
+    private static class UnitSheetHandler extends RowHandler {
+
+        private final Handler handler;
+        private final Map<String, Integer> indexMap;
+        private int unitCount = 0;
+
+        UnitSheetHandler(Handler handler, Map<String, Integer> indexMap) {
+            super(1);
+            this.handler = handler;
+            this.indexMap = indexMap;
+        }
+
+        @Override
+        void row(int lineNumber, String[] cells) {
+            if (cells[0] == null) {
+                return;
+            }
+            int index = unitCount++;
+            indexMap.put(cells[0], index);
+            handler.unit(index, cells[0]);
+        }
+    }
+
+    private static class RelationshipSheetHandler extends RowHandler {
+
+        private final Handler handler;
+        private final Map<String, Integer> indexMap;
+        private final int batchSize;
+        private List<Relationship> batch;
+
+        RelationshipSheetHandler(Handler handler, Map<String, Integer> indexMap, int batchSize) {
+            super(3);
+            this.handler = handler;
+            this.indexMap = indexMap;
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        void row(int lineNumber, String[] cells) {
+            if (cells[0] == null && cells[2] == null) {
+                return;
+            }
+            Integer unit1 = indexMap.get(cells[0]);
+            Integer unit2 = indexMap.get(cells[2]);
+            if (unit1 == null || unit2 == null) {
+                throw new IllegalStateException("[Relation strati ligne " + lineNumber + "] '" + cells[0] + " -> "
+                        + cells[2] + "' : Recording unit introuvable");
+            }
+            batch.add(new Relationship(unit1, unit2, conceptOf(String.valueOf(cells[1]))));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                handler.relationships(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+}
@@ -248,8 +248,11 @@ BEGIN
                                                                                            AND cr.fk_related_concept_id = c.concept_id)
                                                                                         )
                                        )
+                                   -- the input is searched as is: its wildcards and escape character are escaped
                                    AND (p_input IS NULL OR trim(p_input) = '' OR
-                                        unaccent(cl.label) ILIKE unaccent('%' || p_input || '%'))
+                                        unaccent(cl.label) ILIKE unaccent('%' || replace(replace(replace(p_input, '\', '\\'),
+                                                                                                     '%', '\%'),
+                                                                                             '_', '\_') || '%'))
                                  ORDER BY cl.label -- Sort by label in alphabetical order
                                  LIMIT p_limit)
         SELECT c.concept_id,
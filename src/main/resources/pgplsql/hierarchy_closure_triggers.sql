@@ -0,0 +1,219 @@
+-- Ancestor/descendant closure of the recording unit and spatial unit hierarchies, kept up to date by triggers on
+-- the edge tables, in the transaction that changes the edges.
+-- A unit may have several parents: a row counts the paths of a given depth between two units, so that removing an
+-- edge only removes the paths that went through it.
+CREATE TABLE IF NOT EXISTS recording_unit_closure (
+    fk_ancestor_id   BIGINT  NOT NULL REFERENCES recording_unit (recording_unit_id) ON DELETE CASCADE,
+    fk_descendant_id BIGINT  NOT NULL REFERENCES recording_unit (recording_unit_id) ON DELETE CASCADE,
+    depth            INTEGER NOT NULL,
+    paths            BIGINT  NOT NULL,
+    PRIMARY KEY (fk_ancestor_id, fk_descendant_id, depth)
+);
+
+CREATE INDEX IF NOT EXISTS idx_recording_unit_closure_descendant
+    ON recording_unit_closure (fk_descendant_id, fk_ancestor_id);
+
+CREATE TABLE IF NOT EXISTS spatial_unit_closure (
+    fk_ancestor_id   BIGINT  NOT NULL REFERENCES spatial_unit (spatial_unit_id) ON DELETE CASCADE,
+    fk_descendant_id BIGINT  NOT NULL REFERENCES spatial_unit (spatial_unit_id) ON DELETE CASCADE,
+    depth            INTEGER NOT NULL,
+    paths            BIGINT  NOT NULL,
+    PRIMARY KEY (fk_ancestor_id, fk_descendant_id, depth)
+);
+
+CREATE INDEX IF NOT EXISTS idx_spatial_unit_closure_descendant
+    ON spatial_unit_closure (fk_descendant_id, fk_ancestor_id);
+
+-- Locks the units whose paths an edge parent -> child adds or removes: the parent and its ancestors, the child and its
+-- descendants. Two transactions adding A -> B and B -> C would otherwise both miss A -> C; they now share B, while the
+-- edges of unrelated parts of the hierarchy are written concurrently. The units are read again once locked, as the
+-- transactions waited for may have linked new ones, until they are all locked.
+CREATE OR REPLACE FUNCTION lock_hierarchy_closure(p_closure TEXT, p_parent BIGINT, p_child BIGINT)
+    RETURNS VOID AS $$
+DECLARE
+    v_locked BIGINT[] := '{}';
+    v_units  BIGINT[];
+BEGIN
+    LOOP
+        EXECUTE format('
+            SELECT array_agg(DISTINCT u.id ORDER BY u.id) FROM (
+                SELECT fk_ancestor_id FROM %1$I WHERE fk_descendant_id = $1
+                UNION ALL SELECT $1
+                UNION ALL SELECT $2
+                UNION ALL SELECT fk_descendant_id FROM %1$I WHERE fk_ancestor_id = $2) u (id)', p_closure)
+            INTO v_units
+            USING p_parent, p_child;
+        EXIT WHEN v_units <@ v_locked;
+        -- In the order of the ids, so that two writers of overlapping parts wait for each other instead of deadlocking
+        PERFORM pg_advisory_xact_lock(hashtext(p_closure || ':' || u.id))
+        FROM unnest(v_units) AS u (id)
+        WHERE u.id <> ALL (v_locked)
+        ORDER BY u.id;
+        v_locked := v_locked || v_units;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger of an edge table (fk_parent_id, fk_child_id); TG_ARGV[0] is the closure table.
+CREATE OR REPLACE FUNCTION maintain_hierarchy_closure()
+    RETURNS TRIGGER AS $$
+DECLARE
+    v_closure TEXT := TG_ARGV[0];
+    v_cycle   BOOLEAN;
+    v_absent  BOOLEAN := FALSE;
+    -- Paths going through the edge $1 -> $2: from the parent or one of its ancestors to the child or one of its
+    -- descendants
+    v_paths TEXT := '
+        SELECT a.id AS ancestor, d.id AS descendant, a.depth + 1 + d.depth AS depth, SUM(a.paths * d.paths) AS paths
+        FROM (SELECT fk_ancestor_id AS id, depth, paths FROM %1$I WHERE fk_descendant_id = $1
+              UNION ALL SELECT $1, 0, 1) a
+        CROSS JOIN (SELECT fk_descendant_id AS id, depth, paths FROM %1$I WHERE fk_ancestor_id = $2
+                    UNION ALL SELECT $2, 0, 1) d
+        GROUP BY 1, 2, 3';
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        PERFORM lock_hierarchy_closure(v_closure, OLD.fk_parent_id, OLD.fk_child_id);
+        -- An edge of a cycle left out by the rebuild has no path in the closure: nothing to remove
+        EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %1$I WHERE fk_ancestor_id = $1 AND fk_descendant_id = $2 AND depth = 1)',
+                       v_closure)
+            INTO v_absent
+            USING OLD.fk_parent_id, OLD.fk_child_id;
+    END IF;
+
+    IF TG_OP IN ('DELETE', 'UPDATE') AND NOT v_absent THEN
+        EXECUTE format('DELETE FROM %1$I c USING (' || v_paths || ') p
+                        WHERE c.fk_ancestor_id = p.ancestor AND c.fk_descendant_id = p.descendant
+                          AND c.depth = p.depth AND c.paths <= p.paths', v_closure)
+            USING OLD.fk_parent_id, OLD.fk_child_id;
+        EXECUTE format('UPDATE %1$I c SET paths = c.paths - p.paths FROM (' || v_paths || ') p
+                        WHERE c.fk_ancestor_id = p.ancestor AND c.fk_descendant_id = p.descendant
+                          AND c.depth = p.depth', v_closure)
+            USING OLD.fk_parent_id, OLD.fk_child_id;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM lock_hierarchy_closure(v_closure, NEW.fk_parent_id, NEW.fk_child_id);
+        -- The closure of a hierarchy with a cycle would be infinite
+        EXECUTE format('SELECT $1 = $2 OR EXISTS (SELECT 1 FROM %1$I WHERE fk_ancestor_id = $2 AND fk_descendant_id = $1)',
+                       v_closure)
+            INTO v_cycle
+            USING NEW.fk_parent_id, NEW.fk_child_id;
+        IF v_cycle THEN
+            RAISE EXCEPTION 'Cycle in %: % is already a descendant of %', TG_TABLE_NAME, NEW.fk_parent_id, NEW.fk_child_id
+                USING ERRCODE = 'check_violation';
+        END IF;
+        EXECUTE format('INSERT INTO %1$I (fk_ancestor_id, fk_descendant_id, depth, paths)' || v_paths || '
+                        ON CONFLICT (fk_ancestor_id, fk_descendant_id, depth)
+                        DO UPDATE SET paths = %1$I.paths + EXCLUDED.paths', v_closure)
+            USING NEW.fk_parent_id, NEW.fk_child_id;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Fills a closure table from edges given as a query of (fk_parent_id, fk_child_id), one depth at a time. The rows of
+-- a depth are the rows of the previous depth extended by one edge, with their path counts summed per pair, so the work
+-- grows with the number of rows rather than with the number of paths. Stops and returns false as soon as a unit
+-- reaches itself, as the closure of a cycle would never end.
+CREATE OR REPLACE FUNCTION fill_hierarchy_closure(p_edges_query TEXT, p_closure TEXT)
+    RETURNS BOOLEAN AS $$
+DECLARE
+    v_depth INTEGER := 1;
+    v_rows  BIGINT;
+    v_cycle BOOLEAN;
+BEGIN
+    EXECUTE format('
+        INSERT INTO %2$I (fk_ancestor_id, fk_descendant_id, depth, paths)
+        SELECT h.fk_parent_id, h.fk_child_id, 1, COUNT(*) FROM (%1$s) h GROUP BY h.fk_parent_id, h.fk_child_id',
+                   p_edges_query, p_closure);
+    GET DIAGNOSTICS v_rows = ROW_COUNT;
+    WHILE v_rows > 0 LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE depth = $1 AND fk_ancestor_id = fk_descendant_id)',
+                       p_closure)
+            INTO v_cycle
+            USING v_depth;
+        IF v_cycle THEN
+            RETURN FALSE;
+        END IF;
+        EXECUTE format('
+            INSERT INTO %2$I (fk_ancestor_id, fk_descendant_id, depth, paths)
+            SELECT c.fk_ancestor_id, h.fk_child_id, $1 + 1, SUM(c.paths)
+            FROM %2$I c
+            JOIN (%1$s) h ON h.fk_parent_id = c.fk_descendant_id
+            WHERE c.depth = $1
+            GROUP BY c.fk_ancestor_id, h.fk_child_id', p_edges_query, p_closure)
+            USING v_depth;
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+        v_depth := v_depth + 1;
+    END LOOP;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- First start with the closure tables: fill them from the existing edges. Edges recorded before the cycles were
+-- rejected may form some; the edges of a cycle (whose child already reaches the parent) are then left out of the
+-- closure with a warning, so that the application still starts, and the closure is that of the other edges.
+CREATE OR REPLACE FUNCTION rebuild_hierarchy_closure(p_edges TEXT, p_closure TEXT)
+    RETURNS VOID AS $$
+DECLARE
+    v_parent BIGINT;
+    v_child  BIGINT;
+BEGIN
+    -- The edges can not change meanwhile
+    EXECUTE format('LOCK TABLE %I IN SHARE MODE', p_edges);
+    EXECUTE format('DELETE FROM %I', p_closure);
+    IF fill_hierarchy_closure(format('SELECT fk_parent_id, fk_child_id FROM %I', p_edges), p_closure) THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('DELETE FROM %I', p_closure);
+    CREATE TEMP TABLE IF NOT EXISTS hierarchy_cyclic_edge (fk_parent_id BIGINT, fk_child_id BIGINT) ON COMMIT DROP;
+    TRUNCATE hierarchy_cyclic_edge;
+    -- Which unit reaches which, without counting the paths: UNION stops on the pairs already found, cycles included
+    EXECUTE format('
+        INSERT INTO hierarchy_cyclic_edge (fk_parent_id, fk_child_id)
+        WITH RECURSIVE reach (ancestor, descendant) AS (
+            SELECT fk_parent_id, fk_child_id FROM %1$I
+            UNION
+            SELECT r.ancestor, h.fk_child_id FROM reach r JOIN %1$I h ON h.fk_parent_id = r.descendant
+        )
+        SELECT DISTINCT h.fk_parent_id, h.fk_child_id
+        FROM %1$I h
+        JOIN reach r ON r.ancestor = h.fk_child_id AND r.descendant = h.fk_parent_id', p_edges);
+    FOR v_parent, v_child IN SELECT fk_parent_id, fk_child_id FROM hierarchy_cyclic_edge ORDER BY 1, 2 LOOP
+        RAISE WARNING 'Cycle in %: edge % -> % left out of %', p_edges, v_parent, v_child, p_closure;
+    END LOOP;
+
+    IF NOT fill_hierarchy_closure(format('
+            SELECT fk_parent_id, fk_child_id FROM %I e
+            WHERE NOT EXISTS (SELECT 1 FROM hierarchy_cyclic_edge x
+                              WHERE x.fk_parent_id = e.fk_parent_id AND x.fk_child_id = e.fk_child_id)', p_edges),
+                                  p_closure) THEN
+        -- Not expected: every edge on a cycle has been left out
+        RAISE WARNING 'Closure % left empty, % still has a cycle', p_closure, p_edges;
+        EXECUTE format('DELETE FROM %I', p_closure);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM recording_unit_closure) THEN
+        PERFORM rebuild_hierarchy_closure('recording_unit_hierarchy', 'recording_unit_closure');
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM spatial_unit_closure) THEN
+        PERFORM rebuild_hierarchy_closure('spatial_hierarchy', 'spatial_unit_closure');
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE TRIGGER trg_recording_unit_hierarchy_closure
+    AFTER INSERT OR UPDATE OR DELETE ON public.recording_unit_hierarchy
+    FOR EACH ROW
+EXECUTE FUNCTION maintain_hierarchy_closure('recording_unit_closure');
+
+CREATE OR REPLACE TRIGGER trg_spatial_hierarchy_closure
+    AFTER INSERT OR UPDATE OR DELETE ON public.spatial_hierarchy
+    FOR EACH ROW
+EXECUTE FUNCTION maintain_hierarchy_closure('spatial_unit_closure');
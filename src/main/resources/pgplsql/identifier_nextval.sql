@@ -25,3 +25,33 @@ BEGIN
     RETURN v_allocated;
 END;
 $$ LANGUAGE plpgsql;
+
+-- Reserves p_count consecutive numbers in one statement and returns the first one
+CREATE OR REPLACE FUNCTION identifier_nextval_block(
+    p_action_unit_id BIGINT,
+    p_form_config_id BIGINT,
+    p_canonical_key TEXT,
+    p_min_code INTEGER,
+    p_count INTEGER
+) RETURNS INTEGER AS $$
+DECLARE
+    v_first INTEGER;
+BEGIN
+    INSERT INTO identifier_counter (
+        fk_action_unit_id,
+        fk_form_config_id,
+        canonical_key,
+        counter
+    ) VALUES (
+        p_action_unit_id,
+        p_form_config_id,
+        p_canonical_key,
+        p_min_code + p_count
+    )
+    ON CONFLICT (fk_action_unit_id, fk_form_config_id, canonical_key)
+    DO UPDATE SET counter = identifier_counter.counter + p_count
+    RETURNING counter - p_count INTO v_first;
+
+    RETURN v_first;
+END;
+$$ LANGUAGE plpgsql;
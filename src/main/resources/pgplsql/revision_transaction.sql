@@ -0,0 +1,25 @@
+-- Transaction that wrote each Envers revision, for the synchronization cursor of the mobile clients
+-- (SyncChangesOpenApiService). The revision numbers follow the order in which the transactions start, not the order
+-- in which they commit; the transactions older than the oldest one still running (pg_snapshot_xmin) are all finished,
+-- so the revisions written by a transaction below that watermark are all visible and no other one can appear.
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM information_schema.columns
+                       WHERE table_name = 'revinfo'
+                         AND column_name = 'transaction_id') THEN
+            ALTER TABLE revinfo ADD COLUMN transaction_id BIGINT;
+            -- The revisions written before are numbered in revision order: every transaction consumed its own
+            -- transaction id, so these numbers are below the id of any transaction still to come
+            UPDATE revinfo r
+            SET transaction_id = n.position
+            FROM (SELECT rev_id, row_number() OVER (ORDER BY rev_id) AS position FROM revinfo) n
+            WHERE n.rev_id = r.rev_id;
+            ALTER TABLE revinfo ALTER COLUMN transaction_id SET DEFAULT pg_current_xact_id()::TEXT::BIGINT;
+            ALTER TABLE revinfo ALTER COLUMN transaction_id SET NOT NULL;
+        END IF;
+    END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_revinfo_transaction_id ON revinfo (transaction_id);
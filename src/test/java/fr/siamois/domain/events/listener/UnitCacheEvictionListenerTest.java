@@ -0,0 +1,63 @@
+package fr.siamois.domain.events.listener;
+
+import fr.siamois.domain.models.events.UnitChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static fr.siamois.domain.events.listener.UnitCacheEvictionListener.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitCacheEvictionListenerTest {
+
+    private CacheManager cacheManager;
+    private UnitCacheEvictionListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        listener = new UnitCacheEvictionListener(cacheManager);
+        for (String name : new String[]{MY_ACTION_UNITS, ACTION_UNIT_HAS_CHILDREN_IN_INSTITUTION,
+                INSTITUTION_HAS_ROOT_CHILDREN_AU, SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU, INSTITUTION_HAS_ROOT_CHILDREN_SU,
+                PARENT_HAS_ROOT_CHILDREN_SU, INSTITUTION_HAS_ROOT_CHILDREN_RU, ACTION_HAS_ROOT_CHILDREN_RU}) {
+            cacheManager.getCache(name).put(1L, true);
+        }
+    }
+
+    private boolean cached(String name) {
+        return cacheManager.getCache(name).get(1L) != null;
+    }
+
+    @Test
+    void recordingUnitChange_clearsOnlyTheRecordingUnitCaches() {
+        listener.onUnitChange(new UnitChangeEvent(this, UnitChangeEvent.Kind.RECORDING_UNIT));
+
+        assertThat(cached(INSTITUTION_HAS_ROOT_CHILDREN_RU)).isFalse();
+        assertThat(cached(ACTION_HAS_ROOT_CHILDREN_RU)).isFalse();
+        assertThat(cached(INSTITUTION_HAS_ROOT_CHILDREN_SU)).isTrue();
+        assertThat(cached(MY_ACTION_UNITS)).isTrue();
+    }
+
+    @Test
+    void spatialUnitChange_clearsTheSpatialUnitCachesAndTheActionUnitsOfASpatialUnit() {
+        listener.onUnitChange(new UnitChangeEvent(this, UnitChangeEvent.Kind.SPATIAL_UNIT));
+
+        assertThat(cached(INSTITUTION_HAS_ROOT_CHILDREN_SU)).isFalse();
+        assertThat(cached(PARENT_HAS_ROOT_CHILDREN_SU)).isFalse();
+        assertThat(cached(SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU)).isFalse();
+        assertThat(cached(INSTITUTION_HAS_ROOT_CHILDREN_AU)).isTrue();
+        assertThat(cached(ACTION_HAS_ROOT_CHILDREN_RU)).isTrue();
+    }
+
+    @Test
+    void actionUnitChange_clearsTheActionUnitCaches() {
+        listener.onUnitChange(new UnitChangeEvent(this, UnitChangeEvent.Kind.ACTION_UNIT));
+
+        assertThat(cached(MY_ACTION_UNITS)).isFalse();
+        assertThat(cached(ACTION_UNIT_HAS_CHILDREN_IN_INSTITUTION)).isFalse();
+        assertThat(cached(INSTITUTION_HAS_ROOT_CHILDREN_AU)).isFalse();
+        assertThat(cached(SPATIAL_UNIT_HAS_ROOT_CHILDREN_AU)).isFalse();
+        assertThat(cached(PARENT_HAS_ROOT_CHILDREN_SU)).isTrue();
+    }
+}
@@ -1,6 +1,8 @@
 package fr.siamois.domain.services;
 
 
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.ValidationStatus;
 import fr.siamois.domain.models.actionunit.ActionCode;
@@ -77,6 +79,7 @@ class ActionUnitServiceTest {
     @Mock private ProfileService profileService;
     @Mock private PersonProfileAssignmentService personProfileAssignmentService;
     @Mock private ProfileMapper profileMapper;
+    @Mock private UnitChangeEventPublisher unitChangeEventPublisher;
     @InjectMocks
     private ActionUnitService actionUnitService;
 
@@ -661,6 +664,7 @@ class ActionUnitServiceTest {
         verify(spatialUnitRepository, never()).save(any(SpatialUnit.class));
         verify(spatialUnitRepository).findById(7L);
         assertSame(existingMainLoc, entity.getMainLocation());
+        verify(unitChangeEventPublisher, never()).publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
     }
 
     @Test
@@ -693,6 +697,9 @@ class ActionUnitServiceTest {
 
         verify(spatialUnitRepository).save(any(SpatialUnit.class));
         assertSame(savedLoc, entity.getMainLocation());
+        // the new place is a root spatial unit of the institution: its caches are evicted
+        verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
+        verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.ACTION_UNIT);
     }
 
     @Test
@@ -731,6 +738,7 @@ class ActionUnitServiceTest {
         verify(spatialUnitRepository).save(any(SpatialUnit.class));
         verify(spatialUnitRepository).findById(11L);
         assertEquals(2, entity.getSpatialContext().size());
+        verify(unitChangeEventPublisher, times(1)).publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
     }
 
     @Test
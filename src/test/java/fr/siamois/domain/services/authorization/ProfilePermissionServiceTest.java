@@ -2,6 +2,9 @@ package fr.siamois.domain.services.authorization;
 
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.permissions.PermissionConstants;
+import fr.siamois.domain.models.permissions.PermissionScopeType;
+import fr.siamois.domain.models.permissions.ProfileConstants;
+import fr.siamois.domain.services.permissions.PermissionSnapshotService;
 import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.dto.entity.ActionUnitSummaryDTO;
 import fr.siamois.dto.entity.InstitutionDTO;
@@ -11,10 +14,12 @@ import fr.siamois.infrastructure.database.repositories.permissions.PersonProfile
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -27,7 +32,6 @@ class ProfilePermissionServiceTest {
     @Mock
     private PersonProfileAssignmentRepository assignmentRepository;
 
-    @InjectMocks
     private ProfilePermissionService service;
 
     private PersonDTO person;
@@ -36,6 +40,7 @@ class ProfilePermissionServiceTest {
 
     @BeforeEach
     void setUp() {
+        service = new ProfilePermissionService(new PermissionSnapshotService(assignmentRepository, Duration.ofMinutes(5)));
         person = new PersonDTO();
         person.setId(1L);
         institution = new InstitutionDTO();
@@ -43,6 +48,15 @@ class ProfilePermissionServiceTest {
         userInfo = new UserInfo(institution, person, "fr");
     }
 
+    private static Object[] grant(String profileCode, PermissionScopeType scope, Long institutionId, Long actionUnitId,
+                                  String permissionCode) {
+        return new Object[]{profileCode, scope, institutionId, actionUnitId, permissionCode};
+    }
+
+    private void grants(Object[]... rows) {
+        when(assignmentRepository.findAllPermissionGrantsOfPerson(1L)).thenReturn(List.of(rows));
+    }
+
     @Test
     void hasInstancePermission_returnsFalse_whenPersonIsNull() {
         assertFalse(service.hasInstancePermission(null, CODE));
@@ -50,61 +64,69 @@ class ProfilePermissionServiceTest {
     }
 
     @Test
-    void hasInstancePermission_delegatesToRepository() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(true);
+    void hasInstancePermission_usesInstanceScopedProfiles() {
+        grants(grant("ADMIN", PermissionScopeType.INSTANCE, null, null, CODE));
 
         assertTrue(service.hasInstancePermission(person, CODE));
+        assertFalse(service.hasInstancePermission(person, PermissionConstants.ORGANIZATION_CREATE));
+    }
+
+    @Test
+    void isSuperAdmin_checksTheProfileCode() {
+        grants(grant(ProfileConstants.SUPERADMIN, PermissionScopeType.INSTANCE, null, null, null));
+
+        assertTrue(service.isSuperAdmin(person));
     }
 
     @Test
     void hasOrganizationPermission_returnsTrue_whenInstanceProfileGrantsIt() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(true);
+        grants(grant("ADMIN", PermissionScopeType.INSTANCE, null, null, CODE));
 
         assertTrue(service.hasOrganizationPermission(userInfo, CODE));
-        verify(assignmentRepository, never()).personHasPermissionInInstitution(anyLong(), anyLong(), anyString());
     }
 
     @Test
     void hasOrganizationPermission_checksInstitutionScopedProfiles() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, CODE)).thenReturn(true);
+        grants(grant("MEMBER", PermissionScopeType.ORGANISATION, 10L, null, CODE));
 
         assertTrue(service.hasOrganizationPermission(userInfo, CODE));
     }
 
+    @Test
+    void hasOrganizationPermission_ignoresProfilesOfOtherInstitutions() {
+        grants(grant("MEMBER", PermissionScopeType.ORGANISATION, 11L, null, CODE));
+
+        assertFalse(service.hasOrganizationPermission(userInfo, CODE));
+    }
+
     @Test
     void hasOrganizationPermission_returnsFalse_whenInstitutionIsNull() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(false);
+        grants(grant("MEMBER", PermissionScopeType.ORGANISATION, 10L, null, CODE));
 
         assertFalse(service.hasOrganizationPermission(person, null, CODE));
-        verify(assignmentRepository, never()).personHasPermissionInInstitution(anyLong(), anyLong(), anyString());
     }
 
     @Test
     void hasProjectPermission_returnsTrue_whenOrganizationProfileGrantsIt() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, CODE)).thenReturn(true);
+        grants(grant("MEMBER", PermissionScopeType.ORGANISATION, 10L, null, CODE));
 
         assertTrue(service.hasProjectPermission(userInfo, 5L, CODE));
-        verify(assignmentRepository, never()).personHasPermissionInActionUnit(anyLong(), anyLong(), anyString());
     }
 
     @Test
     void hasProjectPermission_checksActionUnitScopedProfiles() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, CODE)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInActionUnit(1L, 5L, CODE)).thenReturn(true);
+        grants(grant("PROJECT_MEMBER", PermissionScopeType.PROJECT, 10L, 5L, CODE));
 
         assertTrue(service.hasProjectPermission(userInfo, 5L, CODE));
+        assertFalse(service.hasProjectPermission(userInfo, 6L, CODE));
+        assertFalse(service.hasOrganizationPermission(userInfo, CODE));
     }
 
     @Test
     void hasProjectPermission_returnsFalse_whenActionUnitIdIsNull() {
-        when(assignmentRepository.personHasInstancePermission(1L, CODE)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, CODE)).thenReturn(false);
+        grants(grant("PROJECT_MEMBER", PermissionScopeType.PROJECT, 10L, 5L, CODE));
 
         assertFalse(service.hasProjectPermission(userInfo, null, CODE));
-        verify(assignmentRepository, never()).personHasPermissionInActionUnit(anyLong(), anyLong(), anyString());
     }
 
     @Test
@@ -114,9 +136,7 @@ class ProfilePermissionServiceTest {
         RecordingUnitDTO recordingUnit = new RecordingUnitDTO();
         recordingUnit.setActionUnit(actionUnit);
 
-        when(assignmentRepository.personHasInstancePermission(1L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInActionUnit(1L, 5L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS)).thenReturn(true);
+        grants(grant("PROJECT_MEMBER", PermissionScopeType.PROJECT, 10L, 5L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS));
 
         assertTrue(service.hasRecordingUnitWritePermission(userInfo, recordingUnit));
     }
@@ -125,10 +145,34 @@ class ProfilePermissionServiceTest {
     void hasRecordingUnitWritePermission_returnsFalse_whenRecordingUnitHasNoActionUnitAndNoWiderGrant() {
         RecordingUnitDTO recordingUnit = new RecordingUnitDTO();
 
-        when(assignmentRepository.personHasInstancePermission(1L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS)).thenReturn(false);
-        when(assignmentRepository.personHasPermissionInInstitution(1L, 10L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS)).thenReturn(false);
+        grants(grant("PROJECT_MEMBER", PermissionScopeType.PROJECT, 10L, 5L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS));
 
         assertFalse(service.hasRecordingUnitWritePermission(userInfo, recordingUnit));
-        verify(assignmentRepository, never()).personHasPermissionInActionUnit(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void canViewProject_acceptsAnyProfileOnTheActionUnit() {
+        grants(grant("PROJECT_READER", PermissionScopeType.PROJECT, 10L, 5L, null));
+
+        assertTrue(service.canViewProject(person, institution, 5L));
+        assertFalse(service.canViewProject(person, institution, 6L));
+        assertFalse(service.canViewInstitutionData(person, institution));
+    }
+
+    @Test
+    void checks_ofManyRows_loadTheAssignmentsOnce() {
+        grants(grant("PROJECT_MEMBER", PermissionScopeType.PROJECT, 10L, 5L, PermissionConstants.PROJECT_EDIT_RECORDING_UNITS));
+        ActionUnitSummaryDTO actionUnit = new ActionUnitSummaryDTO();
+        actionUnit.setId(5L);
+
+        for (int row = 0; row < 100; row++) {
+            RecordingUnitDTO recordingUnit = new RecordingUnitDTO();
+            recordingUnit.setActionUnit(actionUnit);
+            recordingUnit.setCreatedByInstitution(institution);
+            assertTrue(service.hasRecordingUnitWritePermission(userInfo, recordingUnit));
+            assertTrue(service.canViewRecordingUnit(person, recordingUnit));
+        }
+
+        verify(assignmentRepository, times(1)).findAllPermissionGrantsOfPerson(1L);
     }
 }
@@ -0,0 +1,151 @@
+package fr.siamois.domain.services.dataimport;
+
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
+import fr.siamois.domain.models.events.UnitChangeEvent;
+import fr.siamois.domain.models.misc.ImportProgress;
+import fr.siamois.domain.services.vocabulary.ConceptService;
+import fr.siamois.dto.entity.ActionUnitDTO;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.infrastructure.database.initializer.seeder.ImportSpecs;
+import fr.siamois.infrastructure.database.initializer.seeder.ProjectDataSeeder;
+import fr.siamois.infrastructure.database.initializer.seeder.SeedException;
+import fr.siamois.infrastructure.dataimport.ImportResult;
+import fr.siamois.infrastructure.dataimport.ImportSchema;
+import fr.siamois.infrastructure.dataimport.OOXMLImportService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ImportAsyncRunnerTest {
+
+    @Mock
+    private ConceptService conceptService;
+
+    @Mock
+    private ProjectDataSeeder seeder;
+
+    @Mock
+    private UnitChangeEventPublisher unitChangeEventPublisher;
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private ImportAsyncRunner runner;
+    private ActionUnitDTO project;
+
+    @BeforeEach
+    void setUp() {
+        runner = new ImportAsyncRunner(new OOXMLImportService(conceptService, Runnable::run), seeder, workers, unitChangeEventPublisher);
+        InstitutionDTO institution = new InstitutionDTO();
+        institution.setId(1L);
+        institution.setIdentifier("INST");
+        project = new ActionUnitDTO();
+        project.setFullIdentifier("AU-001");
+        project.setCreatedByInstitution(institution);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    private Path projectFile(int spatialUnits) throws Exception {
+        Workbook wb = new XSSFWorkbook();
+        Sheet spatial = wb.createSheet("Unité spatiale");
+        spatial.createRow(0).createCell(0).setCellValue("Nom");
+        for (int r = 1; r <= spatialUnits; r++) {
+            spatial.createRow(r).createCell(0).setCellValue("US " + r);
+        }
+        Sheet rels = wb.createSheet("UE_rel");
+        Row header = rels.createRow(0);
+        header.createCell(0).setCellValue("Parent");
+        header.createCell(1).setCellValue("Enfant");
+        Row rel = rels.createRow(1);
+        rel.createCell(0).setCellValue("100");
+        rel.createCell(1).setCellValue("101");
+
+        Path file = tempDir.resolve("project.xlsx");
+        try (OutputStream os = Files.newOutputStream(file)) {
+            wb.write(os);
+        }
+        wb.close();
+        return file;
+    }
+
+    private static String tableOf(ImportSpecs chunk) {
+        return ImportResult.countSpecs(chunk).entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(e -> e.getKey() + ":" + e.getValue())
+                .findFirst().orElse("empty");
+    }
+
+    @Test
+    void persistAsync_seedsEveryChunkAndCountsCommittedRows() throws Exception {
+        Path file = projectFile(1200);
+        List<String> seeded = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> seeded.add(tableOf(inv.getArgument(0))))
+                .when(seeder).seedChunk(any(ImportSpecs.class), eq(project));
+        ImportProgress progress = new ImportProgress();
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        runner.persistAsync(file, project, progress, () -> { }, error::set);
+
+        assertThat(error.get()).isNull();
+        assertThat(progress.getPhase()).isEqualTo(ImportProgress.Phase.DONE);
+        assertThat(progress.getCurrent()).isEqualTo(progress.getTotal()).isEqualTo(1201);
+        assertThat(seeded).containsSubsequence(
+                ImportSchema.SPATIAL_UNIT + ":500", ImportSchema.SPATIAL_UNIT + ":500", ImportSchema.SPATIAL_UNIT + ":200");
+        assertThat(seeded).contains(ImportSchema.RECORDING_REL + ":1");
+        verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
+    }
+
+    @Test
+    void persistAsync_failedChunk_skipsTheTableAndItsDependentsAndReportsTheError() throws Exception {
+        Path file = projectFile(1200);
+        SeedException failure = new SeedException(ImportSchema.SPATIAL_UNIT, "duplicate", null);
+        List<String> attempted = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            ImportSpecs chunk = inv.getArgument(0);
+            attempted.add(tableOf(chunk));
+            if (!chunk.spatialUnits().isEmpty()) throw failure;
+            return null;
+        }).when(seeder).seedChunk(any(ImportSpecs.class), eq(project));
+        ImportProgress progress = new ImportProgress();
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        runner.persistAsync(file, project, progress, () -> { }, error::set);
+
+        assertThat(error.get()).isSameAs(failure);
+        assertThat(progress.getPhase()).isEqualTo(ImportProgress.Phase.ERROR);
+        // the later spatial unit chunks and the spatial unit relations (second reading of the sheet) are skipped
+        assertThat(attempted).containsOnlyOnce(ImportSchema.SPATIAL_UNIT + ":500")
+                .doesNotContain(ImportSchema.SPATIAL_UNIT + ":200", "empty");
+        // the units of the committed chunks are visible
+        verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
+    }
+}
@@ -0,0 +1,169 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.domain.models.UserInfo;
+import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.models.document.Document;
+import fr.siamois.domain.models.institution.Institution;
+import fr.siamois.domain.services.document.compressor.BrowserDisplayableCompressor;
+import fr.siamois.domain.services.document.compressor.OtherCompressor;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.infrastructure.database.repositories.DocumentBlobRepository;
+import fr.siamois.infrastructure.database.repositories.DocumentRepository;
+import fr.siamois.infrastructure.files.DocumentStorage;
+import fr.siamois.mapper.InstitutionMapper;
+import fr.siamois.mapper.PersonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Deletion of the last document of a blob while an identical file is uploaded, each in its own thread and
+ * transaction. The blob repository counts the references in memory and locks the blobs until the end of the
+ * transaction of the thread, as the database does.
+ */
+class DocumentBlobConcurrencyTest {
+
+    private static final byte[] CONTENT = "identical content".getBytes();
+
+    @TempDir
+    Path documentsPath;
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentBlobRepository documentBlobRepository = mock(DocumentBlobRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final Map<String, Long> references = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<ReentrantLock>> held = ThreadLocal.withInitial(ArrayList::new);
+
+    private DocumentStorage documentStorage;
+    private DocumentService documentService;
+
+    @BeforeEach
+    void setUp() {
+        documentStorage = new DocumentStorage(List.of(new BrowserDisplayableCompressor(), new OtherCompressor()));
+        ReflectionTestUtils.setField(documentStorage, "documentsPath", documentsPath.toString());
+        ReflectionTestUtils.setField(documentStorage, "mimeTypes", new String[]{"*/*"});
+        ReflectionTestUtils.setField(documentStorage, "maxUploadSize", "10MB");
+
+        PersonMapper personMapper = mock(PersonMapper.class);
+        InstitutionMapper institutionMapper = mock(InstitutionMapper.class);
+        when(personMapper.invertConvert(any(PersonDTO.class))).thenReturn(new Person());
+        when(institutionMapper.invertConvert(any(InstitutionDTO.class))).thenReturn(new Institution());
+        when(documentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(documentBlobRepository.lock(anyString())).thenAnswer(invocation -> {
+            ReentrantLock lock = locks.computeIfAbsent(invocation.getArgument(0), key -> new ReentrantLock(true));
+            lock.lock();
+            held.get().add(lock);
+            return 1;
+        });
+        doAnswer(invocation -> references.merge(invocation.getArgument(0), 1L, Long::sum))
+                .when(documentBlobRepository).acquire(anyString());
+        doAnswer(invocation -> references.merge(invocation.getArgument(0), -1L, Long::sum))
+                .when(documentBlobRepository).release(anyString());
+        when(documentBlobRepository.deleteIfUnreferenced(anyString()))
+                .thenAnswer(invocation -> references.remove(invocation.getArgument(0), 0L) ? 1 : 0);
+        when(documentBlobRepository.existsById(anyString()))
+                .thenAnswer(invocation -> references.containsKey(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> releaseLocks()).when(transactionManager).commit(any());
+
+        documentService = new DocumentService(documentRepository, personMapper, institutionMapper, documentStorage,
+                List.of(), documentBlobRepository, mock(DocumentDerivativeRunner.class), transactionManager);
+    }
+
+    private Object releaseLocks() {
+        held.get().forEach(ReentrantLock::unlock);
+        held.get().clear();
+        return null;
+    }
+
+    private <T> T inTransaction(Callable<T> work) throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        T result;
+        List<TransactionSynchronization> synchronizations;
+        try {
+            result = work.call();
+        } finally {
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            releaseLocks();
+        }
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        return result;
+    }
+
+    private Document upload() throws Exception {
+        UserInfo userInfo = new UserInfo(new InstitutionDTO(), new PersonDTO(), "fr");
+        userInfo.getInstitution().setId(1L);
+        Document document = new Document();
+        document.setMimeType("image/png");
+        document.setFileName("photo.png");
+        document.setSize((long) CONTENT.length);
+        return documentService.saveFile(userInfo, document, new ByteArrayInputStream(CONTENT), "/ctx");
+    }
+
+    private Path blobFile(Document document) {
+        String key = document.getStoredFileName();
+        return documentsPath.resolve("blobs").resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    @Test
+    void deleteDocument_identicalUploadRunningMeanwhile_keepsTheBlobFile() throws Exception {
+        Document existing = inTransaction(this::upload);
+        existing.setId(1L);
+        String blobKey = existing.getStoredFileName();
+        ReentrantLock blobLock = locks.get(blobKey);
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch released = new CountDownLatch(1);
+            CountDownLatch uploadWaiting = new CountDownLatch(1);
+            Future<?> deletion = threads.submit(() -> inTransaction(() -> {
+                documentService.deleteDocument(existing);
+                released.countDown();
+                // commits once the upload, which found the file still there, waits for the blob
+                assertTrue(uploadWaiting.await(10, TimeUnit.SECONDS));
+                return null;
+            }));
+            Future<Document> upload = threads.submit(() -> {
+                assertTrue(released.await(10, TimeUnit.SECONDS));
+                assertTrue(Files.exists(blobFile(existing)));
+                return inTransaction(this::upload);
+            });
+            while (!blobLock.hasQueuedThreads()) {
+                Thread.onSpinWait();
+            }
+            uploadWaiting.countDown();
+
+            deletion.get(10, TimeUnit.SECONDS);
+            Document uploaded = upload.get(10, TimeUnit.SECONDS);
+
+            assertEquals(blobKey, uploaded.getStoredFileName());
+            assertEquals(1L, references.get(blobKey));
+            assertTrue(Files.exists(blobFile(uploaded)));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.infrastructure.database.repositories.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentDeduplicationJobTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DocumentDeduplicationJob job;
+
+    @Test
+    void deduplicateStoredDocuments_walksPagesAndSkipsFailures() throws IOException {
+        List<Long> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            firstPage.add(id);
+        }
+        when(documentRepository.tryLockDeduplication()).thenReturn(true);
+        when(documentRepository.findIdsWithoutSha256SumAfter(0L, PageRequest.of(0, 100))).thenReturn(firstPage);
+        when(documentRepository.findIdsWithoutSha256SumAfter(100L, PageRequest.of(0, 100))).thenReturn(List.of(150L));
+        when(documentService.moveToBlobStore(anyLong())).thenReturn(true);
+        when(documentService.moveToBlobStore(5L)).thenThrow(new IOException("disk error"));
+
+        job.deduplicateStoredDocuments();
+
+        verify(documentService, times(101)).moveToBlobStore(anyLong());
+        verify(documentService).moveToBlobStore(150L);
+        verify(documentRepository, never()).findIdsWithoutSha256SumAfter(eq(150L), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void deduplicateStoredDocuments_runningOnAnotherInstance_doesNothing() {
+        when(documentRepository.tryLockDeduplication()).thenReturn(false);
+
+        job.deduplicateStoredDocuments();
+
+        verify(documentRepository, never()).findIdsWithoutSha256SumAfter(anyLong(), any());
+        verifyNoInteractions(documentService);
+    }
+}
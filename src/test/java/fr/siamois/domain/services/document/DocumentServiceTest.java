@@ -8,6 +8,7 @@ import fr.siamois.domain.models.exceptions.InvalidFileTypeException;
 import fr.siamois.domain.models.institution.Institution;
 import fr.siamois.domain.services.document.compressor.FileCompressor;
 import fr.siamois.dto.entity.*;
+import fr.siamois.infrastructure.database.repositories.DocumentBlobRepository;
 import fr.siamois.infrastructure.database.repositories.DocumentRepository;
 import fr.siamois.infrastructure.files.DocumentStorage;
 import fr.siamois.mapper.InstitutionMapper;
@@ -17,18 +18,24 @@ import org.apache.tomcat.util.http.fileupload.InvalidFileNameException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.MimeType;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -51,6 +58,15 @@ class DocumentServiceTest {
     @Mock
     private InstitutionMapper institutionMapper;
 
+    @Mock
+    private DocumentBlobRepository documentBlobRepository;
+
+    @Mock
+    private DocumentDerivativeRunner documentDerivativeRunner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -58,7 +74,7 @@ class DocumentServiceTest {
 
     @BeforeEach
     void setUp() {
-        documentService = new DocumentService(documentRepository, personMapper, institutionMapper, documentStorage, List.of(fileCompressor));
+        documentService = new DocumentService(documentRepository, personMapper, institutionMapper, documentStorage, List.of(fileCompressor), documentBlobRepository, documentDerivativeRunner, transactionManager);
     }
 
     @Test
@@ -120,11 +136,57 @@ class DocumentServiceTest {
         when(documentStorage.supportedMimeTypes()).thenReturn(mimeTypes);
         when(documentStorage.getMaxUploadSize()).thenReturn("10MB");
 
+        doAnswer(invocation -> {
+            invocation.getArgument(1, InputStream.class).readAllBytes();
+            invocation.getArgument(0, Document.class).setStoredFileName("blobkey.pdf");
+            invocation.<Consumer<String>>getArgument(2).accept("blobkey.pdf");
+            return null;
+        }).when(documentStorage).save(any(), any(), any());
+
         Document result = documentService.saveFile(userInfo, document, inputStream, "/context");
 
         assertNotNull(result);
         assertEquals(document, result);
+        assertEquals("eb733a00c0c9d336e65691a37ab54293", result.getMd5Sum()); // MD5 of "test data"
+        InOrder blob = inOrder(documentBlobRepository);
+        blob.verify(documentBlobRepository).lock("blobkey.pdf");
+        blob.verify(documentBlobRepository).acquire("blobkey.pdf");
         verify(documentRepository, times(1)).save(document);
+        verify(documentDerivativeRunner).generateAsync(document);
+    }
+
+    @Test
+    void saveFile_rolledBack_deletesTheBlobUnlessReferenced() throws Exception {
+        UserInfo userInfo = new UserInfo(new InstitutionDTO(), new PersonDTO(), "fr");
+        userInfo.getInstitution().setId(1L);
+        Document document = new Document();
+        document.setMimeType("application/pdf");
+        document.setFileName("test.pdf");
+        document.setSize(1024L);
+
+        when(personMapper.invertConvert(any(PersonDTO.class))).thenReturn(new Person());
+        when(institutionMapper.invertConvert(any(InstitutionDTO.class))).thenReturn(new Institution());
+        when(documentRepository.save(document)).thenReturn(document);
+        when(documentStorage.supportedMimeTypes()).thenReturn(mimeTypes);
+        when(documentStorage.getMaxUploadSize()).thenReturn("10MB");
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Document.class).setStoredFileName("blobkey.pdf");
+            invocation.<Consumer<String>>getArgument(2).accept("blobkey.pdf");
+            return null;
+        }).when(documentStorage).save(any(), any(), any());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            documentService.saveFile(userInfo, document, new ByteArrayInputStream("test data".getBytes()), "/context");
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(documentBlobRepository, times(2)).lock("blobkey.pdf");
+        verify(documentStorage).deleteBlob("blobkey.pdf");
+        verify(documentDerivativeRunner, never()).generateAsync(any());
     }
 
     @Test
@@ -200,7 +262,7 @@ class DocumentServiceTest {
     void findInputStreamOfDocument() throws IOException {
         Document document = new Document();
         byte[] data = "test data".getBytes();
-        when(documentStorage.findStreamOf(document)).thenReturn(Optional.of(data));
+        when(documentStorage.findStreamOf(document)).thenReturn(Optional.of(new ByteArrayInputStream(data)));
 
         Optional<InputStream> result = documentService.findInputStreamOfDocument(document);
 
@@ -475,6 +537,99 @@ class DocumentServiceTest {
         verify(documentRepository).delete(document);
     }
 
+    @Test
+    void deleteDocument_lastReferenceToBlob_deletesBlob() {
+        Document document = new Document();
+        document.setId(13L);
+        document.setSha256Sum("ab12");
+        document.setStoredFileName("ab12.gzip");
+        when(documentBlobRepository.deleteIfUnreferenced("ab12.gzip")).thenReturn(1);
+
+        documentService.deleteDocument(document);
+
+        InOrder blob = inOrder(documentBlobRepository, documentStorage);
+        blob.verify(documentBlobRepository).lock("ab12.gzip");
+        blob.verify(documentBlobRepository).release("ab12.gzip");
+        // the file is deleted under the lock, in a transaction of its own
+        blob.verify(documentBlobRepository).lock("ab12.gzip");
+        blob.verify(documentBlobRepository).existsById("ab12.gzip");
+        blob.verify(documentStorage).deleteBlob("ab12.gzip");
+        verify(documentStorage, never()).deleteStoredFile(any());
+        verify(documentRepository).delete(document);
+    }
+
+    @Test
+    void deleteDocument_sharedBlob_keepsBlob() {
+        Document document = new Document();
+        document.setId(14L);
+        document.setSha256Sum("ab12");
+        document.setStoredFileName("ab12.gzip");
+        when(documentBlobRepository.deleteIfUnreferenced("ab12.gzip")).thenReturn(0);
+
+        documentService.deleteDocument(document);
+
+        verify(documentBlobRepository).release("ab12.gzip");
+        verify(documentStorage, never()).deleteBlob(any());
+        verify(documentRepository).delete(document);
+    }
+
+    private Document legacyDocument() {
+        Document document = new Document();
+        document.setId(7L);
+        document.setStoredFileName("CODE1.gzip");
+        when(documentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(document));
+        return document;
+    }
+
+    @Test
+    void moveToBlobStore_legacyFile_acquiresBlobAndDeletesLegacyFile() throws IOException {
+        Document document = legacyDocument();
+        Path legacyFile = Path.of("3", "CODE1.gzip");
+        when(documentStorage.copyToBlobStore(eq(document), any())).thenAnswer(invocation -> {
+            document.setSha256Sum("ab12");
+            document.setStoredFileName("ab12.gzip");
+            invocation.<Consumer<String>>getArgument(1).accept("ab12.gzip");
+            return Optional.of(legacyFile);
+        });
+
+        assertTrue(documentService.moveToBlobStore(7L));
+
+        verify(documentBlobRepository).acquire("ab12.gzip");
+        verify(documentRepository).save(document);
+        verify(documentStorage).deleteLegacyFile(legacyFile);
+    }
+
+    @Test
+    void moveToBlobStore_missingFile_returnsFalse() throws IOException {
+        Document document = legacyDocument();
+        when(documentStorage.copyToBlobStore(eq(document), any())).thenReturn(Optional.empty());
+
+        assertFalse(documentService.moveToBlobStore(7L));
+
+        verifyNoInteractions(documentBlobRepository);
+        verify(documentRepository, never()).save(any());
+    }
+
+    @Test
+    void moveToBlobStore_alreadyMoved_leavesTheDocument() throws IOException {
+        legacyDocument().setSha256Sum("ab12");
+
+        assertFalse(documentService.moveToBlobStore(7L));
+
+        verify(documentStorage, never()).copyToBlobStore(any(), any());
+        verify(documentRepository, never()).save(any());
+    }
+
+    @Test
+    void moveToBlobStore_deletedMeanwhile_returnsFalse() throws IOException {
+        when(documentRepository.findByIdForUpdate(7L)).thenReturn(Optional.empty());
+
+        assertFalse(documentService.moveToBlobStore(7L));
+
+        verify(documentStorage, never()).copyToBlobStore(any(), any());
+        verifyNoInteractions(documentBlobRepository);
+    }
+
     @Test
     void deleteDocument_nullId_throws() {
         Document document = new Document();
@@ -0,0 +1,120 @@
+package fr.siamois.domain.services.document;
+
+import fr.siamois.domain.models.document.Document;
+import fr.siamois.domain.models.institution.Institution;
+import fr.siamois.domain.services.document.compressor.BrowserDisplayableCompressor;
+import fr.siamois.domain.services.document.compressor.OtherCompressor;
+import fr.siamois.infrastructure.files.DocumentStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentThumbnailServiceTest {
+
+    private static final Consumer<String> NOT_LOCKED = blobKey -> {
+    };
+
+    @TempDir
+    Path documentsPath;
+
+    private DocumentStorage documentStorage;
+    private DocumentThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        documentStorage = new DocumentStorage(List.of(new BrowserDisplayableCompressor(), new OtherCompressor()));
+        ReflectionTestUtils.setField(documentStorage, "documentsPath", documentsPath.toString());
+        thumbnailService = new DocumentThumbnailService(documentStorage);
+    }
+
+    private Document savedDocument(String fileName, String mimeType, byte[] content) throws IOException {
+        Document document = new Document();
+        document.setFileCode("CODE1");
+        document.setFileName(fileName);
+        document.setMimeType(mimeType);
+        Institution institution = new Institution();
+        institution.setId(3L);
+        document.setCreatedByInstitution(institution);
+        documentStorage.save(document, new ByteArrayInputStream(content), NOT_LOCKED);
+        return document;
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8 | 0xff000000);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void thumbnailSize_roundsUpToGeneratedSize() {
+        assertEquals(128, DocumentThumbnailService.thumbnailSize(50));
+        assertEquals(128, DocumentThumbnailService.thumbnailSize(128));
+        assertEquals(512, DocumentThumbnailService.thumbnailSize(200));
+        assertEquals(512, DocumentThumbnailService.thumbnailSize(4000));
+    }
+
+    @Test
+    void generateThumbnails_image_writesEverySizeKeepingRatio() throws IOException {
+        Document document = savedDocument("photo.png", "image/png", png(2400, 1200));
+
+        thumbnailService.generateThumbnails(document);
+
+        BufferedImage small = ImageIO.read(documentStorage.findThumbnail(document, 128).orElseThrow());
+        BufferedImage large = ImageIO.read(documentStorage.findThumbnail(document, 512).orElseThrow());
+        assertEquals(128, small.getWidth());
+        assertEquals(64, small.getHeight());
+        assertEquals(512, large.getWidth());
+        assertEquals(256, large.getHeight());
+    }
+
+    @Test
+    void findThumbnail_smallImage_notEnlarged() throws IOException {
+        Document document = savedDocument("icon.png", "image/png", png(40, 20));
+
+        Optional<File> thumbnail = thumbnailService.findThumbnail(document, 512);
+
+        assertTrue(thumbnail.isPresent());
+        BufferedImage image = ImageIO.read(thumbnail.get());
+        assertEquals(40, image.getWidth());
+        assertEquals(20, image.getHeight());
+    }
+
+    @Test
+    void findThumbnail_pdf_empty() throws IOException {
+        Document document = savedDocument("report.pdf", "application/pdf", "%PDF-1.4".getBytes());
+
+        assertFalse(thumbnailService.supportsThumbnail(document));
+        assertTrue(thumbnailService.findThumbnail(document, 128).isEmpty());
+    }
+
+    @Test
+    void deleteBlob_deletesThumbnails() throws IOException {
+        Document document = savedDocument("photo.png", "image/png", png(300, 300));
+        thumbnailService.generateThumbnails(document);
+
+        documentStorage.deleteBlob(document.getStoredFileName());
+
+        assertTrue(documentStorage.findThumbnail(document, 128).isEmpty());
+        assertTrue(documentStorage.findThumbnail(document, 512).isEmpty());
+    }
+}
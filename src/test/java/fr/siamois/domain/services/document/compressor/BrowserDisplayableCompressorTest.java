@@ -3,11 +3,14 @@ package fr.siamois.domain.services.document.compressor;
 import fr.siamois.domain.models.document.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.util.MimeType;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +18,9 @@ class BrowserDisplayableCompressorTest {
 
     private BrowserDisplayableCompressor compressor;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         compressor = new BrowserDisplayableCompressor();
@@ -31,8 +37,12 @@ class BrowserDisplayableCompressorTest {
     void testCompress() throws IOException {
         String data = "test data";
         InputStream inputStream = new ByteArrayInputStream(data.getBytes());
-        byte[] compressedData = compressor.compress(inputStream);
-        assertArrayEquals(data.getBytes(), compressedData);
+        Path target = tempDir.resolve("stored");
+        Files.writeString(target, "previous content");
+
+        compressor.compress(inputStream, target);
+
+        assertArrayEquals(data.getBytes(), Files.readAllBytes(target));
     }
 
     @Test
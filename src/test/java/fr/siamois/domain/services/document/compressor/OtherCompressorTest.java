@@ -3,11 +3,15 @@ package fr.siamois.domain.services.document.compressor;
 import fr.siamois.domain.models.document.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.util.MimeType;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +19,9 @@ class OtherCompressorTest {
 
     private OtherCompressor compressor;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         compressor = new OtherCompressor();
@@ -30,9 +37,14 @@ class OtherCompressorTest {
     void testCompress() throws IOException {
         String data = "test data";
         InputStream inputStream = new ByteArrayInputStream(data.getBytes());
-        byte[] compressedData = compressor.compress(inputStream);
-        assertNotNull(compressedData);
-        assertTrue(compressedData.length > 0);
+        Path target = tempDir.resolve("stored");
+        Files.writeString(target, "previous content");
+
+        compressor.compress(inputStream, target);
+
+        try (InputStream stored = new GZIPInputStream(Files.newInputStream(target))) {
+            assertArrayEquals(data.getBytes(), stored.readAllBytes());
+        }
     }
 
     @Test
@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.form;
 
+import fr.siamois.domain.models.events.FormConfigChangeEvent;
 import fr.siamois.domain.models.form.customfield.basetypes.CustomFieldText;
 import fr.siamois.domain.models.settings.tableconfig.ConfigurableTable;
 import fr.siamois.domain.models.settings.tableconfig.TypeFieldFormConfig;
@@ -18,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -108,6 +111,57 @@ class EffectiveFormResolverTest {
         verify(tableFieldConfigService).getActiveAdditionalFields(PROJECT_ID, ConfigurableTable.UE, (Long) null);
     }
 
+    @Test
+    void resolveEffectiveForm_sharesTheResolvedFormUntilTheConfigurationChanges() {
+        FormUiDto baseForm = formOf(col("kept", "kept"), col("dropped", "dropped"));
+        when(tableFieldConfigService.getFieldsConfig(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(fieldsConfig(inactiveField("dropped")))
+                .thenReturn(new TypeFieldsConfig());
+        when(tableFieldConfigService.getActiveAdditionalFields(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(List.of());
+
+        FormUiDto first = resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+        FormUiDto second = resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+        resolver.onFormConfigChange(new FormConfigChangeEvent(this, PROJECT_ID));
+        FormUiDto afterChange = resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+
+        assertThat(second).isSameAs(first);
+        assertThat(bindingsOf(first)).containsExactly("kept");
+        assertThat(bindingsOf(afterChange)).containsExactly("kept", "dropped");
+        verify(tableFieldConfigService, times(2)).getFieldsConfig(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+    }
+
+    @Test
+    void resolveEffectiveForm_keepsTheForm_whenAnotherProjectChanges() {
+        FormUiDto baseForm = formOf(col("kept", "kept"));
+        when(tableFieldConfigService.getFieldsConfig(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(new TypeFieldsConfig());
+        when(tableFieldConfigService.getActiveAdditionalFields(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(List.of());
+
+        resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+        resolver.onFormConfigChange(new FormConfigChangeEvent(this, PROJECT_ID + 1));
+        resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+        resolver.onFormConfigChange(new FormConfigChangeEvent(this, null));
+        resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+
+        // resolved again only after the change concerning every project
+        verify(tableFieldConfigService, times(2)).getFieldsConfig(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+    }
+
+    @Test
+    void resolveEffectiveForm_sharedFormLayoutIsUnmodifiable() {
+        FormUiDto baseForm = formOf(col("kept", "kept"), col("dropped", "dropped"));
+        when(tableFieldConfigService.getFieldsConfig(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(fieldsConfig(inactiveField("dropped")));
+        when(tableFieldConfigService.getActiveAdditionalFields(PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID))
+                .thenReturn(List.of());
+
+        FormUiDto result = resolver.resolveEffectiveForm(baseForm, PROJECT_ID, ConfigurableTable.UE, TYPE_CONCEPT_ID);
+
+        assertThatThrownBy(() -> result.getLayout().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
     // ---------- helpers ----------
 
     private FormUiDto formOf(CustomColUiDto... columns) {
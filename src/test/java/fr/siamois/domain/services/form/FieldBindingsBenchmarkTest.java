@@ -0,0 +1,109 @@
+package fr.siamois.domain.services.form;
+
+import fr.siamois.dto.entity.ActionUnitSummaryDTO;
+import fr.siamois.dto.entity.RecordingUnitDTO;
+import fr.siamois.dto.entity.SpecimenDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time of the binding of every system field of an entity (read, then write back), as done for each row of a table
+ * in edit mode : through a {@link PropertyDescriptor} per field and call, as before, then through the compiled
+ * {@link FieldBindings}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class FieldBindingsBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int BINDINGS = 50_000;
+
+    private interface Binder {
+        int bind(Object entity);
+    }
+
+    @Test
+    void bind_introspectionVersusCompiled() {
+        bench("RecordingUnitDTO", FieldBindingsBenchmarkTest::recordingUnit);
+        bench("SpecimenDTO", SpecimenDTO::new);
+    }
+
+    private static void bench(String name, Supplier<Object> entities) {
+        Object entity = entities.get();
+        long introspection = time(FieldBindingsBenchmarkTest::bindByIntrospection, entity);
+        long compiled = time(FieldBindingsBenchmarkTest::bindCompiled, entity);
+        System.out.printf("%s, %d fields%n", name, FieldBindings.of(entity).names().size());
+        System.out.printf("  introspection : %6d ns per entity%n", introspection);
+        System.out.printf("  compiled      : %6d ns per entity%n", compiled);
+    }
+
+    private static long time(Binder binder, Object entity) {
+        int read = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            read += binder.bind(entity);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < BINDINGS; i++) {
+            read += binder.bind(entity);
+        }
+        long nanos = (System.nanoTime() - start) / BINDINGS;
+        assertTrue(read >= 0);
+        return nanos;
+    }
+
+    /** The previous binding of FormService: bindable fields by reflection, a descriptor per field and call */
+    @SuppressWarnings("unchecked")
+    private static int bindByIntrospection(Object entity) {
+        int read = 0;
+        try {
+            Method method = entity.getClass().getMethod("getBindableFieldNames");
+            for (String field : (List<String>) method.invoke(entity)) {
+                Object value;
+                try {
+                    value = new PropertyDescriptor(field, entity.getClass()).getReadMethod().invoke(entity);
+                } catch (Exception e) {
+                    value = null;
+                }
+                if (value != null) {
+                    read++;
+                    try {
+                        new PropertyDescriptor(field, entity.getClass()).getWriteMethod().invoke(entity, value);
+                    } catch (Exception e) {
+                        // ignored
+                    }
+                }
+            }
+        } catch (Exception e) {
+            return 0;
+        }
+        return read;
+    }
+
+    private static int bindCompiled(Object entity) {
+        int read = 0;
+        FieldBindings bindings = FieldBindings.of(entity);
+        for (String field : bindings.names()) {
+            Object value = bindings.get(entity, field);
+            if (value != null) {
+                read++;
+                bindings.set(entity, field, value);
+            }
+        }
+        return read;
+    }
+
+    private static RecordingUnitDTO recordingUnit() {
+        RecordingUnitDTO unit = new RecordingUnitDTO();
+        unit.setDescription("Fosse");
+        unit.setIdentifier("12");
+        unit.setFullIdentifier("AU-001-12");
+        unit.setActionUnit(new ActionUnitSummaryDTO());
+        return unit;
+    }
+}
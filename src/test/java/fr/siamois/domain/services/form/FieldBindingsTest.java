@@ -0,0 +1,121 @@
+package fr.siamois.domain.services.form;
+
+import fr.siamois.dto.entity.ActionUnitSummaryDTO;
+import fr.siamois.dto.entity.RecordingUnitDTO;
+import fr.siamois.dto.entity.SpecimenDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class FieldBindingsTest {
+
+    @Test
+    void of_nullEntity_bindsNothing() {
+        FieldBindings bindings = FieldBindings.of(null);
+
+        assertThat(bindings.names()).isEmpty();
+        assertThat(bindings.isBindable("title")).isFalse();
+    }
+
+    @Test
+    void of_classWithoutBindableFields_bindsNothing() {
+        assertThat(FieldBindings.of(new Object()).names()).isEmpty();
+    }
+
+    @Test
+    void of_readsTheInstanceMethodOfTheClass() {
+        RecordingUnitDTO unit = new RecordingUnitDTO();
+
+        FieldBindings bindings = FieldBindings.of(unit);
+
+        assertThat(bindings.names()).isEqualTo(unit.getBindableFieldNames());
+        assertThat(FieldBindings.of(new RecordingUnitDTO())).isSameAs(bindings);
+    }
+
+    @Test
+    void of_readsTheStaticMethodOfTheClass() {
+        assertThat(FieldBindings.of(new SpecimenDTO()).names()).isEqualTo(SpecimenDTO.getBindableFieldNames());
+    }
+
+    @Test
+    void getAndSet_useTheAccessorsOfTheField() {
+        RecordingUnitDTO unit = new RecordingUnitDTO();
+        ActionUnitSummaryDTO actionUnit = new ActionUnitSummaryDTO();
+        FieldBindings bindings = FieldBindings.of(unit);
+
+        bindings.set(unit, "description", "Fosse");
+        bindings.set(unit, "actionUnit", actionUnit);
+
+        assertThat(unit.getDescription()).isEqualTo("Fosse");
+        assertThat(bindings.get(unit, "description")).isEqualTo("Fosse");
+        assertThat(bindings.get(unit, "actionUnit")).isSameAs(actionUnit);
+    }
+
+    @Test
+    void set_valueOfAnotherType_isIgnored() {
+        RecordingUnitDTO unit = new RecordingUnitDTO();
+        unit.setDescription("Fosse");
+
+        assertDoesNotThrow(() -> FieldBindings.of(unit).set(unit, "description", 12));
+
+        assertThat(unit.getDescription()).isEqualTo("Fosse");
+    }
+
+    @Test
+    void getAndSet_unknownOrNullField_doNothing() {
+        RecordingUnitDTO unit = new RecordingUnitDTO();
+        FieldBindings bindings = FieldBindings.of(unit);
+
+        bindings.set(unit, "doesNotExist", "x");
+        bindings.set(unit, null, "x");
+
+        assertThat(bindings.get(unit, "doesNotExist")).isNull();
+        assertThat(bindings.get(unit, null)).isNull();
+        assertThat(bindings.isBindable("doesNotExist")).isFalse();
+    }
+
+    @Test
+    void getAndSet_accessorThrowingAnException_isIgnored() {
+        Failing entity = new Failing();
+        FieldBindings bindings = FieldBindings.of(entity);
+
+        assertThat(bindings.get(entity, "exception")).isNull();
+        assertDoesNotThrow(() -> bindings.set(entity, "exception", "x"));
+    }
+
+    @Test
+    void getAndSet_accessorThrowingAnError_propagatesIt() {
+        Failing entity = new Failing();
+        FieldBindings bindings = FieldBindings.of(entity);
+
+        assertThatThrownBy(() -> bindings.get(entity, "error")).isInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> bindings.set(entity, "error", "x")).isInstanceOf(StackOverflowError.class);
+    }
+
+    public static class Failing {
+
+        public static List<String> getBindableFieldNames() {
+            return List.of("exception", "error");
+        }
+
+        public String getException() {
+            throw new IllegalStateException("getter");
+        }
+
+        public void setException(String value) {
+            throw new IllegalStateException("setter");
+        }
+
+        public String getError() {
+            throw new StackOverflowError();
+        }
+
+        public void setError(String value) {
+            throw new StackOverflowError();
+        }
+    }
+}
@@ -65,7 +65,7 @@ class FormServiceTest {
 
     /**
      * Simple JPA-like entity with bindable fields + JavaBean getters/setters.
-     * FormService uses reflection + PropertyDescriptor, so names must match.
+     * FormService binds them through {@link FieldBindings}, so names must match.
      */
     @Data
     public static class DummyEntity {
@@ -790,12 +790,6 @@ class FormServiceTest {
         m.invoke(formService, answer, value);
     }
 
-    private static Object invokeStatic(String name, Class<?>[] paramTypes, Object... args) throws Exception {
-        Method m = FormService.class.getDeclaredMethod(name, paramTypes);
-        m.setAccessible(true);
-        return m.invoke(null, args);
-    }
-
     // =====================================================================
     // Constructor / field initialization
     // =====================================================================
@@ -1100,58 +1094,6 @@ class FormServiceTest {
         }
     }
 
-    // =====================================================================
-    // Private reflective helpers: getBindableFieldNames / getFieldValue / setFieldValue
-    // =====================================================================
-
-    @Nested
-    class PrivateReflectiveHelpersTests {
-
-        @Test
-        void getBindableFieldNames_returnsEmptyListForNullEntity() throws Exception {
-            Object result = invokeStatic("getBindableFieldNames", new Class[]{Object.class}, new Object[]{null});
-            assertEquals(Collections.emptyList(), result);
-        }
-
-        @Test
-        void getBindableFieldNames_returnsEmptyListWhenMethodMissing() throws Exception {
-            Object result = invokeStatic("getBindableFieldNames", new Class[]{Object.class}, new Object[]{new Object()});
-            assertEquals(Collections.emptyList(), result);
-        }
-
-        @Test
-        void getFieldValue_returnsNullForNullObject() throws Exception {
-            Object result = invokeStatic("getFieldValue", new Class[]{Object.class, String.class}, null, "title");
-            assertNull(result);
-        }
-
-        @Test
-        void getFieldValue_returnsNullForNullFieldName() throws Exception {
-            Object result = invokeStatic("getFieldValue", new Class[]{Object.class, String.class}, new DummyEntity(), null);
-            assertNull(result);
-        }
-
-        @Test
-        void getFieldValue_returnsNullWhenPropertyMissing() throws Exception {
-            DummyEntity entity = new DummyEntity();
-            Object result = invokeStatic("getFieldValue", new Class[]{Object.class, String.class}, entity, "doesNotExist");
-            assertNull(result);
-        }
-
-        @Test
-        void setFieldValue_doesNothingForNullObject() {
-            assertDoesNotThrow(() -> invokeStatic(
-                    "setFieldValue", new Class[]{Object.class, String.class, Object.class}, null, "title", "x"));
-        }
-
-        @Test
-        void setFieldValue_doesNothingForNullFieldName() throws Exception {
-            DummyEntity entity = new DummyEntity();
-            invokeStatic("setFieldValue", new Class[]{Object.class, String.class, Object.class}, entity, null, "x");
-            assertNull(entity.getTitle());
-        }
-    }
-
     @Nested
     class HandlePhaseSetTests {
 
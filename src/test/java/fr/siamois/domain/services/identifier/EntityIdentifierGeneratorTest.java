@@ -16,8 +16,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -230,7 +235,97 @@ class EntityIdentifierGeneratorTest {
         assertThat(entity.identifier).isNull();
     }
 
+    @Test
+    void generateIdentifiersIfRequired_reservesOneBlockPerCounter() {
+        FormConfig config = config(12L, "UE-{NUM_UE}", 1, 99);
+        stubBatchGeneration(config);
+        when(counterRepository.nextValues(7L, 12L, "v1", 1, 3)).thenReturn(5);
+        TestEntity existing = new TestEntity(actionUnit(7L), 42L, "parent");
+        existing.number = 1;
+        List<TestEntity> entities = List.of(new TestEntity(actionUnit(7L), 42L, "parent"), existing,
+                new TestEntity(actionUnit(7L), 42L, "parent"), new TestEntity(actionUnit(7L), 42L, "parent"));
+
+        List<Optional<GeneratedIdentifier>> results = generator.generateIdentifiersIfRequired(entities,
+                batchSpec((actionUnit, candidates) -> Set.of()));
+
+        assertThat(results).containsExactly(Optional.of(new GeneratedIdentifier(5, "UE-5")), Optional.empty(),
+                Optional.of(new GeneratedIdentifier(6, "UE-6")), Optional.of(new GeneratedIdentifier(7, "UE-7")));
+        assertThat(entities.get(2).identifier).isEqualTo("UE-6");
+        verify(counterRepository).nextValues(7L, 12L, "v1", 1, 3);
+        verify(tableFieldConfigService).resolveIdentifierConfig(7L, ConfigurableTable.UE, 42L);
+        verify(counterRepository, never()).nextValue(anyLong(), anyLong(), anyString(), anyInt());
+        verify(entityManager).setFlushMode(FlushModeType.AUTO);
+    }
+
+    @Test
+    void generateIdentifiersIfRequired_reallocatesOnlyCollidingEntities() {
+        FormConfig config = config(12L, "UE-{NUM_UE}", 1, 99);
+        stubBatchGeneration(config);
+        when(counterRepository.nextValues(7L, 12L, "v1", 1, 2)).thenReturn(1);
+        when(counterRepository.nextValues(7L, 12L, "v1", 1, 1)).thenReturn(3);
+        List<TestEntity> entities = List.of(new TestEntity(actionUnit(7L), 42L, "parent"),
+                new TestEntity(actionUnit(7L), 42L, "parent"));
+
+        List<Optional<GeneratedIdentifier>> results = generator.generateIdentifiersIfRequired(entities,
+                batchSpec((actionUnit, candidates) -> candidates.contains("UE-2") ? Set.of("UE-2") : Set.of()));
+
+        assertThat(results).containsExactly(Optional.of(new GeneratedIdentifier(1, "UE-1")),
+                Optional.of(new GeneratedIdentifier(3, "UE-3")));
+    }
+
+    @Test
+    void generateIdentifiersIfRequired_fallsBackToPerCandidateCheck() {
+        FormConfig config = config(12L, "UE-{NUM_UE}", 1, 99);
+        stubBatchGeneration(config);
+        when(counterRepository.nextValues(7L, 12L, "v1", 1, 1)).thenReturn(1, 2);
+
+        List<Optional<GeneratedIdentifier>> results = generator.generateIdentifiersIfRequired(
+                List.of(new TestEntity(actionUnit(7L), 42L, "parent")), testSpec("UE-1"::equals));
+
+        assertThat(results).containsExactly(Optional.of(new GeneratedIdentifier(2, "UE-2")));
+    }
+
+    @Test
+    void generateIdentifiersIfRequired_throwsWhenBlockExceedsRange() {
+        FormConfig config = config(12L, "UE-{NUM_UE}", 1, 10);
+        when(tableFieldConfigService.resolveIdentifierConfig(7L, ConfigurableTable.UE, 42L)).thenReturn(config);
+        when(partitionService.canonicalKey(any(), anyString(), any())).thenReturn("v1");
+        when(entityManager.getFlushMode()).thenReturn(FlushModeType.AUTO);
+        when(resolverRegistry.ownNumericalToken(ConfigurableTable.UE)).thenReturn("NUM_UE");
+        when(counterRepository.nextValues(7L, 12L, "v1", 1, 2)).thenReturn(10);
+        List<TestEntity> entities = List.of(new TestEntity(actionUnit(7L), 42L, "parent"),
+                new TestEntity(actionUnit(7L), 42L, "parent"));
+        IdentifierGenerationSpec<TestEntity> spec = batchSpec((actionUnit, candidates) -> Set.of());
+
+        assertThatThrownBy(() -> generator.generateIdentifiersIfRequired(entities, spec))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Identifier range exhausted for form config 12");
+        assertThat(entities.get(0).identifier).isNull();
+        verify(entityManager).setFlushMode(FlushModeType.AUTO);
+    }
+
+    private void stubBatchGeneration(FormConfig config) {
+        when(tableFieldConfigService.resolveIdentifierConfig(7L, ConfigurableTable.UE, 42L)).thenReturn(config);
+        when(partitionService.canonicalKey(any(), anyString(), any())).thenReturn("v1");
+        when(entityManager.getFlushMode()).thenReturn(FlushModeType.AUTO);
+        when(resolverRegistry.ownNumericalToken(ConfigurableTable.UE)).thenReturn("NUM_UE");
+        when(resolverRegistry.render(eq(ConfigurableTable.UE), anyString(), any()))
+                .thenAnswer(invocation -> "UE-" + ((IdentifierRenderContext) invocation.getArgument(2)).value("NUM_UE"));
+    }
+
+    private static IdentifierGenerationSpec<TestEntity> batchSpec(
+            BiFunction<ActionUnit, Collection<String>, Set<String>> collisions) {
+        return testSpecBuilder(candidate -> false)
+                .identifiersAlreadyUsed(collisions)
+                .build();
+    }
+
     private static IdentifierGenerationSpec<TestEntity> testSpec(Predicate<String> collision) {
+        return testSpecBuilder(collision).build();
+    }
+
+    private static IdentifierGenerationSpec.IdentifierGenerationSpecBuilder<TestEntity> testSpecBuilder(
+            Predicate<String> collision) {
         return IdentifierGenerationSpec.<TestEntity>builder()
                 .table(ConfigurableTable.UE)
                 .entityName("test entity")
@@ -241,8 +336,7 @@ class EntityIdentifierGeneratorTest {
                 .partitionValue("PARENT_RU", entity -> 31L)
                 .identifierAlreadyUsed((entity, candidate) -> collision.test(candidate))
                 .numberSetter((entity, number) -> entity.number = number)
-                .identifierSetter((entity, identifier) -> entity.identifier = identifier)
-                .build();
+                .identifierSetter((entity, identifier) -> entity.identifier = identifier);
     }
 
     private static final class TestEntity {
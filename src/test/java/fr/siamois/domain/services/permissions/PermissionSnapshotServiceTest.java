@@ -0,0 +1,80 @@
+package fr.siamois.domain.services.permissions;
+
+import fr.siamois.domain.models.events.PersonAccessChangeEvent;
+import fr.siamois.domain.models.permissions.PermissionConstants;
+import fr.siamois.domain.models.permissions.PermissionScopeType;
+import fr.siamois.infrastructure.database.repositories.permissions.PersonProfileAssignmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionSnapshotServiceTest {
+
+    private static final String CODE = PermissionConstants.ORGANIZATION_MANAGE_ACTIONS;
+
+    @Mock
+    private PersonProfileAssignmentRepository assignmentRepository;
+
+    private static List<Object[]> organisationGrant(String permissionCode) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"MEMBER", PermissionScopeType.ORGANISATION, 10L, null, permissionCode});
+        return rows;
+    }
+
+    @Test
+    void snapshotOf_keepsTheSnapshotOfThePerson() {
+        PermissionSnapshotService service = new PermissionSnapshotService(assignmentRepository, Duration.ofMinutes(5));
+        when(assignmentRepository.findAllPermissionGrantsOfPerson(1L)).thenReturn(organisationGrant(CODE));
+
+        assertThat(service.snapshotOf(1L).hasPermissionInInstitution(10L, CODE)).isTrue();
+        assertThat(service.snapshotOf(1L).hasPermissionInInstitution(11L, CODE)).isFalse();
+
+        verify(assignmentRepository, times(1)).findAllPermissionGrantsOfPerson(1L);
+    }
+
+    @Test
+    void onPersonAccessChange_reloadsTheSnapshotOfThePerson() {
+        PermissionSnapshotService service = new PermissionSnapshotService(assignmentRepository, Duration.ofMinutes(5));
+        when(assignmentRepository.findAllPermissionGrantsOfPerson(1L))
+                .thenReturn(organisationGrant(CODE))
+                .thenReturn(List.of());
+        when(assignmentRepository.findAllPermissionGrantsOfPerson(2L)).thenReturn(organisationGrant(CODE));
+        service.snapshotOf(1L);
+        service.snapshotOf(2L);
+
+        service.onPersonAccessChange(new PersonAccessChangeEvent(this, 1L));
+
+        assertThat(service.snapshotOf(1L).hasPermissionInInstitution(10L, CODE)).isFalse();
+        assertThat(service.snapshotOf(2L).hasPermissionInInstitution(10L, CODE)).isTrue();
+        verify(assignmentRepository, times(1)).findAllPermissionGrantsOfPerson(2L);
+    }
+
+    @Test
+    void snapshotOf_withZeroTtl_loadsOnEveryCall() {
+        PermissionSnapshotService service = new PermissionSnapshotService(assignmentRepository, Duration.ZERO);
+        when(assignmentRepository.findAllPermissionGrantsOfPerson(1L)).thenReturn(organisationGrant(CODE));
+
+        service.snapshotOf(1L);
+        service.snapshotOf(1L);
+
+        verify(assignmentRepository, times(2)).findAllPermissionGrantsOfPerson(1L);
+    }
+
+    @Test
+    void snapshot_ofUnknownCode_grantsNothing() {
+        PermissionSnapshot snapshot = PermissionSnapshot.of(organisationGrant(CODE), new PermissionSnapshot.Codes());
+
+        assertThat(snapshot.hasPermissionInInstitution(10L, "UNKNOWN")).isFalse();
+        assertThat(snapshot.hasInstancePermission(CODE)).isFalse();
+        assertThat(snapshot.isSuperAdmin()).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.permissions;
 
+import fr.siamois.domain.events.publisher.PersonAccessChangeEventPublisher;
 import fr.siamois.domain.models.auth.Person;
 import fr.siamois.domain.models.permissions.PersonProfileAssignment;
 import fr.siamois.domain.models.permissions.Profile;
@@ -40,6 +41,9 @@ class PersonProfileAssignmentServiceTest {
     @Mock
     private ProfileMapper profileMapper;
 
+    @Mock
+    private PersonAccessChangeEventPublisher personAccessChangeEventPublisher;
+
     @InjectMocks
     private PersonProfileAssignmentService service;
 
@@ -103,6 +107,7 @@ class PersonProfileAssignmentServiceTest {
 
         assertTrue(result);
         verify(personProfileAssignmentRepository, times(2)).save(any(PersonProfileAssignment.class));
+        verify(personAccessChangeEventPublisher, times(2)).publishEvent(1L);
     }
 
     @Test
@@ -126,6 +131,7 @@ class PersonProfileAssignmentServiceTest {
 
         assertTrue(result);
         verify(personProfileAssignmentRepository, never()).save(any());
+        verifyNoInteractions(personAccessChangeEventPublisher);
     }
 
     @Test
@@ -385,5 +391,6 @@ class PersonProfileAssignmentServiceTest {
         service.removeFromProject(actionUnitDTO, personDTO);
 
         verify(personProfileAssignmentRepository).deleteByActionUnitIdAndPersonId(7L, 1L);
+        verify(personAccessChangeEventPublisher).publishEvent(1L);
     }
 }
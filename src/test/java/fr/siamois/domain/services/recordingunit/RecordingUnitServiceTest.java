@@ -1,9 +1,11 @@
 package fr.siamois.domain.services.recordingunit;
 
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
 import fr.siamois.domain.models.ArkEntity;
 import fr.siamois.domain.models.ValidationStatus;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.ark.Ark;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.exceptions.actionunit.ActionUnitNotFoundException;
 import fr.siamois.domain.models.exceptions.recordingunit.FailedRecordingUnitSaveException;
 import fr.siamois.domain.models.exceptions.recordingunit.RecordingUnitNotFoundException;
@@ -84,6 +86,9 @@ class RecordingUnitServiceTest {
     @Mock
     private StratigraphicRelationshipRepository stratigraphicRelationshipRepository;
 
+    @Mock
+    private StratigraphicClosureService stratigraphicClosureService;
+
     @Mock
     private RecordingUnitSummaryMapper recordingUnitSummaryMapper;
 
@@ -105,6 +110,9 @@ class RecordingUnitServiceTest {
     @Mock
     private EntityIdentifierGenerator entityIdentifierGenerator;
 
+    @Mock
+    private UnitChangeEventPublisher unitChangeEventPublisher;
+
     @InjectMocks
     private RecordingUnitService recordingUnitService;
 
@@ -178,6 +186,28 @@ class RecordingUnitServiceTest {
         assertThat(spec.identifierAlreadyUsed().test(recordingUnit, "RU-CONFLICT")).isTrue();
     }
 
+    @Test
+    void generateFullIdentifiers_usesEachUnitActionUnitAndSetBasedCollisionCheck() {
+        ActionUnit actionUnit = new ActionUnit();
+        actionUnit.setId(5L);
+        RecordingUnit first = new RecordingUnit();
+        first.setActionUnit(actionUnit);
+        RecordingUnit second = new RecordingUnit();
+        second.setActionUnit(actionUnit);
+        List<RecordingUnit> units = List.of(first, second);
+        when(recordingUnitRepository.findUsedFullIdentifiers(5L, List.of("RU-1", "RU-2"))).thenReturn(List.of("RU-2"));
+
+        recordingUnitService.generateFullIdentifiers(units);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<IdentifierGenerationSpec<RecordingUnit>> specCaptor =
+                ArgumentCaptor.forClass(IdentifierGenerationSpec.class);
+        verify(entityIdentifierGenerator).generateIdentifiersIfRequired(eq(units), specCaptor.capture());
+        IdentifierGenerationSpec<RecordingUnit> spec = specCaptor.getValue();
+        assertThat(spec.actionUnit().apply(first)).isSameAs(actionUnit);
+        assertThat(spec.identifiersAlreadyUsed().apply(actionUnit, List.of("RU-1", "RU-2"))).containsExactly("RU-2");
+    }
+
     @Test
     void findWithoutArk() {
         Institution institution = new Institution();
@@ -593,6 +623,7 @@ class RecordingUnitServiceTest {
         // Assert
         assertEquals(1, managed.getRelationshipsAsUnit2().size());
         assertTrue(managed.getRelationshipsAsUnit2().contains(newRel));
+        verify(stratigraphicClosureService).relationshipAdded(newRel);
     }
 
     @Test
@@ -667,6 +698,7 @@ class RecordingUnitServiceTest {
 
         // Assert
         assertTrue(managed.getRelationshipsAsUnit1().isEmpty());
+        verify(stratigraphicClosureService).relationshipRemoved(relToRemove, false);
     }
 
     @Test
@@ -1292,6 +1324,7 @@ class RecordingUnitServiceTest {
             verify(documentRepository).deleteAllRecordingUnitDocumentLinksByRecordingUnitId(1L);
             verify(recordingUnitRepository).delete(ru);
             verify(arkRepository).deleteById(99L);
+            verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
         }
 
         @Test
@@ -1410,7 +1443,7 @@ class RecordingUnitServiceTest {
 
             when(recordingUnitRepository.findById(1L)).thenReturn(Optional.of(parent));
             when(recordingUnitRepository.findById(2L)).thenReturn(Optional.of(child));
-            when(recordingUnitRepository.findAncestorClosure(new Long[]{1L})).thenReturn(List.of(1L, 2L));
+            when(recordingUnitRepository.isAncestorOf(2L, 1L)).thenReturn(true);
 
             assertThrows(IllegalStateException.class,
                     () -> recordingUnitService.addHierarchyChild(1L, 2L));
@@ -1434,7 +1467,7 @@ class RecordingUnitServiceTest {
 
             when(recordingUnitRepository.findById(1L)).thenReturn(Optional.of(parent));
             when(recordingUnitRepository.findById(2L)).thenReturn(Optional.of(child));
-            when(recordingUnitRepository.findAncestorClosure(new Long[]{1L})).thenReturn(List.of(1L));
+            when(recordingUnitRepository.isAncestorOf(2L, 1L)).thenReturn(false);
             when(recordingUnitRepository.save(parent)).thenReturn(parent);
 
             recordingUnitService.addHierarchyChild(1L, 2L);
@@ -1442,6 +1475,17 @@ class RecordingUnitServiceTest {
             assertTrue(parent.getChildren().contains(child));
             assertTrue(child.getParents().contains(parent));
             verify(recordingUnitRepository).save(parent);
+            verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
+        }
+
+        @Test
+        void countDescendantsByIds_readsClosureInOneQuery() {
+            when(recordingUnitRepository.countDescendantsByIds(List.of(1L, 2L, 3L)))
+                    .thenReturn(List.<Object[]>of(new Object[]{1L, 5L}, new Object[]{2L, 1L}));
+
+            assertEquals(Map.of(1L, 5, 2L, 1), recordingUnitService.countDescendantsByIds(List.of(1L, 2L, 3L)));
+            assertEquals(Map.of(), recordingUnitService.countDescendantsByIds(List.of()));
+            verify(recordingUnitRepository, times(1)).countDescendantsByIds(any());
         }
 
         @Test
@@ -1502,6 +1546,7 @@ class RecordingUnitServiceTest {
             assertFalse(parent.getChildren().contains(child));
             assertFalse(child.getParents().contains(parent));
             verify(recordingUnitRepository).save(parent);
+            verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.RECORDING_UNIT);
         }
     }
 
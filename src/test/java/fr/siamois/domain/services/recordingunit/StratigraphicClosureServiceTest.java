@@ -0,0 +1,226 @@
+package fr.siamois.domain.services.recordingunit;
+
+import fr.siamois.domain.models.actionunit.ActionUnit;
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.infrastructure.database.repositories.recordingunit.StratigraphicClosureRepository;
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.models.vocabulary.Vocabulary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StratigraphicClosureServiceTest {
+
+    @Mock
+    private StratigraphicClosureRepository closureRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StratigraphicClosureService service;
+
+    private RecordingUnit unit1, unit2, unit3;
+
+    @BeforeEach
+    void setUp() {
+        ActionUnit actionUnit = new ActionUnit();
+        actionUnit.setId(10L);
+        unit1 = unit(1L, actionUnit);
+        unit2 = unit(2L, actionUnit);
+        unit3 = unit(3L, actionUnit);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(service);
+    }
+
+    /** Runs a query as another request would, outside the transaction of the test thread */
+    private static <T> T fromAnotherThread(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query).join();
+    }
+
+    private static void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED
+                : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private static RecordingUnit unit(long id, ActionUnit actionUnit) {
+        RecordingUnit unit = new RecordingUnit();
+        unit.setId(id);
+        unit.setActionUnit(actionUnit);
+        return unit;
+    }
+
+    private static StratigraphicRelationship relationship(RecordingUnit unit1, RecordingUnit unit2, Boolean asynchronous) {
+        StratigraphicRelationship rel = new StratigraphicRelationship();
+        rel.setUnit1(unit1);
+        rel.setUnit2(unit2);
+        rel.setIsAsynchronous(asynchronous);
+        return rel;
+    }
+
+    @Test
+    void findAnteriorUnitIds_buildsClosureOnFirstUse() {
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{1L, 2L, false});
+        edges.add(new Object[]{2L, 3L, false});
+        when(closureRepository.findRelationshipEdgesByActionUnitId(10L)).thenReturn(edges);
+        when(closureRepository.lockVersion(10L)).thenReturn(4L);
+        when(closureRepository.findVersion(10L)).thenReturn(4L);
+
+        assertEquals(Set.of(1L, 2L), service.findAnteriorUnitIds(unit3));
+        assertTrue(service.isAnterior(unit1, unit3));
+        assertEquals(Set.of(3L), service.findPosteriorUnitIds(unit2));
+
+        verify(closureRepository).createVersionIfAbsent(10L);
+        verify(closureRepository, times(1)).findRelationshipEdgesByActionUnitId(10L);
+        verify(closureRepository, never()).incrementVersion(anyLong());
+    }
+
+    @Test
+    void findAnteriorUnitIds_versionCommittedByAnotherInstance_rebuiltFromTheRelationships() {
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{1L, 2L, false});
+        when(closureRepository.findRelationshipEdgesByActionUnitId(10L)).thenReturn(edges);
+        when(closureRepository.lockVersion(10L)).thenReturn(1L, 2L);
+        when(closureRepository.findVersion(10L)).thenReturn(1L, 2L);
+
+        assertEquals(Set.of(1L), service.findAnteriorUnitIds(unit2));
+        assertEquals(Set.of(1L), service.findAnteriorUnitIds(unit2));
+        verify(closureRepository, times(1)).findRelationshipEdgesByActionUnitId(10L);
+
+        edges.add(new Object[]{3L, 2L, false});
+
+        assertEquals(Set.of(1L, 3L), service.findAnteriorUnitIds(unit2));
+        verify(closureRepository, times(2)).findRelationshipEdgesByActionUnitId(10L);
+    }
+
+    @Test
+    void relationshipAddedAndRemoved_visibleToTheTransaction_sharedOnCommit() {
+        when(closureRepository.findRelationshipEdgesByActionUnitId(10L)).thenReturn(new ArrayList<>());
+        when(closureRepository.incrementVersion(10L)).thenReturn(1L);
+        when(closureRepository.findVersion(10L)).thenReturn(0L, 1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.relationshipAdded(relationship(unit1, unit2, true));
+        service.relationshipAdded(relationship(unit2, unit3, false));
+        service.relationshipAdded(relationship(unit3, unit1, null));
+        service.relationshipRemoved(relationship(unit3, unit1, null), false);
+
+        assertTrue(service.isAnterior(unit1, unit3));
+        assertEquals(Set.of(2L, 3L), service.findSynchronousUnitIds(unit2));
+        assertFalse(fromAnotherThread(() -> service.isAnterior(unit1, unit3)));
+        verify(closureRepository, never()).incrementVersion(anyLong());
+
+        completeTransaction(true);
+
+        assertTrue(fromAnotherThread(() -> service.isAnterior(unit1, unit3)));
+        assertFalse(fromAnotherThread(() -> service.isAnterior(unit3, unit1)));
+        verify(closureRepository, times(1)).findRelationshipEdgesByActionUnitId(10L);
+    }
+
+    @Test
+    void relationshipAdded_rolledBack_leavesTheSharedClosureUnchanged() {
+        when(closureRepository.findRelationshipEdgesByActionUnitId(10L)).thenReturn(new ArrayList<>());
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.relationshipAdded(relationship(unit1, unit2, true));
+        assertTrue(service.isAnterior(unit1, unit2));
+
+        completeTransaction(false);
+
+        assertFalse(service.isAnterior(unit1, unit2));
+        verify(closureRepository, never()).incrementVersion(anyLong());
+        verify(closureRepository, times(1)).findRelationshipEdgesByActionUnitId(10L);
+    }
+
+    @Test
+    void relationshipAdded_closureCommittedMeanwhile_rebuiltFromTheRelationships() {
+        List<Object[]> edges = new ArrayList<>();
+        when(closureRepository.findRelationshipEdgesByActionUnitId(10L)).thenReturn(edges);
+        // another instance committed version 1
+        when(closureRepository.incrementVersion(10L)).thenReturn(2L);
+        when(closureRepository.findVersion(10L)).thenReturn(2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.relationshipAdded(relationship(unit1, unit2, false));
+        edges.add(new Object[]{3L, 1L, false});
+        edges.add(new Object[]{1L, 2L, false});
+
+        completeTransaction(true);
+
+        assertTrue(service.isAnterior(unit3, unit2));
+        verify(closureRepository, times(2)).findRelationshipEdgesByActionUnitId(10L);
+    }
+
+    @Test
+    void invalidate_inATransaction_incrementsTheVersionOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.invalidate(10L);
+        verify(closureRepository, never()).incrementVersion(anyLong());
+
+        completeTransaction(true);
+
+        verify(closureRepository).incrementVersion(10L);
+    }
+
+    @Test
+    void relationshipAdded_unsavedUnit_invalidatesClosure() {
+        RecordingUnit unsaved = unit(1L, unit1.getActionUnit());
+        unsaved.setId(null);
+
+        service.relationshipAdded(relationship(unsaved, unit2, true));
+
+        verify(closureRepository).incrementVersion(10L);
+        verify(closureRepository, never()).findRelationshipEdgesByActionUnitId(anyLong());
+    }
+
+    @Test
+    void isSynchronous_usesAsynchronousFlagOrSynchronousConcept() {
+        assertTrue(StratigraphicClosureService.isSynchronous(relationship(unit1, unit2, false)));
+        assertFalse(StratigraphicClosureService.isSynchronous(relationship(unit1, unit2, true)));
+        assertFalse(StratigraphicClosureService.isSynchronous(relationship(unit1, unit2, null)));
+
+        StratigraphicRelationship rel = relationship(unit1, unit2, null);
+        rel.setConcept(StratigraphicRelationshipService.SYNCHRONOUS);
+        assertTrue(StratigraphicClosureService.isSynchronous(rel));
+
+        // as loaded from the database, in a vocabulary
+        Concept persisted = new Concept();
+        persisted.setExternalId("SIAMOIS_SYNCHRONOUS");
+        persisted.setVocabulary(new Vocabulary());
+        rel.setConcept(persisted);
+        assertTrue(StratigraphicClosureService.isSynchronous(rel));
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +27,9 @@ class StratigraphicRelationshipServiceTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private StratigraphicClosureService closureService;
+
     @InjectMocks
     private StratigraphicRelationshipService service;
 
@@ -45,7 +49,7 @@ class StratigraphicRelationshipServiceTest {
         asynchronous = StratigraphicRelationshipService.ASYNCHRONOUS;
 
 
-        service = new StratigraphicRelationshipService(relationshipRepository);
+        service = new StratigraphicRelationshipService(relationshipRepository, closureService);
 
         // Manually inject the entityManager mock
         ReflectionTestUtils.setField(service, "entityManager", entityManager);
@@ -142,8 +146,10 @@ class StratigraphicRelationshipServiceTest {
 
         assertNotNull(result);
         verify(relationshipRepository).delete(existingRel);
+        verify(closureService).relationshipRemoved(existingRel, true);
         verify(entityManager).flush();
         verify(relationshipRepository).save(any());
+        verify(closureService).relationshipAdded(any());
     }
 
     @Test
@@ -158,5 +164,18 @@ class StratigraphicRelationshipServiceTest {
 
         assertNotNull(result);
         verify(relationshipRepository).save(any());
+        verify(closureService).relationshipAdded(argThat(rel -> rel.getUnit1() == unit1 && rel.getUnit2() == unit2));
+    }
+
+    @Test
+    void testGetAllAnteriorAndPosteriorUnitIds_UseClosure() {
+        when(closureService.findAnteriorUnitIds(unit1)).thenReturn(Set.of(3L, 4L));
+        when(closureService.findPosteriorUnitIds(unit1)).thenReturn(Set.of(5L));
+        when(closureService.isAnterior(unit2, unit1)).thenReturn(true);
+
+        assertEquals(Set.of(3L, 4L), service.getAllAnteriorUnitIds(unit1));
+        assertEquals(Set.of(5L), service.getAllPosteriorUnitIds(unit1));
+        assertTrue(service.isAnterior(unit2, unit1));
+        verifyNoInteractions(relationshipRepository);
     }
 }
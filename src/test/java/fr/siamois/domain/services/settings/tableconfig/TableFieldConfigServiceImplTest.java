@@ -1,5 +1,6 @@
 package fr.siamois.domain.services.settings.tableconfig;
 
+import fr.siamois.domain.events.publisher.FormConfigChangeEventPublisher;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.actionunit.ActionUnit;
 import fr.siamois.domain.models.auth.Person;
@@ -96,6 +97,8 @@ class TableFieldConfigServiceImplTest {
     private CustomFieldAnswerRepository customFieldAnswerRepository;
     @Mock
     private PersonRepository personRepository;
+    @Mock
+    private FormConfigChangeEventPublisher formConfigChangeEventPublisher;
 
     @InjectMocks
     private TableFieldConfigServiceImpl service;
@@ -709,6 +712,7 @@ class TableFieldConfigServiceImplTest {
         verify(fieldFormConfigRepository).save(saved.capture());
         assertThat(saved.getValue().isActive()).isFalse();
         assertThat(saved.getValue().getFormConfig()).isEqualTo(ceramiqueConfig);
+        verify(formConfigChangeEventPublisher).publishEvent(PROJECT_ID);
     }
 
     @Test
@@ -737,6 +741,7 @@ class TableFieldConfigServiceImplTest {
 
         verify(fieldFormConfigRepository, never()).save(any(FieldFormConfig.class));
         assertThat(locked.isActive()).isTrue();
+        verifyNoInteractions(formConfigChangeEventPublisher);
     }
 
     @Test
@@ -1302,6 +1307,8 @@ class TableFieldConfigServiceImplTest {
         assertThat(existing.getHint()).isEqualTo("Desc");
         verify(customFieldRepository).save(existing);
         verify(fieldFormConfigRepository, never()).delete(any());
+        // the field may be shared by other projects
+        verify(formConfigChangeEventPublisher).publishEvent(null);
     }
 
     @Test
@@ -0,0 +1,84 @@
+package fr.siamois.domain.services.spatialunit;
+
+import fr.siamois.dto.entity.SpatialUnitSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.primefaces.model.TreeNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialUnitHierarchyTest {
+
+    private static SpatialUnitSummaryDTO unit(long id) {
+        SpatialUnitSummaryDTO dto = new SpatialUnitSummaryDTO();
+        dto.setId(id);
+        dto.setName("SU" + id);
+        return dto;
+    }
+
+    private static List<SpatialUnitSummaryDTO> units(long... ids) {
+        return LongStream.of(ids).mapToObj(SpatialUnitHierarchyTest::unit).toList();
+    }
+
+    private static List<Long> ids(TreeNode<SpatialUnitSummaryDTO> node) {
+        return node.getChildren().stream().map(n -> n.getData().getId()).toList();
+    }
+
+    @Test
+    void buildTree_sharedChild_appearsUnderEachParent() {
+        // 1 -> 2 -> 4 and 1 -> 3 -> 4
+        SpatialUnitHierarchy hierarchy = new SpatialUnitHierarchy(units(1, 2, 3, 4),
+                Map.of(1L, List.of(2L, 3L), 2L, List.of(4L), 3L, List.of(4L)));
+
+        TreeNode<SpatialUnitSummaryDTO> root = hierarchy.buildTree();
+
+        assertEquals(List.of(1L), ids(root));
+        TreeNode<SpatialUnitSummaryDTO> node1 = root.getChildren().get(0);
+        assertFalse(node1.isExpanded());
+        assertEquals(List.of(2L, 3L), ids(node1));
+        assertEquals(List.of(4L), ids(node1.getChildren().get(0)));
+        assertEquals(List.of(4L), ids(node1.getChildren().get(1)));
+        assertSame(node1.getChildren().get(0).getChildren().get(0).getData(),
+                node1.getChildren().get(1).getChildren().get(0).getData());
+    }
+
+    @Test
+    void buildTree_cycle_markedAndNotExpanded() {
+        // 1 -> 2 -> 3 -> 2
+        SpatialUnitHierarchy hierarchy = new SpatialUnitHierarchy(units(1, 2, 3),
+                Map.of(1L, List.of(2L), 2L, List.of(3L), 3L, List.of(2L)));
+
+        TreeNode<SpatialUnitSummaryDTO> node3 = hierarchy.buildTree()
+                .getChildren().get(0).getChildren().get(0).getChildren().get(0);
+
+        assertEquals(3L, node3.getData().getId());
+        TreeNode<SpatialUnitSummaryDTO> cycle = node3.getChildren().get(0);
+        assertEquals(SpatialUnitHierarchy.CYCLE_TYPE, cycle.getType());
+        assertEquals(2L, cycle.getData().getId());
+        assertFalse(cycle.isSelectable());
+        assertTrue(cycle.getChildren().isEmpty());
+    }
+
+    @Test
+    void buildTree_deepHierarchy_doesNotOverflow() {
+        int depth = 20_000;
+        Map<Long, List<Long>> links = new HashMap<>();
+        for (long id = 1; id < depth; id++) {
+            links.put(id, List.of(id + 1));
+        }
+        SpatialUnitHierarchy hierarchy = new SpatialUnitHierarchy(
+                LongStream.rangeClosed(1, depth).mapToObj(SpatialUnitHierarchyTest::unit).toList(), links);
+
+        TreeNode<SpatialUnitSummaryDTO> node = hierarchy.buildTree();
+        int levels = 0;
+        while (!node.getChildren().isEmpty()) {
+            node = node.getChildren().get(0);
+            levels++;
+        }
+        assertEquals(depth, levels);
+    }
+}
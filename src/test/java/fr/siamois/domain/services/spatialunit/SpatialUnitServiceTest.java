@@ -1,9 +1,11 @@
 package fr.siamois.domain.services.spatialunit;
 
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
 import fr.siamois.domain.models.ArkEntity;
 import fr.siamois.domain.models.UserInfo;
 import fr.siamois.domain.models.ark.Ark;
 import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.models.events.UnitChangeEvent;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitAlreadyExistsException;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitNotFoundException;
 import fr.siamois.domain.models.history.RevisionWithInfo;
@@ -18,6 +20,7 @@ import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.domain.services.person.PersonService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
 import fr.siamois.dto.FilterDTO;
+import fr.siamois.dto.PlaceGeometryDTO;
 import fr.siamois.dto.PlaceSuggestionDTO;
 import fr.siamois.dto.entity.*;
 import fr.siamois.dto.entity.vocabulary.ConceptDTO;
@@ -90,6 +93,9 @@ class SpatialUnitServiceTest {
     @Mock
     private fr.siamois.domain.services.ark.ArkService arkService;
 
+    @Mock
+    private UnitChangeEventPublisher unitChangeEventPublisher;
+
     @InjectMocks
     private SpatialUnitService spatialUnitService;
 
@@ -404,16 +410,9 @@ class SpatialUnitServiceTest {
         Institution institution = new Institution();
         institution.setId(1L);
 
-        // Mock the repository
-        when(spatialUnitRepository.findAllOfInstitution(institution.getId()))
-                .thenReturn(List.of(su1, su2, su3));
-
-        when(spatialUnitRepository.countParentsByChildId(su1.getId()))
-                .thenReturn(0L);
-        when(spatialUnitRepository.countParentsByChildId(su2.getId()))
-                .thenReturn(1L);
-        when(spatialUnitRepository.countParentsByChildId(su3.getId()))
-                .thenReturn(1L);
+        // Mock the repository: su2 and su3 have a parent
+        when(spatialUnitRepository.findRootsOfInstitution(institution.getId()))
+                .thenReturn(List.of(su1));
 
         // Mock the mapper
         SpatialUnitDTO su1DTO = new SpatialUnitDTO();
@@ -793,14 +792,50 @@ class SpatialUnitServiceTest {
     @Test
     void findSummaryRootsOf_returnsOnlyOrphans() {
         SpatialUnitSummaryDTO summary = new SpatialUnitSummaryDTO();
-        when(spatialUnitRepository.findAllOfInstitution(1L)).thenReturn(List.of(spatialUnit1, spatialUnit2));
-        when(spatialUnitRepository.countParentsByChildId(1L)).thenReturn(0L);
-        when(spatialUnitRepository.countParentsByChildId(2L)).thenReturn(2L);
+        when(spatialUnitRepository.findRootsOfInstitution(1L)).thenReturn(List.of(spatialUnit1));
         when(spatialUnitSummaryMapper.convert(spatialUnit1)).thenReturn(summary);
 
         List<SpatialUnitSummaryDTO> result = spatialUnitService.findSummaryRootsOf(1L);
 
         assertEquals(List.of(summary), result);
+        verify(spatialUnitRepository, never()).countParentsByChildId(anyLong());
+    }
+
+    @Test
+    void countDescendantsByIds_mapsSubtreeSizes() {
+        when(spatialUnitRepository.countDescendantsByIds(List.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+
+        assertEquals(Map.of(1L, 4), spatialUnitService.countDescendantsByIds(List.of(1L, 2L)));
+        assertEquals(Map.of(), spatialUnitService.countDescendantsByIds(List.of()));
+        verify(spatialUnitRepository, times(1)).countDescendantsByIds(any());
+    }
+
+    @Test
+    void findChildIdsByParentOfInstitution_groupsEdgesByParent() {
+        when(spatialUnitRepository.findHierarchyEdgesOfInstitution(5L)).thenReturn(List.of(
+                new Object[]{1L, 3L}, new Object[]{1L, 2L}, new Object[]{2L, 3L}));
+
+        Map<Long, List<Long>> result = spatialUnitService.findChildIdsByParentOfInstitution(5L);
+
+        assertEquals(Map.of(1L, List.of(3L, 2L), 2L, List.of(3L)), result);
+    }
+
+    @Test
+    void findGeometriesInBox_mapsRows() {
+        when(spatialUnitRepository.findGeometriesInBox(5L, 0.0, 1.0, 2.0, 3.0, 0.01, 3, 10))
+                .thenReturn(List.<Object[]>of(new Object[]{7L, "Site", null, "{\"type\":\"Point\"}"}));
+
+        List<PlaceGeometryDTO> result = spatialUnitService.findGeometriesInBox(5L, 0.0, 1.0, 2.0, 3.0, 0.01, 3, 10);
+
+        assertEquals(List.of(new PlaceGeometryDTO(7L, "Site", null, "{\"type\":\"Point\"}")), result);
+    }
+
+    @Test
+    void findVectorTile_emptyTile_returnsEmptyBytes() {
+        when(spatialUnitRepository.findVectorTile(5L, 1, 0, 1)).thenReturn(null);
+
+        assertArrayEquals(new byte[0], spatialUnitService.findVectorTile(5L, 1, 0, 1));
     }
 
     @Test
@@ -1248,6 +1283,7 @@ class SpatialUnitServiceTest {
         verify(actionUnitRepository).deleteSpatialContextLinksForSpatialUnit(5L);
         verify(documentRepository).deleteAllSpatialUnitDocumentLinksBySpatialUnitId(5L);
         verify(spatialUnitRepository).deleteById(5L);
+        verify(unitChangeEventPublisher).publishEvent(UnitChangeEvent.Kind.SPATIAL_UNIT);
     }
 
     @Test
@@ -1262,6 +1298,7 @@ class SpatialUnitServiceTest {
 
         assertTrue(ex.getMessage().contains("enfants"));
         verify(spatialUnitRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(unitChangeEventPublisher);
     }
 
     @Test
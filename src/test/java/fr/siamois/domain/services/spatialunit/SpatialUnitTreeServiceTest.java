@@ -15,6 +15,8 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,8 +52,8 @@ class SpatialUnitTreeServiceTest {
         InstitutionDTO mockInstitution = new InstitutionDTO();
         mockInstitution.setId(1L);
         when(sessionSettingsBean.getSelectedInstitution()).thenReturn(mockInstitution);
-            when(spatialUnitService.findSummaryRootsOf(any(Long.class))).thenReturn(List.of(root));
-        when(spatialUnitService.findDirectChildrensSummaryOf(root.getId())).thenReturn(List.of(child1, child2));
+        when(spatialUnitService.findAllSummaryOfInstitution(1L)).thenReturn(List.of(root, child1, child2));
+        when(spatialUnitService.findChildIdsByParentOfInstitution(1L)).thenReturn(Map.of(1L, List.of(2L, 3L)));
 
         // Act
         TreeNode<SpatialUnitSummaryDTO> tree = spatialUnitTreeService.buildTree();
@@ -94,7 +96,8 @@ class SpatialUnitTreeServiceTest {
         InstitutionDTO mockInstitution = new InstitutionDTO();
         mockInstitution.setId(1L);
         when(sessionSettingsBean.getSelectedInstitution()).thenReturn(mockInstitution);
-        when(spatialUnitService.findSummaryRootsOf(any(Long.class))).thenReturn(List.of(root1, root2));
+        when(spatialUnitService.findAllSummaryOfInstitution(1L)).thenReturn(List.of(root1, root2, child));
+        when(spatialUnitService.findChildIdsByParentOfInstitution(1L)).thenReturn(Map.of(1L, List.of(3L)));
 
 
         // Act
@@ -111,6 +114,7 @@ class SpatialUnitTreeServiceTest {
 
         assertTrue(rootNames.contains("Root1"));
         assertTrue(rootNames.contains("Root2"));
+        verify(spatialUnitService, never()).findDirectChildrensSummaryOf(any(Long.class));
     }
 
     @Test
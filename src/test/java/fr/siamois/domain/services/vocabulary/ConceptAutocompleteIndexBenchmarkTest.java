@@ -0,0 +1,48 @@
+package fr.siamois.domain.services.vocabulary;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time of a typeahead search in the {@link ConceptAutocompleteIndex} of a large field, per input length.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ConceptAutocompleteIndexBenchmarkTest {
+
+    private static final int LABELS = 20_000;
+    private static final int SEARCHES = 20_000;
+    private static final String[] WORDS = {"fosse", "mur", "céramique", "amphore", "tesson", "sépulture", "foyer",
+            "silo", "trou", "poteau", "fossé", "sol", "remblai", "niveau", "dépôt", "écuelle", "jarre", "monnaie"};
+
+    @Test
+    void search_perInputLength() {
+        Random random = new Random(42);
+        String[] labels = new String[LABELS];
+        for (int i = 0; i < LABELS; i++) {
+            labels[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        }
+        java.util.Arrays.sort(labels);
+        long start = System.nanoTime();
+        ConceptAutocompleteIndex index = ConceptAutocompleteIndex.of(ConceptAutocompleteIndexTest.rows(labels));
+        System.out.printf("Index of %d labels built in %d ms%n", LABELS, (System.nanoTime() - start) / 1_000_000);
+
+        for (String input : new String[]{"f", "fo", "fos", "amph", "sepult", "ceramique 19", "zzz"}) {
+            int found = 0;
+            for (int i = 0; i < SEARCHES; i++) {
+                found += index.search(input, FieldConfigurationService.LIMIT_RESULTS).size();
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                found += index.search(input, FieldConfigurationService.LIMIT_RESULTS).size();
+            }
+            long micros = (System.nanoTime() - start) / 1_000 / SEARCHES;
+            System.out.printf("  %-14s %5d us per search%n", "'" + input + "'", micros);
+            assertTrue(found >= 0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package fr.siamois.domain.services.vocabulary;
+
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.models.vocabulary.ConceptCollection;
+import fr.siamois.infrastructure.database.repositories.vocabulary.AutocompleteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static fr.siamois.domain.services.vocabulary.ConceptAutocompleteIndexTest.rows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConceptAutocompleteIndexServiceTest {
+
+    @Mock
+    private AutocompleteRepository autocompleteRepository;
+
+    private ConceptAutocompleteIndexService service;
+    private Concept field;
+
+    @BeforeEach
+    void setUp() {
+        service = new ConceptAutocompleteIndexService(autocompleteRepository);
+        field = new Concept();
+        field.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(service);
+    }
+
+    @Test
+    void findMatchingConceptsFor_loadsTheFieldOnceThenAnswersFromMemory() throws Exception {
+        when(autocompleteRepository.findAllCandidatesFor(field, "fr"))
+                .thenReturn(rows("Fosse", "Mur"));
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(1);
+        assertThat(service.findMatchingConceptsFor(field, "fr", "mu", 10)).hasSize(1);
+
+        verify(autocompleteRepository, times(1)).findAllCandidatesFor(field, "fr");
+        verifyNoMoreInteractions(autocompleteRepository);
+    }
+
+    @Test
+    void indexes_arePerScopeAndLanguage() throws Exception {
+        ConceptCollection collection = new ConceptCollection();
+        collection.setId(7L);
+        when(autocompleteRepository.findAllCandidatesFor(any(), any())).thenReturn(rows("Fosse"));
+        when(autocompleteRepository.findAllCandidatesInBranchOf(any(), any())).thenReturn(rows("Pit"));
+        when(autocompleteRepository.findAllCandidatesInCollection(any(), any())).thenReturn(rows("Mur"));
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "", 10)).hasSize(1);
+        assertThat(service.findMatchingConceptsFor(field, "en", "", 10)).hasSize(1);
+        assertThat(service.findMatchingConceptsInBranchOf(field, "fr", "pit", 10)).hasSize(1);
+        assertThat(service.findMatchingConceptsInCollection(collection, "fr", "mur", 10)).hasSize(1);
+
+        verify(autocompleteRepository, times(2)).findAllCandidatesFor(any(), any());
+    }
+
+    @Test
+    void emptyResult_isKept() throws Exception {
+        when(autocompleteRepository.findAllCandidatesFor(field, "fr")).thenReturn(List.of());
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).isEmpty();
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).isEmpty();
+
+        verify(autocompleteRepository, times(1)).findAllCandidatesFor(field, "fr");
+    }
+
+    @Test
+    void failedLoad_isNotKept() throws Exception {
+        when(autocompleteRepository.findAllCandidatesFor(field, "fr"))
+                .thenThrow(new SQLException("boom"))
+                .thenReturn(rows("Fosse"));
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).isEmpty();
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(1);
+
+        verify(autocompleteRepository, times(2)).findAllCandidatesFor(field, "fr");
+    }
+
+    @Test
+    void invalidateAll_outsideOfATransaction_reloadsOnTheNextSearch() throws Exception {
+        when(autocompleteRepository.findAllCandidatesFor(field, "fr"))
+                .thenReturn(rows("Fosse"), rows("Fosse", "Fossé"));
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(1);
+        service.invalidateAll();
+
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(2);
+    }
+
+    @Test
+    void invalidateAll_inATransaction_waitsForTheCommit() throws Exception {
+        when(autocompleteRepository.findAllCandidatesFor(field, "fr"))
+                .thenReturn(rows("Fosse"), rows("Fosse", "Fossé"));
+        service.findMatchingConceptsFor(field, "fr", "fos", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.invalidateAll();
+        service.invalidateAll();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        assertThat(synchronizations).hasSize(1);
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(1);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(service.findMatchingConceptsFor(field, "fr", "fos", 10)).hasSize(2);
+        assertThat(TransactionSynchronizationManager.hasResource(service)).isFalse();
+    }
+
+    @Test
+    void disabled_searchesTheDatabase() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        service.findMatchingConceptsFor(field, "fr", "fos", 10);
+        service.findMatchingConceptsFor(field, "fr", "fos", 10);
+
+        verify(autocompleteRepository, times(2)).findMatchingConceptsFor(field, "fr", "fos", 10);
+    }
+}
@@ -0,0 +1,118 @@
+package fr.siamois.domain.services.vocabulary;
+
+import fr.siamois.dto.entity.vocabulary.ConceptAltLabelDTO;
+import fr.siamois.dto.entity.vocabulary.ConceptDTO;
+import fr.siamois.dto.entity.vocabulary.ConceptLabelDTO;
+import fr.siamois.dto.entity.vocabulary.ConceptPrefLabelDTO;
+import fr.siamois.infrastructure.database.repositories.vocabulary.dto.ConceptAutocompleteDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConceptAutocompleteIndexTest {
+
+    /** Rows as the database returns them: the alternative labels of a concept right before its preferred label */
+    static List<ConceptAutocompleteDTO> rows(String... prefLabels) {
+        List<ConceptAutocompleteDTO> rows = new ArrayList<>();
+        long id = 1;
+        for (String prefLabel : prefLabels) {
+            String[] labels = prefLabel.split("\\|");
+            ConceptDTO concept = new ConceptDTO();
+            concept.setId(id++);
+            for (int i = 1; i < labels.length; i++) {
+                ConceptAltLabelDTO alt = new ConceptAltLabelDTO();
+                alt.setConcept(concept);
+                alt.setLabel(labels[i]);
+                rows.add(row(alt, labels[0]));
+            }
+            ConceptPrefLabelDTO pref = new ConceptPrefLabelDTO();
+            pref.setConcept(concept);
+            pref.setLabel(labels[0]);
+            rows.add(row(pref, labels[0]));
+        }
+        return rows;
+    }
+
+    private static ConceptAutocompleteDTO row(ConceptLabelDTO label, String prefLabel) {
+        return ConceptAutocompleteDTO.builder()
+                .conceptLabelToDisplay(label)
+                .originalPrefLabel(prefLabel)
+                .altLabels(List.of())
+                .build();
+    }
+
+    private static List<String> labelsOf(List<ConceptAutocompleteDTO> result) {
+        return result.stream().map(dto -> dto.getConceptLabelToDisplay().getLabel()).toList();
+    }
+
+    private final ConceptAutocompleteIndex index = ConceptAutocompleteIndex.of(
+            rows("Amphore|Jarre", "Céramique", "Écuelle", "Fosse", "Fossé", "Mur de fosse"));
+
+    @Test
+    void search_blankInput_returnsTheFirstLabels() {
+        assertThat(labelsOf(index.search(" ", 2))).containsExactly("Jarre", "Amphore", "Céramique");
+        assertThat(labelsOf(index.search(null, 100))).hasSize(7);
+    }
+
+    @Test
+    void search_ignoresCaseAndAccents_andKeepsTheLabelOrder() {
+        assertThat(labelsOf(index.search("FOSSE", 10))).containsExactly("Fosse", "Fossé", "Mur de fosse");
+        assertThat(labelsOf(index.search("ecu", 10))).containsExactly("Écuelle");
+        assertThat(labelsOf(index.search("céra", 10))).containsExactly("Céramique");
+    }
+
+    @Test
+    void search_matchesAnywhereInTheLabel() {
+        assertThat(labelsOf(index.search("de f", 10))).containsExactly("Mur de fosse");
+        assertThat(labelsOf(index.search("ss", 10))).containsExactly("Fosse", "Fossé", "Mur de fosse");
+    }
+
+    @Test
+    void search_returnsTheAltLabelsWithTheirPrefLabel_onlyMatchingOnThePrefLabel() {
+        assertThat(labelsOf(index.search("amph", 10))).containsExactly("Jarre", "Amphore");
+        assertThat(index.search("jarre", 10)).isEmpty();
+    }
+
+    @Test
+    void search_limitsThePrefLabels() {
+        assertThat(labelsOf(index.search("oss", 2))).containsExactly("Fosse", "Fossé");
+    }
+
+    @Test
+    void search_unknownTrigram_returnsNothing() {
+        assertThat(index.search("xyz", 10)).isEmpty();
+        assertThat(index.search("fossile", 10)).isEmpty();
+    }
+
+    @Test
+    void search_expandsTheLigaturesLikeUnaccent() {
+        ConceptAutocompleteIndex ligatures = ConceptAutocompleteIndex.of(rows("Cœur", "Æschne", "Straße", "Øre"));
+
+        assertThat(labelsOf(ligatures.search("coeur", 10))).containsExactly("Cœur");
+        assertThat(labelsOf(ligatures.search("CŒU", 10))).containsExactly("Cœur");
+        assertThat(labelsOf(ligatures.search("aesch", 10))).containsExactly("Æschne");
+        assertThat(labelsOf(ligatures.search("strass", 10))).containsExactly("Straße");
+        assertThat(labelsOf(ligatures.search("ore", 10))).containsExactly("Øre");
+    }
+
+    @Test
+    void search_wildcards_areSearchedAsIs() {
+        ConceptAutocompleteIndex wildcards = ConceptAutocompleteIndex.of(rows("Fosse", "100% argile", "US_12"));
+
+        assertThat(labelsOf(wildcards.search("f%e", 10))).isEmpty();
+        assertThat(labelsOf(wildcards.search("%", 10))).containsExactly("100% argile");
+        assertThat(labelsOf(wildcards.search("s_1", 10))).containsExactly("US_12");
+        assertThat(labelsOf(wildcards.search("fo_se", 10))).isEmpty();
+    }
+
+    @Test
+    void of_noRows_isEmpty() {
+        ConceptAutocompleteIndex empty = ConceptAutocompleteIndex.of(List.of());
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.search("a", 10)).isEmpty();
+    }
+}
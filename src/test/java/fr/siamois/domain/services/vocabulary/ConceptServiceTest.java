@@ -70,6 +70,9 @@ class ConceptServiceTest {
     @Mock
     private ApplicationContext applicationContext;
 
+    @Mock
+    private ConceptAutocompleteIndexService conceptAutocompleteIndexService;
+
     @InjectMocks
     private ConceptService conceptService;
 
@@ -63,6 +63,9 @@ class FieldConfigurationServiceTest {
     @Mock
     private AutocompleteRepository autocompleteRepository;
 
+    @Mock
+    private ConceptAutocompleteIndexService conceptAutocompleteIndexService;
+
     @Mock
     private ConceptFieldConfigRepository conceptFieldConfigRepository;
 
@@ -512,7 +515,7 @@ class FieldConfigurationServiceTest {
 
         List<ConceptAutocompleteDTO> expectedResults = List.of(
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 100", "100"));
-        when(autocompleteRepository.findMatchingConceptsFor(cfc.getConcept(), "fr", query, 200)).thenReturn(expectedResults);
+        when(conceptAutocompleteIndexService.findMatchingConceptsFor(cfc.getConcept(), "fr", query, 200)).thenReturn(expectedResults);
 
         List<ConceptAutocompleteDTO> results = service.fetchAutocomplete(userInfo, fieldCode, query, 42L);
 
@@ -612,7 +615,7 @@ class FieldConfigurationServiceTest {
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 100", "100"),
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 101", "101")
         );
-        when(autocompleteRepository.findMatchingConceptsFor(cfc.getConcept(), "fr",query, 200)).thenReturn(expectedResults);
+        when(conceptAutocompleteIndexService.findMatchingConceptsFor(cfc.getConcept(), "fr",query, 200)).thenReturn(expectedResults);
 
         List<ConceptAutocompleteDTO> results = service.fetchAutocomplete(userInfo, fieldCode, query);
 
@@ -628,7 +631,7 @@ class FieldConfigurationServiceTest {
         assertThrows(NoConfigForFieldException.class,
                 () -> service.fetchAutocompleteRelated(userInfo, "TESTFIELD", baseValue, "test query"));
 
-        verifyNoInteractions(autocompleteRepository);
+        verifyNoInteractions(autocompleteRepository, conceptAutocompleteIndexService);
     }
 
     @Test
@@ -706,13 +709,13 @@ class FieldConfigurationServiceTest {
 
         List<ConceptAutocompleteDTO> expectedResults = List.of(
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 100", "100"));
-        when(autocompleteRepository.findMatchingConceptsInBranchOf(topTerm, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
+        when(conceptAutocompleteIndexService.findMatchingConceptsInBranchOf(topTerm, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
                 .thenReturn(expectedResults);
 
         List<ConceptAutocompleteDTO> results = service.fetchAutocomplete(field, "que", 42L);
 
         assertThat(results).isEqualTo(expectedResults);
-        verify(autocompleteRepository, never()).findMatchingConceptsInCollection(any(), anyString(), any(), anyInt());
+        verify(conceptAutocompleteIndexService, never()).findMatchingConceptsInCollection(any(), anyString(), any(), anyInt());
     }
 
     @Test
@@ -730,13 +733,13 @@ class FieldConfigurationServiceTest {
 
         List<ConceptAutocompleteDTO> expectedResults = List.of(
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 100", "100"));
-        when(autocompleteRepository.findMatchingConceptsInCollection(collection, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
+        when(conceptAutocompleteIndexService.findMatchingConceptsInCollection(collection, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
                 .thenReturn(expectedResults);
 
         List<ConceptAutocompleteDTO> results = service.fetchAutocomplete(field, "que", 42L);
 
         assertThat(results).isEqualTo(expectedResults);
-        verify(autocompleteRepository, never()).findMatchingConceptsInBranchOf(any(), anyString(), any(), anyInt());
+        verify(conceptAutocompleteIndexService, never()).findMatchingConceptsInBranchOf(any(), anyString(), any(), anyInt());
     }
 
     @Test
@@ -748,7 +751,7 @@ class FieldConfigurationServiceTest {
         assertThat(service.fetchAutocomplete(field, null, 42L)).isEmpty();
         assertThat(service.fetchAutocomplete(field, "   ", 42L)).isEmpty();
 
-        verifyNoInteractions(autocompleteRepository, fieldFormConfigRepository);
+        verifyNoInteractions(autocompleteRepository, conceptAutocompleteIndexService, fieldFormConfigRepository);
     }
 
     @Test
@@ -769,7 +772,7 @@ class FieldConfigurationServiceTest {
 
         List<ConceptAutocompleteDTO> expectedResults = List.of(
                 new ConceptAutocompleteDTO(new ConceptDTO(), "Concept 100", "100"));
-        when(autocompleteRepository.findMatchingConceptsFor(concept, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
+        when(conceptAutocompleteIndexService.findMatchingConceptsFor(concept, "fr", "que", FieldConfigurationService.LIMIT_RESULTS))
                 .thenReturn(expectedResults);
 
         List<ConceptAutocompleteDTO> results = service.fetchAutocomplete(field, "que", 42L);
@@ -785,7 +788,7 @@ class FieldConfigurationServiceTest {
         when(fieldFormConfigRepository.findByFieldAndActionUnit(field, 42L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalStateException.class, () -> service.fetchAutocomplete(field, "que", 42L));
-        verifyNoInteractions(autocompleteRepository);
+        verifyNoInteractions(autocompleteRepository, conceptAutocompleteIndexService);
     }
 
     @Test
@@ -797,7 +800,7 @@ class FieldConfigurationServiceTest {
         field.setId(7L);
 
         assertThrows(IllegalStateException.class, () -> service.fetchAutocomplete(field, "que", 42L));
-        verifyNoInteractions(fieldFormConfigRepository, autocompleteRepository);
+        verifyNoInteractions(fieldFormConfigRepository, autocompleteRepository, conceptAutocompleteIndexService);
     }
 
     @Test
@@ -810,7 +813,7 @@ class FieldConfigurationServiceTest {
         when(fieldFormConfigRepository.findByFieldAndActionUnit(field, 42L)).thenReturn(Optional.of(config));
 
         assertThrows(IllegalStateException.class, () -> service.fetchAutocomplete(field, "que", 42L));
-        verifyNoInteractions(autocompleteRepository);
+        verifyNoInteractions(autocompleteRepository, conceptAutocompleteIndexService);
     }
 
     @Test
@@ -835,7 +838,7 @@ class FieldConfigurationServiceTest {
 
         List<ConceptAutocompleteDTO> expected = List.of(
                 new ConceptAutocompleteDTO(new ConceptDTO(), "A", "fr"));
-        when(autocompleteRepository.findMatchingConceptsFor(cfc.getConcept(), "fr", null, FieldConfigurationService.LIMIT_RESULTS))
+        when(conceptAutocompleteIndexService.findMatchingConceptsFor(cfc.getConcept(), "fr", null, FieldConfigurationService.LIMIT_RESULTS))
                 .thenReturn(expected);
 
         var result = service.fetchAllConfiguredVocabularies(userInfo);
@@ -32,6 +32,9 @@ class LabelServiceTest {
     @Mock
     private ConceptLabelRepository conceptLabelRepository;
 
+    @Mock
+    private ConceptAutocompleteIndexService conceptAutocompleteIndexService;
+
     @InjectMocks
     private LabelService labelService;
 
@@ -252,6 +255,7 @@ class LabelServiceTest {
         // Then
         assertEquals("Updated", existing.getLabel());
         verify(conceptLabelRepository, times(1)).save(existing);
+        verify(conceptAutocompleteIndexService).invalidateAll();
     }
 
     @Test
@@ -45,7 +45,7 @@ class VocabularyServiceIntTest {
     @BeforeEach
     void setUp() {
         RequestFactory requestFactory = new RequestFactory(new RestTemplateBuilder());
-        ThesaurusApi thesaurusApi = new ThesaurusApi(requestFactory, new ConceptApi(requestFactory, null, null));
+        ThesaurusApi thesaurusApi = new ThesaurusApi(requestFactory, new ConceptApi(requestFactory, null, null, null));
         vocabularyService = new VocabularyService(vocabularyRepository, thesaurusApi, vocabularyTypeRepository, labelService);
     }
 
@@ -0,0 +1,209 @@
+package fr.siamois.domain.utils.stratigraphy;
+
+import fr.siamois.utils.stratigraphy.IncrementalStratigraphicClosure;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalStratigraphicClosureTest {
+
+    private record Relationship(long unit1, long unit2, boolean synchronous) {
+    }
+
+    @Test
+    void addRelationship_deducesAnteriorityThroughSynchronousGroup() {
+        IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+        closure.addRelationship(1, 2, false);
+        closure.addRelationship(2, 3, true);
+        IncrementalStratigraphicClosure.Delta delta = closure.addRelationship(3, 4, false);
+
+        assertTrue(closure.isAnterior(1, 4));
+        assertTrue(closure.isAnterior(2, 4));
+        assertFalse(closure.isAnterior(2, 3));
+        assertFalse(closure.isAnterior(4, 1));
+        assertEquals(Set.of(2L, 3L), closure.synchronousGroupOf(3));
+        assertEquals(Set.of(1L, 2L, 3L), closure.anteriorsOf(4));
+        assertEquals(Set.of(2L, 3L, 4L), closure.posteriorsOf(1));
+        assertTrue(delta.added().contains(new IncrementalStratigraphicClosure.Pair(1, 4)));
+        assertTrue(delta.removed().isEmpty());
+    }
+
+    @Test
+    void removeRelationship_splitsSynchronousGroupAndForgetsDeductions() {
+        IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+        closure.addRelationship(1, 2, false);
+        closure.addRelationship(2, 3, true);
+        closure.addRelationship(3, 4, false);
+
+        IncrementalStratigraphicClosure.Delta delta = closure.removeRelationship(2, 3, true);
+
+        assertFalse(closure.isAnterior(1, 4));
+        assertTrue(closure.isAnterior(3, 4));
+        assertEquals(Set.of(2L), closure.synchronousGroupOf(2));
+        assertEquals(Set.of(3L), closure.synchronousGroupOf(3));
+        assertTrue(delta.removed().contains(new IncrementalStratigraphicClosure.Pair(1, 4)));
+        assertFalse(delta.removed().contains(new IncrementalStratigraphicClosure.Pair(3, 4)));
+    }
+
+    @Test
+    void builder_computesTheClosureOnceAllRelationshipsAreAdded() {
+        IncrementalStratigraphicClosure.Builder builder = IncrementalStratigraphicClosure.builder()
+                .add(1, 2, false)
+                .add(2, 3, true)
+                .add(3, 4, false);
+
+        IncrementalStratigraphicClosure closure = builder.build();
+
+        assertTrue(closure.isAnterior(1, 4));
+        assertEquals(Set.of(2L, 3L), closure.synchronousGroupOf(2));
+        assertThrows(IllegalStateException.class, () -> builder.add(4, 5, false));
+    }
+
+    @Test
+    void copy_isIndependentOfTheOriginal() {
+        IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+        closure.addRelationship(1, 2, false);
+        closure.addRelationship(2, 3, true);
+
+        IncrementalStratigraphicClosure copy = closure.copy();
+        copy.addRelationship(3, 4, false);
+        copy.removeRelationship(2, 3, true);
+
+        assertTrue(copy.isAnterior(3, 4));
+        assertFalse(copy.isAnterior(1, 3));
+        assertFalse(closure.isAnterior(3, 4));
+        assertTrue(closure.isAnterior(1, 3));
+        assertEquals(Set.of(2L, 3L), closure.synchronousGroupOf(2));
+    }
+
+    @Test
+    void removeRelationship_unknownUnits_noChange() {
+        IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+        closure.addRelationship(1, 2, false);
+
+        assertTrue(closure.removeRelationship(5, 6, false).isEmpty());
+        assertTrue(closure.isAnterior(1, 2));
+    }
+
+    @Test
+    void randomChanges_sameClosureAsRecomputation() {
+        Random random = new Random(3);
+        for (int run = 0; run < 50; run++) {
+            int n = 2 + random.nextInt(25);
+            IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+            List<Relationship> relationships = new ArrayList<>();
+            Set<IncrementalStratigraphicClosure.Pair> pairs = new HashSet<>();
+
+            for (int step = 0; step < 3 * n; step++) {
+                IncrementalStratigraphicClosure.Delta delta;
+                if (!relationships.isEmpty() && random.nextInt(3) == 0) {
+                    Relationship removed = relationships.remove(random.nextInt(relationships.size()));
+                    delta = closure.removeRelationship(removed.unit1(), removed.unit2(), removed.synchronous());
+                } else {
+                    Relationship added = new Relationship(random.nextInt(n), random.nextInt(n), random.nextInt(4) == 0);
+                    relationships.add(added);
+                    delta = closure.addRelationship(added.unit1(), added.unit2(), added.synchronous());
+                }
+                pairs.removeAll(delta.removed());
+                pairs.addAll(delta.added());
+
+                boolean[][] reachable = transitiveClosure(n, relationships);
+                assertEquals(expectedPairs(n, reachable), new HashSet<>(closure.reachabilityPairs()));
+                assertEquals(new HashSet<>(closure.reachabilityPairs()), pairs);
+                assertSameQueries(n, reachable, relationships, closure);
+            }
+
+            // A copy answers the same queries and keeps being maintained
+            IncrementalStratigraphicClosure restored = closure.copy();
+            IncrementalStratigraphicClosure rebuilt = IncrementalStratigraphicClosure.build(
+                    relationships.stream().map(r -> new long[]{r.unit1(), r.unit2()}).toList(),
+                    relationships.stream().map(Relationship::synchronous).toList());
+            assertEquals(new HashSet<>(closure.reachabilityPairs()), new HashSet<>(rebuilt.reachabilityPairs()));
+            if (!relationships.isEmpty()) {
+                Relationship removed = relationships.remove(0);
+                restored.removeRelationship(removed.unit1(), removed.unit2(), removed.synchronous());
+                assertEquals(expectedPairs(n, transitiveClosure(n, relationships)), new HashSet<>(restored.reachabilityPairs()));
+            }
+        }
+    }
+
+    @Test
+    void addRelationship_longChain() {
+        int n = 2000;
+        IncrementalStratigraphicClosure closure = new IncrementalStratigraphicClosure();
+        for (int u = 1; u < n; u++) {
+            closure.addRelationship(u - 1, u, false);
+        }
+
+        assertTrue(closure.isAnterior(0, n - 1));
+        assertEquals(n - 1, closure.anteriorsOf(n - 1).size());
+
+        closure.removeRelationship(n / 2 - 1, n / 2, false);
+        assertFalse(closure.isAnterior(0, n - 1));
+        assertEquals(n / 2 - 1, closure.anteriorsOf(n - 1).size());
+    }
+
+    private static void assertSameQueries(int n, boolean[][] reachable, List<Relationship> relationships,
+                                          IncrementalStratigraphicClosure closure) {
+        boolean[][] synchronous = synchronousGroups(n, relationships);
+        for (int u1 = 0; u1 < n; u1++) {
+            Set<Long> group = new HashSet<>();
+            for (int u2 = 0; u2 < n; u2++) {
+                assertEquals(reachable[u1][u2] && !synchronous[u1][u2], closure.isAnterior(u1, u2));
+                if (synchronous[u1][u2]) {
+                    group.add((long) u2);
+                }
+            }
+            long unit = u1;
+            boolean known = relationships.stream().anyMatch(r -> r.unit1() == unit || r.unit2() == unit);
+            if (known) {
+                assertEquals(group, closure.synchronousGroupOf(u1));
+            }
+        }
+    }
+
+    private static boolean[][] transitiveClosure(int n, List<Relationship> relationships) {
+        boolean[][] reachable = new boolean[n][n];
+        for (Relationship r : relationships) {
+            reachable[(int) r.unit1()][(int) r.unit2()] = true;
+            if (r.synchronous()) {
+                reachable[(int) r.unit2()][(int) r.unit1()] = true;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    reachable[i][j] |= reachable[i][k] && reachable[k][j];
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private static boolean[][] synchronousGroups(int n, List<Relationship> relationships) {
+        List<Relationship> synchronous = relationships.stream().filter(Relationship::synchronous).toList();
+        boolean[][] connected = transitiveClosure(n, synchronous);
+        for (int u = 0; u < n; u++) {
+            connected[u][u] = true;
+        }
+        return connected;
+    }
+
+    private static Set<IncrementalStratigraphicClosure.Pair> expectedPairs(int n, boolean[][] reachable) {
+        Set<IncrementalStratigraphicClosure.Pair> pairs = new HashSet<>();
+        for (int u1 = 0; u1 < n; u1++) {
+            for (int u2 = 0; u2 < n; u2++) {
+                if (reachable[u1][u2]) {
+                    pairs.add(new IncrementalStratigraphicClosure.Pair(u1, u2));
+                }
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,215 @@
+package fr.siamois.domain.utils.stratigraphy;
+
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import fr.siamois.utils.stratigraphy.IndexedStratigraphyOrderRelationshipProcessor;
+import fr.siamois.utils.stratigraphy.StratigraphyOrderRelationshipProcessor;
+import fr.siamois.utils.stratigraphy.SynchronousGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedStratigraphyOrderRelationshipProcessorTest {
+
+    @Test
+    void testProcess_CircuitDetected() {
+        List<SynchronousGroup> groups = createGroups(3);
+        createAsynchronousRelationship(groups.get(0), groups.get(2));
+        createAsynchronousRelationship(groups.get(1), groups.get(2));
+        createAsynchronousRelationship(groups.get(2), groups.get(0));
+
+        IndexedStratigraphyOrderRelationshipProcessor processor = new IndexedStratigraphyOrderRelationshipProcessor(groups);
+        processor.process();
+
+        assertTrue(processor.isSignalConflict());
+        assertEquals(1, processor.getLoops().size());
+        assertEquals(Set.of(groups.get(0), groups.get(2)), new HashSet<>(processor.getLoops().get(0)));
+        assertTrue(groups.stream().allMatch(group -> group.getRelationshipsAsUnit1().stream()
+                .noneMatch(rel -> rel.getUnit2() == group)));
+    }
+
+    @Test
+    void testProcess_Success() {
+        List<SynchronousGroup> groups = createGroups(3);
+        SynchronousGroup unitA = groups.get(0);
+        SynchronousGroup unitB = groups.get(1);
+        SynchronousGroup unitC = groups.get(2);
+        createAsynchronousRelationship(unitB, unitA);
+        createAsynchronousRelationship(unitC, unitB);
+
+        IndexedStratigraphyOrderRelationshipProcessor processor = new IndexedStratigraphyOrderRelationshipProcessor(groups);
+        processor.process();
+
+        assertFalse(processor.isSignalConflict());
+        assertTrue(processor.getLoops().isEmpty());
+        assertEquals(0, unitA.getRelationshipsAsUnit1().size());
+        assertEquals(1, unitB.getRelationshipsAsUnit1().size());
+        assertEquals(2, unitC.getRelationshipsAsUnit1().size());
+        assertTrue(describe(groups).contains("C->A " + StratigraphicRelationshipService.ASYNCHRONOUS_DEDUCTED.getExternalId()));
+        assertTrue(describe(groups).contains("C->B " + StratigraphicRelationshipService.ASYNCHRONOUS.getExternalId()));
+        assertTrue(processor.isReachable(unitC, unitA));
+        assertFalse(processor.isReachable(unitA, unitC));
+    }
+
+    @Test
+    void process_sameRelationshipsAsLegacyProcessor_onRandomAcyclicGraphs() {
+        Random random = new Random(7);
+        for (int run = 0; run < 100; run++) {
+            int n = 2 + random.nextInt(30);
+            List<int[]> edges = randomEdges(random, n, false);
+
+            List<SynchronousGroup> legacyGroups = createGroups(n, edges);
+            StratigraphyOrderRelationshipProcessor legacy = new StratigraphyOrderRelationshipProcessor(legacyGroups);
+            legacy.process();
+
+            List<SynchronousGroup> indexedGroups = createGroups(n, edges);
+            IndexedStratigraphyOrderRelationshipProcessor indexed = new IndexedStratigraphyOrderRelationshipProcessor(indexedGroups);
+            indexed.process();
+
+            assertFalse(indexed.isSignalConflict());
+            assertEquals(legacy.isSignalConflict(), indexed.isSignalConflict());
+            assertEquals(describe(legacyGroups), describe(indexedGroups));
+        }
+    }
+
+    @Test
+    void process_loopsAreStronglyConnectedComponents_onRandomGraphs() {
+        Random random = new Random(11);
+        for (int run = 0; run < 100; run++) {
+            int n = 2 + random.nextInt(30);
+            List<int[]> edges = randomEdges(random, n, true);
+            boolean[][] reachable = transitiveClosure(n, edges);
+
+            List<SynchronousGroup> groups = createGroups(n, edges);
+            IndexedStratigraphyOrderRelationshipProcessor processor = new IndexedStratigraphyOrderRelationshipProcessor(groups);
+            processor.process();
+
+            Set<Set<String>> expectedLoops = new HashSet<>();
+            for (int g = 0; g < n; g++) {
+                if (reachable[g][g]) {
+                    Set<String> loop = new HashSet<>();
+                    for (int g2 = 0; g2 < n; g2++) {
+                        if (reachable[g][g2] && reachable[g2][g]) {
+                            loop.add(name(g2));
+                        }
+                    }
+                    expectedLoops.add(loop);
+                }
+            }
+            Set<Set<String>> loops = processor.getLoops().stream()
+                    .map(loop -> loop.stream().map(RecordingUnit::getFullIdentifier).collect(Collectors.toSet()))
+                    .collect(Collectors.toSet());
+            assertEquals(expectedLoops, loops);
+            assertEquals(!expectedLoops.isEmpty(), processor.isSignalConflict());
+
+            for (int g1 = 0; g1 < n; g1++) {
+                for (int g2 = 0; g2 < n; g2++) {
+                    assertEquals(reachable[g1][g2], processor.isReachable(groups.get(g1), groups.get(g2)));
+                    boolean related = g1 != g2 && reachable[g1][g2];
+                    int target = g2;
+                    assertEquals(related, groups.get(g1).getRelationshipsAsUnit1().stream()
+                            .anyMatch(rel -> rel.getUnit2() == groups.get(target)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void computeClosure_longChain() {
+        int n = 20000;
+        List<int[]> edges = new ArrayList<>();
+        for (int g = 1; g < n; g++) {
+            edges.add(new int[]{g, g - 1});
+        }
+        edges.add(new int[]{0, n - 1});
+        List<SynchronousGroup> groups = createGroups(n, edges);
+
+        IndexedStratigraphyOrderRelationshipProcessor processor = new IndexedStratigraphyOrderRelationshipProcessor(groups);
+        processor.computeClosure();
+
+        assertTrue(processor.isSignalConflict());
+        assertEquals(1, processor.getLoops().size());
+        assertEquals(n, processor.getLoops().get(0).size());
+        assertTrue(processor.isReachable(groups.get(0), groups.get(n - 1)));
+    }
+
+    private static List<int[]> randomEdges(Random random, int n, boolean allowCycles) {
+        List<int[]> edges = new ArrayList<>();
+        Set<Set<Integer>> usedPairs = new HashSet<>();
+        int count = random.nextInt(2 * n);
+        for (int i = 0; i < count; i++) {
+            int g1 = random.nextInt(n);
+            int g2 = random.nextInt(n);
+            if (g1 == g2 || !usedPairs.add(Set.of(g1, g2))) {
+                continue;
+            }
+            // Acyclic graphs only have relationships from a higher to a lower index
+            edges.add(allowCycles || g1 > g2 ? new int[]{g1, g2} : new int[]{g2, g1});
+        }
+        return edges;
+    }
+
+    private static boolean[][] transitiveClosure(int n, List<int[]> edges) {
+        boolean[][] reachable = new boolean[n][n];
+        for (int[] edge : edges) {
+            reachable[edge[0]][edge[1]] = true;
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    reachable[i][j] |= reachable[i][k] && reachable[k][j];
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private static String name(int g) {
+        return g < 26 ? String.valueOf((char) ('A' + g)) : "G" + g;
+    }
+
+    private static List<SynchronousGroup> createGroups(int n) {
+        List<SynchronousGroup> groups = new ArrayList<>();
+        for (int g = 0; g < n; g++) {
+            SynchronousGroup group = new SynchronousGroup();
+            group.setFullIdentifier(name(g));
+            group.setId((long) g + 1);
+            group.setRelationshipsAsUnit1(new HashSet<>());
+            group.setRelationshipsAsUnit2(new HashSet<>());
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private static List<SynchronousGroup> createGroups(int n, List<int[]> edges) {
+        List<SynchronousGroup> groups = createGroups(n);
+        for (int[] edge : edges) {
+            createAsynchronousRelationship(groups.get(edge[0]), groups.get(edge[1]));
+        }
+        return groups;
+    }
+
+    private static Set<String> describe(List<SynchronousGroup> groups) {
+        return groups.stream()
+                .flatMap(group -> group.getRelationshipsAsUnit1().stream())
+                .map(rel -> rel.getUnit1().getFullIdentifier() + "->" + rel.getUnit2().getFullIdentifier()
+                        + " " + rel.getConcept().getExternalId())
+                .collect(Collectors.toSet());
+    }
+
+    private static void createAsynchronousRelationship(RecordingUnit unit1, RecordingUnit unit2) {
+        StratigraphicRelationship relationship = new StratigraphicRelationship();
+        relationship.setUnit1(unit1);
+        relationship.setUnit2(unit2);
+        relationship.setConcept(StratigraphicRelationshipService.ASYNCHRONOUS);
+        unit1.getRelationshipsAsUnit1().add(relationship);
+    }
+}
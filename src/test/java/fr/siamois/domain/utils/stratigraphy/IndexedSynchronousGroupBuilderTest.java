@@ -0,0 +1,237 @@
+package fr.siamois.domain.utils.stratigraphy;
+
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import fr.siamois.utils.stratigraphy.IndexedSynchronousGroupBuilder;
+import fr.siamois.utils.stratigraphy.SynchronousGroup;
+import fr.siamois.utils.stratigraphy.SynchronousGroupBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedSynchronousGroupBuilderTest {
+
+    private record Edge(int unit1, int unit2, Concept concept) {
+    }
+
+    @Test
+    void build_sameGroupsAsLegacyBuilder_onSimpleGraph() {
+        List<Edge> edges = List.of(
+                new Edge(0, 1, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(0, 2, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(0, 3, StratigraphicRelationshipService.ASYNCHRONOUS),
+                new Edge(1, 3, StratigraphicRelationshipService.ASYNCHRONOUS)
+        );
+
+        assertSameAsLegacy(4, edges, new String[]{"US", "US", "US", "US"});
+    }
+
+    @Test
+    void build_sameGroupsAsLegacyBuilder_withDeclaredMaster() {
+        List<Edge> edges = List.of(
+                new Edge(4, 2, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(2, 0, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(1, 3, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(5, 5, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(3, 4, StratigraphicRelationshipService.ASYNCHRONOUS),
+                new Edge(5, 1, StratigraphicRelationshipService.ASYNCHRONOUS)
+        );
+
+        assertSameAsLegacy(7, edges, new String[]{"US", "US", "maître d'ES", "US", "US", "US", "US"});
+    }
+
+    @Test
+    void build_sameGroupsAsLegacyBuilder_onRandomGraphs() {
+        Random random = new Random(42);
+        int compared = 0;
+        for (int run = 0; run < 200; run++) {
+            int n = 5 + random.nextInt(40);
+            List<Edge> edges = randomEdges(random, n);
+            String[] status = new String[n];
+            Arrays.fill(status, "US");
+
+            List<SynchronousGroup> legacyGroups = buildLegacy(n, edges, status);
+            List<SynchronousGroup> indexedGroups = buildIndexed(n, edges, status);
+
+            assertEquals(connectedComponents(n, edges), partition(indexedGroups));
+            assertEquals(expectedRelationships(indexedGroups, edges), relationships(indexedGroups));
+            // The legacy fixpoint may stop before the closure is complete and then returns overlapping groups
+            if (isPartition(legacyGroups, n)) {
+                // Without declared master, the legacy master is the first unit reached by the closure
+                assertEquals(describe(legacyGroups, false, false), describe(indexedGroups, false, false));
+                // The legacy groups have no id and keep at most one relationship each
+                assertTrue(relationships(indexedGroups).containsAll(relationships(legacyGroups)));
+                compared++;
+            }
+        }
+        assertTrue(compared > 100, "Too few graphs compared with the legacy builder: " + compared);
+    }
+
+    @Test
+    void build_doesNotModifyUnitRelationships() {
+        List<RecordingUnit> units = createUnits(3, List.of(
+                new Edge(0, 1, StratigraphicRelationshipService.SYNCHRONOUS),
+                new Edge(1, 2, StratigraphicRelationshipService.SYNCHRONOUS)
+        ));
+
+        IndexedSynchronousGroupBuilder builder = new IndexedSynchronousGroupBuilder(
+                units, new String[]{"US", "US", "US"}, new long[]{1, 2, 3}, new ArrayList<>());
+        builder.build();
+
+        assertEquals(1, builder.getSynchronousGroupList().size());
+        assertEquals(1, units.get(0).getRelationshipsAsUnit1().size());
+        assertEquals(1, units.get(1).getRelationshipsAsUnit1().size());
+        assertTrue(units.get(2).getRelationshipsAsUnit1().isEmpty());
+    }
+
+    private void assertSameAsLegacy(int n, List<Edge> edges, String[] status) {
+        assertEquals(describe(buildLegacy(n, edges, status), true, true), describe(buildIndexed(n, edges, status), true, true));
+    }
+
+    private static List<SynchronousGroup> buildLegacy(int n, List<Edge> edges, String[] status) {
+        SynchronousGroupBuilder legacy = new SynchronousGroupBuilder(
+                createUnits(n, edges), status, initialEnSynch(n), new ArrayList<>());
+        legacy.build();
+        return legacy.getSynchronousGroupList();
+    }
+
+    private static List<SynchronousGroup> buildIndexed(int n, List<Edge> edges, String[] status) {
+        IndexedSynchronousGroupBuilder indexed = new IndexedSynchronousGroupBuilder(
+                createUnits(n, edges), status, initialEnSynch(n), new ArrayList<>());
+        indexed.build();
+        return indexed.getSynchronousGroupList();
+    }
+
+    private static List<Edge> randomEdges(Random random, int n) {
+        List<Edge> edges = new ArrayList<>();
+        Set<Set<Integer>> usedPairs = new HashSet<>();
+        for (int u = 1; u < n; u++) {
+            if (random.nextInt(3) == 0) {
+                int u2 = random.nextInt(u);
+                usedPairs.add(Set.of(u2, u));
+                edges.add(random.nextBoolean()
+                        ? new Edge(u2, u, StratigraphicRelationshipService.SYNCHRONOUS)
+                        : new Edge(u, u2, StratigraphicRelationshipService.SYNCHRONOUS));
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int u1 = random.nextInt(n);
+            int u2 = random.nextInt(n);
+            if (u1 != u2 && usedPairs.add(Set.of(u1, u2))) {
+                edges.add(new Edge(u1, u2, StratigraphicRelationshipService.ASYNCHRONOUS));
+            }
+        }
+        return edges;
+    }
+
+    private static Set<Set<String>> connectedComponents(int n, List<Edge> edges) {
+        int[] component = IntStream.range(0, n).toArray();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Edge edge : edges) {
+                if (edge.concept() == StratigraphicRelationshipService.SYNCHRONOUS) {
+                    int min = Math.min(component[edge.unit1()], component[edge.unit2()]);
+                    if (component[edge.unit1()] != min || component[edge.unit2()] != min) {
+                        component[edge.unit1()] = min;
+                        component[edge.unit2()] = min;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return IntStream.range(0, n).boxed()
+                .collect(Collectors.groupingBy(u -> component[u],
+                        Collectors.mapping(u -> "US" + u, Collectors.toSet())))
+                .values().stream()
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Set<String>> partition(List<SynchronousGroup> groups) {
+        return groups.stream()
+                .map(group -> group.getUnits().stream().map(RecordingUnit::getFullIdentifier).collect(Collectors.toSet()))
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean isPartition(List<SynchronousGroup> groups, int n) {
+        return groups.stream().mapToInt(group -> group.getUnits().size()).sum() == n;
+    }
+
+    private static long[] initialEnSynch(int n) {
+        return IntStream.range(0, n).mapToLong(i -> i + 1).toArray();
+    }
+
+    private static List<RecordingUnit> createUnits(int n, List<Edge> edges) {
+        List<RecordingUnit> units = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            RecordingUnit unit = new RecordingUnit();
+            unit.setFullIdentifier("US" + u);
+            unit.setRelationshipsAsUnit1(new HashSet<>());
+            unit.setRelationshipsAsUnit2(new HashSet<>());
+            units.add(unit);
+        }
+        for (Edge edge : edges) {
+            StratigraphicRelationship relationship = new StratigraphicRelationship();
+            relationship.setUnit1(units.get(edge.unit1()));
+            relationship.setUnit2(units.get(edge.unit2()));
+            relationship.setConcept(edge.concept());
+            units.get(edge.unit1()).getRelationshipsAsUnit1().add(relationship);
+        }
+        return units;
+    }
+
+    private static String identifiers(SynchronousGroup group) {
+        return group.getUnits().stream()
+                .map(RecordingUnit::getFullIdentifier)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .toString();
+    }
+
+    // The legacy builder orders the groups by the first unit that received a reflexive relationship,
+    // which depends on the relationship directions: only the content of the groups is compared
+    private static List<String> describe(List<SynchronousGroup> groups, boolean withMaster, boolean withRelationships) {
+        return groups.stream()
+                .map(group -> identifiers(group)
+                        + (withMaster ? " master=" + group.getMaster().getFullIdentifier() : "")
+                        + (withRelationships ? " rels=" + group.getRelationshipsAsUnit1().stream()
+                        .map(rel -> rel.getConcept().getExternalId() + "->" + identifiers((SynchronousGroup) rel.getUnit2()))
+                        .sorted()
+                        .toList() : ""))
+                .sorted()
+                .toList();
+    }
+
+    private static Set<String> relationships(List<SynchronousGroup> groups) {
+        return groups.stream()
+                .flatMap(group -> group.getRelationshipsAsUnit1().stream())
+                .map(rel -> identifiers((SynchronousGroup) rel.getUnit1()) + "->" + identifiers((SynchronousGroup) rel.getUnit2()))
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> expectedRelationships(List<SynchronousGroup> groups, List<Edge> edges) {
+        return edges.stream()
+                .filter(edge -> edge.concept() == StratigraphicRelationshipService.ASYNCHRONOUS)
+                .map(edge -> identifiers(groupOf(groups, edge.unit1())) + "->" + identifiers(groupOf(groups, edge.unit2())))
+                .collect(Collectors.toSet());
+    }
+
+    private static SynchronousGroup groupOf(List<SynchronousGroup> groups, int unit) {
+        return groups.stream()
+                .filter(group -> group.getUnits().stream().anyMatch(u -> u.getFullIdentifier().equals("US" + unit)))
+                .findFirst()
+                .orElseThrow();
+    }
+}
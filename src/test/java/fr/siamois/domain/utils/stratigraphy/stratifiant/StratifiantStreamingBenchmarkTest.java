@@ -0,0 +1,150 @@
+package fr.siamois.domain.utils.stratigraphy.stratifiant;
+
+import fr.siamois.domain.models.recordingunit.RecordingUnit;
+import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
+import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import fr.siamois.utils.stratigraphy.stratifiant.Stratifiant;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the DOM loading of a Stratifiant export with the streaming one, on a generated workbook of 100k
+ * relationships. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StratifiantStreamingBenchmarkTest {
+
+    private static final int UNITS = 50_000;
+    private static final int RELATIONSHIPS = 100_000;
+
+    @TempDir
+    Path tempDir;
+
+    private interface Loader {
+        List<RecordingUnit> load(String filename) throws IOException;
+    }
+
+    private record Measure(List<RecordingUnit> units, long millis, long peakHeapBytes) {
+    }
+
+    @Test
+    void loadStratifiantDataFromSpreadsheet_domVersusStreaming() throws IOException {
+        String filename = generateWorkbook(tempDir.resolve("stratifiant-100k.xlsx"));
+
+        // Warm-up
+        Stratifiant.loadStratifiantDataFromSpreadsheet(filename);
+        loadWithWorkbook(filename);
+
+        Measure dom = measure(StratifiantStreamingBenchmarkTest::loadWithWorkbook, filename);
+        Measure streaming = measure(Stratifiant::loadStratifiantDataFromSpreadsheet, filename);
+
+        System.out.printf("Stratifiant %d units / %d relationships%n", UNITS, RELATIONSHIPS);
+        System.out.printf("  XSSFWorkbook : %6d ms, peak heap %6d MB%n", dom.millis(), dom.peakHeapBytes() >> 20);
+        System.out.printf("  streaming    : %6d ms, peak heap %6d MB%n", streaming.millis(), streaming.peakHeapBytes() >> 20);
+
+        assertEquals(dom.units().size(), streaming.units().size());
+        assertEquals(countRelationships(dom.units()), countRelationships(streaming.units()));
+    }
+
+    private static Measure measure(Loader loader, String filename) throws IOException {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        long baseline = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        List<RecordingUnit> units = loader.load(filename);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Measure(units, millis, Math.max(0, peak - baseline));
+    }
+
+    private static long countRelationships(List<RecordingUnit> units) {
+        return units.stream().mapToLong(unit -> unit.getRelationshipsAsUnit1().size()).sum();
+    }
+
+    private static String generateWorkbook(Path path) throws IOException {
+        Random random = new Random(1);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             FileOutputStream out = new FileOutputStream(path.toFile())) {
+            Sheet units = workbook.createSheet("US");
+            units.createRow(0).createCell(0).setCellValue("US");
+            for (int u = 0; u < UNITS; u++) {
+                units.createRow(u + 1).createCell(0).setCellValue("US" + u);
+            }
+            Sheet relationships = workbook.createSheet("Relations");
+            Row header = relationships.createRow(0);
+            header.createCell(0).setCellValue("US1");
+            header.createCell(1).setCellValue("Relation");
+            header.createCell(2).setCellValue("US2");
+            for (int r = 0; r < RELATIONSHIPS; r++) {
+                int unit1 = 1 + random.nextInt(UNITS - 1);
+                int unit2 = random.nextInt(unit1);
+                Row row = relationships.createRow(r + 1);
+                row.createCell(0).setCellValue("US" + unit1);
+                row.createCell(1).setCellValue(random.nextInt(10) == 0 ? "synchrone avec" : "sous");
+                row.createCell(2).setCellValue("US" + unit2);
+            }
+            workbook.write(out);
+        }
+        return path.toString();
+    }
+
+    // The previous implementation, building the whole workbook in memory
+    private static List<RecordingUnit> loadWithWorkbook(String filename) throws IOException {
+        List<RecordingUnit> units = new ArrayList<>();
+        Map<String, RecordingUnit> indexMap = new HashMap<>();
+        try (FileInputStream file = new FileInputStream(filename);
+             XSSFWorkbook workbook = new XSSFWorkbook(file)) {
+            XSSFSheet sheetUS = workbook.getSheetAt(0);
+            for (Row row : sheetUS) {
+                if (row.getRowNum() == 0) {
+                    continue;
+                }
+                RecordingUnit unit = new RecordingUnit();
+                unit.setId((long) units.size());
+                unit.setFullIdentifier(row.getCell(0).getStringCellValue());
+                indexMap.put(unit.getFullIdentifier(), unit);
+                units.add(unit);
+            }
+            XSSFSheet sheetRel = workbook.getSheetAt(1);
+            for (Row row : sheetRel) {
+                if (row.getRowNum() == 0) {
+                    continue;
+                }
+                StratigraphicRelationship rel = new StratigraphicRelationship();
+                rel.setUnit1(indexMap.get(row.getCell(0).getStringCellValue()));
+                rel.setUnit2(indexMap.get(row.getCell(2).getStringCellValue()));
+                rel.setConcept("sous".equals(row.getCell(1).getStringCellValue())
+                        ? StratigraphicRelationshipService.ASYNCHRONOUS
+                        : StratigraphicRelationshipService.SYNCHRONOUS);
+                rel.getUnit1().getRelationshipsAsUnit1().add(rel);
+            }
+        }
+        return units;
+    }
+}
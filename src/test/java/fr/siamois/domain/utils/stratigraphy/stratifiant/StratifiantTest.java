@@ -3,17 +3,30 @@ package fr.siamois.domain.utils.stratigraphy.stratifiant;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
 import fr.siamois.domain.services.recordingunit.StratigraphicRelationshipService;
+import fr.siamois.utils.stratigraphy.IncrementalStratigraphicClosure;
 import fr.siamois.utils.stratigraphy.stratifiant.Stratifiant;
+import fr.siamois.utils.stratigraphy.stratifiant.StratifiantStreamingReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class StratifiantTest {
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void loadStratifiantDataFromSpreadsheet_success() {
 
@@ -77,4 +90,79 @@ class StratifiantTest {
         });
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void read_givesUnitsAndRelationshipsByBatches() throws IOException {
+        String filename = writeWorkbook(List.of("US1", "US2", "US3"), List.of(
+                new String[]{"US1", "sous", "US2"},
+                new String[]{"US2", "synchrone avec", "US3"},
+                new String[]{"US3", "inconnu", "US1"}));
+
+        List<String> units = new ArrayList<>();
+        List<List<StratifiantStreamingReader.Relationship>> batches = new ArrayList<>();
+        StratifiantStreamingReader.read(filename, new StratifiantStreamingReader.Handler() {
+            @Override
+            public void unit(int index, String name) {
+                assertEquals(units.size(), index);
+                units.add(name);
+            }
+
+            @Override
+            public void relationships(List<StratifiantStreamingReader.Relationship> batch) {
+                batches.add(batch);
+            }
+        }, 2);
+
+        assertEquals(List.of("US1", "US2", "US3"), units);
+        assertEquals(List.of(
+                List.of(new StratifiantStreamingReader.Relationship(0, 1, StratigraphicRelationshipService.ASYNCHRONOUS),
+                        new StratifiantStreamingReader.Relationship(1, 2, StratigraphicRelationshipService.SYNCHRONOUS)),
+                List.of(new StratifiantStreamingReader.Relationship(2, 0, null))
+        ), batches);
+    }
+
+    @Test
+    void read_unknownUnit_throws() throws IOException {
+        String filename = writeWorkbook(List.of("US1"), List.<String[]>of(new String[]{"US1", "sous", "US9"}));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> Stratifiant.loadStratifiantDataFromSpreadsheet(filename));
+
+        assertTrue(ex.getMessage().contains("ligne 2"));
+    }
+
+    @Test
+    void loadStratifiantClosureFromSpreadsheet_deducesAnteriority() throws IOException {
+        String filename = writeWorkbook(List.of("US1", "US2", "US3", "US4"), List.of(
+                new String[]{"US1", "sous", "US2"},
+                new String[]{"US2", "synchrone avec", "US3"},
+                new String[]{"US3", "sous", "US4"}));
+
+        IncrementalStratigraphicClosure closure = Stratifiant.loadStratifiantClosureFromSpreadsheet(filename);
+
+        assertTrue(closure.isAnterior(0, 3));
+        assertEquals(Set.of(1L, 2L), closure.synchronousGroupOf(1));
+    }
+
+    private String writeWorkbook(List<String> units, List<String[]> relationships) throws IOException {
+        Path path = tempDir.resolve("stratifiant.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             OutputStream out = Files.newOutputStream(path)) {
+            Sheet unitSheet = workbook.createSheet("US");
+            unitSheet.createRow(0).createCell(0).setCellValue("US");
+            for (int u = 0; u < units.size(); u++) {
+                unitSheet.createRow(u + 1).createCell(0).setCellValue(units.get(u));
+            }
+            Sheet relationshipSheet = workbook.createSheet("Relations");
+            relationshipSheet.createRow(0).createCell(0).setCellValue("US1");
+            for (int r = 0; r < relationships.size(); r++) {
+                Row row = relationshipSheet.createRow(r + 1);
+                for (int c = 0; c < 3; c++) {
+                    row.createCell(c).setCellValue(relationships.get(r)[c]);
+                }
+            }
+            workbook.write(out);
+        }
+        return path.toString();
+    }
+}
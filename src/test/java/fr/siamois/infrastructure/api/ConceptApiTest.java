@@ -7,6 +7,7 @@ import fr.siamois.domain.models.exceptions.ErrorProcessingExpansionException;
 import fr.siamois.domain.models.exceptions.api.NotSiamoisThesaurusException;
 import fr.siamois.domain.models.settings.ConceptFieldConfig;
 import fr.siamois.domain.models.vocabulary.ConceptCollection;
+import fr.siamois.domain.models.vocabulary.ThesaurusHttpResponse;
 import fr.siamois.domain.models.vocabulary.Vocabulary;
 import fr.siamois.dto.entity.vocabulary.VocabularyDTO;
 import fr.siamois.infrastructure.api.dto.FullInfoDTO;
@@ -16,10 +17,14 @@ import fr.siamois.infrastructure.api.dto.concept.ConceptBranchDTO;
 import fr.siamois.infrastructure.api.dto.concept.ConceptRemoteAutocompleteDTO;
 import fr.siamois.infrastructure.database.repositories.FieldRepository;
 import fr.siamois.infrastructure.database.repositories.vocabulary.ConceptCollectionRepository;
+import fr.siamois.infrastructure.database.repositories.vocabulary.ThesaurusHttpResponseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -54,6 +59,9 @@ class ConceptApiTest {
     @Mock
     private ConceptCollectionRepository conceptCollectionRepository;
 
+    @Mock
+    private ThesaurusHttpResponseRepository thesaurusHttpResponseRepository;
+
     @Mock
     private RequestFactory requestFactory;
 
@@ -68,7 +76,8 @@ class ConceptApiTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(requestFactory.buildRestTemplate(true)).thenReturn(restTemplate);
-        conceptApi = new ConceptApi(requestFactory, fieldRepository, conceptCollectionRepository);
+        conceptApi = new ConceptApi(requestFactory, fieldRepository, conceptCollectionRepository,
+                new ThesaurusHttpCache(thesaurusHttpResponseRepository));
 
         vocabulary = new Vocabulary();
         vocabulary.setBaseUri("http://example.com");
@@ -485,6 +494,25 @@ class ConceptApiTest {
         verify(restTemplate).exchange(eq(expansionUri), eq(HttpMethod.GET), any(), eq(String.class));
     }
 
+    @Test
+    void fetchDownExpansion_sameArkTwice_resolvesItOnce() throws Exception {
+        URI arkUri = URI.create("http://example.com/openapi/v1/concept/ark:/26678/pcrtREVS9rPi7K");
+        when(restTemplate.exchange(eq(arkUri), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("""
+                        {"http://example.com/ark:/26678/pcrtREVS9rPi7K": {
+                           "http://purl.org/dc/terms/identifier": [{"value": "4282369", "type": "literal"}]
+                         }}""", HttpStatus.OK));
+        URI expansionUri = URI.create("http://example.com/openapi/v1/concept/th223/4282369/expansion?way=down");
+        when(restTemplate.exchange(eq(expansionUri), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("{}", HttpStatus.OK));
+
+        conceptApi.fetchDownExpansion(vocabulary, "ark:/26678/pcrtREVS9rPi7K");
+        conceptApi.fetchDownExpansion(vocabulary, "ark:/26678/pcrtREVS9rPi7K");
+
+        verify(restTemplate, times(1)).exchange(eq(arkUri), eq(HttpMethod.GET), any(), eq(String.class));
+        verify(restTemplate, times(2)).exchange(eq(expansionUri), eq(HttpMethod.GET), any(), eq(String.class));
+    }
+
     @Test
     void fetchDownExpansion_ordinaryConcept_isExpandedWithoutAnyExtraCall() throws Exception {
         URI expansionUri = URI.create("http://example.com/openapi/v1/concept/th223/4282369/expansion?way=down");
@@ -731,6 +759,82 @@ class ConceptApiTest {
         return collection;
     }
 
+    // --- conditional requests ---------------------------------------------------------------------
+
+    private ConceptFieldConfig expansionConfig(String existingHash) {
+        ConceptFieldConfig config = new ConceptFieldConfig();
+        config.setConcept(new fr.siamois.domain.models.vocabulary.Concept.Builder()
+                .externalId("testId")
+                .vocabulary(vocabulary)
+                .id(5L)
+                .build());
+        config.setId(5L);
+        config.setExistingHash(existingHash);
+        return config;
+    }
+
+    private ThesaurusHttpResponse storedResponse(String url, String body) throws NoSuchAlgorithmException {
+        ThesaurusHttpResponse stored = new ThesaurusHttpResponse();
+        stored.setUrl(url);
+        stored.setEtag("\"v1\"");
+        stored.setBody(body);
+        stored.setContentHash(sha3Hex(body));
+        return stored;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fetchDownExpansion_notModified_skipsWithoutParsing() throws Exception {
+        String url = "http://example.com/openapi/v1/concept/th223/testId/expansion?way=down";
+        ThesaurusHttpResponse stored = storedResponse(url, "{\"k\":{}}");
+        when(thesaurusHttpResponseRepository.findById(url)).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(eq(URI.create(url)), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+        injectMockedMapper();
+
+        assertNull(conceptApi.fetchDownExpansion(expansionConfig(stored.getContentHash())));
+
+        ArgumentCaptor<HttpEntity<Void>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(URI.create(url)), eq(HttpMethod.GET), request.capture(), eq(String.class));
+        assertEquals(List.of("\"v1\""), request.getValue().getHeaders().getIfNoneMatch());
+        verifyNoInteractions(mapper);
+        verify(fieldRepository, never()).updateChecksumForFieldConfig(anyLong(), anyString());
+        verify(thesaurusHttpResponseRepository, never()).save(any());
+    }
+
+    @Test
+    void fetchDownExpansion_notModifiedButConfigOutdated_expandsTheStoredBody() throws Exception {
+        String url = "http://example.com/openapi/v1/concept/th223/testId/expansion?way=down";
+        ThesaurusHttpResponse stored = storedResponse(url, "{\"k\":{}}");
+        when(thesaurusHttpResponseRepository.findById(url)).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(eq(URI.create(url)), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+        ConceptBranchDTO result = conceptApi.fetchDownExpansion(expansionConfig("old"));
+
+        assertNotNull(result);
+        verify(fieldRepository).updateChecksumForFieldConfig(5L, stored.getContentHash());
+    }
+
+    @Test
+    void fetchCollectionBranch_withETag_storesTheResponseForTheNextRequest() throws Exception {
+        String body = "{\"k\":{}}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v2\"");
+        when(restTemplate.exchange(eq(COLLECTION_BRANCH_URI), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(body, headers, HttpStatus.OK));
+        ConceptCollection collection = collection("g1", null);
+
+        assertNotNull(conceptApi.fetchCollectionBranch(vocabulary, collection));
+
+        ArgumentCaptor<ThesaurusHttpResponse> saved = ArgumentCaptor.forClass(ThesaurusHttpResponse.class);
+        verify(thesaurusHttpResponseRepository).save(saved.capture());
+        assertEquals(COLLECTION_BRANCH_URI.toString(), saved.getValue().getUrl());
+        assertEquals("\"v2\"", saved.getValue().getEtag());
+        assertEquals(sha3Hex(body), saved.getValue().getContentHash());
+        assertEquals(sha3Hex(body), collection.getExistingHash());
+    }
+
     /**
      * Replaces the mapper built by the constructor, so JSON failures can be simulated.
      */
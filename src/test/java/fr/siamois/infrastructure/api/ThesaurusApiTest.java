@@ -301,6 +301,35 @@ class ThesaurusApiTest {
         assertEquals("https://thesaurus.example/opentheso", result.getBaseUri());
     }
 
+    @Test
+    void fetchThesaurusInfo_sameConceptArkTwice_resolvesItsSchemeOnce() throws InvalidEndpointException {
+        URI conceptArk = URI.create("https://thesaurus.example/opentheso/ark:/26678/pcrtREVS9rPi7K");
+        when(restTemplate.getForEntity(conceptArk, String.class)).thenReturn(ResponseEntity.ok("body"));
+        when(conceptApi.fetchSchemeUriOfArk("https://thesaurus.example/opentheso", "ark:/26678/pcrtREVS9rPi7K"))
+                .thenReturn(Optional.of("https://thesaurus.example/opentheso/api/ark:/66666/th223"));
+        ThesaurusDTO expected = new ThesaurusDTO("th223", List.of(new LabelDTO("fr", "SIAMOIS")), "THESAURUS");
+        when(restTemplate.getForObject("https://thesaurus.example/opentheso/openapi/v1/thesaurus", ThesaurusDTO[].class))
+                .thenReturn(new ThesaurusDTO[]{expected});
+
+        thesaurusApi.fetchThesaurusInfo(conceptArk.toString());
+        thesaurusApi.fetchThesaurusInfo(conceptArk.toString());
+
+        verify(conceptApi, times(1)).fetchSchemeUriOfArk("https://thesaurus.example/opentheso", "ark:/26678/pcrtREVS9rPi7K");
+    }
+
+    @Test
+    void resolveRedirections_sameArkTwice_followsItOnce() {
+        URI ark = URI.create("https://ark.example/ark:/12345/th1");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create("https://thesaurus.example/?idt=th223"));
+        when(restTemplate.getForEntity(ark, String.class)).thenReturn(new ResponseEntity<>(headers, HttpStatus.FOUND));
+
+        thesaurusApi.resolveRedirections(ark.toString());
+
+        assertEquals("https://thesaurus.example/?idt=th223", thesaurusApi.resolveRedirections(ark.toString()));
+        verify(restTemplate, times(1)).getForEntity(ark, String.class);
+    }
+
     @Test
     void fetchThesaurusInfo_thesaurusArk_fallsBackOnItsOwnQualifier() throws InvalidEndpointException {
         // the ark of the thesaurus itself is part of no scheme : its qualifier already is the idt
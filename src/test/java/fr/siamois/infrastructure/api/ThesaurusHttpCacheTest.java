@@ -0,0 +1,110 @@
+package fr.siamois.infrastructure.api;
+
+import fr.siamois.domain.models.vocabulary.ThesaurusHttpResponse;
+import fr.siamois.infrastructure.database.repositories.vocabulary.ThesaurusHttpResponseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThesaurusHttpCacheTest {
+
+    private static final URI URL = URI.create("https://thesaurus.example/openapi/v1/concept/th223/1/expansion?way=down");
+
+    @Mock
+    private ThesaurusHttpResponseRepository repository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ThesaurusHttpCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ThesaurusHttpCache(repository);
+    }
+
+    private ThesaurusHttpResponse stored() {
+        ThesaurusHttpResponse stored = new ThesaurusHttpResponse();
+        stored.setUrl(URL.toString());
+        stored.setLastModified("Wed, 21 Oct 2026 07:28:00 GMT");
+        stored.setBody("{}");
+        stored.setContentHash("stored-hash");
+        return stored;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_notModified_returnsTheStoredBodyAndHash() {
+        when(repository.findById(URL.toString())).thenReturn(Optional.of(stored()));
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+        ThesaurusHttpCache.CachedResponse response = cache.get(restTemplate, URL);
+
+        assertThat(response).isEqualTo(new ThesaurusHttpCache.CachedResponse("{}", "stored-hash", true));
+        ArgumentCaptor<HttpEntity<Void>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(URL), eq(HttpMethod.GET), request.capture(), eq(String.class));
+        assertThat(request.getValue().getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE))
+                .isEqualTo("Wed, 21 Oct 2026 07:28:00 GMT");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void get_modified_replacesTheStoredResponse() {
+        when(repository.findById(URL.toString())).thenReturn(Optional.of(stored()));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v2\"");
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("{\"k\":{}}", headers, HttpStatus.OK));
+
+        ThesaurusHttpCache.CachedResponse response = cache.get(restTemplate, URL);
+
+        assertThat(response.notModified()).isFalse();
+        assertThat(response.contentHash()).isEqualTo(ConceptApi.hashOfString("{\"k\":{}}"));
+        ArgumentCaptor<ThesaurusHttpResponse> saved = ArgumentCaptor.forClass(ThesaurusHttpResponse.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getEtag()).isEqualTo("\"v2\"");
+        assertThat(saved.getValue().getLastModified()).isNull();
+        assertThat(saved.getValue().getBody()).isEqualTo("{\"k\":{}}");
+    }
+
+    @Test
+    void get_withoutValidators_forgetsTheStoredResponse() {
+        ThesaurusHttpResponse stored = stored();
+        when(repository.findById(URL.toString())).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("{}", HttpStatus.OK));
+
+        ThesaurusHttpCache.CachedResponse response = cache.get(restTemplate, URL);
+
+        assertThat(response.body()).isEqualTo("{}");
+        verify(repository).delete(stored);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void get_urlTooLongToBeStored_isAPlainRequest() {
+        URI longUrl = URI.create("https://thesaurus.example/" + "a".repeat(ThesaurusHttpResponse.MAX_URL_LENGTH));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        when(restTemplate.exchange(eq(longUrl), eq(HttpMethod.GET), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("{}", headers, HttpStatus.OK));
+
+        assertThat(cache.get(restTemplate, longUrl).body()).isEqualTo("{}");
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,94 @@
+package fr.siamois.infrastructure.database.initializer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HierarchyClosureSqlTest {
+
+    /**
+     * Scratch PostgreSQL database for the integration test, e.g. jdbc:postgresql://localhost:5432/scratch?user=...
+     * The test runs in a transaction that is rolled back.
+     */
+    private static final String DATABASE_URL = System.getenv("SIAMOIS_SCRATCH_DATABASE_URL");
+
+    private String script() throws IOException {
+        try (var stream = getClass().getResourceAsStream("/pgplsql/hierarchy_closure_triggers.sql")) {
+            assertThat(stream).isNotNull();
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void rebuild_shouldWarnAboutCyclesAndOnlyTheTriggerShouldRejectThem() throws IOException {
+        String sql = script();
+        String rebuild = sql.substring(sql.indexOf("CREATE OR REPLACE FUNCTION fill_hierarchy_closure"),
+                sql.indexOf("CREATE OR REPLACE TRIGGER"));
+        assertThat(rebuild).contains("RAISE WARNING 'Cycle in %: edge % -> % left out of %'");
+        assertThat(rebuild).doesNotContain("RAISE EXCEPTION");
+        assertThat(sql).containsOnlyOnce("RAISE EXCEPTION");
+    }
+
+    @Test
+    @Tag("integration")
+    void rebuild_withCyclicEdges_leavesThemOutOfTheClosure() throws Exception {
+        assumeTrue(DATABASE_URL != null, "SIAMOIS_SCRATCH_DATABASE_URL is not set");
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        CREATE TABLE recording_unit (recording_unit_id BIGINT PRIMARY KEY);
+                        CREATE TABLE recording_unit_hierarchy (fk_parent_id BIGINT NOT NULL, fk_child_id BIGINT NOT NULL,
+                                                               PRIMARY KEY (fk_parent_id, fk_child_id));
+                        CREATE TABLE spatial_unit (spatial_unit_id BIGINT PRIMARY KEY);
+                        CREATE TABLE spatial_hierarchy (fk_parent_id BIGINT NOT NULL, fk_child_id BIGINT NOT NULL,
+                                                        PRIMARY KEY (fk_parent_id, fk_child_id));
+                        INSERT INTO recording_unit VALUES (1), (2), (3), (4);
+                        INSERT INTO recording_unit_hierarchy VALUES (1, 2), (2, 3), (3, 2), (3, 4);
+                        """);
+
+                statement.executeLargeUpdate(script());
+
+                List<String> warnings = new ArrayList<>();
+                for (SQLWarning warning = statement.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                    warnings.add(warning.getMessage());
+                }
+                assertThat(warnings).contains(
+                        "Cycle in recording_unit_hierarchy: edge 2 -> 3 left out of recording_unit_closure",
+                        "Cycle in recording_unit_hierarchy: edge 3 -> 2 left out of recording_unit_closure");
+                assertThat(closure(statement)).containsExactly("1 -> 2 (1)", "3 -> 4 (1)");
+
+                // Removing an edge left out does not touch the closure
+                statement.execute("DELETE FROM recording_unit_hierarchy WHERE fk_parent_id = 3 AND fk_child_id = 2");
+                assertThat(closure(statement)).containsExactly("1 -> 2 (1)", "3 -> 4 (1)");
+
+                assertThatThrownBy(() -> statement.execute("INSERT INTO recording_unit_hierarchy VALUES (2, 1)"))
+                        .isInstanceOf(SQLException.class)
+                        .hasMessageContaining("Cycle in recording_unit_hierarchy");
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static List<String> closure(Statement statement) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery("""
+                SELECT fk_ancestor_id, fk_descendant_id, paths FROM recording_unit_closure
+                ORDER BY fk_ancestor_id, fk_descendant_id, depth""")) {
+            while (resultSet.next()) {
+                rows.add(resultSet.getLong(1) + " -> " + resultSet.getLong(2) + " (" + resultSet.getLong(3) + ")");
+            }
+        }
+        return rows;
+    }
+}
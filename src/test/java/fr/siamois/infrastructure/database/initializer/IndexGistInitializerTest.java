@@ -44,6 +44,7 @@ class IndexGistInitializerTest {
         // Then
         verify(statement).addBatch("CREATE INDEX IF NOT EXISTS users_username_trgm ON person USING gist (username gist_trgm_ops);");
         verify(statement).addBatch("CREATE INDEX IF NOT EXISTS users_email_trgm ON person USING gist (mail gist_trgm_ops);");
+        verify(statement).addBatch("CREATE INDEX IF NOT EXISTS idx_spatial_unit_geom ON spatial_unit USING gist (geom)");
         verify(statement).executeBatch();
 
         verify(connection).close();
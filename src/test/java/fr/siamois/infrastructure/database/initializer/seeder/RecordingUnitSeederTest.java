@@ -5,6 +5,7 @@ import fr.siamois.domain.models.institution.Institution;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.spatialunit.SpatialUnit;
 import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.RecordingUnitService;
 import fr.siamois.infrastructure.database.repositories.PhaseRepository;
 import fr.siamois.infrastructure.database.repositories.SpatialUnitRepository;
 import fr.siamois.infrastructure.database.repositories.actionunit.ActionUnitRepository;
@@ -52,6 +53,8 @@ class RecordingUnitSeederTest {
     @Mock
     ConceptRepository conceptRepository;
     @Mock
+    RecordingUnitService recordingUnitService;
+    @Mock
     EntityManager entityManager;
 
     @InjectMocks
@@ -97,10 +100,14 @@ class RecordingUnitSeederTest {
     }
 
     private List<RecordingUnitSeeder.RecordingUnitSpecs> oneSpec() {
-        return List.of(
+        return List.of(spec("chartres-C309_01-1100", 1100, ""));
+    }
+
+    private static RecordingUnitSeeder.RecordingUnitSpecs spec(String fullIdentifier, Integer identifier, String description) {
+        return
                 new RecordingUnitSeeder.RecordingUnitSpecs(
-                        "chartres-C309_01-1100",
-                        1100,
+                        fullIdentifier,
+                        identifier,
                         new ConceptSeeder.ConceptKey(VOCABULARY_ID, "123456"),
                         new ConceptSeeder.ConceptKey(VOCABULARY_ID, "4287539"),
                         new ConceptSeeder.ConceptKey(VOCABULARY_ID, "4287541"),
@@ -115,13 +122,12 @@ class RecordingUnitSeederTest {
                         null,
                         new SpatialUnitSeeder.SpatialUnitKey("Spatial"),
                         new ActionUnitSeeder.ActionUnitKey("action-01", "chartres"),
-                        "",
+                        description,
                         "",
                         "",
                         "",
                         null
-                )
-        );
+                );
     }
 
     @Test
@@ -236,6 +242,95 @@ class RecordingUnitSeederTest {
         verify(entityManager, times(1)).clear();
     }
 
+    @Test
+    void seed_rowsWithoutIdentifier_identifiedTogether() {
+        stubConceptsFound();
+        stubInstitutionFound();
+        stubSpatialUnitFound();
+        stubActionUnitFound();
+
+        seeder.seed(List.of(
+                spec(null, null, "Fosse"),
+                spec("", null, "Mur"),
+                spec("chartres-C309_01-1100", 1100, "")));
+
+        verify(recordingUnitService).generateFullIdentifiers(argThat(units -> units.size() == 2
+                && units.stream().allMatch(unit -> unit.getActionUnit() != null)));
+        verify(recordingUnitRepository).saveAll(argThat(list -> {
+            List<RecordingUnit> asList = new ArrayList<>();
+            list.forEach(asList::add);
+            return asList.size() == 3;
+        }));
+    }
+
+    /** What the database holds after seeding the spec: same content, with a generated identifier */
+    private static RecordingUnit seeded(RecordingUnitSeeder.RecordingUnitSpecs spec, String generatedIdentifier) {
+        RecordingUnit ru = new RecordingUnit();
+        ru.setFullIdentifier(generatedIdentifier);
+        ru.setDescription(spec.description());
+        Concept type = new Concept();
+        type.setExternalId(spec.type().conceptExtId());
+        ru.setType(type);
+        SpatialUnit su = new SpatialUnit();
+        su.setName(spec.spatialUnitName().unitName());
+        ru.setSpatialUnit(su);
+        ActionUnit au = new ActionUnit();
+        au.setFullIdentifier(spec.actionUnitIdentifier().fullIdentifier());
+        ru.setActionUnit(au);
+        ru.setMatrixColor(spec.matrixColor());
+        ru.setMatrixComposition(spec.matrixComposition());
+        ru.setMatrixTexture(spec.matrixTexture());
+        return ru;
+    }
+
+    @Test
+    void seed_reimportOfRowsWithoutIdentifier_insertsNothing() {
+        stubConceptsFound();
+        stubInstitutionFound();
+        stubSpatialUnitFound();
+        stubActionUnitFound();
+        RecordingUnitSeeder.RecordingUnitSpecs fosse = spec(null, null, "Fosse");
+        RecordingUnitSeeder.RecordingUnitSpecs mur = spec("", null, "Mur");
+        when(recordingUnitRepository.findAllByDescriptionInAndInstitutionIdAndActionUnitFullIdentifier(
+                anyCollection(), any(), eq("action-01")))
+                .thenReturn(List.of(seeded(fosse, "UE-001"), seeded(mur, "UE-002")));
+
+        seeder.seed(List.of(fosse, mur));
+
+        verify(recordingUnitService, never()).generateFullIdentifiers(any());
+        verify(recordingUnitRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void seed_identicalRowsWithoutIdentifier_keptAsMultiset() {
+        stubConceptsFound();
+        stubInstitutionFound();
+        stubSpatialUnitFound();
+        stubActionUnitFound();
+        RecordingUnitSeeder.RecordingUnitSpecs posthole = spec(null, null, "Trou de poteau");
+        // one of the three identical rows was seeded by a previous import
+        when(recordingUnitRepository.findAllByDescriptionInAndInstitutionIdAndActionUnitFullIdentifier(
+                anyCollection(), any(), eq("action-01")))
+                .thenReturn(List.of(seeded(posthole, "UE-001")));
+
+        seeder.seed(List.of(posthole, posthole, posthole, spec(null, null, "Fosse")));
+
+        verify(recordingUnitService).generateFullIdentifiers(argThat(units -> units.size() == 3
+                && units.stream().filter(unit -> "Trou de poteau".equals(unit.getDescription())).count() == 2));
+    }
+
+    @Test
+    void seed_allRowsIdentified_noGeneration() {
+        stubConceptsFound();
+        stubInstitutionFound();
+        stubSpatialUnitFound();
+        stubActionUnitFound();
+
+        seeder.seed(oneSpec());
+
+        verifyNoInteractions(recordingUnitService);
+    }
+
     @Test
     void getRecordingUnitFromKey_existingRecordingUnit_returnsIt() {
         // Given
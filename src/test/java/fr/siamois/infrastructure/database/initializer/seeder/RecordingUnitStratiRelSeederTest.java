@@ -3,6 +3,7 @@ package fr.siamois.infrastructure.database.initializer.seeder;
 import fr.siamois.domain.models.recordingunit.RecordingUnit;
 import fr.siamois.domain.models.recordingunit.StratigraphicRelationship;
 import fr.siamois.domain.models.vocabulary.Concept;
+import fr.siamois.domain.services.recordingunit.StratigraphicClosureService;
 import fr.siamois.infrastructure.database.repositories.recordingunit.StratigraphicRelationshipRepository;
 import fr.siamois.infrastructure.database.repositories.vocabulary.ConceptRepository;
 import jakarta.persistence.EntityManager;
@@ -29,6 +30,7 @@ class RecordingUnitStratiRelSeederTest {
     @Mock StratigraphicRelationshipRepository stratigraphicRelationshipRepository;
     @Mock RecordingUnitSeeder recordingUnitSeeder;
     @Mock ConceptRepository conceptRepository;
+    @Mock StratigraphicClosureService stratigraphicClosureService;
     @Mock EntityManager entityManager;
 
     @InjectMocks
@@ -0,0 +1,131 @@
+package fr.siamois.infrastructure.database.repositories.specs;
+
+import fr.siamois.dto.api.KeysetPage;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetTestDatabase.KeysetRow;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the latency of a 50 rows page read with OFFSET and with a keyset cursor, at several positions of a
+ * 150k rows list sorted by creation time (the sort of the recording unit listings). Run with
+ * {@code mvn test -Pbenchmark}.
+ * <p>
+ * H2 in PostgreSQL mode stands for the database here: absolute timings differ, but the offset page has to read and
+ * skip all the rows before it while the keyset page starts at the cursor in the index. The keyset page also pays the
+ * translation of its criteria query at each call, a fixed cost that does not depend on the position.
+ */
+@Tag("benchmark")
+class KeysetPaginationBenchmarkTest {
+
+    private static final int ROWS = 150_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int RUNS = 50;
+    private static final int WARM_UP = 100;
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "creationTime");
+
+    @Test
+    void pageLatency_offsetVersusKeyset() throws SQLException {
+        try (KeysetTestDatabase database = new KeysetTestDatabase("keyset_benchmark")) {
+            insertRows(database);
+            EntityManager em = database.getEntityManager();
+            SimpleJpaRepository<KeysetRow, Long> repository = database.repository();
+
+            int[] offsets = {0, 10_000, 50_000, 100_000};
+            List<Supplier<List<Long>>> offsetPages = new ArrayList<>();
+            List<Supplier<List<Long>>> keysetPages = new ArrayList<>();
+            for (int offset : offsets) {
+                String cursor = offset == 0 ? null : cursorBefore(em, offset);
+                offsetPages.add(() -> {
+                    List<KeysetRow> rows = em.createQuery(
+                                    "select r from KeysetRow r order by r.creationTime desc, r.id asc", KeysetRow.class)
+                            .setFirstResult(offset)
+                            .setMaxResults(PAGE_SIZE)
+                            .getResultList();
+                    em.clear();
+                    return rows.stream().map(KeysetRow::getId).toList();
+                });
+                keysetPages.add(() -> {
+                    KeysetPage<Long> page = KeysetSpec.findPage(repository, Specification.where(null), SORT, cursor,
+                            PAGE_SIZE, rows -> rows.stream().map(KeysetRow::getId).toList());
+                    em.clear();
+                    return page.content();
+                });
+            }
+
+            // Warm-up of both paths at every position before measuring
+            for (int i = 0; i < WARM_UP; i++) {
+                for (int p = 0; p < offsets.length; p++) {
+                    assertEquals(offsetPages.get(p).get(), keysetPages.get(p).get());
+                }
+            }
+
+            System.out.printf("%10s %12s %12s%n", "offset", "OFFSET ms", "keyset ms");
+            for (int p = 0; p < offsets.length; p++) {
+                System.out.printf("%10d %12.2f %12.2f%n", offsets[p],
+                        medianMillis(offsetPages.get(p)), medianMillis(keysetPages.get(p)));
+            }
+        }
+    }
+
+    private static String cursorBefore(EntityManager em, int offset) {
+        KeysetRow last = em.createQuery(
+                        "select r from KeysetRow r order by r.creationTime desc, r.id asc", KeysetRow.class)
+                .setFirstResult(offset - 1)
+                .setMaxResults(1)
+                .getSingleResult();
+        em.clear();
+        return KeysetSpec.cursorOf(last, KeysetSpec.keysetSort(SORT)).encode();
+    }
+
+    private static double medianMillis(Supplier<List<Long>> page) {
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            page.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+    private static void insertRows(KeysetTestDatabase database) throws SQLException {
+        OffsetDateTime base = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        try (Connection connection = database.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into keyset_row (id, name, creation_time) values (?, ?, ?)")) {
+                for (long id = 1; id <= ROWS; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "UE " + id);
+                    // Several rows per second, so the id tie-breaker is used
+                    insert.setObject(3, base.plusSeconds(id / 3));
+                    insert.addBatch();
+                    if (id % 5_000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create index keyset_row_creation_time_id on keyset_row (creation_time desc, id)");
+            }
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package fr.siamois.infrastructure.database.repositories.specs;
+
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
+import fr.siamois.dto.api.KeysetPage;
+import fr.siamois.infrastructure.database.repositories.specs.KeysetTestDatabase.KeysetRow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetSpecTest {
+
+    private static KeysetTestDatabase database;
+    private static SimpleJpaRepository<KeysetRow, Long> repository;
+
+    @BeforeAll
+    static void setUp() {
+        database = new KeysetTestDatabase("keyset_spec_test");
+        repository = database.repository();
+        var em = database.getEntityManager();
+        em.getTransaction().begin();
+        OffsetDateTime base = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (long id = 1; id <= 23; id++) {
+            KeysetRow row = new KeysetRow();
+            row.setId(id);
+            // Duplicated and missing values, to cross the ties and the nulls
+            row.setName(id % 5 == 0 ? null : "name" + (id % 4));
+            row.setCreationTime(id % 7 == 0 ? null : base.plusDays(id % 3));
+            em.persist(row);
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    private static List<Long> allPages(Sort sort, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Long> page = KeysetSpec.findPage(repository, Specification.where(null), sort, cursor, limit,
+                    rows -> rows.stream().map(KeysetRow::getId).toList());
+            assertThat(page.content()).hasSizeLessThanOrEqualTo(limit);
+            ids.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> sorted(Sort sort) {
+        return repository.findAll(KeysetSpec.keysetSort(sort)).stream().map(KeysetRow::getId).toList();
+    }
+
+    @Test
+    void findPage_walksTheWholeListInSortOrder() {
+        for (Sort sort : List.of(
+                Sort.by(Sort.Direction.ASC, "name"),
+                Sort.by(Sort.Direction.DESC, "name"),
+                Sort.by(Sort.Direction.ASC, "creationTime"),
+                Sort.by(Sort.Order.desc("creationTime"), Sort.Order.desc("id")),
+                Sort.by(Sort.Direction.DESC, "id"),
+                Sort.unsorted())) {
+            for (int limit : List.of(1, 4, 23, 50)) {
+                assertThat(allPages(sort, limit)).as("%s by %d", sort, limit).isEqualTo(sorted(sort));
+            }
+        }
+    }
+
+    @Test
+    void findPage_lastPage_hasNoNextCursor() {
+        KeysetPage<KeysetRow> page = KeysetSpec.findPage(repository, Specification.where(null),
+                Sort.by("name"), null, 23, Function.identity());
+
+        assertThat(page.content()).hasSize(23);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void findPage_cursorOfAnotherSort_rejected() {
+        String cursor = KeysetSpec.findPage(repository, Specification.where(null), Sort.by("name"), null, 2,
+                Function.identity()).nextCursor();
+
+        assertThatThrownBy(() -> KeysetSpec.findPage(repository, Specification.where(null),
+                Sort.by(Sort.Direction.DESC, "name"), cursor, 2, Function.identity()))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void cursor_encodeDecode_keepsValueType() {
+        for (Object value : List.of("a\nb", 12L, 3, LocalDate.of(2025, 3, 1),
+                OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 0, ZoneOffset.ofHours(2)))) {
+            KeysetSpec.Cursor cursor = new KeysetSpec.Cursor("p:asc", value, 42L);
+            assertThat(KeysetSpec.Cursor.decode(cursor.encode())).isEqualTo(cursor);
+        }
+        KeysetSpec.Cursor nullValue = new KeysetSpec.Cursor("p:desc", null, 7L);
+        assertThat(KeysetSpec.Cursor.decode(nullValue.encode())).isEqualTo(nullValue);
+    }
+
+    @Test
+    void cursor_decodeGarbage_throwsIllegalArgument() {
+        assertThatThrownBy(() -> KeysetSpec.Cursor.decode("not a cursor!"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetSpec.Cursor.decode("YWJj"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void keysetSort_addsIdTieBreaker() {
+        assertThat(KeysetSpec.keysetSort(Sort.by(Sort.Direction.DESC, "name")))
+                .isEqualTo(Sort.by(Sort.Order.desc("name"), Sort.Order.asc("id")));
+        assertThat(KeysetSpec.keysetSort(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id"))))
+                .isEqualTo(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id")));
+        assertThat(KeysetSpec.keysetSort(Sort.by(Sort.Order.desc("id"), Sort.Order.asc("name"))))
+                .isEqualTo(Sort.by(Sort.Order.desc("id")));
+        assertThat(KeysetSpec.keysetSort(Sort.unsorted())).isEqualTo(Sort.by("id"));
+    }
+}
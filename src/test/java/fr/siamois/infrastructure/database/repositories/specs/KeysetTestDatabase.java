@@ -0,0 +1,72 @@
+package fr.siamois.infrastructure.database.repositories.specs;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.Properties;
+
+/**
+ * In-memory H2 database with a single {@link KeysetRow} table, for the keyset pagination tests. Nulls are sorted
+ * as in PostgreSQL (last in ascending order).
+ */
+class KeysetTestDatabase implements AutoCloseable {
+
+    @Entity(name = "KeysetRow")
+    @Table(name = "keyset_row")
+    @Getter
+    @Setter
+    public static class KeysetRow {
+        @Id
+        private Long id;
+        private String name;
+        @Column(name = "creation_time")
+        private OffsetDateTime creationTime;
+    }
+
+    @Getter
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    @Getter
+    private final EntityManager entityManager;
+
+    KeysetTestDatabase(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;OPTIMIZE_REUSE_RESULTS=FALSE;DB_CLOSE_DELAY=-1");
+        dataSource = h2;
+
+        Properties properties = new Properties();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setManagedTypes(PersistenceManagedTypes.of(KeysetRow.class.getName()));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaProperties(properties);
+        factory.setPersistenceUnitName(name);
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    SimpleJpaRepository<KeysetRow, Long> repository() {
+        return new SimpleJpaRepository<>(KeysetRow.class, entityManager);
+    }
+
+    @Override
+    public void close() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+}
@@ -386,6 +386,39 @@ class AutocompleteRepositoryTest {
         verify(connection).close();
     }
 
+    @Test
+    void shouldLoadEveryCandidateOfTheBranchWithoutInputNorLimit() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        Concept topTerm = new Concept();
+        topTerm.setId(99L);
+
+        assertEquals(0, autocompleteRepository.findAllCandidatesInBranchOf(topTerm, "fr").size());
+
+        verify(connection).prepareStatement("SELECT ca.* FROM concept_autocomplete_branch(?, ?, ?, ?) ca");
+        verify(statement).setLong(1, 99L);
+        verify(statement).setString(2, "fr");
+        verify(statement).setString(3, "");
+        verify(statement).setInt(4, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldThrowWhenLoadingEveryCandidateFails() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenThrow(new SQLException("boom"));
+
+        Concept field = new Concept();
+        field.setId(1L);
+
+        assertThrows(SQLException.class, () -> autocompleteRepository.findAllCandidatesFor(field, "fr"));
+        verify(statement).close();
+        verify(connection).close();
+    }
+
     @Test
     void shouldBindEmptyStringWhenBranchInputIsNull() throws Exception {
         when(dataSource.getConnection()).thenReturn(connection);
@@ -0,0 +1,167 @@
+package fr.siamois.infrastructure.dataimport;
+
+import fr.siamois.domain.events.publisher.UnitChangeEventPublisher;
+import fr.siamois.domain.models.misc.ImportProgress;
+import fr.siamois.domain.services.dataimport.ImportAsyncRunner;
+import fr.siamois.domain.services.vocabulary.ConceptService;
+import fr.siamois.dto.entity.ActionUnitDTO;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.infrastructure.database.initializer.seeder.ImportSpecs;
+import fr.siamois.infrastructure.database.initializer.seeder.ProjectDataSeeder;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compares the sequential import of a generated multi-sheet workbook with the {@link ImportPlan} one: concurrent
+ * streaming validation of the tables, one reader per table, then concurrent seeding of the independent tables. Seeding is simulated with a fixed
+ * latency per row, in place of the database round trips. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ImportPlanBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    /** Simulated database time per seeded row */
+    private static final long SEED_MICROS_PER_ROW = 40;
+
+    @TempDir
+    Path tempDir;
+
+    private interface Run {
+        void run(Executor executor) throws Exception;
+    }
+
+    @Test
+    void validateStreaming_sequentialVersusPlan() throws Exception {
+        Path file = generateWorkbook(tempDir.resolve("import-multi-sheet.xlsx"));
+        // stub only: recording the invocations would serialize the concurrent parsers on the mock
+        ConceptService conceptService = mock(ConceptService.class, withSettings().stubOnly());
+        ActionUnitDTO project = project();
+
+        Run parse = executor -> new OOXMLImportService(conceptService, executor)
+                .validateStreaming(file, project, new ImportProgress());
+        long[] parsing = compare(parse);
+        System.out.printf("Validating 7 project tables of %d rows%n", ROWS);
+        System.out.printf("  sequential : %6d ms%n", parsing[0]);
+        System.out.printf("  plan       : %6d ms%n", parsing[1]);
+    }
+
+    @Test
+    void persistAsync_sequentialVersusPlan() throws Exception {
+        Path file = generateWorkbook(tempDir.resolve("import-multi-sheet.xlsx"));
+        ConceptService conceptService = mock(ConceptService.class);
+        ProjectDataSeeder seeder = mock(ProjectDataSeeder.class);
+        doAnswer(inv -> {
+            ImportSpecs chunk = inv.getArgument(0);
+            TimeUnit.MICROSECONDS.sleep(ImportResult.countSpecs(chunk).values().stream().mapToInt(Integer::intValue).sum()
+                    * SEED_MICROS_PER_ROW);
+            return null;
+        }).when(seeder).seedChunk(any(), any());
+        ActionUnitDTO project = project();
+
+        Run persist = executor -> {
+            ImportAsyncRunner runner = new ImportAsyncRunner(new OOXMLImportService(conceptService, Runnable::run), seeder, executor,
+                    mock(UnitChangeEventPublisher.class));
+            ImportProgress progress = new ImportProgress();
+            Exception[] error = new Exception[1];
+            runner.persistAsync(file, project, progress, () -> { }, e -> error[0] = e);
+            assertNull(error[0]);
+            assertEquals(progress.getTotal(), progress.getCurrent());
+        };
+        long[] seeding = compare(persist);
+        System.out.printf("Persisting 7 project tables of %d rows, %d us per row%n", ROWS, SEED_MICROS_PER_ROW);
+        System.out.printf("  sequential : %6d ms%n", seeding[0]);
+        System.out.printf("  plan       : %6d ms%n", seeding[1]);
+    }
+
+    /** Wall-clock time of the run on the calling thread, then on a pool of 4 threads (after a warm-up of each) */
+    private static long[] compare(Run run) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            run.run(Runnable::run);
+            run.run(pool);
+            return new long[]{time(run, Runnable::run), time(run, pool)};
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long time(Run run, Executor executor) throws Exception {
+        long start = System.nanoTime();
+        run.run(executor);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static ActionUnitDTO project() {
+        InstitutionDTO institution = new InstitutionDTO();
+        institution.setId(1L);
+        institution.setIdentifier("INST");
+        ActionUnitDTO project = new ActionUnitDTO();
+        project.setFullIdentifier("AU-001");
+        project.setCreatedByInstitution(institution);
+        return project;
+    }
+
+    private static Path generateWorkbook(Path path) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             OutputStream out = Files.newOutputStream(path)) {
+            sheet(workbook, "Personne", new String[]{"Email", "Nom", "Prenom"},
+                    r -> new String[]{"p" + r + "@example.fr", "Nom " + r, "Prénom " + r});
+            sheet(workbook, "Unité spatiale", new String[]{"Nom", "Uri type"},
+                    r -> new String[]{"Lieu " + r, "https://thesaurus.mom.fr/?idt=th230&idc=" + (r % 50)});
+            sheet(workbook, "Lieu_rel", new String[]{"Parent", "Enfant"},
+                    r -> new String[]{"Lieu " + (r / 10), "Lieu " + r});
+            sheet(workbook, "Phase", new String[]{"Identifiant", "Titre", "Ordre"},
+                    r -> new String[]{"PH-" + r, "Phase " + r, String.valueOf(r)});
+            sheet(workbook, "UE", new String[]{"Identifiant", "Description", "Type uri", "Unite spatiale", "Phases"},
+                    r -> new String[]{String.valueOf(r), "Fosse " + r, "https://thesaurus.mom.fr/?idt=th240&idc=" + (r % 30),
+                            "Lieu " + (r % 500), "PH-" + (r % 100)});
+            sheet(workbook, "Prelev", new String[]{"Identifiant", "Unite d'enregistrement", "Designation"},
+                    r -> new String[]{"SP-" + r, String.valueOf(r), "Tesson " + r});
+            sheet(workbook, "Strati_Rel", new String[]{"US1", "US2", "Relation", "Asynchrone"},
+                    r -> new String[]{String.valueOf(r), String.valueOf(r + 1), "https://thesaurus.mom.fr/?idt=th240&idc=4287979", "non"});
+            sheet(workbook, "UE_rel", new String[]{"Parent", "Enfant"},
+                    r -> new String[]{String.valueOf(r / 10), String.valueOf(r)});
+            workbook.write(out);
+        }
+        return path;
+    }
+
+    private interface RowValues {
+        String[] of(int row);
+    }
+
+    private static void sheet(SXSSFWorkbook workbook, String name, String[] headers, RowValues values) {
+        Sheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int c = 0; c < headers.length; c++) {
+            header.createCell(c).setCellValue(headers[c]);
+        }
+        for (int r = 1; r <= ROWS; r++) {
+            String[] cells = values.of(r);
+            Row row = sheet.createRow(r);
+            for (int c = 0; c < cells.length; c++) {
+                row.createCell(c).setCellValue(cells[c]);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package fr.siamois.infrastructure.dataimport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportPlanTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final Map<String, Set<String>> dependencies = Map.of(
+            "a", Set.of(),
+            "b", Set.of(),
+            "c", Set.of("a", "b"),
+            "d", Set.of("c"));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void independentTables_runConcurrently() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+        CountDownLatch aStarted = new CountDownLatch(1);
+        CountDownLatch bStarted = new CountDownLatch(1);
+
+        // each task waits for the other one: only completes if both run at the same time
+        plan.execute("a", () -> { aStarted.countDown(); await(bStarted); });
+        plan.execute("b", () -> { bStarted.countDown(); await(aStarted); });
+        plan.await();
+
+        assertThat(aStarted.getCount()).isZero();
+        assertThat(bStarted.getCount()).isZero();
+    }
+
+    @Test
+    void tasks_runInTableOrderAndAfterTheirDependencies() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+        List<String> log = new CopyOnWriteArrayList<>();
+
+        plan.execute("a", () -> { sleep(50); log.add("a1"); });
+        plan.execute("a", () -> log.add("a2"));
+        plan.execute("b", () -> { sleep(20); log.add("b1"); });
+        plan.execute("c", () -> log.add("c1"));
+        plan.execute("c", () -> log.add("c2"));
+        plan.execute("d", () -> log.add("d1"));
+        plan.await();
+
+        assertThat(log).containsSubsequence("a1", "a2", "c1", "c2", "d1");
+        assertThat(log.indexOf("c1")).isGreaterThan(log.indexOf("b1"));
+    }
+
+    @Test
+    void submit_returnsTheResultOfTheTask() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+
+        var result = plan.submit("a", () -> List.of("x", "y"));
+        plan.await();
+
+        assertThat(result.join()).containsExactly("x", "y");
+    }
+
+    @Test
+    void failure_skipsTheLaterTasksOfTheTableAndItsDependents() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+        List<String> log = new CopyOnWriteArrayList<>();
+        IllegalStateException boom = new IllegalStateException("boom");
+
+        plan.execute("a", () -> { throw boom; });
+        plan.execute("a", () -> log.add("a2"));
+        plan.execute("b", () -> log.add("b1"));
+        plan.execute("c", () -> log.add("c1"));
+        plan.execute("d", () -> log.add("d1"));
+
+        assertThatThrownBy(plan::await).isSameAs(boom);
+        assertThat(log).containsExactly("b1");
+        assertThat(plan.hasFailed()).isTrue();
+        assertThatThrownBy(plan::throwIfFailed).isSameAs(boom);
+    }
+
+    @Test
+    void submit_dependencyAfterItsDependentStarted_throws() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+        plan.execute("c", () -> { });
+
+        assertThatThrownBy(() -> plan.execute("a", () -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("a submitted after c");
+        plan.await();
+    }
+
+    @Test
+    void await_withoutTasks_returns() {
+        ImportPlan plan = new ImportPlan(dependencies, executor);
+
+        plan.await();
+
+        assertThat(plan.hasFailed()).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
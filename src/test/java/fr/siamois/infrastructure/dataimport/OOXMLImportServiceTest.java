@@ -14,6 +14,7 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mock;
@@ -21,10 +22,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
@@ -40,7 +47,7 @@ class OOXMLImportServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new OOXMLImportService(conceptService);
+        service = new OOXMLImportService(conceptService, Runnable::run);
     }
 
     // -------------------------------------------------------------------------
@@ -358,6 +365,113 @@ class OOXMLImportServiceTest {
                 .containsExactlyInAnyOrder("alice@example.fr", "bob@example.fr");
     }
 
+    // -------------------------------------------------------------------------
+    // Streaming import
+    // -------------------------------------------------------------------------
+
+    private Path largeProjectFile(Path dir) throws Exception {
+        Workbook wb = workbook();
+        Sheet spatial = sheet(wb, "Unité spatiale", "Nom", "Enfants");
+        row(spatial, 1, "Parcelle A", "US 1&&US 2");
+        for (int r = 2; r <= 1200; r++) {
+            row(spatial, r, "US " + (r - 1));
+        }
+        Sheet spatialRels = sheet(wb, "Lieu_rel", "Parent", "Enfant");
+        row(spatialRels, 1, "US 3", "US 4");
+        row(spatialRels, 2, "US 3", "US 5");
+        Sheet ueRels = sheet(wb, "UE_rel", "Parent", "Enfant");
+        row(ueRels, 1, "100", "101");
+
+        Path file = dir.resolve("project.xlsx");
+        try (OutputStream os = Files.newOutputStream(file)) {
+            wb.write(os);
+        }
+        return file;
+    }
+
+    @Test
+    void validateStreaming_countsTheSameSpecsAsTheLoadedWorkbook(@TempDir Path dir) throws Exception {
+        Path file = largeProjectFile(dir);
+        ActionUnitDTO au = actionUnitWithInstitution(1L);
+        ImportProgress progress = new ImportProgress();
+
+        ImportResult streamed = service.validateStreaming(file, au, progress);
+        ImportResult loaded;
+        try (InputStream is = Files.newInputStream(file)) {
+            loaded = service.importFromExcel(is, OOXMLImportService.ImportScope.PROJECT, au);
+        }
+
+        assertThat(streamed.errors()).isEqualTo(loaded.errors());
+        assertThat(streamed.specCount(ImportSchema.SPATIAL_UNIT)).isEqualTo(1200);
+        assertThat(streamed.specCount(ImportSchema.SPATIAL_UNIT_REL)).isEqualTo(4);
+        assertThat(streamed.specCount(ImportSchema.RECORDING_REL)).isEqualTo(1);
+        assertThat(streamed.specCounts()).isEqualTo(ImportResult.countSpecs(loaded.specs()));
+        assertThat(streamed.specs().spatialUnits()).isEmpty();
+        assertThat(streamed.allSheetColumns()).isEqualTo(loaded.allSheetColumns());
+        assertThat(progress.getTotal()).isEqualTo(1203);
+        assertThat(progress.getCurrent()).isEqualTo(1203);
+    }
+
+    @Test
+    void validateStreaming_tablesReadConcurrently_sameResultAsSequential(@TempDir Path dir) throws Exception {
+        Workbook wb = workbook();
+        Sheet spatial = sheet(wb, "Unité spatiale", "Nom", "Enfants", "Uri type");
+        row(spatial, 1, "Parcelle A", "US 1");
+        Sheet ueRels = sheet(wb, "UE_rel", "Parent", "Enfant");
+        Sheet spatialRels = sheet(wb, "Lieu_rel", "Parent", "Enfant");
+        Sheet stratiRels = sheet(wb, "Strati_Rel", "US1", "US2", "Relation");
+        for (int r = 1; r <= 300; r++) {
+            row(ueRels, r, String.valueOf(100 + r), String.valueOf(1000 + r));
+            row(spatialRels, r, "Parcelle A", "US " + r);
+            row(spatial, r + 1, "US " + r, null, r % 100 == 0 ? BAD_URI : null);
+        }
+        row(stratiRels, 1, "A", "B", BAD_URI);
+        Path file = dir.resolve("concurrent.xlsx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            wb.write(out);
+        }
+        ActionUnitDTO au = actionUnitWithInstitution(1L);
+
+        ImportProgress sequentialProgress = new ImportProgress();
+        ImportResult sequential = service.validateStreaming(file, au, sequentialProgress);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ImportProgress parallelProgress = new ImportProgress();
+        ImportResult parallel;
+        try {
+            parallel = new OOXMLImportService(conceptService, pool).validateStreaming(file, au, parallelProgress);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(sequential.errors()).extracting(ImportError::sheet)
+                .containsExactly("Unité spatiale", "Unité spatiale", "Unité spatiale", "Strati_Rel");
+        assertThat(parallel.errors()).isEqualTo(sequential.errors());
+        assertThat(parallel.specCounts()).isEqualTo(sequential.specCounts());
+        assertThat(parallel.specCount(ImportSchema.SPATIAL_UNIT_REL)).isEqualTo(301);
+        assertThat(parallelProgress.getCurrent()).isEqualTo(sequentialProgress.getCurrent()).isEqualTo(902);
+    }
+
+    @Test
+    void streamProjectSpecs_yieldsBoundedChunksInPersistOrder(@TempDir Path dir) throws Exception {
+        Path file = largeProjectFile(dir);
+        List<String> chunks = new ArrayList<>();
+        List<ImportError> errs = errors();
+
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(file)) {
+            SheetMetadata meta = service.readSheetMetadata(workbook.skeleton());
+            service.streamProjectSpecs(workbook, meta, actionUnitWithInstitution(1L), errs, new ImportProgress(),
+                    (tableId, chunk, rows) -> chunks.add(tableId + " " + chunk.spatialUnits().size() + "/"
+                            + chunk.spatialUnitRelSpecs().size() + "/" + chunk.recordingUnitRelSpecs().size() + ":" + rows));
+        }
+
+        assertThat(errs).isEmpty();
+        assertThat(chunks).containsExactly(
+                "spatial_unit 500/0/0:500", "spatial_unit 500/0/0:500", "spatial_unit 200/0/0:200",
+                "spatialUnitRel 0/2/0:0", "spatialUnitRel 0/0/0:0", "spatialUnitRel 0/0/0:0",
+                "spatialUnitRel 0/2/0:2",
+                "recordingRel 0/0/1:1");
+    }
+
     @Test
     void parseRecordingUnits_fullValidRow() {
         Workbook wb = new XSSFWorkbook();
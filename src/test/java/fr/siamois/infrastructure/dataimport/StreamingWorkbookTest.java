@@ -0,0 +1,153 @@
+package fr.siamois.infrastructure.dataimport;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingWorkbookTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(Workbook wb) throws IOException {
+        Path file = tempDir.resolve("import.xlsx");
+        try (OutputStream os = Files.newOutputStream(file)) {
+            wb.write(os);
+        }
+        wb.close();
+        return file;
+    }
+
+    private Path sampleFile() throws IOException {
+        Workbook wb = new XSSFWorkbook();
+        Sheet meta = wb.createSheet("_meta");
+        meta.createRow(0).createCell(0).setCellValue("sheet_id");
+        meta.getRow(0).createCell(1).setCellValue("sheet_name");
+        meta.createRow(1).createCell(0).setCellValue("recording_unit");
+        meta.getRow(1).createCell(1).setCellValue("UE");
+
+        Sheet ue = wb.createSheet("UE");
+        Row header = ue.createRow(0);
+        header.createCell(0).setCellValue("Identifiant");
+        header.createCell(1).setCellValue("Description");
+        header.createCell(2).setCellValue("Date d'ouverture");
+        CellStyle dateStyle = wb.createCellStyle();
+        dateStyle.setDataFormat(wb.createDataFormat().getFormat("dd/mm/yyyy"));
+        // row 4 left empty on purpose
+        for (int r : new int[]{1, 2, 3, 5, 6}) {
+            Row row = ue.createRow(r);
+            row.createCell(0).setCellValue(1000 + r);
+            row.createCell(1).setCellValue("Fosse " + r);
+            Cell date = row.createCell(2);
+            date.setCellValue(LocalDate.of(2024, 3, r));
+            date.setCellStyle(dateStyle);
+        }
+        return write(wb);
+    }
+
+    @Test
+    void open_keepsHeaderRowsAndWholeMetaSheet() throws IOException {
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(sampleFile())) {
+            Workbook skeleton = workbook.skeleton();
+
+            assertThat(skeleton.getNumberOfSheets()).isEqualTo(2);
+            Sheet ue = skeleton.getSheet("UE");
+            assertThat(ue.getPhysicalNumberOfRows()).isEqualTo(1);
+            assertThat(ue.getRow(0).getCell(1).getStringCellValue()).isEqualTo("Description");
+            assertThat(skeleton.getSheet("_meta").getRow(1).getCell(1).getStringCellValue()).isEqualTo("UE");
+            assertThat(workbook.dataRowCount("UE")).isEqualTo(6);
+            assertThat(workbook.dataRowCount("missing")).isZero();
+        }
+    }
+
+    @Test
+    void forEachChunk_streamsRowsAtTheirRowNumbersWithTheirCellTypes() throws IOException {
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(sampleFile())) {
+            Sheet ue = workbook.skeleton().getSheet("UE");
+            List<List<Integer>> chunks = new ArrayList<>();
+            List<OffsetDateTime> dates = new ArrayList<>();
+
+            workbook.forEachChunk(ue, 2, sheet -> {
+                List<Integer> rowNums = new ArrayList<>();
+                for (Row row : sheet) {
+                    if (row.getRowNum() == 0) continue;
+                    rowNums.add(row.getRowNum());
+                    assertThat(row.getCell(0).getCellType()).isEqualTo(CellType.NUMERIC);
+                    assertThat(ExcelCellHelper.getStringCell(row.getCell(0))).isEqualTo(String.valueOf(1000 + row.getRowNum()));
+                    assertThat(ExcelCellHelper.getStringCell(row.getCell(1))).isEqualTo("Fosse " + row.getRowNum());
+                    dates.add(ExcelCellHelper.parseOffsetDateTime(row.getCell(2)));
+                }
+                chunks.add(rowNums);
+            });
+
+            assertThat(chunks).containsExactly(List.of(1, 2), List.of(3, 5), List.of(6));
+            assertThat(dates).hasSize(5).doesNotContainNull();
+            assertThat(ue.getPhysicalNumberOfRows()).isEqualTo(1);
+            assertThat(ue.getRow(0)).isNotNull();
+        }
+    }
+
+    @Test
+    void forEachChunk_removesRowsWhenTheConsumerFails() throws IOException {
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(sampleFile())) {
+            Sheet ue = workbook.skeleton().getSheet("UE");
+
+            assertThatThrownBy(() -> workbook.forEachChunk(ue, 2, sheet -> {
+                throw new IllegalStateException("seed failed");
+            })).isInstanceOf(IllegalStateException.class).hasMessage("seed failed");
+            assertThat(ue.getPhysicalNumberOfRows()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void openReader_readsTheSameRowsFromAnotherThread() throws Exception {
+        try (StreamingWorkbook workbook = StreamingWorkbook.open(sampleFile())) {
+            List<String> descriptions = CompletableFuture.supplyAsync(() -> {
+                List<String> read = new ArrayList<>();
+                try (StreamingWorkbook reader = workbook.openReader()) {
+                    reader.forEachChunk(reader.skeleton().getSheet("UE"), 10, sheet -> {
+                        for (Row row : sheet) {
+                            if (row.getRowNum() > 0) read.add(row.getCell(1).getStringCellValue());
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return read;
+            }).get();
+
+            assertThat(descriptions).containsExactly("Fosse 1", "Fosse 2", "Fosse 3", "Fosse 5", "Fosse 6");
+            assertThat(workbook.skeleton().getSheet("UE").getPhysicalNumberOfRows()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void open_rejectsFilesThatAreNotWorkbooks() throws IOException {
+        Path file = tempDir.resolve("not-a-workbook.xlsx");
+        Files.writeString(file, "nom;description");
+
+        assertThatThrownBy(() -> StreamingWorkbook.open(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void lastRowOf_readsTheLastRowOfADimension() {
+        assertThat(StreamingWorkbook.lastRowOf("A1:T2001")).isEqualTo(2000);
+        assertThat(StreamingWorkbook.lastRowOf("A1")).isZero();
+        assertThat(StreamingWorkbook.lastRowOf(null)).isZero();
+    }
+}
@@ -0,0 +1,192 @@
+package fr.siamois.infrastructure.files;
+
+import fr.siamois.domain.models.document.Document;
+import fr.siamois.domain.models.institution.Institution;
+import fr.siamois.domain.services.document.compressor.BrowserDisplayableCompressor;
+import fr.siamois.domain.services.document.compressor.OtherCompressor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentStorageTest {
+
+    private static final Consumer<String> NOT_LOCKED = blobKey -> {
+    };
+
+    @TempDir
+    Path documentsPath;
+
+    private DocumentStorage documentStorage;
+
+    @BeforeEach
+    void setUp() {
+        documentStorage = new DocumentStorage(List.of(new BrowserDisplayableCompressor(), new OtherCompressor()));
+        ReflectionTestUtils.setField(documentStorage, "documentsPath", documentsPath.toString());
+    }
+
+    private static Document document(String fileName, String mimeType) {
+        Document document = new Document();
+        document.setFileCode("CODE1");
+        document.setFileName(fileName);
+        document.setMimeType(mimeType);
+        Institution institution = new Institution();
+        institution.setId(3L);
+        document.setCreatedByInstitution(institution);
+        return document;
+    }
+
+    private static byte[] compressibleContent() {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        return content;
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (var files = Files.walk(documentsPath)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    @Test
+    void save_browserDisplayableFile_storedAsIsUnderItsHash() throws IOException {
+        Document document = document("photo.png", "image/png");
+        byte[] content = "png content".getBytes();
+
+        documentStorage.save(document, new ByteArrayInputStream(content), NOT_LOCKED);
+
+        String sha256 = DigestUtils.sha256Hex(content);
+        assertEquals(sha256, document.getSha256Sum());
+        assertEquals(sha256 + ".png", document.getStoredFileName());
+        assertEquals(List.of(documentsPath.resolve(Path.of("blobs", sha256.substring(0, 2), sha256.substring(2, 4), sha256 + ".png"))),
+                storedFiles());
+        Optional<InputStream> stored = documentStorage.findStreamOf(document);
+        assertTrue(stored.isPresent());
+        try (InputStream in = stored.get()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void save_otherFile_storedGzippedWithoutTemporaryFile() throws IOException {
+        Document document = document("points.las", "application/octet-stream");
+        byte[] content = compressibleContent();
+
+        documentStorage.save(document, new ByteArrayInputStream(content), NOT_LOCKED);
+
+        assertEquals(DigestUtils.sha256Hex(content) + ".gzip", document.getStoredFileName());
+        assertEquals(1, storedFiles().size());
+        try (InputStream in = new GZIPInputStream(documentStorage.findStreamOf(document).orElseThrow())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void save_identicalContent_storedOnce() throws IOException {
+        Document first = document("photo.png", "image/png");
+        Document second = document("copy.png", "image/png");
+        second.setFileCode("CODE2");
+        byte[] content = "png content".getBytes();
+
+        documentStorage.save(first, new ByteArrayInputStream(content), NOT_LOCKED);
+        documentStorage.save(second, new ByteArrayInputStream(content), NOT_LOCKED);
+
+        assertEquals(first.getStoredFileName(), second.getStoredFileName());
+        assertEquals(1, storedFiles().size());
+    }
+
+    @Test
+    void save_failingContent_leavesNoFile() throws IOException {
+        Document document = document("points.las", "application/octet-stream");
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> documentStorage.save(document, failing, NOT_LOCKED));
+
+        assertNull(document.getSha256Sum());
+        assertTrue(storedFiles().isEmpty());
+    }
+
+    @Test
+    void copyToBlobStore_legacyGzipFile_sharesBlobWithIdenticalUpload() throws IOException {
+        byte[] content = compressibleContent();
+        Document uploaded = document("points.las", "application/octet-stream");
+        documentStorage.save(uploaded, new ByteArrayInputStream(content), NOT_LOCKED);
+
+        Document legacy = document("old.las", "application/octet-stream");
+        legacy.setStoredFileName("CODE1.gzip");
+        Path legacyFile = documentsPath.resolve(Path.of("3", "CODE1.gzip"));
+        Files.createDirectories(legacyFile.getParent());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(legacyFile))) {
+            out.write(content);
+        }
+        assertTrue(documentStorage.find(legacy).isPresent());
+
+        Optional<Path> result = documentStorage.copyToBlobStore(legacy, NOT_LOCKED);
+
+        assertEquals(Optional.of(legacyFile), result);
+        assertEquals(uploaded.getStoredFileName(), legacy.getStoredFileName());
+        assertEquals(uploaded.getSha256Sum(), legacy.getSha256Sum());
+        assertEquals(2, storedFiles().size());
+
+        documentStorage.deleteLegacyFile(legacyFile);
+        assertEquals(1, storedFiles().size());
+        assertTrue(documentStorage.find(legacy).isPresent());
+    }
+
+    @Test
+    void copyToBlobStore_legacyFile_copiedWhenNoBlob() throws IOException {
+        Document legacy = document("photo.png", "image/png");
+        legacy.setStoredFileName("CODE1.png");
+        Path legacyFile = documentsPath.resolve(Path.of("3", "CODE1.png"));
+        Files.createDirectories(legacyFile.getParent());
+        Files.write(legacyFile, "png content".getBytes());
+
+        documentStorage.copyToBlobStore(legacy, NOT_LOCKED);
+
+        assertEquals(DigestUtils.sha256Hex("png content") + ".png", legacy.getStoredFileName());
+        try (InputStream in = documentStorage.findStreamOf(legacy).orElseThrow()) {
+            assertArrayEquals("png content".getBytes(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void copyToBlobStore_missingFile_returnsEmpty() throws IOException {
+        Document legacy = document("photo.png", "image/png");
+        legacy.setStoredFileName("CODE1.png");
+
+        assertTrue(documentStorage.copyToBlobStore(legacy, NOT_LOCKED).isEmpty());
+        assertNull(legacy.getSha256Sum());
+    }
+
+    @Test
+    void deleteBlob_removesStoredFile() throws IOException {
+        Document document = document("photo.png", "image/png");
+        documentStorage.save(document, new ByteArrayInputStream("png content".getBytes()), NOT_LOCKED);
+
+        documentStorage.deleteBlob(document.getStoredFileName());
+
+        assertTrue(documentStorage.find(document).isEmpty());
+    }
+}
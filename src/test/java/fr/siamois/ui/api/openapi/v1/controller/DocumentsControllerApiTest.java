@@ -11,8 +11,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,11 +24,20 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
@@ -46,6 +57,11 @@ class DocumentsControllerApiTest {
     @Mock
     private DocumentWriteOpenApiService documentWriteOpenApiService;
 
+    @TempDir
+    Path tempDir;
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T10:00:00Z");
+
     private MockMvc mockMvc;
 
     private Person person;
@@ -88,28 +104,177 @@ class DocumentsControllerApiTest {
                 .andExpect(status().isUnauthorized());
     }
 
-    @Test
-    void downloadContent_success_returnsBinary() throws Exception {
+    private byte[] givenDownloadableFile(String storedName, String md5Sum, String contentEncoding) throws Exception {
         login();
         when(projectApiService.requireCaller())
                 .thenReturn(new ProjectApiCaller(personDto, Set.of(10L), List.of()));
 
-        byte[] data = new byte[]{1, 2, 3};
+        byte[] data = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        Path file = tempDir.resolve(storedName);
+        if (contentEncoding == null) {
+            Files.write(file, data);
+        } else {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                out.write(data);
+            }
+        }
+        Files.setLastModifiedTime(file, FileTime.from(LAST_MODIFIED));
         when(documentContentOpenApiService.requireDownloadableContent(42L, Set.of(10L)))
                 .thenReturn(new DocumentContentOpenApiService.DocumentFilePayload(
-                        new ByteArrayInputStream(data),
+                        file.toFile(),
                         MediaType.APPLICATION_PDF,
-                        "doc.pdf"));
+                        "doc.pdf",
+                        md5Sum,
+                        contentEncoding));
+        return data;
+    }
+
+    @Test
+    void downloadContent_success_returnsBinary() throws Exception {
+        byte[] data = givenDownloadableFile("CODE.pdf", "abc", null);
 
         mockMvc.perform(get("/api/v1/documents/42"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF))
                 .andExpect(header().string("Content-Disposition", containsString("doc.pdf")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
                 .andExpect(content().bytes(data));
 
         verify(documentContentOpenApiService).requireDownloadableContent(42L, Set.of(10L));
     }
 
+    @Test
+    void downloadContent_range_returnsPartialContent() throws Exception {
+        givenDownloadableFile("CODE.pdf", "abc", null);
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.RANGE, "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-9/10"))
+                .andExpect(content().bytes(new byte[]{5, 6, 7, 8, 9, 10}));
+    }
+
+    @Test
+    void downloadContent_invalidRange_returns416() throws Exception {
+        givenDownloadableFile("CODE.pdf", "abc", null);
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void downloadContent_matchingETag_returns304() throws Exception {
+        givenDownloadableFile("CODE.pdf", "abc", null);
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void downloadContent_otherETag_returnsContent() throws Exception {
+        byte[] data = givenDownloadableFile("CODE.pdf", "abc", null);
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void downloadContent_notModifiedSince_returns304() throws Exception {
+        givenDownloadableFile("CODE.pdf", "abc", null);
+
+        mockMvc.perform(get("/api/v1/documents/42")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, DateTimeFormatter.RFC_1123_DATE_TIME
+                                .format(LAST_MODIFIED.atZone(ZoneOffset.UTC))))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void downloadContent_gzipStoredAndAccepted_passesThrough() throws Exception {
+        givenDownloadableFile("CODE.gzip", "abc", "gzip");
+        byte[] stored = Files.readAllBytes(tempDir.resolve("CODE.gzip"));
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gzip\""))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().bytes(stored));
+    }
+
+    @Test
+    void downloadContent_gzipStoredNotAccepted_decompresses() throws Exception {
+        byte[] data = givenDownloadableFile("CODE.gzip", "abc", "gzip");
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.ACCEPT_ENCODING, "identity, gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void downloadContent_gzipStoredNotAcceptedWithRange_returnsTheWholeContent() throws Exception {
+        byte[] data = givenDownloadableFile("CODE.gzip", "abc", "gzip");
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.RANGE, "bytes=4-"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "none"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void downloadContent_gzipStoredNotAcceptedMatchingETag_doesNotOpenTheFile() throws Exception {
+        givenDownloadableFile("CODE.gzip", "abc", "gzip");
+        // Le fichier ne peut plus être ouvert : seul un flux ouvert à l'écriture de la réponse permet le 304
+        Files.delete(tempDir.resolve("CODE.gzip"));
+
+        mockMvc.perform(get("/api/v1/documents/42").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void downloadThumbnail_success_returnsJpeg() throws Exception {
+        login();
+        when(projectApiService.requireCaller())
+                .thenReturn(new ProjectApiCaller(personDto, Set.of(10L), List.of()));
+        Path thumbnail = tempDir.resolve("thumbnail.jpg");
+        Files.write(thumbnail, new byte[]{(byte) 0xff, (byte) 0xd8});
+        when(documentContentOpenApiService.requireThumbnail(42L, Set.of(10L), 512)).thenReturn(thumbnail.toFile());
+
+        mockMvc.perform(get("/api/v1/documents/42/thumbnail").param("size", "512"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age")))
+                .andExpect(content().bytes(new byte[]{(byte) 0xff, (byte) 0xd8}));
+    }
+
+    @Test
+    void downloadThumbnail_defaultSize() throws Exception {
+        login();
+        when(projectApiService.requireCaller())
+                .thenReturn(new ProjectApiCaller(personDto, Set.of(10L), List.of()));
+        when(documentContentOpenApiService.requireThumbnail(42L, Set.of(10L), 128))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Thumbnail not available"));
+
+        mockMvc.perform(get("/api/v1/documents/42/thumbnail"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void acceptsEncoding_parsesQualityValues() {
+        assertTrue(DocumentsControllerApi.acceptsEncoding("gzip", "gzip"));
+        assertTrue(DocumentsControllerApi.acceptsEncoding("deflate, GZIP;q=0.5", "gzip"));
+        assertTrue(DocumentsControllerApi.acceptsEncoding("*", "gzip"));
+        assertFalse(DocumentsControllerApi.acceptsEncoding(null, "gzip"));
+        assertFalse(DocumentsControllerApi.acceptsEncoding("br", "gzip"));
+        assertFalse(DocumentsControllerApi.acceptsEncoding("gzip;q=0, *", "gzip"));
+    }
+
     @Test
     void downloadContent_notFound_returns404() throws Exception {
         login();
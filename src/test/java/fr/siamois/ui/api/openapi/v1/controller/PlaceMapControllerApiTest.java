@@ -0,0 +1,85 @@
+package fr.siamois.ui.api.openapi.v1.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.ui.api.handler.RestExceptionHandler;
+import fr.siamois.ui.api.openapi.v1.controller.place.PlaceMapControllerApi;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeature;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeatureCollectionResponse;
+import fr.siamois.ui.api.openapi.v1.service.PlaceMapOpenApiService;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlaceMapControllerApiTest {
+
+    @Mock
+    private ProjectApiService projectApiService;
+    @Mock
+    private PlaceMapOpenApiService placeMapOpenApiService;
+
+    private MockMvc mockMvc;
+
+    private final ProjectApiCaller caller = new ProjectApiCaller(new PersonDTO(), Set.of(10L), List.of());
+
+    @BeforeEach
+    void setUp() {
+        MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(new ObjectMapper());
+        jsonConverter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_JSON,
+                MediaType.parseMediaType(PlaceMapControllerApi.GEO_JSON)));
+        ByteArrayHttpMessageConverter bytesConverter = new ByteArrayHttpMessageConverter();
+        bytesConverter.setSupportedMediaTypes(List.of(MediaType.parseMediaType(PlaceMapControllerApi.MAPBOX_VECTOR_TILE)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new PlaceMapControllerApi(projectApiService, placeMapOpenApiService))
+                .setControllerAdvice(new RestExceptionHandler())
+                .setMessageConverters(jsonConverter, bytesConverter)
+                .build();
+    }
+
+    @Test
+    void getFeatures_returnsGeoJsonWithRawGeometry() throws Exception {
+        when(projectApiService.requireCaller()).thenReturn(caller);
+        when(placeMapOpenApiService.featuresInBox(caller, 10L, "4.8,45.7,4.9,45.8", 16)).thenReturn(
+                new PlaceFeatureCollectionResponse(List.of(
+                        new PlaceFeature(1L, "{\"type\":\"Point\",\"coordinates\":[4.85,45.75]}", "Site", null)), false));
+
+        mockMvc.perform(get("/api/v1/places/features")
+                        .param("organizationId", "10")
+                        .param("bbox", "4.8,45.7,4.9,45.8")
+                        .param("zoom", "16"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(PlaceMapControllerApi.GEO_JSON))
+                .andExpect(jsonPath("$.type").value("FeatureCollection"))
+                .andExpect(jsonPath("$.features[0].geometry.type").value("Point"))
+                .andExpect(jsonPath("$.features[0].geometry.coordinates[1]").value(45.75))
+                .andExpect(jsonPath("$.features[0].properties.name").value("Site"));
+    }
+
+    @Test
+    void getTile_returnsVectorTile() throws Exception {
+        when(projectApiService.requireCaller()).thenReturn(caller);
+        when(placeMapOpenApiService.vectorTile(caller, 10L, 14, 8392, 5842)).thenReturn(new byte[]{26, 3});
+
+        mockMvc.perform(get("/api/v1/places/tiles/14/8392/5842.mvt").param("organizationId", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PlaceMapControllerApi.MAPBOX_VECTOR_TILE))
+                .andExpect(header().string("Cache-Control", "max-age=60, private"))
+                .andExpect(content().bytes(new byte[]{26, 3}));
+    }
+}
@@ -3,6 +3,9 @@ package fr.siamois.ui.api.openapi.v1.service;
 import fr.siamois.domain.models.document.Document;
 import fr.siamois.domain.models.institution.Institution;
 import fr.siamois.domain.services.document.DocumentService;
+import fr.siamois.domain.services.document.DocumentThumbnailService;
+import fr.siamois.domain.services.document.compressor.BrowserDisplayableCompressor;
+import fr.siamois.domain.services.document.compressor.OtherCompressor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,7 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,11 +31,14 @@ class DocumentContentOpenApiServiceTest {
     @Mock
     private DocumentService documentService;
 
+    @Mock
+    private DocumentThumbnailService documentThumbnailService;
+
     private DocumentContentOpenApiService service;
 
     @BeforeEach
     void setUp() {
-        service = new DocumentContentOpenApiService(documentService);
+        service = new DocumentContentOpenApiService(documentService, documentThumbnailService);
     }
 
     @Test
@@ -82,7 +88,7 @@ class DocumentContentOpenApiServiceTest {
         when(documentService.findById(8L)).thenReturn(Optional.of(doc));
         when(doc.getCreatedByInstitution()).thenReturn(inst);
         when(inst.getId()).thenReturn(10L);
-        when(documentService.findInputStreamOfDocument(doc)).thenReturn(Optional.empty());
+        when(documentService.findFile(doc)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.requireDownloadableContent(8L, SCOPE))
                 .isInstanceOf(ResponseStatusException.class)
@@ -90,22 +96,69 @@ class DocumentContentOpenApiServiceTest {
     }
 
     @Test
-    void requireDownloadableContent_applicationPdf_success() throws Exception {
+    void requireDownloadableContent_applicationPdf_success() {
         Document doc = mock(Document.class);
         Institution inst = mock(Institution.class);
         when(documentService.findById(11L)).thenReturn(Optional.of(doc));
         when(doc.getCreatedByInstitution()).thenReturn(inst);
         when(inst.getId()).thenReturn(10L);
         when(doc.getMimeType()).thenReturn("application/pdf");
-        byte[] bytes = new byte[]{0x25, 0x50};
-        when(documentService.findInputStreamOfDocument(doc)).thenReturn(Optional.of(new ByteArrayInputStream(bytes)));
+        when(doc.getMd5Sum()).thenReturn("abc");
+        File file = new File("CODE.pdf");
+        when(documentService.findFile(doc)).thenReturn(Optional.of(file));
+        when(documentService.findCompressorOf(doc)).thenReturn(new BrowserDisplayableCompressor());
         when(doc.contentFileName()).thenReturn("CODE.pdf");
 
         DocumentContentOpenApiService.DocumentFilePayload payload = service.requireDownloadableContent(11L, SCOPE);
 
         assertThat(payload.mediaType()).isEqualTo(MediaType.APPLICATION_PDF);
         assertThat(payload.fileName()).isEqualTo("CODE.pdf");
-        assertThat(payload.inputStream().readAllBytes()).isEqualTo(bytes);
+        assertThat(payload.file()).isEqualTo(file);
+        assertThat(payload.md5Sum()).isEqualTo("abc");
+        assertThat(payload.contentEncoding()).isNull();
+    }
+
+    @Test
+    void requireDownloadableContent_gzipStoredFile_returnsContentEncoding() {
+        Document doc = mock(Document.class);
+        Institution inst = mock(Institution.class);
+        when(documentService.findById(12L)).thenReturn(Optional.of(doc));
+        when(doc.getCreatedByInstitution()).thenReturn(inst);
+        when(inst.getId()).thenReturn(10L);
+        when(doc.getMimeType()).thenReturn("application/octet-stream");
+        when(documentService.findFile(doc)).thenReturn(Optional.of(new File("CODE.gzip")));
+        when(documentService.findCompressorOf(doc)).thenReturn(new OtherCompressor());
+
+        DocumentContentOpenApiService.DocumentFilePayload payload = service.requireDownloadableContent(12L, SCOPE);
+
+        assertThat(payload.contentEncoding()).isEqualTo("gzip");
+    }
+
+    @Test
+    void requireThumbnail_available_returnsFile() throws Exception {
+        Document doc = mock(Document.class);
+        Institution inst = mock(Institution.class);
+        when(documentService.findById(11L)).thenReturn(Optional.of(doc));
+        when(doc.getCreatedByInstitution()).thenReturn(inst);
+        when(inst.getId()).thenReturn(10L);
+        File thumbnail = new File("thumbnail.jpg");
+        when(documentThumbnailService.findThumbnail(doc, 200)).thenReturn(Optional.of(thumbnail));
+
+        assertThat(service.requireThumbnail(11L, SCOPE, 200)).isEqualTo(thumbnail);
+    }
+
+    @Test
+    void requireThumbnail_notAnImage_throws404() throws Exception {
+        Document doc = mock(Document.class);
+        Institution inst = mock(Institution.class);
+        when(documentService.findById(11L)).thenReturn(Optional.of(doc));
+        when(doc.getCreatedByInstitution()).thenReturn(inst);
+        when(inst.getId()).thenReturn(10L);
+        when(documentThumbnailService.findThumbnail(doc, 128)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.requireThumbnail(11L, SCOPE, 128))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode().value()).isEqualTo(404));
     }
 
     @Test
@@ -0,0 +1,104 @@
+package fr.siamois.ui.api.openapi.v1.service;
+
+import fr.siamois.domain.services.spatialunit.SpatialUnitService;
+import fr.siamois.dto.PlaceGeometryDTO;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.ui.api.openapi.v1.response.spatialunit.PlaceFeatureCollectionResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlaceMapOpenApiServiceTest {
+
+    @Mock
+    private ProjectApiService projectApiService;
+    @Mock
+    private SpatialUnitService spatialUnitService;
+
+    @InjectMocks
+    private PlaceMapOpenApiService service;
+
+    private final ProjectApiCaller caller = new ProjectApiCaller(new PersonDTO(), Set.of(10L), List.of());
+
+    @Test
+    void pixelSizeAndDigits_followZoom() {
+        assertThat(PlaceMapOpenApiService.pixelSize(0)).isEqualTo(360.0 / 256);
+        assertThat(PlaceMapOpenApiService.pixelSize(1)).isEqualTo(360.0 / 512);
+        assertThat(PlaceMapOpenApiService.coordinateDigits(0)).isEqualTo(1);
+        assertThat(PlaceMapOpenApiService.coordinateDigits(16)).isEqualTo(5);
+        assertThat(PlaceMapOpenApiService.coordinateDigits(PlaceMapOpenApiService.MAX_ZOOM)).isEqualTo(7);
+    }
+
+    @Test
+    void parseBbox_invalid_badRequest() {
+        assertThat(PlaceMapOpenApiService.parseBbox(" 4.8, 45.7,4.9,45.8")).containsExactly(4.8, 45.7, 4.9, 45.8);
+        for (String bbox : new String[]{null, "1,2,3", "a,b,c,d", "4.9,45.7,4.8,45.8", "-181,0,1,1", "0,0,1,91"}) {
+            assertThatThrownBy(() -> PlaceMapOpenApiService.parseBbox(bbox))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void featuresInBox_queriesWithZoomTolerance() {
+        when(spatialUnitService.findGeometriesInBox(10L, 4.8, 45.7, 4.9, 45.8,
+                PlaceMapOpenApiService.pixelSize(16), 5, PlaceMapOpenApiService.MAX_FEATURES + 1))
+                .thenReturn(List.of(new PlaceGeometryDTO(1L, "Site", "S1", "{\"type\":\"Point\",\"coordinates\":[4.85,45.75]}")));
+
+        PlaceFeatureCollectionResponse response = service.featuresInBox(caller, 10L, "4.8,45.7,4.9,45.8", 16);
+
+        verify(projectApiService).assertOrganizationInCallerScope(10L, Set.of(10L));
+        assertThat(response.type()).isEqualTo("FeatureCollection");
+        assertThat(response.truncated()).isFalse();
+        assertThat(response.features()).singleElement().satisfies(feature -> {
+            assertThat(feature.type()).isEqualTo("Feature");
+            assertThat(feature.id()).isEqualTo(1L);
+            assertThat(feature.properties().name()).isEqualTo("Site");
+        });
+    }
+
+    @Test
+    void featuresInBox_tooManyPlaces_truncated() {
+        List<PlaceGeometryDTO> rows = LongStream.rangeClosed(1, PlaceMapOpenApiService.MAX_FEATURES + 1)
+                .mapToObj(id -> new PlaceGeometryDTO(id, "P" + id, null, "{}"))
+                .toList();
+        when(spatialUnitService.findGeometriesInBox(anyLong(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), anyInt(), anyInt())).thenReturn(rows);
+
+        PlaceFeatureCollectionResponse response = service.featuresInBox(caller, 10L, "0,0,1,1", 10);
+
+        assertThat(response.truncated()).isTrue();
+        assertThat(response.features()).hasSize(PlaceMapOpenApiService.MAX_FEATURES);
+    }
+
+    @Test
+    void featuresInBox_invalidZoom_badRequest() {
+        assertThatThrownBy(() -> service.featuresInBox(caller, 10L, "0,0,1,1", PlaceMapOpenApiService.MAX_ZOOM + 1))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(spatialUnitService);
+    }
+
+    @Test
+    void vectorTile_checksTileGrid() {
+        when(spatialUnitService.findVectorTile(10L, 2, 3, 1)).thenReturn(new byte[]{1, 2});
+
+        assertThat(service.vectorTile(caller, 10L, 2, 3, 1)).containsExactly(1, 2);
+        assertThatThrownBy(() -> service.vectorTile(caller, 10L, 2, 4, 0)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.vectorTile(caller, 10L, 2, 0, -1)).isInstanceOf(ResponseStatusException.class);
+        verify(spatialUnitService, times(1)).findVectorTile(anyLong(), anyInt(), anyInt(), anyInt());
+    }
+}
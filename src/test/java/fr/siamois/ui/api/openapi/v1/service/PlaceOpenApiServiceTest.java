@@ -1,6 +1,7 @@
 package fr.siamois.ui.api.openapi.v1.service;
 
 import fr.siamois.domain.models.UserInfo;
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitAlreadyExistsException;
 import fr.siamois.domain.models.exceptions.spatialunit.SpatialUnitNotFoundException;
 import fr.siamois.domain.models.permissions.PermissionConstants;
@@ -9,6 +10,7 @@ import fr.siamois.domain.services.InstitutionService;
 import fr.siamois.domain.services.permissions.ProfilePermissionService;
 import fr.siamois.domain.services.spatialunit.SpatialUnitService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.FullAddress;
 import fr.siamois.dto.entity.InstitutionDTO;
 import fr.siamois.dto.entity.PersonDTO;
@@ -124,6 +126,36 @@ class PlaceOpenApiServiceTest {
                         .isEqualTo(HttpStatus.NOT_FOUND.value()));
     }
 
+    @Test
+    void listByOrganizationAfter_returnsNextCursorWithoutTotal() {
+        when(institutionService.findById(10L)).thenReturn(institution);
+        SpatialUnitDTO dto = new SpatialUnitDTO();
+        dto.setId(5L);
+        when(spatialUnitService.findByInstitutionIdAfter(eq(10L), any(), eq("abc"), eq(50)))
+                .thenReturn(new KeysetPage<>(List.of(dto), "next"));
+        PlaceResource resource = new PlaceResource();
+        when(placeOpenApiMapper.toResource(eq(dto), any())).thenReturn(resource);
+
+        PlaceListResponse response = service.listByOrganizationAfter(caller, 10L, "abc", 50, "name:asc", "fr");
+
+        assertThat(response.getData()).containsExactly(resource);
+        assertThat(response.getMeta().nextCursor()).isEqualTo("next");
+        assertThat(response.getMeta().total()).isNull();
+        verify(projectApiService).assertOrganizationInCallerScope(10L, SCOPE);
+    }
+
+    @Test
+    void listByOrganizationAfter_invalidCursor_throws400() {
+        when(institutionService.findById(10L)).thenReturn(institution);
+        when(spatialUnitService.findByInstitutionIdAfter(eq(10L), any(), eq("bad"), eq(50)))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        assertThatThrownBy(() -> service.listByOrganizationAfter(caller, 10L, "bad", 50, "name:asc", "fr"))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode().value())
+                        .isEqualTo(HttpStatus.BAD_REQUEST.value()));
+    }
+
     @Test
     void createPlace_success() throws SpatialUnitAlreadyExistsException {
         PlaceCreateRequest request = new PlaceCreateRequest();
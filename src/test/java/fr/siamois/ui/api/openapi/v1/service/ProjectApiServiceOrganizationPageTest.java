@@ -15,6 +15,8 @@ import fr.siamois.mapper.ConceptMapper;
 import fr.siamois.mapper.PersonMapper;
 import fr.siamois.ui.api.openapi.v1.mapper.FindOpenApiMapper;
 import fr.siamois.ui.api.openapi.v1.mapper.ProjectDocumentOpenApiMapper;
+import fr.siamois.ui.config.security.jwt.ApiCallerCache;
+import fr.siamois.ui.config.security.jwt.JwtProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -66,7 +68,8 @@ class ProjectApiServiceOrganizationPageTest {
                 profilePermissionService,
                 conceptService,
                 conceptMapper,
-                recordingUnitOpenApiService, phaseService);
+                recordingUnitOpenApiService, phaseService,
+                new ApiCallerCache(null, new JwtProperties()));
     }
 
     private ProjectApiCaller caller(List<InstitutionDTO> institutions) {
@@ -1,5 +1,6 @@
 package fr.siamois.ui.api.openapi.v1.service;
 
+import fr.siamois.domain.models.exceptions.api.InvalidCursorException;
 import fr.siamois.domain.models.exceptions.recordingunit.RecordingUnitNotFoundException;
 import fr.siamois.domain.services.InstitutionService;
 import fr.siamois.domain.services.PhaseService;
@@ -10,6 +11,7 @@ import fr.siamois.domain.services.recordingunit.RecordingUnitService;
 import fr.siamois.domain.services.spatialunit.SpatialUnitService;
 import fr.siamois.domain.services.specimen.SpecimenService;
 import fr.siamois.domain.services.vocabulary.ConceptService;
+import fr.siamois.dto.api.KeysetPage;
 import fr.siamois.dto.entity.InstitutionDTO;
 import fr.siamois.dto.entity.PersonDTO;
 import fr.siamois.dto.entity.RecordingUnitDTO;
@@ -19,6 +21,8 @@ import fr.siamois.mapper.PersonMapper;
 import fr.siamois.ui.api.openapi.v1.mapper.FindOpenApiMapper;
 import fr.siamois.ui.api.openapi.v1.mapper.ProjectDocumentOpenApiMapper;
 import fr.siamois.ui.api.openapi.v1.resource.find.FindResource;
+import fr.siamois.ui.config.security.jwt.ApiCallerCache;
+import fr.siamois.ui.config.security.jwt.JwtProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -92,7 +96,8 @@ class ProjectApiServiceRecordingUnitFindsTest {
                 profilePermissionService,
                 conceptService,
                 conceptMapper,
-                recordingUnitOpenApiService, phaseService);
+                recordingUnitOpenApiService, phaseService,
+                new ApiCallerCache(null, new JwtProperties()));
     }
 
     private ProjectApiCaller caller() {
@@ -129,6 +134,65 @@ class ProjectApiServiceRecordingUnitFindsTest {
         verify(findOpenApiMapper).toResource(same(spec));
     }
 
+    @Test
+    void keysetFindsForAccessibleRecordingUnit_mapsPageAndKeepsNextCursor() {
+        InstitutionDTO inst = new InstitutionDTO();
+        inst.setId(10L);
+        RecordingUnitDTO ru = new RecordingUnitDTO();
+        ru.setId(55L);
+        ru.setCreatedByInstitution(inst);
+        when(recordingUnitService.findAccessibleRecordingUnitByKey(eq("KEY"), eq(SCOPE), isNull())).thenReturn(ru);
+
+        SpecimenDTO spec = new SpecimenDTO();
+        spec.setId(100L);
+        when(specimenService.findByRecordingUnitIdAfter(eq(10L), eq(55L),
+                eq(Sort.by(Sort.Order.desc("creationTime"), Sort.Order.asc("id"))), eq("abc"), eq(20)))
+                .thenReturn(new KeysetPage<>(List.of(spec), "next"));
+        FindResource mapped = new FindResource();
+        when(findOpenApiMapper.toResource(same(spec))).thenReturn(mapped);
+
+        KeysetPage<FindResource> out = projectApiService.keysetFindsForAccessibleRecordingUnit(
+                caller(), "KEY", "abc", 20, "creationTime:desc");
+
+        assertThat(out.content()).containsExactly(mapped);
+        assertThat(out.nextCursor()).isEqualTo("next");
+    }
+
+    @Test
+    void keysetFindsForAccessibleRecordingUnit_invalidCursor_throwsBadRequest() {
+        InstitutionDTO inst = new InstitutionDTO();
+        inst.setId(10L);
+        RecordingUnitDTO ru = new RecordingUnitDTO();
+        ru.setId(55L);
+        ru.setCreatedByInstitution(inst);
+        when(recordingUnitService.findAccessibleRecordingUnitByKey(eq("KEY"), eq(SCOPE), isNull())).thenReturn(ru);
+        when(specimenService.findByRecordingUnitIdAfter(anyLong(), anyLong(), any(), eq("bad"), anyInt()))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        assertThatThrownBy(() -> projectApiService.keysetFindsForAccessibleRecordingUnit(
+                caller(), "KEY", "bad", 20, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void keysetFindsForAccessibleRecordingUnit_otherIllegalArgument_isNotACursorError() {
+        InstitutionDTO inst = new InstitutionDTO();
+        inst.setId(10L);
+        RecordingUnitDTO ru = new RecordingUnitDTO();
+        ru.setId(55L);
+        ru.setCreatedByInstitution(inst);
+        IllegalArgumentException failure = new IllegalArgumentException("unknown property");
+        when(recordingUnitService.findAccessibleRecordingUnitByKey(eq("KEY"), eq(SCOPE), isNull())).thenReturn(ru);
+        when(specimenService.findByRecordingUnitIdAfter(anyLong(), anyLong(), any(), eq("next"), anyInt()))
+                .thenThrow(failure);
+
+        assertThatThrownBy(() -> projectApiService.keysetFindsForAccessibleRecordingUnit(
+                caller(), "KEY", "next", 20, null))
+                .isSameAs(failure);
+    }
+
     @Test
     void pageFindsForAccessibleRecordingUnit_respectsAcceptLanguageForQuery() {
         InstitutionDTO inst = new InstitutionDTO();
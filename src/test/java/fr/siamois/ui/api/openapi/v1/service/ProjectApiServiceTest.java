@@ -449,6 +449,19 @@ class ProjectApiServiceTest {
                 });
     }
 
+    @Test
+    void validateCursorListRequest_limitOutOfBounds_throws400() {
+        assertThatThrownBy(() -> service.validateCursorListRequest(0))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> service.validateCursorListRequest(ProjectApiService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        service.validateCursorListRequest(ProjectApiService.MAX_PAGE_SIZE);
+    }
+
     // ---- patchProject mainLocation / spatialContext ------------------------
 
     private void stubPatchProjectAccess(ActionUnitDTO au) {
@@ -0,0 +1,238 @@
+package fr.siamois.ui.api.openapi.v1.service;
+
+import fr.siamois.domain.models.document.Document;
+import fr.siamois.domain.services.document.DocumentService;
+import fr.siamois.domain.services.recordingunit.RecordingUnitService;
+import fr.siamois.domain.services.spatialunit.SpatialUnitService;
+import fr.siamois.domain.services.specimen.SpecimenService;
+import fr.siamois.dto.api.AccessibleProjectForApi;
+import fr.siamois.dto.entity.ActionUnitDTO;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.dto.entity.RecordingUnitDTO;
+import fr.siamois.dto.entity.SpatialUnitDTO;
+import fr.siamois.infrastructure.database.repositories.history.RevisionChangeRepository;
+import fr.siamois.ui.api.openapi.v1.mapper.FindOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.PlaceOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.ProjectDocumentOpenApiMapper;
+import fr.siamois.ui.api.openapi.v1.mapper.RecordingUnitResponseMapper;
+import fr.siamois.ui.api.openapi.v1.resource.document.DocumentResource;
+import fr.siamois.ui.api.openapi.v1.resource.place.PlaceResource;
+import fr.siamois.ui.api.openapi.v1.resource.recordingunit.RecordingUnitResource;
+import fr.siamois.ui.api.openapi.v1.response.sync.SyncChangesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncChangesOpenApiServiceTest {
+
+    private static final long PROJECT_ID = 7L;
+    private static final long INSTITUTION_ID = 3L;
+
+    @Mock
+    private ProjectApiService projectApiService;
+    @Mock
+    private RevisionChangeRepository revisionChangeRepository;
+    @Mock
+    private RecordingUnitService recordingUnitService;
+    @Mock
+    private SpecimenService specimenService;
+    @Mock
+    private SpatialUnitService spatialUnitService;
+    @Mock
+    private DocumentService documentService;
+    @Mock
+    private RecordingUnitResponseMapper recordingUnitResponseMapper;
+    @Mock
+    private FindOpenApiMapper findOpenApiMapper;
+    @Mock
+    private PlaceOpenApiMapper placeOpenApiMapper;
+    @Mock
+    private ProjectDocumentOpenApiMapper projectDocumentOpenApiMapper;
+
+    @InjectMocks
+    private SyncChangesOpenApiService service;
+
+    private final ProjectApiCaller caller = new ProjectApiCaller(new PersonDTO(), Set.of(INSTITUTION_ID), List.of());
+
+    @BeforeEach
+    void setUp() {
+        InstitutionDTO institution = new InstitutionDTO();
+        institution.setId(INSTITUTION_ID);
+        ActionUnitDTO project = new ActionUnitDTO();
+        project.setId(PROJECT_ID);
+        project.setCreatedByInstitution(institution);
+        lenient().when(projectApiService.requireAccessibleProject(caller, "P1"))
+                .thenReturn(new AccessibleProjectForApi(project, 0, 0));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static RecordingUnitDTO recordingUnit(long id) {
+        RecordingUnitDTO dto = new RecordingUnitDTO();
+        dto.setId(id);
+        return dto;
+    }
+
+    private void givenRecordingUnitMapping() {
+        when(recordingUnitResponseMapper.convert(any())).thenAnswer(invocation -> {
+            RecordingUnitResource resource = new RecordingUnitResource();
+            resource.setId(String.valueOf(((RecordingUnitDTO) invocation.getArgument(0)).getId()));
+            return resource;
+        });
+    }
+
+    @Test
+    void changesSince_returnsUpsertsAndDeletionsOfEachType() {
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(20L);
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 10L, 20L))
+                .thenReturn(rows(new Object[]{12L, 2L}, new Object[]{15L, 3L}));
+        when(revisionChangeRepository.findRecordingUnitChanges(PROJECT_ID, 10L, 20L))
+                .thenReturn(rows(new Object[]{1L, 12L, (short) 0}, new Object[]{2L, 15L, (short) 2}));
+        when(revisionChangeRepository.findSpecimenChanges(PROJECT_ID, 10L, 20L)).thenReturn(rows());
+        when(revisionChangeRepository.findSpatialUnitChanges(INSTITUTION_ID, 10L, 20L))
+                .thenReturn(rows(new Object[]{5L, 15L, (short) 1}));
+        when(revisionChangeRepository.findDocumentChanges(PROJECT_ID, INSTITUTION_ID, 10L, 20L))
+                .thenReturn(rows(new Object[]{9L, 12L, (short) 0}));
+
+        when(recordingUnitService.findAllByIds(List.of(1L))).thenReturn(List.of(recordingUnit(1L)));
+        givenRecordingUnitMapping();
+        SpatialUnitDTO place = new SpatialUnitDTO();
+        PlaceResource placeResource = new PlaceResource();
+        when(spatialUnitService.findAllByIds(List.of(5L))).thenReturn(List.of(place));
+        when(placeOpenApiMapper.toResource(place, "en")).thenReturn(placeResource);
+        Document document = new Document();
+        DocumentResource documentResource = new DocumentResource();
+        when(documentService.findAllByIds(List.of(9L))).thenReturn(List.of(document));
+        when(projectDocumentOpenApiMapper.toResource(document)).thenReturn(documentResource);
+
+        SyncChangesResponse response = service.changesSince(caller, "P1", 10L, 100, "en");
+
+        assertThat(response.getData().recordingUnits().upserted()).extracting(RecordingUnitResource::getId).containsExactly("1");
+        assertThat(response.getData().recordingUnits().deleted()).containsExactly("2");
+        assertThat(response.getData().finds().upserted()).isEmpty();
+        assertThat(response.getData().places().upserted()).containsExactly(placeResource);
+        assertThat(response.getData().documents().upserted()).containsExactly(documentResource);
+        assertThat(response.getMeta().since()).isEqualTo("10");
+        assertThat(response.getMeta().cursor()).isEqualTo("20");
+        assertThat(response.getMeta().hasMore()).isFalse();
+        verify(specimenService, never()).findAllByIds(any());
+    }
+
+    @Test
+    void changesSince_limitReached_stopsAtTransactionBoundary() {
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(30L);
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 0L, 30L))
+                .thenReturn(rows(new Object[]{4L, 3L}, new Object[]{8L, 3L}, new Object[]{25L, 1L}));
+
+        SyncChangesResponse response = service.changesSince(caller, "P1", 0L, 5, "fr");
+
+        // the next call starts at the first transaction left out
+        assertThat(response.getMeta().cursor()).isEqualTo("8");
+        assertThat(response.getMeta().hasMore()).isTrue();
+        verify(revisionChangeRepository).findRecordingUnitChanges(PROJECT_ID, 0L, 8L);
+        verify(revisionChangeRepository).findDocumentChanges(PROJECT_ID, INSTITUTION_ID, 0L, 8L);
+    }
+
+    @Test
+    void changesSince_transactionLargerThanLimit_returnedWhole() {
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(30L);
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 0L, 30L))
+                .thenReturn(rows(new Object[]{4L, 2500L}, new Object[]{8L, 1L}));
+        List<Object[]> changes = new ArrayList<>();
+        LongStream.rangeClosed(1, 2500).forEach(id -> changes.add(new Object[]{id, 4L, (short) 0}));
+        when(revisionChangeRepository.findRecordingUnitChanges(PROJECT_ID, 0L, 8L)).thenReturn(changes);
+        when(recordingUnitService.findAllByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(SyncChangesOpenApiServiceTest::recordingUnit).toList();
+        });
+        givenRecordingUnitMapping();
+
+        SyncChangesResponse response = service.changesSince(caller, "P1", 0L, 1000, "fr");
+
+        assertThat(response.getMeta().cursor()).isEqualTo("8");
+        assertThat(response.getMeta().hasMore()).isTrue();
+        assertThat(response.getData().recordingUnits().upserted()).hasSize(2500);
+        // Loaded by batches of 1000 ids
+        verify(recordingUnitService, times(3)).findAllByIds(anyList());
+    }
+
+    @Test
+    void changesSince_noFinishedTransactionAfterCursor_returnsSameCursor() {
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(10L);
+
+        SyncChangesResponse response = service.changesSince(caller, "P1", 10L, 100, "fr");
+
+        assertThat(response.getMeta().cursor()).isEqualTo("10");
+        assertThat(response.getMeta().hasMore()).isFalse();
+        assertThat(response.getData().recordingUnits().upserted()).isEmpty();
+        verify(revisionChangeRepository, never()).countChangesByTransaction(anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void changesSince_noChange_advancesCursorToTheWatermark() {
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(42L);
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 10L, 42L)).thenReturn(rows());
+
+        SyncChangesResponse response = service.changesSince(caller, "P1", 10L, 100, "fr");
+
+        assertThat(response.getMeta().cursor()).isEqualTo("42");
+        assertThat(response.getMeta().hasMore()).isFalse();
+    }
+
+    @Test
+    void changesSince_lateCommittingTransaction_returnedByTheNextCall() {
+        // Transaction 15 started before 18 and took a lower revision number, but commits after it: it is still
+        // running during the first call, so the window stops below it
+        when(revisionChangeRepository.findTransactionWatermark()).thenReturn(15L, 20L);
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 10L, 15L))
+                .thenReturn(rows(new Object[]{12L, 1L}));
+        when(revisionChangeRepository.findRecordingUnitChanges(PROJECT_ID, 10L, 15L))
+                .thenReturn(rows(new Object[]{1L, 40L, (short) 0}));
+        when(revisionChangeRepository.countChangesByTransaction(PROJECT_ID, INSTITUTION_ID, 15L, 20L))
+                .thenReturn(rows(new Object[]{15L, 1L}, new Object[]{18L, 1L}));
+        when(revisionChangeRepository.findRecordingUnitChanges(PROJECT_ID, 15L, 20L))
+                .thenReturn(rows(new Object[]{2L, 41L, (short) 0}, new Object[]{3L, 42L, (short) 0}));
+        when(recordingUnitService.findAllByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(SyncChangesOpenApiServiceTest::recordingUnit).toList();
+        });
+        givenRecordingUnitMapping();
+
+        SyncChangesResponse first = service.changesSince(caller, "P1", 10L, 100, "fr");
+        SyncChangesResponse second = service.changesSince(caller, "P1", Long.parseLong(first.getMeta().cursor()), 100, "fr");
+
+        assertThat(first.getMeta().cursor()).isEqualTo("15");
+        assertThat(first.getData().recordingUnits().upserted()).extracting(RecordingUnitResource::getId).containsExactly("1");
+        assertThat(second.getMeta().cursor()).isEqualTo("20");
+        assertThat(second.getData().recordingUnits().upserted()).extracting(RecordingUnitResource::getId).containsExactly("2", "3");
+    }
+
+    @Test
+    void changesSince_invalidParameters_badRequest() {
+        assertThatThrownBy(() -> service.changesSince(caller, "P1", -1L, 100, "fr"))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> service.changesSince(caller, "P1", 0L, SyncChangesOpenApiService.MAX_LIMIT + 1, "fr"))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(revisionChangeRepository);
+    }
+}
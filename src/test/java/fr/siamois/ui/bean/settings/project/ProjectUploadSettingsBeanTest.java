@@ -0,0 +1,85 @@
+package fr.siamois.ui.bean.settings.project;
+
+import fr.siamois.domain.services.dataimport.ImportAsyncRunner;
+import fr.siamois.infrastructure.database.initializer.seeder.ProjectDataSeeder;
+import fr.siamois.infrastructure.dataimport.ImportResult;
+import fr.siamois.infrastructure.dataimport.OOXMLImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.primefaces.event.FileUploadEvent;
+import org.primefaces.model.file.UploadedFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProjectUploadSettingsBeanTest {
+
+    private final ImportAsyncRunner asyncRunner = mock(ImportAsyncRunner.class);
+    private ProjectUploadSettingsBean bean;
+
+    @BeforeEach
+    void setUp() {
+        bean = new ProjectUploadSettingsBean(mock(OOXMLImportService.class), mock(ProjectDataSeeder.class), asyncRunner);
+    }
+
+    private Path upload() throws Exception {
+        UploadedFile file = mock(UploadedFile.class);
+        when(file.getFileName()).thenReturn("projet.xlsx");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        FileUploadEvent event = mock(FileUploadEvent.class);
+        when(event.getFile()).thenReturn(file);
+
+        bean.handleFileUpload(event);
+        return bean.getUploadedFile();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<ImportResult> parseSuccessCallback() {
+        ArgumentCaptor<Consumer<ImportResult>> onSuccess = ArgumentCaptor.forClass(Consumer.class);
+        verify(asyncRunner).parseAsync(any(), any(), any(), onSuccess.capture(), any());
+        return onSuccess.getValue();
+    }
+
+    @Test
+    void onSessionEnd_deletesTheUploadedFile() throws Exception {
+        Path file = upload();
+        parseSuccessCallback().accept(mock(ImportResult.class));
+        assertThat(file).exists();
+
+        bean.onSessionEnd();
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void onSessionEnd_duringAPhase_deletesTheFileOnceThePhaseFinishes() throws Exception {
+        Path file = upload();
+        Consumer<ImportResult> onSuccess = parseSuccessCallback();
+
+        bean.onSessionEnd();
+
+        // still read by the background parse
+        assertThat(file).exists();
+
+        onSuccess.accept(mock(ImportResult.class));
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void resetForNewFile_deletesTheUploadedFile() throws Exception {
+        Path file = upload();
+
+        bean.resetForNewFile();
+
+        assertThat(Files.exists(file)).isFalse();
+        assertThat(bean.getUploadedFile()).isNull();
+    }
+}
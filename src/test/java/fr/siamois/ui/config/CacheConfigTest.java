@@ -0,0 +1,29 @@
+package fr.siamois.ui.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    @Test
+    void namedCachesCustomizer_registersEachCacheWithItsSpecAndStatistics() {
+        SiamoisCacheProperties properties = new SiamoisCacheProperties();
+        properties.setSpecs(Map.of("ParentHasRootChildrenSU", "maximumSize=2,expireAfterWrite=1h"));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        new CacheConfig().namedCachesCustomizer(properties).customize(cacheManager);
+
+        Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache("ParentHasRootChildrenSU")).getNativeCache();
+        assertThat(cache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(2);
+        assertThat(cache.policy().isRecordingStats()).isTrue();
+        cache.getIfPresent(1L);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cacheManager.getCacheNames()).contains("ParentHasRootChildrenSU");
+    }
+}
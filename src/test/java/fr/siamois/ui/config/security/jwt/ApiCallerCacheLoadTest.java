@@ -0,0 +1,130 @@
+package fr.siamois.ui.config.security.jwt;
+
+import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.services.InstitutionService;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
+import fr.siamois.mapper.PersonMapper;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays a mobile synchronisation: {@value #THREADS} clients sending {@value #REQUESTS_PER_THREAD} small
+ * {@code /api/v1/**} requests each, for {@value #USERS} users. Every request goes through
+ * {@link JwtAuthenticationFilter} then {@link ProjectApiService#requireCaller()}; the person and institution
+ * lookups stand for the database round trips. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ApiCallerCacheLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 500;
+    private static final int USERS = 20;
+
+    @Test
+    void queriesPerRequest_withoutAndWithTheCallerCache() throws Exception {
+        double uncached = queriesPerRequest(Duration.ZERO);
+        double cached = queriesPerRequest(Duration.ofSeconds(30));
+
+        System.out.printf("%d requests, %d users%n", THREADS * REQUESTS_PER_THREAD, USERS);
+        System.out.printf("  queries per request without cache : %.3f%n", uncached);
+        System.out.printf("  queries per request with cache    : %.3f%n", cached);
+
+        assertThat(uncached).isEqualTo(2.0);
+        assertThat(cached).isLessThan(0.05);
+    }
+
+    private static double queriesPerRequest(Duration ttl) throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+
+        PersonRepository personRepository = mock(PersonRepository.class);
+        when(personRepository.findById(anyLong())).thenAnswer(inv -> {
+            queries.incrementAndGet();
+            Person person = new Person();
+            person.setId(inv.getArgument(0));
+            person.setEnabled(true);
+            return Optional.of(person);
+        });
+        InstitutionService institutionService = mock(InstitutionService.class);
+        when(institutionService.findInstitutionsOfPerson(any())).thenAnswer(inv -> {
+            queries.incrementAndGet();
+            InstitutionDTO institution = new InstitutionDTO();
+            institution.setId(1L);
+            return Set.of(institution);
+        });
+        PersonMapper personMapper = mock(PersonMapper.class);
+        when(personMapper.convert(any(Person.class))).thenAnswer(inv -> {
+            PersonDTO dto = new PersonDTO();
+            dto.setId(((Person) inv.getArgument(0)).getId());
+            return dto;
+        });
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.parseAndValidateAccessToken(anyString())).thenAnswer(inv -> {
+            Claims claims = mock(Claims.class);
+            when(claims.getSubject()).thenReturn(inv.getArgument(0));
+            return claims;
+        });
+
+        JwtProperties properties = new JwtProperties();
+        properties.setCallerCacheTtl(ttl);
+        ApiCallerCache cache = new ApiCallerCache(personRepository, properties);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, cache);
+        ProjectApiService projectApiService = new ProjectApiService(institutionService, null, null, null, null,
+                null, null, null, personMapper, null, null, null, null, null, cache);
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int client = t;
+                runs.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+                        request(filter, projectApiService, (client * REQUESTS_PER_THREAD + r) % USERS + 1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return (double) queries.get() / (THREADS * REQUESTS_PER_THREAD);
+    }
+
+    private static void request(JwtAuthenticationFilter filter, ProjectApiService projectApiService, long personId)
+            throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setServletPath("/api/v1/projects");
+        req.addHeader("Authorization", "Bearer " + personId);
+        try {
+            filter.doFilter(req, new MockHttpServletResponse(), (rq, rs) -> projectApiService.requireCaller());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
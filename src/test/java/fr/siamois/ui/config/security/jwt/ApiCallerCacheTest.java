@@ -0,0 +1,110 @@
+package fr.siamois.ui.config.security.jwt;
+
+import fr.siamois.domain.models.auth.Person;
+import fr.siamois.domain.models.events.PersonAccessChangeEvent;
+import fr.siamois.dto.entity.PersonDTO;
+import fr.siamois.infrastructure.database.repositories.person.PersonRepository;
+import fr.siamois.ui.api.openapi.v1.service.ProjectApiCaller;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiCallerCacheTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private ApiCallerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ApiCallerCache(personRepository, new JwtProperties());
+    }
+
+    private static Supplier<ProjectApiCaller> counting(AtomicInteger loads, long personId) {
+        return () -> {
+            loads.incrementAndGet();
+            PersonDTO person = new PersonDTO();
+            person.setId(personId);
+            return new ProjectApiCaller(person, Set.of(), List.of());
+        };
+    }
+
+    @Test
+    void findPerson_readsThePersonOnce() {
+        Person person = new Person();
+        person.setId(5L);
+        when(personRepository.findById(5L)).thenReturn(Optional.of(person));
+
+        assertThat(cache.findPerson(5L)).contains(person);
+        assertThat(cache.findPerson(5L)).contains(person);
+
+        verify(personRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void findPerson_unknownPerson_isNotKept() {
+        when(personRepository.findById(77L)).thenReturn(Optional.empty());
+
+        assertThat(cache.findPerson(77L)).isEmpty();
+        assertThat(cache.findPerson(77L)).isEmpty();
+
+        verify(personRepository, times(2)).findById(77L);
+    }
+
+    @Test
+    void callerOf_loadsTheScopeOncePerPerson() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.callerOf(5L, counting(loads, 5L));
+        cache.callerOf(5L, counting(loads, 5L));
+        cache.callerOf(6L, counting(loads, 6L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void personAccessChange_evictsOnlyThatPerson() {
+        AtomicInteger loads = new AtomicInteger();
+        Person person = new Person();
+        person.setId(5L);
+        when(personRepository.findById(5L)).thenReturn(Optional.of(person));
+        cache.findPerson(5L);
+        cache.callerOf(5L, counting(loads, 5L));
+        cache.callerOf(6L, counting(loads, 6L));
+
+        cache.onPersonAccessChange(new PersonAccessChangeEvent(this, 5L));
+        cache.findPerson(5L);
+        cache.callerOf(5L, counting(loads, 5L));
+        cache.callerOf(6L, counting(loads, 6L));
+
+        verify(personRepository, times(2)).findById(5L);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void zeroTtl_keepsNothing() {
+        JwtProperties properties = new JwtProperties();
+        properties.setCallerCacheTtl(Duration.ZERO);
+        ApiCallerCache disabled = new ApiCallerCache(personRepository, properties);
+        AtomicInteger loads = new AtomicInteger();
+
+        disabled.callerOf(5L, counting(loads, 5L));
+        disabled.callerOf(5L, counting(loads, 5L));
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -35,7 +35,7 @@ class JwtAuthenticationFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new JwtAuthenticationFilter(jwtService, personRepository);
+        filter = new JwtAuthenticationFilter(jwtService, new ApiCallerCache(personRepository, new JwtProperties()));
         SecurityContextHolder.clearContext();
     }
 
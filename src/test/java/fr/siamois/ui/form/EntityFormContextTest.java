@@ -150,10 +150,6 @@ class EntityFormContextTest {
 
         // build a response containing a spatial-unit-tree answer
         CustomFieldAnswerSelectMultipleSpatialUnitTreeViewModel treeAnswer = mock(CustomFieldAnswerSelectMultipleSpatialUnitTreeViewModel.class);
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         CustomFormResponseViewModel response = new CustomFormResponseViewModel();
         Map<CustomField, CustomFieldAnswerViewModel> answers = new HashMap<>();
         answers.put(mock(CustomField.class), treeAnswer);
@@ -175,6 +171,37 @@ class EntityFormContextTest {
 
     }
 
+    @Test
+    void getNewFieldManager_isPreparedOnFirstUse_andAgainAfterInit() {
+        EntityFormContext<AbstractEntityDTO> ctx = new EntityFormContext<>(
+                unit, fieldSource, formContextServices, conversionService,
+                scopeCallback, "scopeBinding"
+        );
+        CustomFormResponseViewModel first = new CustomFormResponseViewModel();
+        CustomFormResponseViewModel second = new CustomFormResponseViewModel();
+        when(formService.initOrReuseResponse(any(), any(), any(), anyBoolean())).thenReturn(first, second);
+        when(formService.buildEnabledEngine(any())).thenReturn(enabledRulesEngine);
+
+        ctx.init(false);
+
+        // the rows of a table never use it : no query on init
+        verifyNoInteractions(customFieldMeasurementService, unitDefinitionService);
+
+        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
+        when(customFieldMeasurementService.findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
+        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
+        when(unitDefinitionService.findOptions()).thenReturn(List.of());
+
+        NewFieldManagerBean manager = ctx.getNewFieldManager();
+        assertSame(first, manager.getFormResponse());
+        assertSame(manager, ctx.getNewFieldManager());
+        verify(unitDefinitionService, times(1)).findOptions();
+
+        ctx.init(true);
+
+        assertSame(second, ctx.getNewFieldManager().getFormResponse());
+    }
+
 
     @Test
     void getFieldAnswer_returnsNull_whenNoResponseOrAnswers() {
@@ -190,12 +217,8 @@ class EntityFormContextTest {
         CustomFormResponseViewModel r = new CustomFormResponseViewModel();
         r.setAnswers(null);
         // hack: set via init() stubbing
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
         when(formService.initOrReuseResponse(any(), any(), any(), anyBoolean())).thenReturn(r);
         when(formService.buildEnabledEngine(any())).thenReturn(enabledRulesEngine);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
 
         ctx.init(false);
         assertNull(ctx.getFieldAnswer(f));
@@ -228,10 +251,6 @@ class EntityFormContextTest {
 
         CustomFormResponseViewModel response = new CustomFormResponseViewModel();
         response.setAnswers(new HashMap<>(Map.of(field, ans)));
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         when(formService.initOrReuseResponse(any(), any(), any(), anyBoolean())).thenReturn(response);
         when(formService.buildEnabledEngine(any())).thenReturn(enabledRulesEngine);
 
@@ -255,10 +274,6 @@ class EntityFormContextTest {
 
         CustomFormResponseViewModel response = new CustomFormResponseViewModel();
         response.setAnswers(new HashMap<>());
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         when(formService.initOrReuseResponse(any(), any(), any(), anyBoolean())).thenReturn(response);
         when(formService.buildEnabledEngine(any())).thenReturn(enabledRulesEngine);
 
@@ -283,10 +298,6 @@ class EntityFormContextTest {
 
         CustomFormResponseViewModel response = new CustomFormResponseViewModel();
         response.setAnswers(new HashMap<>());
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         when(formService.initOrReuseResponse(any(), any(), any(), anyBoolean())).thenReturn(response);
         when(formService.buildEnabledEngine(any())).thenReturn(enabledRulesEngine);
 
@@ -362,10 +373,6 @@ class EntityFormContextTest {
         );
 
         CustomField scopeField = mock(CustomField.class);
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         when(scopeField.getIsSystemField()).thenReturn(true);
         when(scopeField.getValueBinding()).thenReturn(scopeBinding);
         CustomFieldAnswerSelectOneFromFieldCodeViewModel ans = mock(CustomFieldAnswerSelectOneFromFieldCodeViewModel.class);
@@ -407,10 +414,6 @@ class EntityFormContextTest {
 
         CustomField otherField = mock(CustomField.class);
         when(otherField.getIsSystemField()).thenReturn(true);
-        when(formContextServices.getCustomFieldMeasurementService()).thenReturn(customFieldMeasurementService);
-        when(formContextServices.getCustomFieldMeasurementService().findOptionsForRecordingUnit(any(), anyInt())).thenReturn(List.of());
-        when(formContextServices.getUnitDefinitionService()).thenReturn(unitDefinitionService);
-        when(unitDefinitionService.findOptions()).thenReturn(List.of());
         when(otherField.getValueBinding()).thenReturn("otherBinding");
         CustomFieldAnswerSelectOneFromFieldCodeViewModel ans = mock(CustomFieldAnswerSelectOneFromFieldCodeViewModel.class);
 
@@ -0,0 +1,51 @@
+package fr.siamois.ui.table.viewmodel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedRowContextsTest {
+
+    /** value = true when the row has unsaved modifications */
+    private final BoundedRowContexts<Long, Boolean> contexts = new BoundedRowContexts<>(3, Boolean::booleanValue);
+
+    @Test
+    void put_beyondTheBound_removesTheLeastRecentlyUsedRow() {
+        contexts.put(1L, false);
+        contexts.put(2L, false);
+        contexts.put(3L, false);
+        contexts.get(1L);
+
+        contexts.put(4L, false);
+
+        assertThat(contexts).containsOnlyKeys(1L, 3L, 4L);
+    }
+
+    @Test
+    void put_beyondTheBound_keepsTheRowsBeingEdited() {
+        contexts.put(1L, true);
+        contexts.put(2L, false);
+        contexts.put(3L, false);
+
+        contexts.computeIfAbsent(4L, id -> false);
+
+        assertThat(contexts).containsOnlyKeys(1L, 3L, 4L);
+    }
+
+    @Test
+    void put_whenEveryOtherRowIsEdited_exceedsTheBoundAndKeepsTheNewRow() {
+        contexts.put(1L, true);
+        contexts.put(2L, true);
+        contexts.put(3L, true);
+
+        contexts.put(4L, false);
+
+        assertThat(contexts).containsOnlyKeys(1L, 2L, 3L, 4L);
+
+        // the bound applies again once the rows are no longer edited
+        contexts.put(2L, false);
+        contexts.put(5L, false);
+
+        assertThat(contexts).containsOnlyKeys(1L, 3L, 5L);
+    }
+}
@@ -0,0 +1,120 @@
+package fr.siamois.ui.table.viewmodel;
+
+import fr.siamois.domain.models.form.customfield.CustomField;
+import fr.siamois.domain.models.form.customfield.basetypes.CustomFieldText;
+import fr.siamois.domain.models.form.customform.EnabledWhenJson;
+import fr.siamois.dto.entity.RecordingUnitDTO;
+import fr.siamois.ui.form.EntityFormContext;
+import fr.siamois.ui.form.FormContextServices;
+import fr.siamois.ui.form.dto.CustomColUiDto;
+import fr.siamois.ui.form.dto.CustomFormPanelUiDto;
+import fr.siamois.ui.form.dto.CustomRowUiDto;
+import fr.siamois.ui.form.dto.FormUiDto;
+import fr.siamois.ui.form.fieldsource.FieldSource;
+import fr.siamois.ui.form.fieldsource.TableRowFieldSource;
+import fr.siamois.ui.table.TableDefinition;
+import fr.siamois.ui.table.column.FormFieldColumn;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Heap retained by the row states of a table after browsing 1,000 rows, page by page : one context and one
+ * {@link TableRowFieldSource} per row kept for the life of the table, as before, then the field sources shared by
+ * form and the contexts bounded by {@link EntityTableViewModel#MAX_ROW_CONTEXTS}. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RowContextsMemoryBenchmarkTest {
+
+    private static final int ROWS = 1_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int COLUMNS = 40;
+    private static final int FORM_TYPES = 5;
+
+    // stub only, the invocations of the constructors are not recorded
+    private final FormContextServices services = mock(FormContextServices.class, withSettings().stubOnly());
+    private final TableDefinition table = new TableDefinition();
+    private final List<FormUiDto> forms = new ArrayList<>();
+
+    @Test
+    void retainedHeap_per1000Rows() {
+        List<CustomField> fields = new ArrayList<>();
+        for (long id = 1; id <= COLUMNS; id++) {
+            CustomField field = CustomFieldText.builder().id(id).build();
+            fields.add(field);
+            table.addColumn(FormFieldColumn.builder().field(field).build());
+        }
+        for (int type = 0; type < FORM_TYPES; type++) {
+            forms.add(form(fields));
+        }
+
+        long perRow = retained(() -> browse(new HashMap<>(), form -> new TableRowFieldSource(table, form)));
+        long shared = retained(() -> {
+            Map<FormUiDto, FieldSource> sources = new IdentityHashMap<>();
+            return browse(new BoundedRowContexts<>(EntityTableViewModel.MAX_ROW_CONTEXTS,
+                            EntityFormContext::isHasUnsavedModifications),
+                    form -> sources.computeIfAbsent(form, f -> new TableRowFieldSource(table, f)));
+        });
+
+        System.out.printf("%d rows, %d columns, %d forms%n", ROWS, COLUMNS, FORM_TYPES);
+        System.out.printf("  per row, unbounded : %8d KB%n", perRow / 1024);
+        System.out.printf("  shared, bounded    : %8d KB%n", shared / 1024);
+    }
+
+    private Map<Long, EntityFormContext<RecordingUnitDTO>> browse(Map<Long, EntityFormContext<RecordingUnitDTO>> contexts,
+                                                                   Function<FormUiDto, FieldSource> fieldSources) {
+        for (long page = 0; page < ROWS / PAGE_SIZE; page++) {
+            for (long row = 0; row < PAGE_SIZE; row++) {
+                long id = page * PAGE_SIZE + row;
+                RecordingUnitDTO unit = new RecordingUnitDTO();
+                unit.setId(id);
+                FieldSource fieldSource = fieldSources.apply(forms.get((int) (id % FORM_TYPES)));
+                contexts.computeIfAbsent(id, key ->
+                        new EntityFormContext<>(unit, fieldSource, services, null, null, "type"));
+            }
+        }
+        return contexts;
+    }
+
+    private static long retained(Supplier<Object> states) {
+        long before = usedHeap();
+        Object kept = states.get();
+        long after = usedHeap();
+        assertThat(kept).isNotNull();
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** A form of all the columns, each with an enabled rule */
+    private static FormUiDto form(List<CustomField> fields) {
+        List<CustomColUiDto> columns = new ArrayList<>();
+        for (CustomField field : fields) {
+            CustomColUiDto column = new CustomColUiDto();
+            column.setField(field);
+            column.setEnabledWhenSpec(new EnabledWhenJson());
+            columns.add(column);
+        }
+        CustomRowUiDto row = new CustomRowUiDto();
+        row.setColumns(columns);
+        CustomFormPanelUiDto panel = new CustomFormPanelUiDto();
+        panel.setRows(List.of(row));
+        FormUiDto form = new FormUiDto();
+        form.setLayout(List.of(panel));
+        return form;
+    }
+}
@@ -0,0 +1,85 @@
+package fr.siamois.utils;
+
+import fr.siamois.annotations.ExecutionTimeLogger;
+import fr.siamois.domain.models.UserInfo;
+import fr.siamois.dto.entity.InstitutionDTO;
+import fr.siamois.utils.context.ExecutionContextHolder;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionTimeAspectTest {
+
+    static class TimedService {
+
+        @ExecutionTimeLogger
+        public String search(String input) {
+            return input.toUpperCase();
+        }
+
+        @ExecutionTimeLogger("import")
+        public void seed() {
+            throw new IllegalStateException("boom");
+        }
+
+        public String notTimed() {
+            return "x";
+        }
+    }
+
+    private SimpleMeterRegistry registry;
+    private TimedService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TimedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ExecutionTimeAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ExecutionContextHolder.clear();
+    }
+
+    @Test
+    void success_recordsATimerTaggedByMethodInstitutionAndOutcome() {
+        InstitutionDTO institution = new InstitutionDTO();
+        institution.setId(7L);
+        ExecutionContextHolder.set(new UserInfo(institution, null, "fr"));
+
+        assertThat(service.search("fosse")).isEqualTo("FOSSE");
+
+        Timer timer = registry.find(ExecutionTimeAspect.TIMER_NAME)
+                .tags("method", "TimedService.search", "institution", "7", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void failure_recordsTheErrorOutcomeAndRethrows() {
+        assertThatThrownBy(service::seed).isInstanceOf(IllegalStateException.class);
+
+        Timer timer = registry.find(ExecutionTimeAspect.TIMER_NAME)
+                .tags("method", "import", "institution", ExecutionTimeAspect.NO_INSTITUTION, "outcome", "error")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void methodWithoutAnnotation_isNotTimed() {
+        service.notTimed();
+
+        assertThat(registry.find(ExecutionTimeAspect.TIMER_NAME).timers()).isEmpty();
+    }
+}